@@ -29,11 +29,15 @@ public class VertxOptions {
   public static final int DEFAULT_EVENT_LOOP_POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
   public static final int DEFAULT_WORKER_POOL_SIZE = 20;
   public static final int DEFAULT_INTERNAL_BLOCKING_POOL_SIZE = 20;
+  public static final int DEFAULT_SSL_HANDSHAKE_POOL_SIZE = 0;
+  public static final int DEFAULT_SSL_HANDSHAKE_QUEUE_SIZE = 1000;
+  public static final boolean DEFAULT_DIRECT_BUFFERS = false;
   public static final boolean DEFAULT_CLUSTERED = false;
   public static final String DEFAULT_CLUSTER_HOST = "localhost";
   public static final int DEFAULT_CLUSTER_PORT = 0;
   public static final long DEFAULT_CLUSTER_PING_INTERVAL = 20000;
   public static final long DEFAULT_CLUSTER_PING_REPLY_INTERVAL = 20000;
+  public static final int DEFAULT_CLUSTER_WIRE_PROTOCOL_VERSION = 1;
   public static final long DEFAULT_BLOCKED_THREAD_CHECK_PERIOD = 1000;
   public static final long DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME = 2000l * 1000000;
   public static final long DEFAULT_MAX_WORKER_EXECUTE_TIME = 1l * 60 * 1000 * 1000000;
@@ -44,11 +48,15 @@ public class VertxOptions {
   private int eventLoopPoolSize = DEFAULT_EVENT_LOOP_POOL_SIZE;
   private int workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
   private int internalBlockingPoolSize = DEFAULT_INTERNAL_BLOCKING_POOL_SIZE;
+  private int sslHandshakePoolSize = DEFAULT_SSL_HANDSHAKE_POOL_SIZE;
+  private int sslHandshakeQueueSize = DEFAULT_SSL_HANDSHAKE_QUEUE_SIZE;
+  private boolean directBuffers = DEFAULT_DIRECT_BUFFERS;
   private boolean clustered = DEFAULT_CLUSTERED;
   private String clusterHost = DEFAULT_CLUSTER_HOST;
   private int clusterPort = DEFAULT_CLUSTER_PORT;
   private long clusterPingInterval = DEFAULT_CLUSTER_PING_INTERVAL;
   private long clusterPingReplyInterval = DEFAULT_CLUSTER_PING_REPLY_INTERVAL;
+  private int clusterWireProtocolVersion = DEFAULT_CLUSTER_WIRE_PROTOCOL_VERSION;
   private long blockedThreadCheckPeriod = DEFAULT_BLOCKED_THREAD_CHECK_PERIOD;
   private long maxEventLoopExecuteTime = DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME;
   private long maxWorkerExecuteTime = DEFAULT_MAX_WORKER_EXECUTE_TIME;
@@ -71,10 +79,14 @@ public class VertxOptions {
     this.clusterPort = other.getClusterPort();
     this.clusterPingInterval = other.getClusterPingInterval();
     this.clusterPingReplyInterval = other.getClusterPingReplyInterval();
+    this.clusterWireProtocolVersion = other.getClusterWireProtocolVersion();
     this.blockedThreadCheckPeriod = other.getBlockedThreadCheckPeriod();
     this.maxEventLoopExecuteTime = other.getMaxEventLoopExecuteTime();
     this.maxWorkerExecuteTime = other.getMaxWorkerExecuteTime();
     this.internalBlockingPoolSize = other.getInternalBlockingPoolSize();
+    this.sslHandshakePoolSize = other.getSslHandshakePoolSize();
+    this.sslHandshakeQueueSize = other.getSslHandshakeQueueSize();
+    this.directBuffers = other.isDirectBuffers();
     this.clusterManager = other.getClusterManager();
     this.haEnabled = other.isHAEnabled();
     this.quorumSize = other.getQuorumSize();
@@ -92,7 +104,11 @@ public class VertxOptions {
     this.clusterPort = json.getInteger("clusterPort", DEFAULT_CLUSTER_PORT);
     this.clusterPingInterval = json.getLong("clusterPingInterval", DEFAULT_CLUSTER_PING_INTERVAL);
     this.clusterPingReplyInterval = json.getLong("clusterPingReplyInterval", DEFAULT_CLUSTER_PING_REPLY_INTERVAL);
+    setClusterWireProtocolVersion(json.getInteger("clusterWireProtocolVersion", DEFAULT_CLUSTER_WIRE_PROTOCOL_VERSION));
     this.internalBlockingPoolSize = json.getInteger("internalBlockingPoolSize", DEFAULT_INTERNAL_BLOCKING_POOL_SIZE);
+    this.sslHandshakePoolSize = json.getInteger("sslHandshakePoolSize", DEFAULT_SSL_HANDSHAKE_POOL_SIZE);
+    this.sslHandshakeQueueSize = json.getInteger("sslHandshakeQueueSize", DEFAULT_SSL_HANDSHAKE_QUEUE_SIZE);
+    this.directBuffers = json.getBoolean("directBuffers", DEFAULT_DIRECT_BUFFERS);
     this.blockedThreadCheckPeriod = json.getLong("blockedThreadCheckPeriod", DEFAULT_BLOCKED_THREAD_CHECK_PERIOD);
     this.maxEventLoopExecuteTime = json.getLong("maxEventLoopExecuteTime", DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME);
     this.maxWorkerExecuteTime = json.getLong("maxWorkerExecuteTime", DEFAULT_MAX_WORKER_EXECUTE_TIME);
@@ -182,6 +198,24 @@ public class VertxOptions {
     return this;
   }
 
+  public int getClusterWireProtocolVersion() {
+    return clusterWireProtocolVersion;
+  }
+
+  /**
+   * Set the version of the protocol the clustered event bus writes messages with. Version 2 encodes the lengths of
+   * the strings, the number of headers and the sender port as varints, which makes small messages noticeably
+   * smaller, but nodes running an older release cannot decode it. Every node decodes both versions, so switch to 2
+   * only once the whole cluster has been upgraded. Defaults to 1.
+   */
+  public VertxOptions setClusterWireProtocolVersion(int clusterWireProtocolVersion) {
+    if (clusterWireProtocolVersion < 1 || clusterWireProtocolVersion > 2) {
+      throw new IllegalArgumentException("clusterWireProtocolVersion must be 1 or 2");
+    }
+    this.clusterWireProtocolVersion = clusterWireProtocolVersion;
+    return this;
+  }
+
   public long getBlockedThreadCheckPeriod() {
     return blockedThreadCheckPeriod;
   }
@@ -239,6 +273,65 @@ public class VertxOptions {
     return this;
   }
 
+  public int getSslHandshakePoolSize() {
+    return sslHandshakePoolSize;
+  }
+
+  /**
+   * Set the number of threads running the CPU heavy tasks of TLS handshakes, such as the key exchange and the
+   * certificate checks, instead of the event loops. The default {@code 0} runs them on the event loops.
+   *
+   * @param sslHandshakePoolSize  the number of threads
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setSslHandshakePoolSize(int sslHandshakePoolSize) {
+    if (sslHandshakePoolSize < 0) {
+      throw new IllegalArgumentException("sslHandshakePoolSize must be >= 0");
+    }
+    this.sslHandshakePoolSize = sslHandshakePoolSize;
+    return this;
+  }
+
+  public int getSslHandshakeQueueSize() {
+    return sslHandshakeQueueSize;
+  }
+
+  /**
+   * Set how many handshake tasks can wait for a thread of the TLS handshake pool. When the queue is full, further
+   * tasks run on the event loop of their connection, as they do without the pool.
+   *
+   * @param sslHandshakeQueueSize  the size of the queue
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setSslHandshakeQueueSize(int sslHandshakeQueueSize) {
+    if (sslHandshakeQueueSize < 1) {
+      throw new IllegalArgumentException("sslHandshakeQueueSize must be > 0");
+    }
+    this.sslHandshakeQueueSize = sslHandshakeQueueSize;
+    return this;
+  }
+
+  public boolean isDirectBuffers() {
+    return directBuffers;
+  }
+
+  /**
+   * Set whether the buffers holding the data read from {@link io.vertx.core.net.NetSocket}s, datagram sockets and
+   * {@link io.vertx.core.file.AsyncFile} read streams are allocated in pooled direct memory instead of the heap. Writing
+   * them to a socket or a file then does not copy them to direct memory first, which helps proxies and file servers.<p>
+   * These buffers are pooled buffers: the handler receiving one releases it with
+   * {@link io.vertx.core.buffer.Buffer#release()} once it is not used anymore, its memory is lost for the pool
+   * otherwise. The data of HTTP requests, responses and websockets, which Vert.x parses and aggregates itself, is still
+   * held in heap buffers.
+   *
+   * @param directBuffers  whether to allocate direct buffers
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setDirectBuffers(boolean directBuffers) {
+    this.directBuffers = directBuffers;
+    return this;
+  }
+
   public boolean isHAEnabled() {
     return haEnabled;
   }
@@ -306,10 +399,14 @@ public class VertxOptions {
 
     if (blockedThreadCheckPeriod != that.blockedThreadCheckPeriod) return false;
     if (clusterPort != that.clusterPort) return false;
+    if (clusterWireProtocolVersion != that.clusterWireProtocolVersion) return false;
     if (clustered != that.clustered) return false;
     if (eventLoopPoolSize != that.eventLoopPoolSize) return false;
     if (haEnabled != that.haEnabled) return false;
     if (internalBlockingPoolSize != that.internalBlockingPoolSize) return false;
+    if (sslHandshakePoolSize != that.sslHandshakePoolSize) return false;
+    if (sslHandshakeQueueSize != that.sslHandshakeQueueSize) return false;
+    if (directBuffers != that.directBuffers) return false;
     if (maxEventLoopExecuteTime != that.maxEventLoopExecuteTime) return false;
     if (maxWorkerExecuteTime != that.maxWorkerExecuteTime) return false;
     if (quorumSize != that.quorumSize) return false;
@@ -327,9 +424,13 @@ public class VertxOptions {
     int result = eventLoopPoolSize;
     result = 31 * result + workerPoolSize;
     result = 31 * result + internalBlockingPoolSize;
+    result = 31 * result + sslHandshakePoolSize;
+    result = 31 * result + sslHandshakeQueueSize;
+    result = 31 * result + (directBuffers ? 1 : 0);
     result = 31 * result + (clustered ? 1 : 0);
     result = 31 * result + (clusterHost != null ? clusterHost.hashCode() : 0);
     result = 31 * result + clusterPort;
+    result = 31 * result + clusterWireProtocolVersion;
     result = 31 * result + (int) (blockedThreadCheckPeriod ^ (blockedThreadCheckPeriod >>> 32));
     result = 31 * result + (int) (maxEventLoopExecuteTime ^ (maxEventLoopExecuteTime >>> 32));
     result = 31 * result + (int) (maxWorkerExecuteTime ^ (maxWorkerExecuteTime >>> 32));
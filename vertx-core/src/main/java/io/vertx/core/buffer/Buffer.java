@@ -73,6 +73,67 @@ public interface Buffer extends ClusterSerializable {
     return factory.buffer(byteBuf);
   }
 
+  /**
+   * Create a pooled buffer over a {@code ByteBuf} allocated from a pool, {@link #release()} releases the
+   * {@code ByteBuf}.<p>
+   * This method is meant for internal use only.
+   */
+  @GenIgnore
+  static Buffer pooledBuffer(ByteBuf byteBuf) {
+    return factory.pooledBuffer(byteBuf);
+  }
+
+  /**
+   * Create a buffer allocated in direct memory instead of the heap. Writing it to a socket or a file does not copy it
+   * to direct memory first, it suits the data which is mostly written as is. Its memory is freed once it is garbage
+   * collected.
+   *
+   * @param initialSizeHint  the hint, in bytes, of the size of the buffer
+   * @return the buffer
+   */
+  static Buffer directBuffer(int initialSizeHint) {
+    return factory.directBuffer(initialSizeHint);
+  }
+
+  /**
+   * Create a buffer allocated from a pool instead of the heap. The memory of the buffer returns to the pool when
+   * {@link #release()} is called, and it is lost for the pool if the buffer is never released.<p>
+   * A pooled buffer must only be released once it is not used anymore, including the writes of the buffer to a
+   * {@link io.vertx.core.streams.WriteStream} and the slices of the buffer. Its copies are not pooled.
+   *
+   * @param initialSizeHint  the hint, in bytes, of the size of the buffer
+   * @return the buffer
+   */
+  static Buffer pooledBuffer(int initialSizeHint) {
+    return factory.pooledBuffer(initialSizeHint);
+  }
+
+  /**
+   * Create a buffer appending the buffers passed to {@link #appendBuffer} by reference instead of copying their bytes,
+   * so a buffer built from many chunks does not copy them again each time it grows. Writing it to a socket or an HTTP
+   * response does not copy it either.<p>
+   * The appended buffers share their memory with this buffer, they must not be modified afterwards.
+   *
+   * @return the buffer
+   */
+  static Buffer compositeBuffer() {
+    return factory.compositeBuffer();
+  }
+
+  /**
+   * Returns the number of bytes of {@code i} appended as a varint by {@link #appendVarInt(int)}.
+   */
+  static int varIntLength(int i) {
+    return (38 - Integer.numberOfLeadingZeros(i | 1)) / 7;
+  }
+
+  /**
+   * Returns the number of bytes of {@code l} appended as a varint by {@link #appendVarLong(long)}.
+   */
+  static int varLongLength(long l) {
+    return (70 - Long.numberOfLeadingZeros(l | 1)) / 7;
+  }
+
   /**
    * Returns a {@code String} representation of the Buffer with the encoding specified by {@code enc}
    */
@@ -120,6 +181,66 @@ public interface Buffer extends ClusterSerializable {
    */
   short getShort(int pos);
 
+  /**
+   * Returns the unsigned {@code byte} at position {@code pos} in the Buffer, as a {@code short}.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 1} is greater than the length of the Buffer.
+   */
+  short getUnsignedByte(int pos);
+
+  /**
+   * Returns the unsigned {@code short} at position {@code pos} in the Buffer, as an {@code int}.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 2} is greater than the length of the Buffer.
+   */
+  int getUnsignedShort(int pos);
+
+  /**
+   * Returns the unsigned {@code int} at position {@code pos} in the Buffer, as a {@code long}.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 4} is greater than the length of the Buffer.
+   */
+  long getUnsignedInt(int pos);
+
+  /**
+   * Returns the {@code short} at position {@code pos} in the Buffer, in little-endian byte order.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 2} is greater than the length of the Buffer.
+   */
+  short getShortLE(int pos);
+
+  /**
+   * Returns the {@code int} at position {@code pos} in the Buffer, in little-endian byte order.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 4} is greater than the length of the Buffer.
+   */
+  int getIntLE(int pos);
+
+  /**
+   * Returns the {@code long} at position {@code pos} in the Buffer, in little-endian byte order.
+   *
+   * @throws IndexOutOfBoundsException if the specified {@code pos} is less than {@code 0} or {@code pos + 8} is greater than the length of the Buffer.
+   */
+  long getLongLE(int pos);
+
+  /**
+   * Returns the {@code int} appended as a varint by {@link #appendVarInt(int)} at position {@code pos} in the Buffer.
+   * It spans {@link #varIntLength(int)} bytes.
+   *
+   * @throws IndexOutOfBoundsException if the varint ends after the end of the Buffer.
+   * @throws IllegalStateException if the varint is longer than 5 bytes.
+   */
+  int getVarInt(int pos);
+
+  /**
+   * Returns the {@code long} appended as a varint by {@link #appendVarLong(long)} at position {@code pos} in the
+   * Buffer. It spans {@link #varLongLength(long)} bytes.
+   *
+   * @throws IndexOutOfBoundsException if the varint ends after the end of the Buffer.
+   * @throws IllegalStateException if the varint is longer than 10 bytes.
+   */
+  long getVarLong(int pos);
+
   /**
    * Returns a copy of the entire Buffer as a {@code byte[]}
    */
@@ -133,6 +254,17 @@ public interface Buffer extends ClusterSerializable {
   @GenIgnore
   byte[] getBytes(int start, int end);
 
+  /**
+   * Copies {@code len} bytes of the Buffer starting at position {@code pos} into {@code dst} starting at
+   * {@code dstIndex}.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   *
+   * @throws IndexOutOfBoundsException if the bytes are not all in the Buffer or do not fit in {@code dst}.
+   */
+  @GenIgnore
+  @Fluent
+  Buffer getBytes(int pos, byte[] dst, int dstIndex, int len);
+
   /**
    * Returns a copy of a sub-sequence the Buffer as a {@link Buffer} starting at position {@code start}
    * and ending at position {@code end - 1}
@@ -226,6 +358,67 @@ public interface Buffer extends ClusterSerializable {
   @Fluent
   Buffer appendDouble(double d);
 
+  /**
+   * Appends the specified unsigned {@code byte} to the end of the Buffer. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendUnsignedByte(short b);
+
+  /**
+   * Appends the specified unsigned {@code short} to the end of the Buffer. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendUnsignedShort(int s);
+
+  /**
+   * Appends the specified unsigned {@code int} to the end of the Buffer. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendUnsignedInt(long i);
+
+  /**
+   * Appends the specified {@code short} to the end of the Buffer in little-endian byte order. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendShortLE(short s);
+
+  /**
+   * Appends the specified {@code int} to the end of the Buffer in little-endian byte order. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendIntLE(int i);
+
+  /**
+   * Appends the specified {@code long} to the end of the Buffer in little-endian byte order. The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendLongLE(long l);
+
+  /**
+   * Appends the specified {@code int} to the end of the Buffer as a varint: 7 bits per byte, least significant bits
+   * first, the high bit of each byte telling whether another byte follows. Small values take fewer bytes, from 1 byte
+   * below 128 to 5 bytes for negative values, which should be zig-zag encoded first when they are common.
+   * The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendVarInt(int i);
+
+  /**
+   * Appends the specified {@code long} to the end of the Buffer as a varint, like {@link #appendVarInt(int)} but
+   * taking up to 10 bytes.
+   * The buffer will expand as necessary to accommodate any bytes written.<p>
+   * Returns a reference to {@code this} so multiple operations can be appended together.
+   */
+  @Fluent
+  Buffer appendVarLong(long l);
+
   /**
    * Appends the specified {@code String} to the end of the Buffer with the encoding as specified by {@code enc}.<p>
    * The buffer will expand as necessary to accommodate any bytes written.<p>
@@ -284,6 +477,27 @@ public interface Buffer extends ClusterSerializable {
   @Fluent
   Buffer setShort(int pos, short s);
 
+  /**
+   * Sets the {@code short} at position {@code pos} in the Buffer to the value {@code s} in little-endian byte order.<p>
+   * The buffer will expand as necessary to accommodate any value written.
+   */
+  @Fluent
+  Buffer setShortLE(int pos, short s);
+
+  /**
+   * Sets the {@code int} at position {@code pos} in the Buffer to the value {@code i} in little-endian byte order.<p>
+   * The buffer will expand as necessary to accommodate any value written.
+   */
+  @Fluent
+  Buffer setIntLE(int pos, int i);
+
+  /**
+   * Sets the {@code long} at position {@code pos} in the Buffer to the value {@code l} in little-endian byte order.<p>
+   * The buffer will expand as necessary to accommodate any value written.
+   */
+  @Fluent
+  Buffer setLongLE(int pos, long l);
+
   /**
    * Sets the bytes at position {@code pos} in the Buffer to the bytes represented by the {@code Buffer b}.<p>
    * The buffer will expand as necessary to accommodate any value written.
@@ -361,6 +575,20 @@ public interface Buffer extends ClusterSerializable {
    */
   Buffer slice(int start, int end);
 
+  /**
+   * Returns a read-only view of the bytes of this buffer from {@code start} to {@code end}, without copying them.
+   * The view shares its content with this buffer, the changes of the content of this buffer are visible through
+   * the view, so this buffer must not be modified while the view is used. Modifying the view or appending to it
+   * throws an exception.
+   */
+  Buffer readOnlySlice(int start, int end);
+
+  /**
+   * Returns the memory of a buffer created with {@link #pooledBuffer(int)} to the pool, the buffer cannot be used
+   * afterwards. Does nothing for other buffers.
+   */
+  void release();
+
   /**
    * Returns the Buffer as a Netty {@code ByteBuf}.<p>
    * This method is meant for internal use only.
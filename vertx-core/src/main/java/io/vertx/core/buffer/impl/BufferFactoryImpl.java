@@ -17,6 +17,8 @@
 package io.vertx.core.buffer.impl;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.spi.BufferFactory;
 
@@ -54,4 +56,24 @@ public class BufferFactoryImpl implements BufferFactory {
   public Buffer buffer(ByteBuf byteBuffer) {
     return new BufferImpl(byteBuffer);
   }
+
+  @Override
+  public Buffer directBuffer(int initialSizeHint) {
+    return new BufferImpl(Unpooled.directBuffer(initialSizeHint, Integer.MAX_VALUE));
+  }
+
+  @Override
+  public Buffer pooledBuffer(int initialSizeHint) {
+    return new BufferImpl(PooledByteBufAllocator.DEFAULT.heapBuffer(initialSizeHint, Integer.MAX_VALUE), true);
+  }
+
+  @Override
+  public Buffer pooledBuffer(ByteBuf byteBuf) {
+    return new BufferImpl(byteBuf, true);
+  }
+
+  @Override
+  public Buffer compositeBuffer() {
+    return new BufferImpl(Unpooled.compositeBuffer(Integer.MAX_VALUE));
+  }
 }
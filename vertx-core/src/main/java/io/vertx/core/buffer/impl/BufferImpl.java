@@ -17,12 +17,15 @@ package io.vertx.core.buffer.impl;
 
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.ReadOnlyByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.impl.Arguments;
 
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.charset.Charset;
 import java.util.Objects;
 
@@ -32,6 +35,8 @@ import java.util.Objects;
 public class BufferImpl implements Buffer {
 
   private ByteBuf buffer;
+  private ByteBuf pooled;
+  private CompositeByteBuf composite;
 
   BufferImpl() {
     this(0);
@@ -57,6 +62,18 @@ public class BufferImpl implements Buffer {
     this.buffer = Unpooled.unreleasableBuffer(buffer);
   }
 
+  BufferImpl(CompositeByteBuf composite) {
+    this((ByteBuf) composite);
+    this.composite = composite;
+  }
+
+  BufferImpl(ByteBuf buffer, boolean pooled) {
+    this(buffer);
+    if (pooled) {
+      this.pooled = buffer;
+    }
+  }
+
   public String toString() {
     return buffer.toString(Charset.forName("UTF-8"));
   }
@@ -89,6 +106,54 @@ public class BufferImpl implements Buffer {
     return buffer.getShort(pos);
   }
 
+  public short getUnsignedByte(int pos) {
+    return buffer.getUnsignedByte(pos);
+  }
+
+  public int getUnsignedShort(int pos) {
+    return buffer.getUnsignedShort(pos);
+  }
+
+  public long getUnsignedInt(int pos) {
+    return buffer.getUnsignedInt(pos);
+  }
+
+  public short getShortLE(int pos) {
+    return Short.reverseBytes(buffer.getShort(pos));
+  }
+
+  public int getIntLE(int pos) {
+    return Integer.reverseBytes(buffer.getInt(pos));
+  }
+
+  public long getLongLE(int pos) {
+    return Long.reverseBytes(buffer.getLong(pos));
+  }
+
+  public int getVarInt(int pos) {
+    int i = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buffer.getByte(pos++);
+      i |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Malformed varint");
+  }
+
+  public long getVarLong(int pos) {
+    long l = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.getByte(pos++);
+      l |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return l;
+      }
+    }
+    throw new IllegalStateException("Malformed varint");
+  }
+
   public byte[] getBytes() {
     byte[] arr = new byte[buffer.writerIndex()];
     buffer.getBytes(0, arr);
@@ -102,23 +167,33 @@ public class BufferImpl implements Buffer {
     return arr;
   }
 
+  public Buffer getBytes(int pos, byte[] dst, int dstIndex, int len) {
+    buffer.getBytes(pos, dst, dstIndex, len);
+    return this;
+  }
+
   public Buffer getBuffer(int start, int end) {
     return new BufferImpl(getBytes(start, end));
   }
 
   public String getString(int start, int end, String enc) {
-    byte[] bytes = getBytes(start, end);
-    Charset cs = Charset.forName(enc);
-    return new String(bytes, cs);
+    return getString(start, end, Charset.forName(enc));
   }
 
   public String getString(int start, int end) {
-    byte[] bytes = getBytes(start, end);
-    Charset cs = Charset.forName("UTF-8");
-    return new String(bytes, cs);
+    return getString(start, end, CharsetUtil.UTF_8);
+  }
+
+  private String getString(int start, int end, Charset cs) {
+    Arguments.require(end >= start, "end must be greater or equal than start");
+    // Decodes the bytes in place instead of copying them to an array first
+    return buffer.toString(start, end - start, cs);
   }
 
   public Buffer appendBuffer(Buffer buff) {
+    if (composite != null) {
+      return appendComponent(buff.getByteBuf());
+    }
     ByteBuf cb = buff.getByteBuf();
     buffer.writeBytes(buff.getByteBuf());
     cb.readerIndex(0); // Need to reset readerindex since Netty write modifies readerIndex of source!
@@ -126,6 +201,9 @@ public class BufferImpl implements Buffer {
   }
 
   public Buffer appendBuffer(Buffer buff, int offset, int len) {
+    if (composite != null) {
+      return appendComponent(buff.getByteBuf().slice(offset, len));
+    }
     buffer.writeBytes(buff.getByteBuf(), offset, len);
     return this;
   }
@@ -170,6 +248,54 @@ public class BufferImpl implements Buffer {
     return this;
   }
 
+  public Buffer appendUnsignedByte(short b) {
+    buffer.writeByte(b);
+    return this;
+  }
+
+  public Buffer appendUnsignedShort(int s) {
+    buffer.writeShort(s);
+    return this;
+  }
+
+  public Buffer appendUnsignedInt(long i) {
+    buffer.writeInt((int) i);
+    return this;
+  }
+
+  public Buffer appendShortLE(short s) {
+    buffer.writeShort(Short.reverseBytes(s));
+    return this;
+  }
+
+  public Buffer appendIntLE(int i) {
+    buffer.writeInt(Integer.reverseBytes(i));
+    return this;
+  }
+
+  public Buffer appendLongLE(long l) {
+    buffer.writeLong(Long.reverseBytes(l));
+    return this;
+  }
+
+  public Buffer appendVarInt(int i) {
+    while ((i & ~0x7F) != 0) {
+      buffer.writeByte((i & 0x7F) | 0x80);
+      i >>>= 7;
+    }
+    buffer.writeByte(i);
+    return this;
+  }
+
+  public Buffer appendVarLong(long l) {
+    while ((l & ~0x7FL) != 0) {
+      buffer.writeByte((int) (l & 0x7F) | 0x80);
+      l >>>= 7;
+    }
+    buffer.writeByte((int) l);
+    return this;
+  }
+
   public Buffer appendString(String str, String enc) {
     return append(str, Charset.forName(Objects.requireNonNull(enc)));
   }
@@ -214,6 +340,24 @@ public class BufferImpl implements Buffer {
     return this;
   }
 
+  public Buffer setShortLE(int pos, short s) {
+    ensureWritable(pos, 2);
+    buffer.setShort(pos, Short.reverseBytes(s));
+    return this;
+  }
+
+  public Buffer setIntLE(int pos, int i) {
+    ensureWritable(pos, 4);
+    buffer.setInt(pos, Integer.reverseBytes(i));
+    return this;
+  }
+
+  public Buffer setLongLE(int pos, long l) {
+    ensureWritable(pos, 8);
+    buffer.setLong(pos, Long.reverseBytes(l));
+    return this;
+  }
+
   public Buffer setBuffer(int pos, Buffer b) {
     ensureWritable(pos, b.length());
     buffer.setBytes(pos, b.getByteBuf());
@@ -257,7 +401,8 @@ public class BufferImpl implements Buffer {
   }
 
   public Buffer copy() {
-    return new BufferImpl(buffer.copy());
+    // The copy of a pooled buffer would be allocated from the pool and never released
+    return pooled != null ? new BufferImpl(getBytes()) : new BufferImpl(buffer.copy());
   }
 
   public Buffer slice() {
@@ -268,12 +413,35 @@ public class BufferImpl implements Buffer {
     return new BufferImpl(buffer.slice(start, end - start));
   }
 
+  public Buffer readOnlySlice(int start, int end) {
+    Arguments.require(end >= start, "end must be greater or equal than start");
+    return new BufferImpl(new ReadOnlyView(buffer.slice(start, end - start)));
+  }
+
+  public void release() {
+    if (pooled != null) {
+      ByteBuf released = pooled;
+      pooled = null;
+      released.release();
+    }
+  }
+
   public ByteBuf getByteBuf() {
     // Return a duplicate so the Buffer can be written multiple times.
     // See #648
     return buffer.duplicate();
   }
 
+  private Buffer appendComponent(ByteBuf buf) {
+    // The room added by the previous writes must not end up between the appended bytes
+    if (composite.capacity() > composite.writerIndex()) {
+      composite.capacity(composite.writerIndex());
+    }
+    composite.addComponent(buf);
+    composite.writerIndex(composite.writerIndex() + buf.readableBytes());
+    return this;
+  }
+
   private Buffer append(String str, Charset charset) {
     byte[] bytes = str.getBytes(charset);
     buffer.writeBytes(bytes);
@@ -324,4 +492,20 @@ public class BufferImpl implements Buffer {
   public void readFromBuffer(Buffer buffer) {
     this.buffer = buffer.getByteBuf();
   }
+
+  // Appending to a read-only view fails as modifying it does, not with an index out of bounds
+  private static final class ReadOnlyView extends ReadOnlyByteBuf {
+
+    ReadOnlyView(ByteBuf buffer) {
+      super(buffer);
+    }
+
+    @Override
+    public ByteBuf ensureWritable(int minWritableBytes) {
+      if (minWritableBytes > 0) {
+        throw new ReadOnlyBufferException();
+      }
+      return this;
+    }
+  }
 }
@@ -55,6 +55,9 @@ final class DatagramServerHandler extends VertxHandler<DatagramSocketImpl> {
     if (msg instanceof DatagramPacket) {
       DatagramPacket packet = (DatagramPacket) msg;
       ByteBuf content = packet.content();
+      if (vertx.isDirectBuffers()) {
+        return new DatagramPacketImpl(packet.sender(), Buffer.pooledBuffer(pooledDirectBuffer(content)));
+      }
       if (content.isDirect())  {
         content = safeBuffer(content, allocator);
       }
@@ -114,6 +114,7 @@ public class EventBusImpl implements EventBus {
   private final VertxInternal vertx;
   private final long pingInterval;
   private final long pingReplyInterval;
+  private final byte wireProtocolVersion;
   private ServerID serverID;
   private NetServer server;
   private AsyncMultiMap<String, ServerID> subs;
@@ -132,6 +133,7 @@ public class EventBusImpl implements EventBus {
     this.vertx = vertx;
     this.pingInterval = -1;
     this.pingReplyInterval = -1;
+    this.wireProtocolVersion = MessageImpl.DEFAULT_WIRE_PROTOCOL_VERSION;
     this.serverID = new ServerID(-1, "localhost");
     this.server = null;
     this.subs = null;
@@ -140,13 +142,14 @@ public class EventBusImpl implements EventBus {
     putSystemCodecs();
   }
 
-  public EventBusImpl(VertxInternal vertx, long pingInterval, long pingReplyInterval, int port, String hostname, ClusterManager clusterManager,
-                      Handler<AsyncResult<Void>> listenHandler) {
+  public EventBusImpl(VertxInternal vertx, long pingInterval, long pingReplyInterval, int wireProtocolVersion, int port,
+                      String hostname, ClusterManager clusterManager, Handler<AsyncResult<Void>> listenHandler) {
     this.vertx = vertx;
     this.clusterMgr = clusterManager;
     this.metrics = vertx.metricsSPI().createMetrics(this);
     this.pingInterval = pingInterval;
     this.pingReplyInterval = pingReplyInterval;
+    this.wireProtocolVersion = (byte) wireProtocolVersion;
     clusterMgr.<String, ServerID>getAsyncMultiMap("subs", null, ar -> {
       if (ar.succeeded()) {
         subs = ar.result();
@@ -232,6 +235,15 @@ public class EventBusImpl implements EventBus {
     return new HandlerRegistration<>(address, false, true, -1);
   }
 
+  /**
+   * Register a local handler bound to the given context, whatever the thread this is called from.
+   */
+  public <T> MessageConsumer<T> localConsumer(String address, ContextImpl context, Handler<Message<T>> handler) {
+    Objects.requireNonNull(address, "address");
+    Objects.requireNonNull(context, "context");
+    return new HandlerRegistration<T>(address, false, true, -1, context).handler(handler);
+  }
+
   @Override
   public EventBus registerCodec(MessageCodec codec) {
     Objects.requireNonNull(codec, "codec");
@@ -573,7 +585,7 @@ public class EventBusImpl implements EventBus {
     checkStarted();
     Objects.requireNonNull(address, "address");
     Objects.requireNonNull(registration.handler, "handler");
-    ContextImpl context = vertx.getContext();
+    ContextImpl context = registration.context != null ? registration.context : vertx.getContext();
     boolean hasContext = context != null;
     if (!hasContext) {
       // Embedded
@@ -714,7 +726,7 @@ public class EventBusImpl implements EventBus {
         cleanupConnection(holder.theServerID, holder, true);
       });
       MessageImpl pingMessage = new MessageImpl<>(serverID, PING_ADDRESS, null, null, null, new PingMessageCodec(), true);
-      holder.socket.write(pingMessage.encodeToWire());
+      holder.socket.write(pingMessage.encodeToWire(wireProtocolVersion));
     });
   }
 
@@ -851,11 +863,11 @@ public class EventBusImpl implements EventBus {
 
     void writeMessage(MessageImpl message) {
       if (connected) {
-        socket.write(message.encodeToWire());
+        socket.write(message.encodeToWire(wireProtocolVersion));
       } else {
         synchronized (this) {
           if (connected) {
-            socket.write(message.encodeToWire());
+            socket.write(message.encodeToWire(wireProtocolVersion));
           } else {
             pending.add(message);
           }
@@ -877,7 +889,7 @@ public class EventBusImpl implements EventBus {
       // Start a pinger
       schedulePing(ConnectionHolder.this);
       for (MessageImpl message : pending) {
-        socket.write(message.encodeToWire());
+        socket.write(message.encodeToWire(wireProtocolVersion));
       }
       pending.clear();
     }
@@ -967,6 +979,7 @@ public class EventBusImpl implements EventBus {
     private final boolean replyHandler;
     private final boolean localOnly;
     private final long timeoutID;
+    private final ContextImpl context;
     private Handler<Message<T>> handler;
     private AsyncResult<Void> result;
     private Handler<AsyncResult<Void>> completionHandler;
@@ -978,10 +991,15 @@ public class EventBusImpl implements EventBus {
     private boolean paused;
 
     public HandlerRegistration(String address, boolean replyHandler, boolean localOnly, long timeoutID) {
+      this(address, replyHandler, localOnly, timeoutID, null);
+    }
+
+    private HandlerRegistration(String address, boolean replyHandler, boolean localOnly, long timeoutID, ContextImpl context) {
       this.address = address;
       this.replyHandler = replyHandler;
       this.localOnly = localOnly;
       this.timeoutID = timeoutID;
+      this.context = context;
     }
 
     @Override
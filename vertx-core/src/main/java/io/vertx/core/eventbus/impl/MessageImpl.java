@@ -42,7 +42,10 @@ public class MessageImpl<U, V> implements Message<V> {
 
   private static final Logger log = LoggerFactory.getLogger(MessageImpl.class);
 
-  private static final byte WIRE_PROTOCOL_VERSION = 1;
+  // Version 2 writes the lengths, the number of headers and the sender port as varints, version 1 as 4 bytes ints.
+  // Nodes of older releases only decode version 1, so it stays the default
+  static final byte DEFAULT_WIRE_PROTOCOL_VERSION = 1;
+  static final byte MAX_WIRE_PROTOCOL_VERSION = 2;
 
   private NetSocket socket;
   private EventBusImpl bus;
@@ -55,6 +58,7 @@ public class MessageImpl<U, V> implements Message<V> {
   private MessageCodec<U, V> messageCodec;
   private boolean send;
   private Buffer wireBuffer;
+  private byte wireProtocolVersion;
   private int bodyPos;
   private int headersPos;
 
@@ -92,6 +96,7 @@ public class MessageImpl<U, V> implements Message<V> {
       this.receivedBody = messageCodec.transform(other.sentBody);
     } else {
       this.wireBuffer = other.wireBuffer;
+      this.wireProtocolVersion = other.wireProtocolVersion;
       this.bodyPos = other.bodyPos;
       this.headersPos = other.headersPos;
     }
@@ -142,26 +147,33 @@ public class MessageImpl<U, V> implements Message<V> {
   }
 
   public Buffer encodeToWire() {
+    return encodeToWire(DEFAULT_WIRE_PROTOCOL_VERSION);
+  }
+
+  public Buffer encodeToWire(byte protocolVersion) {
+    if (protocolVersion < 1 || protocolVersion > MAX_WIRE_PROTOCOL_VERSION) {
+      throw new IllegalArgumentException("Invalid wire protocol version " + protocolVersion);
+    }
     int length = 1024; // TODO make this configurable
     Buffer buffer = Buffer.buffer(length);
     buffer.appendInt(0);
-    buffer.appendByte(WIRE_PROTOCOL_VERSION);
+    buffer.appendByte(protocolVersion);
     byte systemCodecID = messageCodec.systemCodecID();
     buffer.appendByte(systemCodecID);
     if (systemCodecID == -1) {
       // User codec
-      writeString(buffer, messageCodec.name());
+      writeString(buffer, messageCodec.name(), protocolVersion);
     }
     buffer.appendByte(send ? (byte)0 : (byte)1);
-    writeString(buffer, address);
+    writeString(buffer, address, protocolVersion);
     if (replyAddress != null) {
-      writeString(buffer, replyAddress);
+      writeString(buffer, replyAddress, protocolVersion);
     } else {
-      buffer.appendInt(0);
+      writeInt(buffer, 0, protocolVersion);
     }
-    buffer.appendInt(sender.port);
-    writeString(buffer, sender.host);
-    encodeHeaders(buffer);
+    writeInt(buffer, sender.port, protocolVersion);
+    writeString(buffer, sender.host, protocolVersion);
+    encodeHeaders(buffer, protocolVersion);
     writeBody(buffer);
     buffer.setInt(0, buffer.length() - 4);
 //    if (buffer.length()> length) {
@@ -174,19 +186,19 @@ public class MessageImpl<U, V> implements Message<V> {
     int pos = 0;
     // Overall Length already read when passed in here
     byte protocolVersion = buffer.getByte(pos);
-    if (protocolVersion > WIRE_PROTOCOL_VERSION) {
+    if (protocolVersion > MAX_WIRE_PROTOCOL_VERSION) {
       throw new IllegalStateException("Invalid wire protocol version " + protocolVersion +
-                                      " should be <= " + WIRE_PROTOCOL_VERSION);
+                                      " should be <= " + MAX_WIRE_PROTOCOL_VERSION);
     }
+    wireProtocolVersion = protocolVersion;
     pos++;
     byte systemCodecCode = buffer.getByte(pos);
     pos++;
     if (systemCodecCode == -1) {
       // User codec
-      int length = buffer.getInt(pos);
-      pos += 4;
-      byte[] bytes = buffer.getBytes(pos, pos + length);
-      String codecName = new String(bytes, CharsetUtil.UTF_8);
+      int length = readInt(buffer, pos);
+      pos += intLength(length);
+      String codecName = buffer.getString(pos, pos + length);
       messageCodec = codecMap.get(codecName);
       if (messageCodec == null) {
         throw new IllegalStateException("No message codec registered with name " + codecName);
@@ -198,24 +210,21 @@ public class MessageImpl<U, V> implements Message<V> {
     byte bsend = buffer.getByte(pos);
     send = bsend == 0;
     pos++;
-    int length = buffer.getInt(pos);
-    pos += 4;
-    byte[] bytes = buffer.getBytes(pos, pos + length);
-    address = new String(bytes, CharsetUtil.UTF_8);
+    int length = readInt(buffer, pos);
+    pos += intLength(length);
+    address = buffer.getString(pos, pos + length);
     pos += length;
-    length = buffer.getInt(pos);
-    pos += 4;
+    length = readInt(buffer, pos);
+    pos += intLength(length);
     if (length != 0) {
-      bytes = buffer.getBytes(pos, pos + length);
-      replyAddress = new String(bytes, CharsetUtil.UTF_8);
+      replyAddress = buffer.getString(pos, pos + length);
       pos += length;
     }
-    int senderPort = buffer.getInt(pos);
-    pos += 4;
-    length = buffer.getInt(pos);
-    pos += 4;
-    bytes = buffer.getBytes(pos, pos + length);
-    String senderHost = new String(bytes, CharsetUtil.UTF_8);
+    int senderPort = readInt(buffer, pos);
+    pos += intLength(senderPort);
+    length = readInt(buffer, pos);
+    pos += intLength(length);
+    String senderHost = buffer.getString(pos, pos + length);
     pos += length;
     headersPos = pos;
     int headersLength = buffer.getInt(pos);
@@ -226,20 +235,37 @@ public class MessageImpl<U, V> implements Message<V> {
     this.socket = socket;
   }
 
+  private int readInt(Buffer buffer, int pos) {
+    return wireProtocolVersion == 1 ? buffer.getInt(pos) : buffer.getVarInt(pos);
+  }
+
+  private int intLength(int i) {
+    return wireProtocolVersion == 1 ? 4 : Buffer.varIntLength(i);
+  }
+
+  private void writeInt(Buffer buffer, int i, byte protocolVersion) {
+    if (protocolVersion == 1) {
+      buffer.appendInt(i);
+    } else {
+      buffer.appendVarInt(i);
+    }
+  }
+
   private void decodeBody() {
     receivedBody = messageCodec.decodeFromWire(bodyPos, wireBuffer);
     bodyPos = 0;
   }
 
-  private void encodeHeaders(Buffer buffer) {
+  private void encodeHeaders(Buffer buffer, byte protocolVersion) {
     if (headers != null && !headers.isEmpty()) {
       int headersLengthPos = buffer.length();
       buffer.appendInt(0);
-      buffer.appendInt(headers.size());
       List<Map.Entry<String, String>> entries = headers.entries();
+      // size() counts the names, a name can have several values
+      writeInt(buffer, entries.size(), protocolVersion);
       for (Map.Entry<String, String> entry: entries) {
-        writeString(buffer, entry.getKey());
-        writeString(buffer, entry.getValue());
+        writeString(buffer, entry.getKey(), protocolVersion);
+        writeString(buffer, entry.getValue(), protocolVersion);
       }
       int headersEndPos = buffer.length();
       buffer.setInt(headersLengthPos, headersEndPos - headersLengthPos);
@@ -250,21 +276,20 @@ public class MessageImpl<U, V> implements Message<V> {
 
   private void decodeHeaders() {
     int length = wireBuffer.getInt(headersPos);
-    if (length != 0) {
-      headersPos += 4;
-      int numHeaders = wireBuffer.getInt(headersPos);
+    // The length includes itself
+    if (length > 4) {
       headersPos += 4;
+      int numHeaders = readInt(wireBuffer, headersPos);
+      headersPos += intLength(numHeaders);
       headers = new CaseInsensitiveHeaders();
       for (int i = 0; i < numHeaders; i++) {
-        int keyLength = wireBuffer.getInt(headersPos);
-        headersPos += 4;
-        byte[] bytes = wireBuffer.getBytes(headersPos, headersPos + keyLength);
-        String key = new String(bytes, CharsetUtil.UTF_8);
+        int keyLength = readInt(wireBuffer, headersPos);
+        headersPos += intLength(keyLength);
+        String key = wireBuffer.getString(headersPos, headersPos + keyLength);
         headersPos += keyLength;
-        int valLength = wireBuffer.getInt(headersPos);
-        headersPos += 4;
-        bytes = wireBuffer.getBytes(headersPos, headersPos + valLength);
-        String val = new String(bytes, CharsetUtil.UTF_8);
+        int valLength = readInt(wireBuffer, headersPos);
+        headersPos += intLength(valLength);
+        String val = wireBuffer.getString(headersPos, headersPos + valLength);
         headersPos += valLength;
         headers.add(key, val);
       }
@@ -276,9 +301,9 @@ public class MessageImpl<U, V> implements Message<V> {
     messageCodec.encodeToWire(buff, sentBody);
   }
 
-  private void writeString(Buffer buff, String str) {
+  private void writeString(Buffer buff, String str, byte protocolVersion) {
     byte[] strBytes = str.getBytes(CharsetUtil.UTF_8);
-    buff.appendInt(strBytes.length);
+    writeInt(buff, strBytes.length, protocolVersion);
     buff.appendBytes(strBytes);
   }
 
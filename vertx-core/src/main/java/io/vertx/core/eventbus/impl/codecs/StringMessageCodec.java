@@ -36,8 +36,7 @@ public class StringMessageCodec implements MessageCodec<String, String> {
   public String decodeFromWire(int pos, Buffer buffer) {
     int length = buffer.getInt(pos);
     pos += 4;
-    byte[] bytes = buffer.getBytes(pos, pos + length);
-    return new String(bytes, CharsetUtil.UTF_8);
+    return buffer.getString(pos, pos + length);
   }
 
   @Override
@@ -17,6 +17,7 @@
 package io.vertx.core.file.impl;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -29,6 +30,7 @@ import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
+import io.vertx.core.net.impl.PartialPooledByteBufAllocator;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -151,8 +153,12 @@ public class AsyncFileImpl implements AsyncFile {
     Arguments.require(position >= 0, "position must be >= 0");
     Arguments.require(length >= 0, "length must be >= 0");
     check();
-    ByteBuffer bb = ByteBuffer.allocate(length);
-    doRead(buffer, offset, bb, position, handler);
+    // Read into pooled direct memory, a heap buffer would be read into a temporary direct buffer and copied
+    ByteBuf buf = PartialPooledByteBufAllocator.INSTANCE.directBuffer(length);
+    doRead(buffer, offset, buf.nioBuffer(0, length), position, ar -> {
+      buf.release();
+      handler.handle(ar);
+    });
     return this;
   }
 
@@ -234,13 +240,16 @@ public class AsyncFileImpl implements AsyncFile {
   private void doRead() {
     if (!readInProgress) {
       readInProgress = true;
-      Buffer buff = Buffer.buffer(BUFFER_SIZE);
+      Buffer buff = vertx.isDirectBuffers() ?
+        Buffer.pooledBuffer(PooledByteBufAllocator.DEFAULT.directBuffer(BUFFER_SIZE, Integer.MAX_VALUE)) :
+        Buffer.buffer(BUFFER_SIZE);
       read(buff, 0, readPos, BUFFER_SIZE, ar -> {
         if (ar.succeeded()) {
           readInProgress = false;
           Buffer buffer = ar.result();
           if (buffer.length() == 0) {
             // Empty buffer represents end of file
+            buffer.release();
             handleEnd();
           } else {
             readPos += buffer.length();
@@ -250,6 +259,7 @@ public class AsyncFileImpl implements AsyncFile {
             }
           }
         } else {
+          buff.release();
           handleException(ar.cause());
         }
       });
@@ -59,6 +59,11 @@ public interface HttpClient extends Measured {
   HttpClient connectWebsocket(int port, String host, String requestURI, MultiMap headers, WebsocketVersion version,
                               String subProtocols, Handler<WebSocket> wsConnect);
 
+  /**
+   * Create a load balancer spreading requests of this client over several endpoints.
+   */
+  LoadBalancer createLoadBalancer(LoadBalancerOptions options);
+
   /**
    * Close the HTTP client. This will cause any pooled HTTP connections to be closed.
    */
@@ -20,6 +20,7 @@ import io.vertx.codegen.annotations.Options;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.ClientOptionsBase;
 import io.vertx.core.net.KeyStoreOptions;
+import io.vertx.core.net.SSLProvider;
 import io.vertx.core.net.TrustStoreOptions;
 
 /**
@@ -34,6 +35,10 @@ public class HttpClientOptions extends ClientOptionsBase {
   public static final boolean DEFAULT_TRY_USE_COMPRESSION = false;
   public static final boolean DEFAULT_VERIFY_HOST = true;
   public static final int DEFAULT_MAX_WEBSOCKET_FRAME_SIZE = 65536;
+  public static final int DEFAULT_MAX_RETRIES = 0;
+  public static final int DEFAULT_RETRY_BACKOFF = 100;
+  public static final double DEFAULT_HEDGING_PERCENTILE = -1;
+  public static final int DEFAULT_RESPONSE_CACHE_SIZE = 0;
 
   private boolean verifyHost = true;
   private int maxPoolSize;
@@ -41,6 +46,10 @@ public class HttpClientOptions extends ClientOptionsBase {
   private boolean pipelining;
   private boolean tryUseCompression;
   private int maxWebsocketFrameSize;
+  private int maxRetries;
+  private int retryBackoff;
+  private double hedgingPercentile;
+  private int responseCacheSize;
 
   public HttpClientOptions(HttpClientOptions other) {
     super(other);
@@ -50,6 +59,10 @@ public class HttpClientOptions extends ClientOptionsBase {
     this.pipelining = other.isPipelining();
     this.tryUseCompression = other.isTryUseCompression();
     this.maxWebsocketFrameSize = other.maxWebsocketFrameSize;
+    this.maxRetries = other.getMaxRetries();
+    this.retryBackoff = other.getRetryBackoff();
+    this.hedgingPercentile = other.getHedgingPercentile();
+    this.responseCacheSize = other.getResponseCacheSize();
   }
 
   public HttpClientOptions(JsonObject json) {
@@ -60,6 +73,10 @@ public class HttpClientOptions extends ClientOptionsBase {
     this.pipelining = json.getBoolean("pipelining", DEFAULT_PIPELINING);
     this.tryUseCompression = json.getBoolean("tryUseCompression", DEFAULT_TRY_USE_COMPRESSION);
     this.maxWebsocketFrameSize = json.getInteger("maxWebsocketFrameSize", DEFAULT_MAX_WEBSOCKET_FRAME_SIZE);
+    this.maxRetries = json.getInteger("maxRetries", DEFAULT_MAX_RETRIES);
+    this.retryBackoff = json.getInteger("retryBackoff", DEFAULT_RETRY_BACKOFF);
+    this.hedgingPercentile = json.getDouble("hedgingPercentile", DEFAULT_HEDGING_PERCENTILE);
+    this.responseCacheSize = json.getInteger("responseCacheSize", DEFAULT_RESPONSE_CACHE_SIZE);
   }
 
   public HttpClientOptions() {
@@ -70,6 +87,10 @@ public class HttpClientOptions extends ClientOptionsBase {
     pipelining = DEFAULT_PIPELINING;
     tryUseCompression = DEFAULT_TRY_USE_COMPRESSION;
     maxWebsocketFrameSize = DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
+    maxRetries = DEFAULT_MAX_RETRIES;
+    retryBackoff = DEFAULT_RETRY_BACKOFF;
+    hedgingPercentile = DEFAULT_HEDGING_PERCENTILE;
+    responseCacheSize = DEFAULT_RESPONSE_CACHE_SIZE;
   }
 
   @Override
@@ -132,6 +153,44 @@ public class HttpClientOptions extends ClientOptionsBase {
     return this;
   }
 
+  /**
+   * Only the JDK implementation of TLS is available to clients, OpenSSL is server-only.
+   *
+   * @throws IllegalArgumentException if the provider is OpenSSL
+   */
+  @Override
+  public HttpClientOptions setSslProvider(SSLProvider sslProvider) {
+    if (sslProvider == SSLProvider.OPENSSL) {
+      throw new IllegalArgumentException("OpenSSL is only supported by servers");
+    }
+    super.setSslProvider(sslProvider);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setSessionCacheSize(int sessionCacheSize) {
+    super.setSessionCacheSize(sessionCacheSize);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setSessionTimeout(int sessionTimeout) {
+    super.setSessionTimeout(sessionTimeout);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setSessionTicketsEnabled(boolean sessionTicketsEnabled) {
+    super.setSessionTicketsEnabled(sessionTicketsEnabled);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setStoreScanPeriod(long storeScanPeriod) {
+    super.setStoreScanPeriod(storeScanPeriod);
+    return this;
+  }
+
   @Override
   public HttpClientOptions setKeyStoreOptions(KeyStoreOptions keyStore) {
     super.setKeyStoreOptions(keyStore);
@@ -219,6 +278,73 @@ public class HttpClientOptions extends ClientOptionsBase {
     return this;
   }
 
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Set how many times a request is sent again after a connection level failure: when the connection cannot be
+   * established, or for an idempotent request when the connection is closed before the response is received. Only
+   * requests ended before they are sent can be retried, as their body must be sent again.
+   */
+  public HttpClientOptions setMaxRetries(int maxRetries) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("maxRetries must be >= 0");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  public int getRetryBackoff() {
+    return retryBackoff;
+  }
+
+  /**
+   * Set the base delay in ms before a request is retried. The delay is drawn at random up to the base delay doubled
+   * for each previous retry, so that clients failing together do not retry together.
+   */
+  public HttpClientOptions setRetryBackoff(int retryBackoff) {
+    if (retryBackoff < 1) {
+      throw new IllegalArgumentException("retryBackoff must be > 0");
+    }
+    this.retryBackoff = retryBackoff;
+    return this;
+  }
+
+  public double getHedgingPercentile() {
+    return hedgingPercentile;
+  }
+
+  /**
+   * Set the percentile of the latency of a host after which an idempotent request still waiting for its response is
+   * sent again on another connection, the first response is used and the other connection is closed. The latency of
+   * each host is tracked from its recent responses. {@code -1} disables hedging.
+   */
+  public HttpClientOptions setHedgingPercentile(double hedgingPercentile) {
+    if ((hedgingPercentile <= 0 || hedgingPercentile >= 100) && hedgingPercentile != -1) {
+      throw new IllegalArgumentException("hedgingPercentile must be > 0 and < 100, or -1");
+    }
+    this.hedgingPercentile = hedgingPercentile;
+    return this;
+  }
+
+  public int getResponseCacheSize() {
+    return responseCacheSize;
+  }
+
+  /**
+   * Set the size in bytes of the in memory cache of the responses to {@code GET} requests, {@code 0} disables the
+   * cache. Responses are cached and revalidated as told by their {@code Cache-Control}, {@code Expires},
+   * {@code ETag} and {@code Last-Modified} headers, the least recently used ones are evicted when the cache is full.
+   */
+  public HttpClientOptions setResponseCacheSize(int responseCacheSize) {
+    if (responseCacheSize < 0) {
+      throw new IllegalArgumentException("responseCacheSize must be >= 0");
+    }
+    this.responseCacheSize = responseCacheSize;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -233,6 +359,10 @@ public class HttpClientOptions extends ClientOptionsBase {
     if (tryUseCompression != that.tryUseCompression) return false;
     if (verifyHost != that.verifyHost) return false;
     if (maxWebsocketFrameSize != that.maxWebsocketFrameSize) return false;
+    if (maxRetries != that.maxRetries) return false;
+    if (retryBackoff != that.retryBackoff) return false;
+    if (Double.compare(that.hedgingPercentile, hedgingPercentile) != 0) return false;
+    if (responseCacheSize != that.responseCacheSize) return false;
 
     return true;
   }
@@ -246,6 +376,11 @@ public class HttpClientOptions extends ClientOptionsBase {
     result = 31 * result + (pipelining ? 1 : 0);
     result = 31 * result + (tryUseCompression ? 1 : 0);
     result = 31 * result + maxWebsocketFrameSize;
+    result = 31 * result + maxRetries;
+    result = 31 * result + retryBackoff;
+    long temp = Double.doubleToLongBits(hedgingPercentile);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    result = 31 * result + responseCacheSize;
     return result;
   }
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.impl.HttpHeaderBlockImpl;
+
+/**
+ * An immutable set of HTTP headers encoded once up-front.<p>
+ * Blocks are meant for headers which are identical on many responses (e.g. {@code Server}, {@code Cache-Control} or
+ * CORS headers): create the block once, keep a reference to it and add it to each response with
+ * {@link HttpServerResponse#putHeaders(HttpHeaderBlock)}. The encoded bytes are written as is, so the headers don't
+ * have to be copied into the response headers and encoded again for each response.<p>
+ * Instances of this class are thread-safe and can be shared between verticles.
+ */
+public interface HttpHeaderBlock {
+
+  /**
+   * Create a header block containing the entries of {@code headers}. Subsequent changes to {@code headers} are not
+   * reflected by the block.
+   *
+   * @throws IllegalArgumentException if a name or value contains a character not allowed in a header, or if
+   * {@code headers} contains {@code Content-Length} or {@code Transfer-Encoding}, which the response sets according to
+   * its body
+   */
+  static HttpHeaderBlock create(MultiMap headers) {
+    return new HttpHeaderBlockImpl(headers);
+  }
+
+  /**
+   * @return true if the block contains a header with the given name, the check is case insensitive
+   */
+  boolean contains(CharSequence name);
+
+  /**
+   * @return the number of encoded bytes of this block
+   */
+  int length();
+}
@@ -20,6 +20,7 @@ import io.vertx.codegen.annotations.Options;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.KeyStoreOptions;
 import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.SSLProvider;
 import io.vertx.core.net.TrustStoreOptions;
 
 /**
@@ -31,16 +32,43 @@ public class HttpServerOptions extends NetServerOptions {
   public static final int DEFAULT_PORT = 80;  // Default port is 80 for HTTP not 0 from HttpServerOptions
   public static final boolean DEFAULT_COMPRESSION_SUPPORTED = false;  
   public static final int DEFAULT_MAX_WEBSOCKET_FRAME_SIZE = 65536;
+  public static final boolean DEFAULT_SEND_DATE_HEADER = false;
+  public static final int DEFAULT_MAX_CACHED_FILES = 0;
+  public static final int DEFAULT_COMPRESSED_RESPONSE_CACHE_SIZE = 0;
+  public static final int DEFAULT_MAX_FORM_ATTRIBUTE_SIZE = -1;
+  public static final int DEFAULT_MAX_BODY_SIZE = -1;
+  public static final int DEFAULT_MAX_CONNECTIONS = -1;
+  public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = -1;
+  public static final boolean DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT = false;
+  public static final boolean DEFAULT_LATENCY_HISTOGRAM_ENABLED = false;
 
   private boolean compressionSupported;
   private int maxWebsocketFrameSize;
   private String websocketSubProtocols;
+  private boolean sendDateHeader;
+  private int maxCachedFiles;
+  private int compressedResponseCacheSize;
+  private int maxFormAttributeSize;
+  private int maxBodySize;
+  private int maxConnections;
+  private int maxInFlightRequests;
+  private boolean adaptiveConcurrencyLimit;
+  private boolean latencyHistogramEnabled;
 
   public HttpServerOptions(HttpServerOptions other) {
     super(other);
     this.compressionSupported = other.isCompressionSupported();
     this.maxWebsocketFrameSize = other.getMaxWebsocketFrameSize();
     this.websocketSubProtocols = other.getWebsocketSubProtocols();
+    this.sendDateHeader = other.isSendDateHeader();
+    this.maxCachedFiles = other.getMaxCachedFiles();
+    this.compressedResponseCacheSize = other.getCompressedResponseCacheSize();
+    this.maxFormAttributeSize = other.getMaxFormAttributeSize();
+    this.maxBodySize = other.getMaxBodySize();
+    this.maxConnections = other.getMaxConnections();
+    this.maxInFlightRequests = other.getMaxInFlightRequests();
+    this.adaptiveConcurrencyLimit = other.isAdaptiveConcurrencyLimit();
+    this.latencyHistogramEnabled = other.isLatencyHistogramEnabled();
   }
 
   public HttpServerOptions(JsonObject json) {
@@ -48,6 +76,15 @@ public class HttpServerOptions extends NetServerOptions {
     this.compressionSupported = json.getBoolean("compressionSupported", DEFAULT_COMPRESSION_SUPPORTED);
     this.maxWebsocketFrameSize = json.getInteger("maxWebsocketFrameSize", DEFAULT_MAX_WEBSOCKET_FRAME_SIZE);
     this.websocketSubProtocols = json.getString("websocketSubProtocols", null);
+    this.sendDateHeader = json.getBoolean("sendDateHeader", DEFAULT_SEND_DATE_HEADER);
+    this.maxCachedFiles = json.getInteger("maxCachedFiles", DEFAULT_MAX_CACHED_FILES);
+    this.compressedResponseCacheSize = json.getInteger("compressedResponseCacheSize", DEFAULT_COMPRESSED_RESPONSE_CACHE_SIZE);
+    this.maxFormAttributeSize = json.getInteger("maxFormAttributeSize", DEFAULT_MAX_FORM_ATTRIBUTE_SIZE);
+    this.maxBodySize = json.getInteger("maxBodySize", DEFAULT_MAX_BODY_SIZE);
+    this.maxConnections = json.getInteger("maxConnections", DEFAULT_MAX_CONNECTIONS);
+    this.maxInFlightRequests = json.getInteger("maxInFlightRequests", DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+    this.adaptiveConcurrencyLimit = json.getBoolean("adaptiveConcurrencyLimit", DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT);
+    this.latencyHistogramEnabled = json.getBoolean("latencyHistogramEnabled", DEFAULT_LATENCY_HISTOGRAM_ENABLED);
     setPort(json.getInteger("port", DEFAULT_PORT));
   }
 
@@ -56,6 +93,15 @@ public class HttpServerOptions extends NetServerOptions {
     setPort(DEFAULT_PORT); // We override the default for port
     compressionSupported = DEFAULT_COMPRESSION_SUPPORTED;
     maxWebsocketFrameSize = DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
+    sendDateHeader = DEFAULT_SEND_DATE_HEADER;
+    maxCachedFiles = DEFAULT_MAX_CACHED_FILES;
+    compressedResponseCacheSize = DEFAULT_COMPRESSED_RESPONSE_CACHE_SIZE;
+    maxFormAttributeSize = DEFAULT_MAX_FORM_ATTRIBUTE_SIZE;
+    maxBodySize = DEFAULT_MAX_BODY_SIZE;
+    maxConnections = DEFAULT_MAX_CONNECTIONS;
+    maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+    adaptiveConcurrencyLimit = DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT;
+    latencyHistogramEnabled = DEFAULT_LATENCY_HISTOGRAM_ENABLED;
   }
 
   @Override
@@ -118,6 +164,36 @@ public class HttpServerOptions extends NetServerOptions {
     return this;
   }
 
+  @Override
+  public HttpServerOptions setSslProvider(SSLProvider sslProvider) {
+    super.setSslProvider(sslProvider);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setSessionCacheSize(int sessionCacheSize) {
+    super.setSessionCacheSize(sessionCacheSize);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setSessionTimeout(int sessionTimeout) {
+    super.setSessionTimeout(sessionTimeout);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setSessionTicketsEnabled(boolean sessionTicketsEnabled) {
+    super.setSessionTicketsEnabled(sessionTicketsEnabled);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setStoreScanPeriod(long storeScanPeriod) {
+    super.setStoreScanPeriod(storeScanPeriod);
+    return this;
+  }
+
   @Override
   public HttpServerOptions setKeyStoreOptions(KeyStoreOptions keyStore) {
     super.setKeyStoreOptions(keyStore);
@@ -179,6 +255,150 @@ public class HttpServerOptions extends NetServerOptions {
   public String getWebsocketSubProtocols() {
     return websocketSubProtocols;
   }
+
+  public boolean isSendDateHeader() {
+    return sendDateHeader;
+  }
+
+  /**
+   * Set whether the server adds a {@code Date} header to responses which don't have one. The value is formatted
+   * once per second and shared by all responses.
+   */
+  public HttpServerOptions setSendDateHeader(boolean sendDateHeader) {
+    this.sendDateHeader = sendDateHeader;
+    return this;
+  }
+
+  public int getMaxCachedFiles() {
+    return maxCachedFiles;
+  }
+
+  /**
+   * Set the maximum number of files served with {@code sendFile} whose metadata and open channel are kept in a cache,
+   * so that serving them again does not touch the file system. Cached files are invalidated when their directory
+   * reports a change. {@code 0} disables the cache.
+   */
+  public HttpServerOptions setMaxCachedFiles(int maxCachedFiles) {
+    if (maxCachedFiles < 0) {
+      throw new IllegalArgumentException("maxCachedFiles must be >= 0");
+    }
+    this.maxCachedFiles = maxCachedFiles;
+    return this;
+  }
+
+  public int getCompressedResponseCacheSize() {
+    return compressedResponseCacheSize;
+  }
+
+  /**
+   * Set the maximum size in bytes of the gzip encoded response bodies kept by the server when compression is
+   * supported, counting both the bodies and their encoding. Only the bodies of the responses marked with
+   * {@link HttpServerResponse#setBodyCacheable(boolean)} are kept, a response ended with a body already kept is sent
+   * without being compressed again. {@code 0} disables the cache.
+   */
+  public HttpServerOptions setCompressedResponseCacheSize(int compressedResponseCacheSize) {
+    if (compressedResponseCacheSize < 0) {
+      throw new IllegalArgumentException("compressedResponseCacheSize must be >= 0");
+    }
+    this.compressedResponseCacheSize = compressedResponseCacheSize;
+    return this;
+  }
+
+  public int getMaxFormAttributeSize() {
+    return maxFormAttributeSize;
+  }
+
+  /**
+   * Set the maximum size in bytes of a form attribute sent in a {@code multipart/form-data} body. Attributes are kept
+   * in memory whereas file uploads are streamed, a request sending a larger attribute fails. {@code -1}, the default,
+   * means no limit.
+   */
+  public HttpServerOptions setMaxFormAttributeSize(int maxFormAttributeSize) {
+    if (maxFormAttributeSize < 1 && maxFormAttributeSize != -1) {
+      throw new IllegalArgumentException("maxFormAttributeSize must be > 0 or -1");
+    }
+    this.maxFormAttributeSize = maxFormAttributeSize;
+    return this;
+  }
+
+  public int getMaxBodySize() {
+    return maxBodySize;
+  }
+
+  /**
+   * Set the maximum size in bytes of a request body aggregated with {@link HttpServerRequest#bodyHandler}. A request
+   * with a larger body, as announced by its {@code Content-Length} or as received, is answered with a {@code 413}
+   * status and its connection is closed. {@code -1} means no limit.
+   */
+  public HttpServerOptions setMaxBodySize(int maxBodySize) {
+    if (maxBodySize < 1 && maxBodySize != -1) {
+      throw new IllegalArgumentException("maxBodySize must be > 0 or -1");
+    }
+    this.maxBodySize = maxBodySize;
+    return this;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * Set the maximum number of connections the server keeps open at the same time. Connections accepted beyond it are
+   * closed right away. {@code -1} means no limit.
+   */
+  public HttpServerOptions setMaxConnections(int maxConnections) {
+    if (maxConnections < 1 && maxConnections != -1) {
+      throw new IllegalArgumentException("maxConnections must be > 0 or -1");
+    }
+    this.maxConnections = maxConnections;
+    return this;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  /**
+   * Set the maximum number of requests each event loop of the server handles at the same time, i.e. requests
+   * dispatched to a handler whose response has not ended yet. Requests received beyond it are answered with a
+   * {@code 503} status without being dispatched. {@code -1} means no limit.
+   */
+  public HttpServerOptions setMaxInFlightRequests(int maxInFlightRequests) {
+    if (maxInFlightRequests < 1 && maxInFlightRequests != -1) {
+      throw new IllegalArgumentException("maxInFlightRequests must be > 0 or -1");
+    }
+    this.maxInFlightRequests = maxInFlightRequests;
+    return this;
+  }
+
+  public boolean isAdaptiveConcurrencyLimit() {
+    return adaptiveConcurrencyLimit;
+  }
+
+  /**
+   * Set whether the number of requests each event loop handles at the same time is limited according to the latency
+   * of the responses: the limit grows while latency stays close to the lowest observed and shrinks when requests start
+   * queuing. It never exceeds {@link #getMaxInFlightRequests()} when set. Requests received beyond the limit are
+   * answered with a {@code 503} status.
+   */
+  public HttpServerOptions setAdaptiveConcurrencyLimit(boolean adaptiveConcurrencyLimit) {
+    this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+    return this;
+  }
+
+  public boolean isLatencyHistogramEnabled() {
+    return latencyHistogramEnabled;
+  }
+
+  /**
+   * Set whether the server records the latency of its requests in histograms, per route and per stage of the request
+   * handling. The histograms are reported by {@link HttpServer#metrics()} under {@code routes.<pattern>}, requests
+   * which were not routed by a {@link RouteMatcher} are reported under {@code routes.default}.
+   */
+  public HttpServerOptions setLatencyHistogramEnabled(boolean latencyHistogramEnabled) {
+    this.latencyHistogramEnabled = latencyHistogramEnabled;
+    return this;
+  }
   
   @Override
   public HttpServerOptions setClientAuthRequired(boolean clientAuthRequired) {
@@ -186,6 +406,12 @@ public class HttpServerOptions extends NetServerOptions {
     return this;
   }
 
+  @Override
+  public HttpServerOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -197,6 +423,15 @@ public class HttpServerOptions extends NetServerOptions {
     if (compressionSupported != that.compressionSupported) return false;
     if (maxWebsocketFrameSize != that.maxWebsocketFrameSize) return false;
     if (websocketSubProtocols != that.websocketSubProtocols) return false;
+    if (sendDateHeader != that.sendDateHeader) return false;
+    if (maxCachedFiles != that.maxCachedFiles) return false;
+    if (compressedResponseCacheSize != that.compressedResponseCacheSize) return false;
+    if (maxFormAttributeSize != that.maxFormAttributeSize) return false;
+    if (maxBodySize != that.maxBodySize) return false;
+    if (maxConnections != that.maxConnections) return false;
+    if (maxInFlightRequests != that.maxInFlightRequests) return false;
+    if (adaptiveConcurrencyLimit != that.adaptiveConcurrencyLimit) return false;
+    if (latencyHistogramEnabled != that.latencyHistogramEnabled) return false;
 
     return true;
   }
@@ -207,6 +442,15 @@ public class HttpServerOptions extends NetServerOptions {
     result = 31 * result + (compressionSupported ? 1 : 0);
     result = 31 * result + maxWebsocketFrameSize;
     result = 31 * result + (websocketSubProtocols != null ? websocketSubProtocols.hashCode() : 0);
+    result = 31 * result + (sendDateHeader ? 1 : 0);
+    result = 31 * result + maxCachedFiles;
+    result = 31 * result + compressedResponseCacheSize;
+    result = 31 * result + maxFormAttributeSize;
+    result = 31 * result + maxBodySize;
+    result = 31 * result + maxConnections;
+    result = 31 * result + maxInFlightRequests;
+    result = 31 * result + (adaptiveConcurrencyLimit ? 1 : 0);
+    result = 31 * result + (latencyHistogramEnabled ? 1 : 0);
     return result;
   }
 }
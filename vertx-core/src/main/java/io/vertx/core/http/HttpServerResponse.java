@@ -103,6 +103,22 @@ public interface HttpServerResponse extends WriteStream<Buffer> {
    */
   boolean isChunked();
 
+  /**
+   * Mark the body this response is ended with as one the server sends over and over, such as a static page. When the
+   * server has a compressed response cache, see {@link HttpServerOptions#setCompressedResponseCacheSize(int)}, it keeps
+   * the gzip encoding of such a body so that it is not compressed again the next time it is sent.<p>
+   * Bodies which change from one response to the other should not be marked, they would only fill the cache.
+   *
+   * @return A reference to this, so multiple method calls can be chained.
+   */
+  @Fluent
+  HttpServerResponse setBodyCacheable(boolean cacheable);
+
+  /**
+   * Is the body of the response marked as cacheable?
+   */
+  boolean isBodyCacheable();
+
   /**
    * @return The HTTP headers
    */
@@ -133,6 +149,17 @@ public interface HttpServerResponse extends WriteStream<Buffer> {
   @GenIgnore
   HttpServerResponse putHeader(CharSequence name, Iterable<CharSequence> values);
 
+  /**
+   * Put all the headers of a pre-encoded {@link HttpHeaderBlock} - fluent API<p>
+   * The block is written as is after the status line, its headers are not visible in {@link #headers()}. When the
+   * server supports compression the response may be rewritten by the compressor, the headers of the block are then
+   * added to {@link #headers()} instead.
+   * @param block  The header block
+   * @return A reference to this, so multiple method calls can be chained.
+   */
+  @GenIgnore
+  HttpServerResponse putHeaders(HttpHeaderBlock block);
+
 
   /**
    * @return The HTTP trailers
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.dns.DnsClient;
+import io.vertx.core.net.SocketAddress;
+
+import java.util.List;
+
+/**
+ * Spreads the requests of an {@link HttpClient} over a set of endpoints serving the same content.
+ * <p>
+ * Each request is sent to an endpoint chosen according to the {@link LoadBalancingStrategy} of the balancer, through
+ * the connection pool the client keeps for that endpoint. An endpoint failing several requests in a row, i.e. no
+ * response is received for them, is ejected for a while and gets no request until then. When all the endpoints are
+ * ejected the requests are spread over all of them anyway.
+ * <p>
+ * The endpoints are either added one by one or resolved from the SRV records of a service with
+ * {@link #resolveSRV}. A balancer is created with {@link HttpClient#createLoadBalancer(LoadBalancerOptions)} and can be
+ * used from several threads.
+ */
+@VertxGen
+public interface LoadBalancer {
+
+  /**
+   * Add an endpoint, nothing is done when the balancer already has it.
+   */
+  @Fluent
+  LoadBalancer addEndpoint(int port, String host);
+
+  @Fluent
+  LoadBalancer removeEndpoint(int port, String host);
+
+  /**
+   * Replace the endpoints with the targets of the SRV records of a service, e.g. {@code _http._tcp.example.com}. Only
+   * the records with the lowest priority are used, as the others are meant as fallbacks. Their weights are not taken
+   * into account. Endpoints kept from the previous resolution keep their state, so the service can be resolved again
+   * from time to time.
+   *
+   * @param handler notified when the endpoints have been replaced, or with the failure of the resolution
+   */
+  @Fluent
+  LoadBalancer resolveSRV(DnsClient dnsClient, String name, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * @return the endpoints of the balancer, including the ejected ones
+   */
+  List<SocketAddress> endpoints();
+
+  /**
+   * @return whether an endpoint is currently ejected
+   */
+  boolean isEjected(int port, String host);
+
+  /**
+   * Create a request to an endpoint of the balancer. The request counts as outstanding for its endpoint from when it
+   * starts being sent until its response is received or it fails.
+   *
+   * @throws IllegalStateException when the balancer has no endpoint
+   */
+  HttpClientRequest request(HttpMethod method, String requestURI, Handler<HttpClientResponse> responseHandler);
+}
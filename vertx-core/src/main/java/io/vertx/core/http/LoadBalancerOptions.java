@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http;
+
+import io.vertx.codegen.annotations.Options;
+import io.vertx.core.json.JsonObject;
+
+@Options
+public class LoadBalancerOptions {
+
+  public static final LoadBalancingStrategy DEFAULT_STRATEGY = LoadBalancingStrategy.ROUND_ROBIN;
+  public static final int DEFAULT_MAX_FAILURES = 5;
+  public static final long DEFAULT_EJECTION_TIME = 30000;
+
+  private LoadBalancingStrategy strategy;
+  private int maxFailures;
+  private long ejectionTime;
+
+  public LoadBalancerOptions() {
+    strategy = DEFAULT_STRATEGY;
+    maxFailures = DEFAULT_MAX_FAILURES;
+    ejectionTime = DEFAULT_EJECTION_TIME;
+  }
+
+  public LoadBalancerOptions(LoadBalancerOptions other) {
+    this.strategy = other.getStrategy();
+    this.maxFailures = other.getMaxFailures();
+    this.ejectionTime = other.getEjectionTime();
+  }
+
+  public LoadBalancerOptions(JsonObject json) {
+    this.strategy = LoadBalancingStrategy.valueOf(json.getString("strategy", DEFAULT_STRATEGY.name()));
+    this.maxFailures = json.getInteger("maxFailures", DEFAULT_MAX_FAILURES);
+    this.ejectionTime = json.getLong("ejectionTime", DEFAULT_EJECTION_TIME);
+  }
+
+  public LoadBalancingStrategy getStrategy() {
+    return strategy;
+  }
+
+  public LoadBalancerOptions setStrategy(LoadBalancingStrategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("strategy must not be null");
+    }
+    this.strategy = strategy;
+    return this;
+  }
+
+  public int getMaxFailures() {
+    return maxFailures;
+  }
+
+  /**
+   * Set the number of consecutive failed requests after which an endpoint is ejected, a request fails when no
+   * response is received for it, e.g. when the connection cannot be established or the request times out.
+   */
+  public LoadBalancerOptions setMaxFailures(int maxFailures) {
+    if (maxFailures < 1) {
+      throw new IllegalArgumentException("maxFailures must be > 0");
+    }
+    this.maxFailures = maxFailures;
+    return this;
+  }
+
+  public long getEjectionTime() {
+    return ejectionTime;
+  }
+
+  /**
+   * Set the time in ms during which an ejected endpoint is not sent any request.
+   */
+  public LoadBalancerOptions setEjectionTime(long ejectionTime) {
+    if (ejectionTime < 1) {
+      throw new IllegalArgumentException("ejectionTime must be > 0");
+    }
+    this.ejectionTime = ejectionTime;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof LoadBalancerOptions)) return false;
+
+    LoadBalancerOptions that = (LoadBalancerOptions) o;
+
+    if (strategy != that.strategy) return false;
+    if (maxFailures != that.maxFailures) return false;
+    if (ejectionTime != that.ejectionTime) return false;
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = strategy.hashCode();
+    result = 31 * result + maxFailures;
+    result = 31 * result + (int) (ejectionTime ^ (ejectionTime >>> 32));
+    return result;
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http;
+
+/**
+ * How a {@link LoadBalancer} chooses the endpoint of a request.
+ */
+public enum LoadBalancingStrategy {
+
+  /**
+   * Each endpoint in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The endpoint with the fewest requests waiting for their response.
+   */
+  LEAST_OUTSTANDING_REQUESTS,
+
+  /**
+   * The endpoint with the fewest requests waiting for their response of two endpoints chosen at random, which spreads
+   * the load almost as well as {@link #LEAST_OUTSTANDING_REQUESTS} without sending every client to the same endpoint.
+   */
+  POWER_OF_TWO_CHOICES
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.impl.RadixTree;
+import io.vertx.core.http.impl.RoutedRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A request handler which dispatches requests to other handlers according to their method and path.
+ * <p>
+ * Patterns are made of static text, {@code :name} parameters matching a whole path segment and an optional trailing
+ * {@code *} or {@code *name} wildcard matching the rest of the path, e.g. {@code /users/:id/files/*path}. The values
+ * of the parameters are added to the {@link HttpServerRequest#params()} of the request.
+ * <p>
+ * Patterns are compiled into a radix tree per method, so dispatching a request costs time proportional to the length
+ * of its path whatever the number of routes. When several patterns match a path, static text wins over parameters and
+ * parameters over wildcards. Routes bound to a method are tried before routes bound with {@link #all}.
+ * <p>
+ * Routes must be added before the matcher handles requests. Set it on a server with
+ * {@link HttpServer#requestHandler(Handler)}.
+ */
+public class RouteMatcher implements Handler<HttpServerRequest> {
+
+  private final Map<HttpMethod, RadixTree<Handler<HttpServerRequest>>> routes = new EnumMap<>(HttpMethod.class);
+  private final RadixTree<Handler<HttpServerRequest>> allRoutes = new RadixTree<>();
+  private Handler<HttpServerRequest> noMatchHandler;
+
+  @Override
+  public void handle(HttpServerRequest request) {
+    String path = request.path();
+    RadixTree.Match<Handler<HttpServerRequest>> match = null;
+    RadixTree<Handler<HttpServerRequest>> tree = routes.get(request.method());
+    if (tree != null) {
+      match = tree.lookup(path);
+    }
+    if (match == null) {
+      match = allRoutes.lookup(path);
+    }
+    if (match != null) {
+      if (request instanceof RoutedRequest) {
+        ((RoutedRequest) request).setRoute(match.pattern());
+      }
+      if (match.paramCount() > 0) {
+        MultiMap params = request.params();
+        for (int i = 0;i < match.paramCount();i++) {
+          params.add(match.paramName(i), match.paramValue(i));
+        }
+      }
+      match.value().handle(request);
+    } else if (noMatchHandler != null) {
+      noMatchHandler.handle(request);
+    } else {
+      request.response().setStatusCode(HttpResponseStatus.NOT_FOUND.code()).end();
+    }
+  }
+
+  /**
+   * Route the requests with the given method and a path matching the pattern to the handler.
+   *
+   * @throws IllegalArgumentException when the pattern is invalid or a route is already bound to it
+   */
+  public RouteMatcher route(HttpMethod method, String pattern, Handler<HttpServerRequest> handler) {
+    add(routes.computeIfAbsent(method, m -> new RadixTree<>()), pattern, handler);
+    return this;
+  }
+
+  public RouteMatcher get(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.GET, pattern, handler);
+  }
+
+  public RouteMatcher put(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.PUT, pattern, handler);
+  }
+
+  public RouteMatcher post(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.POST, pattern, handler);
+  }
+
+  public RouteMatcher delete(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.DELETE, pattern, handler);
+  }
+
+  public RouteMatcher head(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.HEAD, pattern, handler);
+  }
+
+  public RouteMatcher options(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.OPTIONS, pattern, handler);
+  }
+
+  public RouteMatcher patch(String pattern, Handler<HttpServerRequest> handler) {
+    return route(HttpMethod.PATCH, pattern, handler);
+  }
+
+  /**
+   * Route the requests with any method and a path matching the pattern to the handler.
+   */
+  public RouteMatcher all(String pattern, Handler<HttpServerRequest> handler) {
+    add(allRoutes, pattern, handler);
+    return this;
+  }
+
+  /**
+   * Specify a handler that will be called when no route matches. If this handler is not specified the default
+   * behaviour is to send a 404.
+   */
+  public RouteMatcher noMatch(Handler<HttpServerRequest> handler) {
+    noMatchHandler = handler;
+    return this;
+  }
+
+  private static void add(RadixTree<Handler<HttpServerRequest>> tree, String pattern, Handler<HttpServerRequest> handler) {
+    if (!tree.add(pattern, handler)) {
+      throw new IllegalArgumentException("A route is already bound to " + pattern);
+    }
+  }
+}
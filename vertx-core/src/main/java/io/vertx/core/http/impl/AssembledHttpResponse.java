@@ -45,6 +45,10 @@ class AssembledHttpResponse implements HttpResponse, HttpContent {
     this(response, new DefaultHttpContent(buf));
   }
 
+  HttpResponse response() {
+    return response;
+  }
+
   @Override
   public HttpContent copy() {
     throw new UnsupportedOperationException();
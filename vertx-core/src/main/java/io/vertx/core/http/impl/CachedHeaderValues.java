@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http.impl;
+
+import io.vertx.core.http.HttpHeaders;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Pre-encoded values for the headers the server sets on most responses, so they are written by the encoder
+ * as byte arrays instead of being encoded char by char each time.
+ */
+final class CachedHeaderValues {
+
+  private static final int CONTENT_LENGTH_CACHE_SIZE = 1024;
+  private static final CharSequence[] CONTENT_LENGTHS = new CharSequence[CONTENT_LENGTH_CACHE_SIZE];
+
+  static {
+    for (int i = 0; i < CONTENT_LENGTH_CACHE_SIZE; i++) {
+      CONTENT_LENGTHS[i] = HttpHeaders.createOptimized(String.valueOf(i));
+    }
+  }
+
+  static final CharSequence ZERO = CONTENT_LENGTHS[0];
+
+  // The date only changes once per second so we keep the last formatted value around
+  private static volatile CachedDate cachedDate = new CachedDate(System.currentTimeMillis() / 1000);
+
+  static CharSequence contentLength(long length) {
+    if (length >= 0 && length < CONTENT_LENGTH_CACHE_SIZE) {
+      return CONTENT_LENGTHS[(int) length];
+    }
+    return String.valueOf(length);
+  }
+
+  static CharSequence date() {
+    long now = System.currentTimeMillis() / 1000;
+    CachedDate date = cachedDate;
+    if (date.seconds != now) {
+      // Racing threads may format the same second twice, this is harmless
+      date = new CachedDate(now);
+      cachedDate = date;
+    }
+    return date.value;
+  }
+
+  static String httpDate(long millis) {
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.ENGLISH);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    return format.format(new Date(millis));
+  }
+
+  private static final class CachedDate {
+
+    final long seconds;
+    final CharSequence value;
+
+    CachedDate(long seconds) {
+      this.seconds = seconds;
+      this.value = HttpHeaders.createOptimized(httpDate(seconds * 1000));
+    }
+  }
+
+  private CachedHeaderValues() {
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.impl.ContextImpl;
+import io.vertx.core.net.NetSocket;
+
+import java.util.List;
+
+/**
+ * A response served from the {@link ResponseCache}, its body is delivered in a single chunk once the response handler
+ * returned.
+ */
+class CachedHttpClientResponse implements HttpClientResponse {
+
+  private final ContextImpl context;
+  private final ResponseCache.Entry entry;
+  private final MultiMap headers;
+  private final MultiMap trailers = new CaseInsensitiveHeaders();
+  private Handler<Buffer> dataHandler;
+  private Handler<Void> endHandler;
+  private Handler<Buffer> bodyHandler;
+  private boolean paused;
+  private boolean started;
+  private boolean ended;
+
+  CachedHttpClientResponse(ContextImpl context, ResponseCache.Entry entry) {
+    this.context = context;
+    this.entry = entry;
+    this.headers = new CaseInsensitiveHeaders().addAll(entry.headers);
+    headers.set(HttpHeaders.AGE, String.valueOf(entry.age(System.currentTimeMillis()) / 1000));
+  }
+
+  @Override
+  public int statusCode() {
+    return entry.statusCode;
+  }
+
+  @Override
+  public String statusMessage() {
+    return entry.statusMessage;
+  }
+
+  @Override
+  public MultiMap headers() {
+    return headers;
+  }
+
+  @Override
+  public MultiMap trailers() {
+    return trailers;
+  }
+
+  @Override
+  public List<String> cookies() {
+    return headers.getAll(HttpHeaders.SET_COOKIE);
+  }
+
+  @Override
+  public HttpClientResponse handler(Handler<Buffer> handler) {
+    this.dataHandler = handler;
+    return this;
+  }
+
+  @Override
+  public HttpClientResponse endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  @Override
+  public HttpClientResponse exceptionHandler(Handler<Throwable> handler) {
+    // Nothing can fail
+    return this;
+  }
+
+  @Override
+  public HttpClientResponse pause() {
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public HttpClientResponse resume() {
+    if (paused) {
+      paused = false;
+      if (started) {
+        context.runOnContext(v -> deliver());
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public HttpClientResponse bodyHandler(Handler<Buffer> bodyHandler) {
+    // As for a response received from the network, it replaces the data and end handlers
+    this.bodyHandler = bodyHandler;
+    this.dataHandler = null;
+    this.endHandler = null;
+    return this;
+  }
+
+  @Override
+  public NetSocket netSocket() {
+    throw new IllegalStateException("The response was served from the cache");
+  }
+
+  void start() {
+    started = true;
+    context.runOnContext(v -> deliver());
+  }
+
+  private void deliver() {
+    if (paused || ended) {
+      return;
+    }
+    ended = true;
+    if (dataHandler != null && entry.body.isReadable()) {
+      dataHandler.handle(Buffer.buffer(entry.body.duplicate()));
+    }
+    if (bodyHandler != null) {
+      bodyHandler.handle(Buffer.buffer(entry.body.duplicate()));
+    }
+    if (endHandler != null) {
+      endHandler.handle(null);
+    }
+  }
+}
@@ -262,7 +262,7 @@ class ClientConnection extends ConnectionBase {
     }
     HttpClientResponseImpl nResp = new HttpClientResponseImpl(vertx, requestForResponse, this, resp);
     currentResponse = nResp;
-    requestForResponse.handleResponse(nResp);
+    requestForResponse.handleResponse(this, nResp);
   }
 
   void handleResponseChunk(Buffer buff) {
@@ -290,6 +290,12 @@ class ClientConnection extends ConnectionBase {
     if (ws != null) {
       ws.handleClosed();
     }
+    if (currentResponse != null) {
+      currentResponse.handleClosed();
+    }
+    for (HttpClientRequestImpl req : requests) {
+      req.handleConnectionClosed(this);
+    }
   }
 
   protected ContextImpl getContext() {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.VertxException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A LRU cache of the gzip encoding of the response bodies marked as cacheable, keyed by their content, so that a
+ * server sending the same bodies over and over compresses each of them once.
+ * <p>
+ * The cache is bounded by the bytes it keeps, each entry counting both the body and its encoding. Bodies smaller than
+ * {@link #MIN_BODY_SIZE} are not worth it and are compressed on the fly as any other body.
+ * <p>
+ * A lookup costs a hash and a comparison of the body, which is much cheaper than deflating it.
+ */
+final class CompressedBodyCache {
+
+  static final int MIN_BODY_SIZE = 1024;
+
+  private final long maxBytes;
+  private final Map<ByteBuf, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes;
+
+  CompressedBodyCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return whether the encoding of {@code body} can be kept by the cache
+   */
+  boolean accepts(ByteBuf body) {
+    int size = body.readableBytes();
+    // The encoding of a body is usually smaller than the body
+    return size >= MIN_BODY_SIZE && size * 2L <= maxBytes;
+  }
+
+  /**
+   * @return the gzip encoding of the readable bytes of {@code body}, the body itself is not modified
+   */
+  ByteBuf gzip(ByteBuf body) {
+    byte[] compressed;
+    synchronized (this) {
+      // ByteBuf equality and hash code are based on the readable bytes
+      compressed = entries.get(body);
+    }
+    if (compressed == null) {
+      compressed = compress(body);
+      long size = (long) body.readableBytes() + compressed.length;
+      if (size <= maxBytes) {
+        ByteBuf key = Unpooled.copiedBuffer(body);
+        synchronized (this) {
+          byte[] prev = entries.put(key, compressed);
+          bytes += prev == null ? size : size - key.readableBytes() - prev.length;
+          Iterator<Map.Entry<ByteBuf, byte[]>> it = entries.entrySet().iterator();
+          while (bytes > maxBytes) {
+            Map.Entry<ByteBuf, byte[]> eldest = it.next();
+            bytes -= eldest.getKey().readableBytes() + eldest.getValue().length;
+            it.remove();
+          }
+        }
+      }
+    }
+    return Unpooled.wrappedBuffer(compressed);
+  }
+
+
+  private static byte[] compress(ByteBuf body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.readableBytes() / 2 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      body.getBytes(body.readerIndex(), gzip, body.readableBytes());
+    } catch (IOException e) {
+      // Can't happen when writing to memory
+      throw new VertxException(e);
+    }
+    return out.toByteArray();
+  }
+}
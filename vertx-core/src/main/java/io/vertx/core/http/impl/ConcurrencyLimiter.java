@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+/**
+ * Limits the number of requests handled at the same time by an event loop.
+ * <p>
+ * The limit is either fixed or adaptive. An adaptive limit follows the TCP Vegas congestion avoidance algorithm: the
+ * latency of each request is compared to the lowest latency observed, which is taken as the latency without load.
+ * From their ratio the limiter estimates how many requests are queued rather than being served. It raises the limit
+ * while that queue is small and lowers it when the queue grows, so the event loop keeps serving at about its
+ * no-load latency instead of piling up work. The lowest latency is sampled again over windows of requests: at the end
+ * of each window the lowest latency seen during it becomes the no-load latency, so the limiter notices when the no-load
+ * latency itself rises.
+ * <p>
+ * A limiter can be used from the event loop and from worker threads.
+ */
+public final class ConcurrencyLimiter {
+
+  static final int INITIAL_LIMIT = 20;
+  static final int MAX_ADAPTIVE_LIMIT = 1000;
+  private static final int PROBE_INTERVAL = 1000;
+
+  private final boolean adaptive;
+  private final int maxLimit;
+  private double limit;
+  private int inFlight;
+  private long noLoadLatency;
+  private long windowMinLatency = Long.MAX_VALUE;
+  private int samples;
+
+  /**
+   * @param maxInFlight the maximum number of requests in flight, {@code -1} for no fixed maximum
+   * @param adaptive whether the limit adapts to the latency of the requests, up to {@code maxInFlight}
+   */
+  public ConcurrencyLimiter(int maxInFlight, boolean adaptive) {
+    this.adaptive = adaptive;
+    this.maxLimit = maxInFlight == -1 ? (adaptive ? MAX_ADAPTIVE_LIMIT : Integer.MAX_VALUE) : maxInFlight;
+    this.limit = adaptive ? Math.min(INITIAL_LIMIT, maxLimit) : maxLimit;
+  }
+
+  /**
+   * @return whether a request can be handled now, in which case it must be released with {@link #release} when done
+   */
+  public synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Release a request.
+   *
+   * @param latency the time it took to serve the request in nanoseconds, or {@code -1} when it did not complete
+   */
+  public synchronized void release(long latency) {
+    int concurrency = inFlight--;
+    if (adaptive && latency > 0) {
+      update(latency, concurrency);
+    }
+  }
+
+  public synchronized int limit() {
+    return (int) limit;
+  }
+
+  public synchronized int inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * @return the latency without load in nanoseconds, {@code 0} before a request completed
+   */
+  public synchronized long noLoadLatency() {
+    return noLoadLatency;
+  }
+
+  private void update(long latency, int concurrency) {
+    if (noLoadLatency == 0 || latency < noLoadLatency) {
+      noLoadLatency = latency;
+      windowMinLatency = Long.MAX_VALUE;
+      samples = 0;
+      return;
+    }
+    windowMinLatency = Math.min(windowMinLatency, latency);
+    if (++samples >= PROBE_INTERVAL) {
+      noLoadLatency = windowMinLatency;
+      windowMinLatency = Long.MAX_VALUE;
+      samples = 0;
+      return;
+    }
+    double queued = Math.ceil(limit * (1 - (double) noLoadLatency / latency));
+    double step = Math.max(1, Math.log10(limit));
+    double newLimit;
+    if (queued <= 3 * step) {
+      if (concurrency * 2 < limit) {
+        // The limit is not what holds the requests back, raising it would not tell anything
+        return;
+      }
+      newLimit = limit + step;
+    } else if (queued >= 6 * step) {
+      newLimit = limit - step;
+    } else {
+      return;
+    }
+    limit = Math.max(1, Math.min(maxLimit, newLimit));
+  }
+}
@@ -18,10 +18,13 @@ package io.vertx.core.http.impl;
 
 import io.vertx.core.Handler;
 import io.vertx.core.impl.ContextImpl;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
+import io.vertx.core.metrics.impl.LatencyHistogram;
 
 import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
@@ -36,10 +39,15 @@ public abstract class ConnectionManager {
 
   private static final Logger log = LoggerFactory.getLogger(ConnectionManager.class);
 
+  // The latency of a host is taken from its last responses, between LATENCY_WINDOW and twice as many
+  private static final int LATENCY_WINDOW = 1000;
+  private static final int MIN_LATENCY_SAMPLES = 20;
+
   private int maxSockets = 5;
   private boolean keepAlive = true;
   private boolean pipelining = false;
   private final Map<TargetAddress, ConnQueue> connQueues = new ConcurrentHashMap<>();
+  private final Map<TargetAddress, HostLatency> latencies = new ConcurrentHashMap<>();
 
   public void getConnection(int port, String host, Handler<ClientConnection> handler, Handler<Throwable> connectionExceptionHandler, ContextImpl context) {
     if (!keepAlive && pipelining) {
@@ -73,11 +81,42 @@ public abstract class ConnectionManager {
     this.pipelining = pipelining;
   }
 
+  /**
+   * Record the time it took a host to start responding to a request, in nanoseconds.
+   */
+  public void recordLatency(int port, String host, long latency) {
+    TargetAddress address = new TargetAddress(host, port);
+    HostLatency hostLatency = latencies.get(address);
+    if (hostLatency == null) {
+      hostLatency = latencies.computeIfAbsent(address, a -> new HostLatency());
+    }
+    hostLatency.record(latency);
+  }
+
+  /**
+   * @return the latency of a host at a percentile in nanoseconds, or {@code -1} when too few of its responses were
+   * recorded yet
+   */
+  public long latency(int port, String host, double percentile) {
+    HostLatency hostLatency = latencies.get(new TargetAddress(host, port));
+    return hostLatency == null ? -1 : hostLatency.valueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the latency histograms of the hosts, keyed by {@code hosts.<host>:<port>}
+   */
+  public Map<String, JsonObject> latencyMetrics() {
+    Map<String, JsonObject> metrics = new HashMap<>();
+    latencies.forEach((address, latency) -> metrics.put("hosts." + address.host + ":" + address.port, latency.toJson()));
+    return metrics;
+  }
+
   public void close() {
     for (ConnQueue queue: connQueues.values()) {
       queue.closeAllConnections();
     }
     connQueues.clear();
+    latencies.clear();
   }
 
   private class ConnQueue implements ConnectionLifeCycleListener {
@@ -203,6 +242,39 @@ public abstract class ConnectionManager {
     }
   }
 
+  // A histogram of the recent latencies, which keeps up with a host getting faster or slower
+  private static class HostLatency {
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private volatile LatencyHistogram previous;
+
+    void record(long latency) {
+      LatencyHistogram histogram = current;
+      histogram.record(latency);
+      if (histogram.count() >= LATENCY_WINDOW) {
+        synchronized (this) {
+          if (current == histogram) {
+            previous = histogram;
+            current = new LatencyHistogram();
+          }
+        }
+      }
+    }
+
+    long valueAtPercentile(double percentile) {
+      LatencyHistogram histogram = current;
+      if (histogram.count() < MIN_LATENCY_SAMPLES && previous != null) {
+        histogram = previous;
+      }
+      return histogram.count() < MIN_LATENCY_SAMPLES ? -1 : histogram.valueAtPercentile(percentile);
+    }
+
+    JsonObject toJson() {
+      LatencyHistogram histogram = current;
+      return (histogram.count() < MIN_LATENCY_SAMPLES && previous != null ? previous : histogram).toJson();
+    }
+  }
+
   private static class Waiter {
     final Handler<ClientConnection> handler;
     final Handler<Throwable> connectionExceptionHandler;
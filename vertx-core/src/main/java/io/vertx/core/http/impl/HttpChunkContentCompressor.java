@@ -18,14 +18,38 @@ package io.vertx.core.http.impl;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
 
 /**
+ * Compresses the responses with the deflaters of the {@link ZlibPool} of the event loop, instead of a new one per
+ * response.
+ *
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
  */
 final class HttpChunkContentCompressor extends HttpContentCompressor {
 
+  private static final int COMPRESSION_LEVEL = 6;
+
+  @Override
+  protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+    String contentEncoding = response.headers().get(HttpHeaders.Names.CONTENT_ENCODING);
+    if (contentEncoding != null && !HttpHeaders.Values.IDENTITY.equalsIgnoreCase(contentEncoding)) {
+      return null;
+    }
+    ZlibWrapper wrapper = determineWrapper(acceptEncoding);
+    if (wrapper == null) {
+      return null;
+    }
+    boolean gzip = wrapper == ZlibWrapper.GZIP;
+    return new Result(gzip ? HttpHeaders.Values.GZIP : HttpHeaders.Values.DEFLATE,
+      new EmbeddedChannel(new PooledZlibEncoder(gzip, COMPRESSION_LEVEL)));
+  }
+
   @Override
   public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
     if (msg instanceof ByteBuf) {
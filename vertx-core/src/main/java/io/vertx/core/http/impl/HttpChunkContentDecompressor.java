@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * Decompresses the responses received by a client with the inflaters of the {@link ZlibPool} of the event loop,
+ * instead of a new one per response.
+ */
+final class HttpChunkContentDecompressor extends HttpContentDecompressor {
+
+  @Override
+  protected EmbeddedChannel newContentDecoder(String contentEncoding) throws Exception {
+    if (HttpHeaders.Values.GZIP.equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+      return new EmbeddedChannel(new PooledZlibDecoder(true));
+    }
+    if (HttpHeaders.Values.DEFLATE.equalsIgnoreCase(contentEncoding) || "x-deflate".equalsIgnoreCase(contentEncoding)) {
+      return new EmbeddedChannel(new PooledZlibDecoder(false));
+    }
+    // Let the content through for unknown encodings
+    return null;
+  }
+}
@@ -28,7 +28,6 @@ import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpContent;
-import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.ssl.SslHandler;
@@ -43,6 +42,8 @@ import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.LoadBalancer;
+import io.vertx.core.http.LoadBalancerOptions;
 import io.vertx.core.http.WebSocket;
 import io.vertx.core.http.WebsocketVersion;
 import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
@@ -84,6 +85,7 @@ public class HttpClientImpl implements HttpClient {
   private boolean closed;
   private final SSLHelper sslHelper;
   private final HttpClientMetrics metrics;
+  private final ResponseCache responseCache;
 
   public HttpClientImpl(VertxInternal vertx, HttpClientOptions options) {
     this.vertx = vertx;
@@ -110,6 +112,7 @@ public class HttpClientImpl implements HttpClient {
     pool.setPipelining(options.isPipelining());
     pool.setMaxSockets(options.getMaxPoolSize());
     this.metrics = vertx.metricsSPI().createMetrics(this, options);
+    this.responseCache = options.getResponseCacheSize() > 0 ? new ResponseCache(this, options.getResponseCacheSize()) : null;
   }
 
   @Override
@@ -163,6 +166,11 @@ public class HttpClientImpl implements HttpClient {
   }
 
 
+  @Override
+  public LoadBalancer createLoadBalancer(LoadBalancerOptions options) {
+    return new LoadBalancerImpl(this, options);
+  }
+
   @Override
   public synchronized void close() {
     checkClosed();
@@ -173,7 +181,11 @@ public class HttpClientImpl implements HttpClient {
     if (creatingContext != null) {
       creatingContext.removeCloseHook(closeHook);
     }
+    if (responseCache != null) {
+      responseCache.clear();
+    }
     closed = true;
+    sslHelper.close();
     metrics.close();
   }
 
@@ -185,9 +197,17 @@ public class HttpClientImpl implements HttpClient {
   @Override
   public Map<String, JsonObject> metrics() {
     String name = metricBaseName();
-    return vertx.metrics().entrySet().stream()
+    Map<String, JsonObject> metrics = vertx.metrics().entrySet().stream()
       .filter(e -> e.getKey().startsWith(name))
       .collect(Collectors.toMap(e -> e.getKey().substring(name.length() + 1), Map.Entry::getValue));
+    metrics.putAll(pool.latencyMetrics());
+    if (responseCache != null) {
+      metrics.put("cache", responseCache.metrics());
+    }
+    if (sslHelper.isSSL()) {
+      metrics.put("ssl", sslHelper.metrics());
+    }
+    return metrics;
   }
 
   HttpClientOptions getOptions() {
@@ -199,6 +219,21 @@ public class HttpClientImpl implements HttpClient {
     pool.getConnection(port, host, handler, connectionExceptionHandler, context);
   }
 
+  /**
+   * @return the response cache, or {@code null} when responses are not cached
+   */
+  ResponseCache responseCache() {
+    return responseCache;
+  }
+
+  void recordLatency(int port, String host, long latency) {
+    pool.recordLatency(port, host, latency);
+  }
+
+  long latency(int port, String host, double percentile) {
+    return pool.latency(port, host, percentile);
+  }
+
   void handleException(Exception e) {
     if (exceptionHandler != null) {
       exceptionHandler.handle(e);
@@ -255,12 +290,12 @@ public class HttpClientImpl implements HttpClient {
       protected void initChannel(Channel ch) throws Exception {
         ChannelPipeline pipeline = ch.pipeline();
         if (options.isSsl()) {
-          pipeline.addLast("ssl", sslHelper.createSslHandler(vertx, true, host, port));
+          pipeline.addLast("ssl", sslHelper.createSslHandler(vertx, true, host, port, metrics));
         }
 
         pipeline.addLast("codec", new HttpClientCodec(4096, 8192, 8192, false, false));
         if (options.isTryUseCompression()) {
-          pipeline.addLast("inflater", new HttpContentDecompressor(true));
+          pipeline.addLast("inflater", new HttpChunkContentDecompressor());
         }
         if (options.getIdleTimeout() > 0) {
           pipeline.addLast("idle", new IdleStateHandler(0, 0, options.getIdleTimeout()));
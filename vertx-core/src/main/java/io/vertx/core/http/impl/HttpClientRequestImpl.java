@@ -29,14 +29,19 @@ import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.VertxException;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
 
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -71,6 +76,25 @@ public class HttpClientRequestImpl implements HttpClientRequest {
   private MultiMap headers;
   private boolean exceptionOccurred;
   private long lastDataReceived;
+  // When the request was fully sent, to track the latency of the host
+  private long sentTime;
+  // The whole body of a request ended before it was sent, kept when it may be sent again
+  private ByteBuf replayBody;
+  private int retries;
+  private long retryTimerId = -1;
+  private long hedgeTimerId = -1;
+  // The connection the request was sent again on, while waiting for the response of the first one
+  private ClientConnection hedgeConn;
+  private long hedgeSentTime;
+  private boolean responded;
+  private Runnable startHandler;
+  private Handler<Boolean> outcomeHandler;
+  private boolean started;
+  // The context the request was ended on, when it went through the response cache
+  private ContextImpl context;
+  // The response cache key, when the response is recorded to fill or revalidate the cache
+  private String cacheKey;
+  private ResponseCache.Entry validatedEntry;
 
   HttpClientRequestImpl(HttpClientImpl client, io.vertx.core.http.HttpMethod method, String host, int port,
                         String relativeURI,
@@ -263,6 +287,72 @@ public class HttpClientRequestImpl implements HttpClientRequest {
     return this;
   }
 
+  /**
+   * Set a handler notified when the request starts being sent, and another one notified once whether a response was
+   * received for it or it failed. The latter is only notified for a request that started being sent.
+   */
+  void outcomeHandler(Runnable startHandler, Handler<Boolean> handler) {
+    this.startHandler = startHandler;
+    this.outcomeHandler = handler;
+  }
+
+  String host() {
+    return host;
+  }
+
+  int port() {
+    return port;
+  }
+
+  synchronized boolean hasFailed() {
+    return exceptionOccurred;
+  }
+
+  ContextImpl context() {
+    return context != null ? context : vertx.getOrCreateContext();
+  }
+
+  // Send the request as told by the response cache, recording its response for the cache when a key is given
+  synchronized void sendCacheRequest(String key, ResponseCache.Entry validated) {
+    cacheKey = key;
+    validatedEntry = validated;
+    if (validated != null) {
+      String etag = validated.etag();
+      String lastModified = validated.lastModified();
+      if (etag != null) {
+        request.headers().set(io.vertx.core.http.HttpHeaders.IF_NONE_MATCH, etag);
+      }
+      if (lastModified != null) {
+        request.headers().set(io.vertx.core.http.HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+      }
+    }
+    if (completed) {
+      connect();
+    }
+  }
+
+  // Answer the request with a response from the cache
+  void serveCached(ResponseCache.Entry entry) {
+    context.runOnContext(v -> {
+      synchronized (this) {
+        if (exceptionOccurred || responded) {
+          return;
+        }
+        responded = true;
+        cancelOutstandingTimeoutTimer();
+        notifyOutcome(true);
+      }
+      CachedHttpClientResponse resp = new CachedHttpClientResponse(context, entry);
+      try {
+        respHandler.handle(resp);
+      } catch (Throwable t) {
+        handleException(t);
+        return;
+      }
+      resp.start();
+    });
+  }
+
   // Data has been received on the response
   void dataReceived() {
     if (currentTimeoutTimerId != -1) {
@@ -278,11 +368,44 @@ public class HttpClientRequestImpl implements HttpClientRequest {
 
   void handleException(Throwable t) {
     cancelOutstandingTimeoutTimer();
+    cancelRetryTimers();
+    if (!exceptionOccurred && !responded) {
+      notifyOutcome(false);
+    }
     exceptionOccurred = true;
     getExceptionHandler().handle(t);
   }
 
-  void handleResponse(HttpClientResponseImpl resp) {
+  synchronized void handleResponse(ClientConnection conn, HttpClientResponseImpl resp) {
+    CachedHttpClientResponse cached = null;
+    if (resp.statusCode() != 100) {
+      if (responded) {
+        // The other attempt of a hedged request was answered first
+        conn.close();
+        return;
+      }
+      responded = true;
+      cancelRetryTimers();
+      if (!exceptionOccurred) {
+        notifyOutcome(true);
+      }
+      boolean hedged = conn == hedgeConn;
+      long sent = hedged ? hedgeSentTime : sentTime;
+      if (sent != 0) {
+        client.recordLatency(port, host, System.nanoTime() - sent);
+      }
+      if (hedgeConn != null) {
+        // Cancel the slower attempt, closing its connection is the only way to do it with HTTP/1.1
+        (hedged ? this.conn : hedgeConn).close();
+      }
+      if (cacheKey != null) {
+        ResponseCache.Entry entry = client.responseCache().handleResponse(this, cacheKey, validatedEntry, resp);
+        if (entry != null) {
+          // The entry was revalidated
+          cached = new CachedHttpClientResponse(context, entry);
+        }
+      }
+    }
     // If an exception occurred (e.g. a timeout fired) we won't receive the response.
     if (!exceptionOccurred) {
       cancelOutstandingTimeoutTimer();
@@ -291,6 +414,9 @@ public class HttpClientRequestImpl implements HttpClientRequest {
           if (continueHandler != null) {
             continueHandler.handle(null);
           }
+        } else if (cached != null) {
+          respHandler.handle(cached);
+          cached.start();
         } else {
           respHandler.handle(resp);
         }
@@ -300,6 +426,29 @@ public class HttpClientRequestImpl implements HttpClientRequest {
     }
   }
 
+  // The connection was closed, maybe before the response to the request was received
+  synchronized void handleConnectionClosed(ClientConnection closed) {
+    if (responded || exceptionOccurred) {
+      return;
+    }
+    if (closed == hedgeConn) {
+      hedgeConn = null;
+    } else if (closed == conn) {
+      if (hedgeConn != null) {
+        // Carry on with the hedged attempt
+        conn = hedgeConn;
+        sentTime = hedgeSentTime;
+        hedgeConn = null;
+      } else if (replayBody != null && isIdempotent() && retries < client.getOptions().getMaxRetries()) {
+        conn = null;
+        scheduleRetry();
+      } else {
+        // No response will ever come
+        handleException(new VertxException("Connection was closed"));
+      }
+    }
+  }
+
   HttpRequest getRequest() {
     return request;
   }
@@ -308,6 +457,28 @@ public class HttpClientRequestImpl implements HttpClientRequest {
     return exceptionHandler != null ? exceptionHandler : log::error;
   }
 
+  private void notifyOutcome(boolean succeeded) {
+    if (!succeeded && cacheKey != null) {
+      client.responseCache().complete(cacheKey, this);
+    }
+    if (started && outcomeHandler != null) {
+      Handler<Boolean> handler = outcomeHandler;
+      outcomeHandler = null;
+      handler.handle(succeeded);
+    }
+  }
+
+  private void cancelRetryTimers() {
+    if (retryTimerId != -1) {
+      client.getVertx().cancelTimer(retryTimerId);
+      retryTimerId = -1;
+    }
+    if (hedgeTimerId != -1) {
+      client.getVertx().cancelTimer(hedgeTimerId);
+      hedgeTimerId = -1;
+    }
+  }
+
   private void cancelOutstandingTimeoutTimer() {
     if (currentTimeoutTimerId != -1) {
       client.getVertx().cancelTimer(currentTimeoutTimerId);
@@ -337,6 +508,12 @@ public class HttpClientRequestImpl implements HttpClientRequest {
 
   private void connect() {
     if (!connecting) {
+      if (!started) {
+        started = true;
+        if (startHandler != null) {
+          startHandler.run();
+        }
+      }
       // We defer actual connection until the first part of body is written or end is called
       // This gives the user an opportunity to set an exception handler before connecting so
       // they can capture any exceptions on connection
@@ -353,12 +530,104 @@ public class HttpClientRequestImpl implements HttpClientRequest {
           // that is done asynchronously in the connection closeHandler()
           connect();
         }
-      }, exceptionHandler, vertx.getOrCreateContext());
+      }, this::handleConnectFailure, context());
 
       connecting = true;
     }
   }
 
+  private synchronized void handleConnectFailure(Throwable t) {
+    if (!exceptionOccurred && retries < client.getOptions().getMaxRetries()) {
+      // Nothing was sent, any request can be retried
+      scheduleRetry();
+    } else {
+      notifyOutcome(false);
+      if (exceptionHandler != null) {
+        exceptionHandler.handle(t);
+      } else if (t instanceof Exception) {
+        client.handleException((Exception) t);
+      } else {
+        log.error(t);
+      }
+    }
+  }
+
+  // Connect again after a random delay, up to the base backoff doubled for each previous retry
+  private void scheduleRetry() {
+    long maxDelay = (long) client.getOptions().getRetryBackoff() << Math.min(retries, 10);
+    retries++;
+    connecting = false;
+    retryTimerId = client.getVertx().setTimer(1 + ThreadLocalRandom.current().nextLong(maxDelay), id -> {
+      synchronized (this) {
+        retryTimerId = -1;
+        if (!exceptionOccurred) {
+          connect();
+        }
+      }
+    });
+  }
+
+  private boolean isReplayable() {
+    HttpClientOptions options = client.getOptions();
+    return options.getMaxRetries() > 0 || options.getHedgingPercentile() != -1;
+  }
+
+  private boolean isIdempotent() {
+    switch (method) {
+      case "GET":
+      case "HEAD":
+      case "OPTIONS":
+      case "PUT":
+      case "DELETE":
+      case "TRACE":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  // Send the whole request, which can be done again on another connection
+  private void sendReplay(ClientConnection conn) {
+    prepareHeaders();
+    conn.writeToChannel(new AssembledFullHttpRequest(request,
+      replayBody.isReadable() ? replayBody.duplicate().retain() : Unpooled.EMPTY_BUFFER));
+    if (conn.metrics.isEnabled()) conn.metrics.bytesWritten(conn.remoteAddress(), written);
+  }
+
+  private void scheduleHedge() {
+    HttpClientOptions options = client.getOptions();
+    // Closing the connection of the slower attempt would fail the requests pipelined on it
+    if (options.getHedgingPercentile() == -1 || options.isPipelining() || !isIdempotent()) {
+      return;
+    }
+    long latency = client.latency(port, host, options.getHedgingPercentile());
+    if (latency != -1) {
+      hedgeTimerId = client.getVertx().setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(latency)), id -> hedge());
+    }
+  }
+
+  private synchronized void hedge() {
+    hedgeTimerId = -1;
+    if (responded || exceptionOccurred) {
+      return;
+    }
+    client.getConnection(port, host, hedgeConn -> {
+      synchronized (this) {
+        if (responded || exceptionOccurred || conn == null) {
+          hedgeConn.close();
+        } else if (!hedgeConn.isClosed()) {
+          this.hedgeConn = hedgeConn;
+          hedgeConn.setCurrentRequest(this);
+          sendReplay(hedgeConn);
+          hedgeSentTime = System.nanoTime();
+          hedgeConn.endRequest();
+        }
+      }
+    }, t -> {
+      // The first attempt is still in flight
+    }, vertx.getOrCreateContext());
+  }
+
   private synchronized void connected(ClientConnection conn) {
     conn.setCurrentRequest(this);
     this.conn = conn;
@@ -370,7 +639,17 @@ public class HttpClientRequestImpl implements HttpClientRequest {
       conn.doSetWriteQueueMaxSize(pendingMaxSize);
     }
 
-    if (pendingChunks != null) {
+    if (completed && isReplayable()) {
+      // Keep the body, the request may be sent again
+      if (replayBody == null) {
+        replayBody = pendingChunks != null ? pendingChunks : Unpooled.EMPTY_BUFFER;
+        pendingChunks = null;
+      }
+      sendReplay(conn);
+      sentTime = System.nanoTime();
+      conn.endRequest();
+      scheduleHedge();
+    } else if (pendingChunks != null) {
       ByteBuf pending = pendingChunks;
       pendingChunks = null;
 
@@ -380,6 +659,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
 
         if (conn.metrics.isEnabled()) conn.metrics.bytesWritten(conn.remoteAddress(), written);
 
+        sentTime = System.nanoTime();
         conn.endRequest();
       } else {
         writeHeadWithContent(pending, false);
@@ -391,6 +671,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
 
         if (conn.metrics.isEnabled()) conn.metrics.bytesWritten(conn.remoteAddress(), written);
 
+        sentTime = System.nanoTime();
         conn.endRequest();
       } else {
         if (writeHead) {
@@ -433,12 +714,28 @@ public class HttpClientRequestImpl implements HttpClientRequest {
     if (chunked) {
       HttpHeaders.setTransferEncodingChunked(request);
     }
+    setAcceptEncoding();
+  }
+
+  private void setAcceptEncoding() {
     if (client.getOptions().isTryUseCompression() && request.headers().get(io.vertx.core.http.HttpHeaders.ACCEPT_ENCODING) == null) {
       // if compression should be used but nothing is specified by the user support deflate and gzip.
       request.headers().set(io.vertx.core.http.HttpHeaders.ACCEPT_ENCODING, io.vertx.core.http.HttpHeaders.DEFLATE_GZIP);
     }
   }
 
+  private void sendThroughCache() {
+    context = vertx.getOrCreateContext();
+    // The cache compares the headers the responses vary on with the headers actually sent
+    setAcceptEncoding();
+    if (cacheKey != null) {
+      // A background revalidation, prepared by the cache
+      connect();
+    } else {
+      client.responseCache().send(this);
+    }
+  }
+
   private synchronized void write(ByteBuf buff, boolean end) {
     int readableBytes = buff.readableBytes();
     if (readableBytes == 0 && !end) {
@@ -469,7 +766,11 @@ public class HttpClientRequestImpl implements HttpClientRequest {
         }
         pending.addComponent(buff).writerIndex(pending.writerIndex() + buff.writerIndex());
       }
-      connect();
+      if (end && !connecting && client.responseCache() != null) {
+        sendThroughCache();
+      } else {
+        connect();
+      }
     } else {
       if (!headWritten) {
         writeHeadWithContent(buff, end);
@@ -483,6 +784,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
       if (end) {
         if (conn.metrics.isEnabled()) conn.metrics.bytesWritten(conn.remoteAddress(), written);
 
+        sentTime = System.nanoTime();
         conn.endRequest();
       }
     }
@@ -55,6 +55,8 @@ public class HttpClientResponseImpl implements HttpClientResponse  {
   private boolean hasPausedEnd;
   private LastHttpContent pausedTrailer;
   private NetSocket netSocket;
+  // Records the body for the response cache
+  private ResponseCache.Recorder recorder;
 
   // Track for metrics
   private long bytesRead;
@@ -182,7 +184,14 @@ public class HttpClientResponseImpl implements HttpClientResponse  {
     }
   }
 
+  void recorder(ResponseCache.Recorder recorder) {
+    this.recorder = recorder;
+  }
+
   void handleChunk(Buffer data) {
+    if (recorder != null) {
+      recorder.data(data);
+    }
     if (conn.metrics.isEnabled()) {
       this.bytesRead += data.length();
     }
@@ -203,6 +212,10 @@ public class HttpClientResponseImpl implements HttpClientResponse  {
     if (conn.metrics.isEnabled()) conn.metrics.bytesRead(conn.remoteAddress(), bytesRead);
     bytesRead = 0;
     conn.metrics.responseEnd(request, this);
+    if (recorder != null) {
+      recorder.end();
+      recorder = null;
+    }
     if (paused) {
       hasPausedEnd = true;
       pausedTrailer = trailer;
@@ -216,11 +229,24 @@ public class HttpClientResponseImpl implements HttpClientResponse  {
   }
 
   void handleException(Throwable e) {
+    abandonRecording();
     if (exceptionHandler != null) {
       exceptionHandler.handle(e);
     }
   }
 
+  // The connection was closed, maybe before the end of the response
+  void handleClosed() {
+    abandonRecording();
+  }
+
+  private void abandonRecording() {
+    if (recorder != null) {
+      recorder.abandon();
+      recorder = null;
+    }
+  }
+
   @Override
   public NetSocket netSocket() {
     if (netSocket == null) {
@@ -235,12 +261,13 @@ public class HttpClientResponseImpl implements HttpClientResponse  {
 
     @Override
     public void handle(Buffer event) {
+      // The chunks are not copied
       body().appendBuffer(event);
     }
 
     private Buffer body() {
       if (body == null) {
-        body = Buffer.buffer();
+        body = Buffer.compositeBuffer();
       }
       return body;
     }
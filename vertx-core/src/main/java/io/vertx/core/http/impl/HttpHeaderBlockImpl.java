@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaderBlock;
+import io.vertx.core.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class HttpHeaderBlockImpl implements HttpHeaderBlock {
+
+  private final byte[] bytes;
+  private final Set<String> names = new HashSet<>();
+  private final List<Map.Entry<String, String>> entries;
+
+  public HttpHeaderBlockImpl(MultiMap headers) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+    entries = new ArrayList<>(headers.size());
+    for (Map.Entry<String, String> header : headers) {
+      if (HttpHeaders.CONTENT_LENGTH.toString().equalsIgnoreCase(header.getKey()) ||
+          HttpHeaders.TRANSFER_ENCODING.toString().equalsIgnoreCase(header.getKey())) {
+        // The response sets them according to its body, a block cannot be amended
+        throw new IllegalArgumentException("A header block cannot contain " + header.getKey());
+      }
+      encode(header.getKey(), true, out);
+      out.write(':');
+      out.write(' ');
+      encode(header.getValue(), false, out);
+      out.write('\r');
+      out.write('\n');
+      names.add(header.getKey().toLowerCase(Locale.ENGLISH));
+      entries.add(new AbstractMap.SimpleImmutableEntry<>(header));
+    }
+    this.bytes = out.toByteArray();
+  }
+
+  @Override
+  public boolean contains(CharSequence name) {
+    return names.contains(name.toString().toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * Add the headers of the block to {@code headers}, for responses which cannot carry the encoded block.
+   */
+  void addTo(MultiMap headers) {
+    for (Map.Entry<String, String> header : entries) {
+      headers.add(header.getKey(), header.getValue());
+    }
+  }
+
+  @Override
+  public int length() {
+    return bytes.length;
+  }
+
+  void encode(ByteBuf buf) {
+    buf.writeBytes(bytes);
+  }
+
+  @Override
+  public String toString() {
+    return new String(bytes, 0, bytes.length, CharsetUtil.US_ASCII);
+  }
+
+  private static void encode(String s, boolean name, ByteArrayOutputStream out) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '\r' || c == '\n' || c > 255 || (name && (c == ':' || c == ' ' || c == '\t'))) {
+        throw new IllegalArgumentException("Invalid character in header " + (name ? "name" : "value") + ": " + s);
+      }
+      out.write(c);
+    }
+  }
+}
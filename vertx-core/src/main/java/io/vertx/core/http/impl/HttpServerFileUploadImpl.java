@@ -40,6 +40,7 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
   private Handler<Throwable> exceptionHandler;
 
   private final HttpServerRequest req;
+  private final MultipartDecoder decoder;
   private final Vertx vertx;
 
   private final String name;
@@ -50,15 +51,14 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
   private long size;
 
   private boolean paused;
-  private Buffer pauseBuff;
-  private boolean complete;
   private boolean lazyCalculateSize;
 
-  HttpServerFileUploadImpl(Vertx vertx, HttpServerRequest req, String name, String filename, String contentType,
-                           String contentTransferEncoding,
+  HttpServerFileUploadImpl(Vertx vertx, HttpServerRequest req, MultipartDecoder decoder, String name, String filename,
+                           String contentType, String contentTransferEncoding,
                            Charset charset, long size) {
     this.vertx = vertx;
     this.req = req;
+    this.decoder = decoder;
     this.name = name;
     this.filename = filename;
     this.contentType = contentType;
@@ -108,22 +108,21 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
 
   @Override
   public HttpServerFileUpload pause() {
-    req.pause();
-    paused = true;
+    if (!paused) {
+      // The decoder stops handing out data and the request stops reading until the upload is resumed
+      req.pause();
+      paused = true;
+    }
     return this;
   }
 
   @Override
   public HttpServerFileUpload resume() {
     if (paused) {
-      req.resume();
       paused = false;
-      if (pauseBuff != null) {
-        receiveData(pauseBuff);
-        pauseBuff = null;
-      }
-      if (complete && endHandler != null) {
-        endHandler.handle(null);
+      // Only resume reading once the data already received has been decoded, which may pause an upload again
+      if (decoder.resume()) {
+        req.resume();
       }
     }
     return this;
@@ -164,44 +163,41 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
     return !lazyCalculateSize;
   }
 
+  boolean isPaused() {
+    return paused;
+  }
+
+  // The decoder does not hand out data nor complete the upload while it is paused
   void receiveData(Buffer data) {
     if (lazyCalculateSize) {
       size += data.length();
     }
-    if (!paused) {
-      if (dataHandler != null) {
-        dataHandler.handle(data);
-      }
-    } else {
-      if (pauseBuff == null) {
-        pauseBuff = Buffer.buffer();
-      }
-      pauseBuff.appendBuffer(data);
+    if (dataHandler != null) {
+      dataHandler.handle(data);
     }
   }
 
   void complete() {
     lazyCalculateSize = false;
-    if (paused) {
-      complete = true;
+    if (file == null) {
+      notifyEndHandler();
     } else {
-      if (file == null) {
-        notifyEndHandler();
-      } else {
-        file.close(new AsyncResultHandler<Void>() {
-          @Override
-          public void handle(AsyncResult<Void> event) {
-            if (event.failed()) {
-              notifyExceptionHandler(event.cause());
-            }
-            notifyEndHandler();
+      file.close(new AsyncResultHandler<Void>() {
+        @Override
+        public void handle(AsyncResult<Void> event) {
+          if (event.failed()) {
+            notifyExceptionHandler(event.cause());
           }
-        });
-      }
-
+          notifyEndHandler();
+        }
+      });
     }
   }
 
+  void handleException(Throwable t) {
+    notifyExceptionHandler(t);
+  }
+
   private void notifyEndHandler() {
     if (endHandler != null) {
       endHandler.handle(null);
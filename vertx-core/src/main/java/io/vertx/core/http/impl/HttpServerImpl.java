@@ -25,6 +25,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
@@ -70,10 +71,12 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
 import io.vertx.core.metrics.spi.HttpServerMetrics;
+import io.vertx.core.metrics.spi.RequestTimings;
 import io.vertx.core.net.impl.HandlerHolder;
 import io.vertx.core.net.impl.HandlerManager;
 import io.vertx.core.net.impl.KeyStoreHelper;
 import io.vertx.core.net.impl.PartialPooledByteBufAllocator;
+import io.vertx.core.net.impl.ReusePortServerSocketChannel;
 import io.vertx.core.net.impl.SSLHelper;
 import io.vertx.core.net.impl.ServerID;
 import io.vertx.core.net.impl.SocketAddressImpl;
@@ -86,6 +89,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
@@ -120,6 +124,12 @@ public class HttpServerImpl implements HttpServer, Closeable {
   private HandlerManager<HttpServerRequest> reqHandlerManager = new HandlerManager<>(availableWorkers);
   private HandlerManager<ServerWebSocket> wsHandlerManager = new HandlerManager<>(availableWorkers);
   private ContextImpl listenContext;
+  private final boolean reusePort;
+  private final StaticFileCache fileCache;
+  private final CompressedBodyCache compressedBodyCache;
+  private final AtomicInteger connectionCount = new AtomicInteger();
+  private final Map<EventLoop, ConcurrencyLimiter> requestLimiters = new ConcurrentHashMap<>();
+  private final RouteLatencies routeLatencies;
 
   public HttpServerImpl(VertxInternal vertx, HttpServerOptions options) {
     this.options = new HttpServerOptions(options);
@@ -136,6 +146,14 @@ public class HttpServerImpl implements HttpServer, Closeable {
     this.requestStream = new HttpServerRequestStreamImpl();
     this.subProtocols = options.getWebsocketSubProtocols();
     this.metrics = vertx.metricsSPI().createMetrics(this, options);
+    this.reusePort = options.isReusePort() && ReusePortServerSocketChannel.isAvailable();
+    if (options.isReusePort() && !reusePort) {
+      log.warn("SO_REUSEPORT is not supported on this platform, server instances will share a single acceptor");
+    }
+    this.fileCache = options.getMaxCachedFiles() > 0 ? new StaticFileCache(vertx, options.getMaxCachedFiles()) : null;
+    this.compressedBodyCache = options.isCompressionSupported() && options.getCompressedResponseCacheSize() > 0 ?
+      new CompressedBodyCache(options.getCompressedResponseCacheSize()) : null;
+    this.routeLatencies = options.isLatencyHistogramEnabled() ? new RouteLatencies() : null;
   }
 
   @Override
@@ -189,12 +207,13 @@ public class HttpServerImpl implements HttpServer, Closeable {
 
       serverOrigin = (options.isSsl() ? "https" : "http") + "://" + options.getHost() + ":" + options.getPort();
 
-      HttpServerImpl shared = vertx.sharedHttpServers().get(id);
+      // With SO_REUSEPORT each instance binds its own acceptor on its own event loop
+      HttpServerImpl shared = reusePort ? null : vertx.sharedHttpServers().get(id);
       if (shared == null) {
         serverChannelGroup = new DefaultChannelGroup("vertx-acceptor-channels", GlobalEventExecutor.INSTANCE);
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(availableWorkers);
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.channel(reusePort ? ReusePortServerSocketChannel.class : NioServerSocketChannel.class);
         applyConnectionOptions(bootstrap);
         sslHelper.validate(vertx);
         bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -204,11 +223,24 @@ public class HttpServerImpl implements HttpServer, Closeable {
                 ch.close();
                 return;
               }
+              if (options.getMaxConnections() != -1) {
+                if (connectionCount.incrementAndGet() > options.getMaxConnections()) {
+                  connectionCount.decrementAndGet();
+                  InetSocketAddress addr = (InetSocketAddress) ch.remoteAddress();
+                  metrics.connectionRejected(new SocketAddressImpl(addr.getPort(), addr.getAddress().getHostAddress()));
+                  ch.close();
+                  return;
+                }
+                ch.closeFuture().addListener(future -> connectionCount.decrementAndGet());
+              }
               ChannelPipeline pipeline = ch.pipeline();
               if (sslHelper.isSSL()) {
-                pipeline.addLast("ssl", sslHelper.createSslHandler(vertx, false));
+                pipeline.addLast("ssl", sslHelper.createSslHandler(vertx, false, metrics));
               }
               pipeline.addLast("flashpolicy", new FlashPolicyHandler());
+              if (isTimingRequests()) {
+                pipeline.addLast("timing", new RequestTimingHandler());
+              }
               pipeline.addLast("httpDecoder", new HttpRequestDecoder(4096, 8192, 8192, false));
               pipeline.addLast("httpEncoder", new VertxHttpResponseEncoder());
               if (options.isCompressionSupported()) {
@@ -234,7 +266,9 @@ public class HttpServerImpl implements HttpServer, Closeable {
             @Override
             public void operationComplete(ChannelFuture channelFuture) throws Exception {
               if (!channelFuture.isSuccess()) {
-                vertx.sharedHttpServers().remove(id);
+                if (!reusePort) {
+                  vertx.sharedHttpServers().remove(id);
+                }
               } else {
                 metrics.listening(new SocketAddressImpl(options.getPort(), options.getHost()));
               }
@@ -251,7 +285,9 @@ public class HttpServerImpl implements HttpServer, Closeable {
           listening = false;
           return this;
         }
-        vertx.sharedHttpServers().put(id, this);
+        if (!reusePort) {
+          vertx.sharedHttpServers().put(id, this);
+        }
         actualServer = this;
       } else {
         // Server already exists with that host/port - we will use that
@@ -367,9 +403,57 @@ public class HttpServerImpl implements HttpServer, Closeable {
   @Override
   public Map<String, JsonObject> metrics() {
     String name = metricBaseName();
-    return vertx.metrics().entrySet().stream()
+    Map<String, JsonObject> metrics = vertx.metrics().entrySet().stream()
       .filter(e -> e.getKey().startsWith(name))
       .collect(Collectors.toMap(e -> e.getKey().substring(name.length() + 1), Map.Entry::getValue));
+    HttpServerImpl server = actualServer;
+    if (server != null && server.routeLatencies != null) {
+      metrics.putAll(server.routeLatencies.metrics());
+    }
+    if (server != null && server.sslHelper.isSSL()) {
+      metrics.put("ssl", server.sslHelper.metrics());
+    }
+    return metrics;
+  }
+
+  HttpServerOptions options() {
+    return options;
+  }
+
+  /**
+   * @return the limiter of the requests handled by the connections of an event loop, or {@code null} when requests
+   * are not limited
+   */
+  ConcurrencyLimiter requestLimiter(EventLoop eventLoop) {
+    if (options.getMaxInFlightRequests() == -1 && !options.isAdaptiveConcurrencyLimit()) {
+      return null;
+    }
+    return requestLimiters.computeIfAbsent(eventLoop,
+      el -> new ConcurrencyLimiter(options.getMaxInFlightRequests(), options.isAdaptiveConcurrencyLimit()));
+  }
+
+  /**
+   * @return whether the connections time the stages of their requests, for the metrics or the latency histograms
+   */
+  boolean isTimingRequests() {
+    return metrics.isEnabled() || routeLatencies != null;
+  }
+
+  void requestTimings(HttpServerRequest request, RequestTimings timings) {
+    if (metrics.isEnabled()) {
+      metrics.requestTimings(request, timings);
+    }
+    if (routeLatencies != null) {
+      routeLatencies.record(timings);
+    }
+  }
+
+  StaticFileCache fileCache() {
+    return fileCache;
+  }
+
+  CompressedBodyCache compressedBodyCache() {
+    return compressedBodyCache;
   }
 
   SSLHelper getSslHelper() {
@@ -412,7 +496,7 @@ public class HttpServerImpl implements HttpServer, Closeable {
   }
 
   private void actualClose(final ContextImpl closeContext, final Handler<AsyncResult<Void>> done) {
-    if (id != null) {
+    if (id != null && !reusePort) {
       vertx.sharedHttpServers().remove(id);
     }
 
@@ -427,6 +511,12 @@ public class HttpServerImpl implements HttpServer, Closeable {
 
     metrics.close();
 
+    if (fileCache != null) {
+      fileCache.close();
+    }
+
+    sslHelper.close();
+
     ChannelGroupFuture fut = serverChannelGroup.close();
     fut.addListener(cgf -> executeCloseDone(closeContext, done, fut.cause()));
   }
@@ -17,15 +17,17 @@
 package io.vertx.core.http.impl;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.multipart.Attribute;
 import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
-import io.netty.handler.codec.http.multipart.FileUpload;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import io.netty.util.CharsetUtil;
@@ -44,23 +46,20 @@ import io.vertx.core.net.SocketAddress;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.security.cert.X509Certificate;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.Charset;
-import java.util.List;
-import java.util.Map;
 
 /**
  *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
-public class HttpServerRequestImpl implements HttpServerRequest {
+public class HttpServerRequestImpl implements HttpServerRequest, RoutedRequest {
 
   private static final Logger log = LoggerFactory.getLogger(HttpServerRequestImpl.class);
 
+  // Bodies announced as larger are gathered from the received chunks rather than allocated upfront
+  private static final int MAX_PRESIZED_BODY_SIZE = 1024 * 1024;
+
   private final ServerConnection conn;
   private final HttpRequest request;
   private final HttpServerResponse response;
@@ -84,7 +83,8 @@ public class HttpServerRequestImpl implements HttpServerRequest {
   private Handler<Void> endHandler;
   private MultiMap attributes;
   private HttpPostRequestDecoder decoder;
-  private boolean isURLEncoded;
+  private MultipartDecoder multipartDecoder;
+  private String route;
 
   HttpServerRequestImpl(ServerConnection conn,
                         HttpRequest request,
@@ -157,14 +157,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
   @Override
   public MultiMap params() {
     if (params == null) {
-      QueryStringDecoder queryStringDecoder = new QueryStringDecoder(uri());
-      Map<String, List<String>> prms = queryStringDecoder.parameters();
-      params = new CaseInsensitiveHeaders();
-      if (!prms.isEmpty()) {
-        for (Map.Entry<String, List<String>> entry: prms.entrySet()) {
-          params.add(entry.getKey(), entry.getValue());
-        }
-      }
+      params = new QueryParams(uri());
     }
     return params;
   }
@@ -229,9 +222,16 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
   @Override
   public HttpServerRequest bodyHandler(final Handler<Buffer> bodyHandler) {
-    final Buffer body = Buffer.buffer();
-    handler(body::appendBuffer);
-    endHandler(v -> bodyHandler.handle(body));
+    int maxBodySize = conn.maxBodySize();
+    long contentLength = contentLength();
+    if (maxBodySize != -1 && contentLength > maxBodySize) {
+      // No need to read a body which would be rejected anyway
+      rejectBody();
+      return this;
+    }
+    BodyHandler handler = new BodyHandler(maxBodySize, contentLength);
+    handler(handler);
+    endHandler(v -> handler.notifyHandler(bodyHandler));
     return this;
   }
 
@@ -251,7 +251,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
   @Override
   public MultiMap formAttributes() {
-    if (decoder == null) {
+    if (!isExpectMultipart()) {
       throw new IllegalStateException("Call expectMultiPart(true) before request body is received to receive form attributes");
     }
     return attributes();
@@ -259,30 +259,50 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
   @Override
   public HttpServerRequest setExpectMultipart(boolean expect) {
-    if (expect && decoder == null) {
+    if (expect && !isExpectMultipart()) {
       String contentType = request.headers().get(HttpHeaders.Names.CONTENT_TYPE);
-      if (contentType != null) {
-        HttpMethod method = request.getMethod();
+      HttpMethod method = request.getMethod();
+      if (contentType != null &&
+          (method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PATCH))) {
         String lowerCaseContentType = contentType.toLowerCase();
-        isURLEncoded = lowerCaseContentType.startsWith(HttpHeaders.Values.APPLICATION_X_WWW_FORM_URLENCODED);
-        if ((lowerCaseContentType.startsWith(HttpHeaders.Values.MULTIPART_FORM_DATA) || isURLEncoded) &&
-            (method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PATCH))) {
-          decoder = new HttpPostRequestDecoder(new DataFactory(), request);
+        if (lowerCaseContentType.startsWith(HttpHeaders.Values.APPLICATION_X_WWW_FORM_URLENCODED)) {
+          decoder = new HttpPostRequestDecoder(new DefaultHttpDataFactory(false), request);
+        } else if (lowerCaseContentType.startsWith(HttpHeaders.Values.MULTIPART_FORM_DATA)) {
+          String boundary = MultipartDecoder.boundary(contentType);
+          if (boundary == null) {
+            throw new IllegalStateException("No boundary in multipart content type " + contentType);
+          }
+          multipartDecoder = new MultipartDecoder(conn.vertx(), this, boundary, conn.maxFormAttributeSize());
         }
       }
-    } else {
+    } else if (!expect) {
       decoder = null;
+      multipartDecoder = null;
     }
     return this;
   }
 
   @Override
   public boolean isExpectMultipart() {
-    return decoder != null;
+    return decoder != null || multipartDecoder != null;
+  }
+
+  @Override
+  public void setRoute(String route) {
+    this.route = route;
+  }
+
+  /**
+   * @return the pattern of the route that matched the request, or {@code null} when it was not routed
+   */
+  String getRoute() {
+    return route;
   }
 
   void handleData(Buffer data) {
-    if (decoder != null) {
+    if (multipartDecoder != null) {
+      multipartDecoder.handleData(data.getByteBuf());
+    } else if (decoder != null) {
       try {
         decoder.offer(new DefaultHttpContent(data.getByteBuf().duplicate()));
       } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
@@ -296,7 +316,9 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
 
   void handleEnd() {
-    if (decoder != null) {
+    if (multipartDecoder != null) {
+      multipartDecoder.handleEnd();
+    } else if (decoder != null) {
       try {
         decoder.offer(LastHttpContent.EMPTY_LAST_CONTENT);
         while (decoder.hasNext()) {
@@ -304,11 +326,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
           if (data instanceof Attribute) {
             Attribute attr = (Attribute) data;
             try {
-              if (isURLEncoded) {
-                attributes().add(urlDecode(attr.getName()), urlDecode(attr.getValue()));
-              } else {
-                attributes().add(attr.getName(), attr.getValue());
-              }
+              attributes().add(urlDecode(attr.getName()), urlDecode(attr.getValue()));
             } catch (Exception e) {
               // Will never happen, anyway handle it somehow just in case
               handleException(e);
@@ -334,210 +352,44 @@ public class HttpServerRequestImpl implements HttpServerRequest {
     }
   }
 
-  private MultiMap attributes() {
-    // Create it lazily
-    if (attributes == null) {
-      attributes = new CaseInsensitiveHeaders();
+  void handleUpload(HttpServerFileUploadImpl upload) {
+    if (uploadHandler != null) {
+      uploadHandler.handle(upload);
     }
-    return attributes;
   }
 
-  private final static class NettyFileUpload implements FileUpload {
-
-    private final HttpServerFileUploadImpl upload;
-
-
-    private String name;
-    private String filename;
-    private String contentType;
-    private String contentTransferEncoding;
-    private Charset charset;
-    private boolean completed;
-
-    private NettyFileUpload(HttpServerFileUploadImpl upload, String name, String filename, String contentType, String contentTransferEncoding, Charset charset) {
-      this.upload = upload;
-      this.name = name;
-      this.filename = filename;
-      this.contentType = contentType;
-      this.contentTransferEncoding = contentTransferEncoding;
-      this.charset = charset;
-    }
-
-    @Override
-    public void setContent(ByteBuf channelBuffer) throws IOException {
-      completed = true;
-      upload.receiveData(Buffer.buffer(channelBuffer));
-      upload.complete();
-    }
-
-    @Override
-    public void addContent(ByteBuf channelBuffer, boolean last) throws IOException {
-      upload.receiveData(Buffer.buffer(channelBuffer));
-      if (last) {
-        completed = true;
-        upload.complete();
-      }
-    }
-
-    @Override
-    public void setContent(File file) throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public void setContent(InputStream inputStream) throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public boolean isCompleted() {
-      return completed;
-    }
-
-    @Override
-    public long length() {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public void delete() {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public byte[] get() throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public ByteBuf getChunk(int i) throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public String getString() throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public String getString(Charset charset) throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public void setCharset(Charset charset) {
-      this.charset = charset;
-    }
-
-    @Override
-    public Charset getCharset() {
-      return charset;
-    }
-
-    @Override
-    public boolean renameTo(File file) throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public boolean isInMemory() {
-      return false;
-    }
-
-    @Override
-    public File getFile() throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public String getName() {
-      return name;
-    }
-
-    @Override
-    public HttpDataType getHttpDataType() {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public int compareTo(InterfaceHttpData o) {
-      return 0;
-    }
-
-    @Override
-    public String getFilename() {
-      return filename;
-    }
-
-    @Override
-    public void setFilename(String filename) {
-      this.filename = filename;
-    }
-
-    @Override
-    public void setContentType(String contentType) {
-      this.contentType = contentType;
-    }
-
-    @Override
-    public String getContentType() {
-      return contentType;
-    }
-
-    @Override
-    public void setContentTransferEncoding(String contentTransferEncoding) {
-      this.contentTransferEncoding = contentTransferEncoding;
-    }
-
-    @Override
-    public String getContentTransferEncoding() {
-      return contentTransferEncoding;
-    }
-
-    @Override
-    public ByteBuf getByteBuf() throws IOException {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public FileUpload copy() {
-      throw new UnsupportedOperationException();
-    }
-
-    //@Override
-    public FileUpload duplicate() {
-      throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public FileUpload retain() {
-      return this;
-    }
-
-    @Override
-    public FileUpload retain(int increment) {
-      return this;
-    }
+  void handleFormAttribute(String name, String value) {
+    attributes().add(name, value);
+  }
 
-    @Override
-    public ByteBuf content() {
-      throw new UnsupportedOperationException();
+  private long contentLength() {
+    if (HttpHeaders.isTransferEncodingChunked(request)) {
+      return -1;
     }
-
-    @Override
-    public int refCnt() {
-      return 1;
+    try {
+      return HttpHeaders.getContentLength(request, -1);
+    } catch (NumberFormatException e) {
+      return -1;
     }
+  }
 
-    @Override
-    public boolean release() {
-      return false;
+  private void rejectBody() {
+    handler(null);
+    if (!response.ended()) {
+      response.setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code());
+      response.putHeader(io.vertx.core.http.HttpHeaders.CONNECTION, HttpHeaders.Values.CLOSE);
+      response.end();
     }
+    // The rest of the body is not read, the connection can't be reused
+    response.close();
+  }
 
-    @Override
-    public boolean release(int decrement) {
-      return false;
+  private MultiMap attributes() {
+    // Create it lazily
+    if (attributes == null) {
+      attributes = new CaseInsensitiveHeaders();
     }
+    return attributes;
   }
 
   @Override
@@ -545,27 +397,58 @@ public class HttpServerRequestImpl implements HttpServerRequest {
     return conn.localAddress();
   }
 
-  private static String urlDecode(String str) {
-    return QueryStringDecoder.decodeComponent(str, CharsetUtil.UTF_8);
-  }
-
-  private class DataFactory extends DefaultHttpDataFactory {
-
-    DataFactory() {
-      super(false);
+  /**
+   * Aggregates the body of the request. When its size is announced and reasonable, the body is copied once into a
+   * buffer of that size, otherwise the received chunks are gathered into a composite buffer without copying them.
+   * <p>
+   * The chunks are unpooled heap buffers, copied from the connection's buffers when they are received, so the body
+   * handed to the handler, which never releases it, is freed by the garbage collector.
+   */
+  private class BodyHandler implements Handler<Buffer> {
+
+    private final int maxSize;
+    private ByteBuf body;
+    private boolean rejected;
+
+    private BodyHandler(int maxSize, long contentLength) {
+      this.maxSize = maxSize;
+      if (contentLength > 0 && contentLength <= MAX_PRESIZED_BODY_SIZE) {
+        body = Unpooled.buffer((int) contentLength);
+      } else {
+        body = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+      }
     }
 
     @Override
-    public FileUpload createFileUpload(HttpRequest httpRequest, String name, String filename, String contentType, String contentTransferEncoding, Charset charset, long size) {
-      HttpServerFileUploadImpl upload = new HttpServerFileUploadImpl(conn.vertx(), HttpServerRequestImpl.this, name, filename, contentType, contentTransferEncoding, charset,
-          size);
-      NettyFileUpload nettyUpload = new NettyFileUpload(upload, name, filename, contentType,
-          contentTransferEncoding, charset);
-      if (uploadHandler != null) {
-        uploadHandler.handle(upload);
+    public void handle(Buffer chunk) {
+      if (rejected) {
+        return;
+      }
+      ByteBuf buf = chunk.getByteBuf();
+      if (maxSize != -1 && body.readableBytes() + buf.readableBytes() > maxSize) {
+        rejected = true;
+        body = null;
+        rejectBody();
+        return;
       }
-      return nettyUpload;
+      if (body instanceof CompositeByteBuf) {
+        CompositeByteBuf composite = (CompositeByteBuf) body;
+        composite.addComponent(buf);
+        composite.writerIndex(composite.writerIndex() + buf.readableBytes());
+      } else {
+        body.writeBytes(buf);
+      }
+    }
 
+    void notifyHandler(Handler<Buffer> bodyHandler) {
+      if (!rejected) {
+        bodyHandler.handle(Buffer.buffer(body));
+        body = null;
+      }
     }
   }
+
+  private static String urlDecode(String str) {
+    return QueryStringDecoder.decodeComponent(str, CharsetUtil.UTF_8);
+  }
 }
@@ -21,11 +21,9 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.handler.codec.http.DefaultHttpContent;
-import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpRequest;
-import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
@@ -34,12 +32,16 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaderBlock;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.VertxInternal;
 
-import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import static io.netty.handler.codec.http.HttpHeaders.getDateHeader;
 
 /**
  *
@@ -49,18 +51,27 @@ public class HttpServerResponseImpl implements HttpServerResponse {
 
   private static final Buffer NOT_FOUND = Buffer.buffer("<html><body>Resource not found</body><html>");
   private static final Buffer FORBIDDEN = Buffer.buffer("<html><body>Forbidden</body><html>");
+  private static final CharSequence BYTES = HttpHeaders.createOptimized("bytes");
+  private static final CharSequence GZIP = HttpHeaders.createOptimized("gzip");
+  // Pre-compressed variants of static files, in order of preference
+  private static final String[] ENCODINGS = {"br", "gzip"};
+  private static final String[] ENCODING_EXTENSIONS = {".br", ".gz"};
+  private static final CharSequence[] ENCODING_VALUES = {HttpHeaders.createOptimized("br"), GZIP};
 
   private final VertxInternal vertx;
   private final ServerConnection conn;
-  private final HttpResponse response;
+  private final VertxHttpResponse response;
   private final HttpVersion version;
   private final boolean keepAlive;
+  private final boolean sendDateHeader;
+  private final HttpRequest request;
   private boolean headWritten;
   private boolean written;
   private Handler<Void> drainHandler;
   private Handler<Throwable> exceptionHandler;
   private Handler<Void> closeHandler;
   private boolean chunked;
+  private boolean bodyCacheable;
   private boolean closed;
   private ChannelFuture channelFuture;
   private MultiMap headers;
@@ -72,9 +83,11 @@ public class HttpServerResponseImpl implements HttpServerResponse {
   	this.vertx = vertx;
   	this.conn = conn;
     this.version = request.getProtocolVersion();
-    this.response = new DefaultHttpResponse(version, HttpResponseStatus.OK, false);
+    this.response = new VertxHttpResponse(version, HttpResponseStatus.OK);
     this.keepAlive = version == HttpVersion.HTTP_1_1 ||
         (version == HttpVersion.HTTP_1_0 && request.headers().contains(io.vertx.core.http.HttpHeaders.CONNECTION, HttpHeaders.KEEP_ALIVE, true));
+    this.sendDateHeader = conn.isSendDateHeader();
+    this.request = request;
   }
 
   @Override
@@ -135,6 +148,18 @@ public class HttpServerResponseImpl implements HttpServerResponse {
     return chunked;
   }
 
+  @Override
+  public HttpServerResponseImpl setBodyCacheable(boolean cacheable) {
+    checkWritten();
+    this.bodyCacheable = cacheable;
+    return this;
+  }
+
+  @Override
+  public boolean isBodyCacheable() {
+    return bodyCacheable;
+  }
+
   @Override
   public HttpServerResponseImpl putHeader(String key, String value) {
     checkWritten();
@@ -149,6 +174,18 @@ public class HttpServerResponseImpl implements HttpServerResponse {
     return this;
   }
 
+  @Override
+  public HttpServerResponse putHeaders(HttpHeaderBlock block) {
+    checkWritten();
+    if (conn.isCompressionSupported()) {
+      // The compressor replaces the response it compresses by one without the blocks
+      ((HttpHeaderBlockImpl) block).addTo(headers());
+    } else {
+      response.addHeaderBlock((HttpHeaderBlockImpl) block);
+    }
+    return this;
+  }
+
   @Override
   public HttpServerResponseImpl putTrailer(String key, String value) {
     checkWritten();
@@ -255,7 +292,7 @@ public class HttpServerResponseImpl implements HttpServerResponse {
   @Override
   public void end(Buffer chunk) {
     if (!chunked && !contentLengthSet()) {
-      headers().set(HttpHeaders.CONTENT_LENGTH, String.valueOf(chunk.length()));
+      headers().set(HttpHeaders.CONTENT_LENGTH, CachedHeaderValues.contentLength(chunk.length()));
     }
     ByteBuf buf = chunk.getByteBuf();
     end0(buf);
@@ -284,6 +321,18 @@ public class HttpServerResponseImpl implements HttpServerResponse {
     if (!headWritten) {
       // if the head was not written yet we can write out everything in on go
       // which is more cheap.
+      CompressedBodyCache compressedBodies = bodyCacheable ? conn.compressedBodyCache() : null;
+      if (compressedBodies != null && !chunked && trailing == null && compressedBodies.accepts(data)
+          && !headerSet(HttpHeaders.CONTENT_ENCODING)) {
+        String acceptEncoding = request.headers().get(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptsEncoding(acceptEncoding, "gzip")) {
+          // The compressor passes through responses which already have a content encoding
+          data = compressedBodies.gzip(data);
+          response.headers().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+          response.headers().set(HttpHeaders.CONTENT_LENGTH, CachedHeaderValues.contentLength(data.readableBytes()));
+          response.headers().set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+      }
       prepareHeaders();
       FullHttpResponse resp;
       if (trailing != null) {
@@ -351,51 +400,116 @@ public class HttpServerResponseImpl implements HttpServerResponse {
       throw new IllegalStateException("Head already written");
     }
     checkWritten();
-    File file = vertx.resolveFile(filename);
-    if (!file.exists()) {
-      if (notFoundResource != null) {
-        setStatusCode(HttpResponseStatus.NOT_FOUND.code());
-        sendFile(notFoundResource, null, resultHandler);
+    StaticFile file;
+    try {
+      file = conn.openStaticFile(filename);
+    } catch (IOException e) {
+      conn.handleException(e);
+      if (resultHandler != null) {
+        vertx.getOrCreateContext().execute(() -> resultHandler.handle(Future.completedFuture(e)), true);
+      }
+      return;
+    }
+    if (file == null) {
+      if (!vertx.resolveFile(filename).exists()) {
+        if (notFoundResource != null) {
+          setStatusCode(HttpResponseStatus.NOT_FOUND.code());
+          sendFile(notFoundResource, null, resultHandler);
+        } else {
+          sendNotFound();
+        }
       } else {
-        sendNotFound();
+        // send over a 403 Forbidden
+        sendForbidden();
       }
-    } else if (file.isDirectory()) {
-      // send over a 403 Forbidden
-      sendForbidden();
     } else {
-      if (!contentLengthSet()) {
-        putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(file.length()));
+      CharSequence contentType = file.contentType;
+      boolean encoded = false;
+      if (conn.isCompressionSupported() && response.getStatus().code() == HttpResponseStatus.OK.code() && !headerSet(HttpHeaders.CONTENT_ENCODING)) {
+        // Prefer a pre-compressed sibling of the file to compressing it on the fly
+        String acceptEncoding = request.headers().get(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null) {
+          for (int i = 0;i < ENCODINGS.length && !encoded;i++) {
+            if (acceptsEncoding(acceptEncoding, ENCODINGS[i])) {
+              StaticFile variant = openEncodedVariant(filename + ENCODING_EXTENSIONS[i]);
+              if (variant != null) {
+                file.release();
+                file = variant;
+                encoded = true;
+                putHeader(HttpHeaders.CONTENT_ENCODING, ENCODING_VALUES[i]);
+                putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+              }
+            }
+          }
+        }
       }
-      if (!contentTypeSet()) {
-        int li = filename.lastIndexOf('.');
-        if (li != -1 && li != filename.length() - 1) {
-          String ext = filename.substring(li + 1, filename.length());
-          String contentType = MimeMapping.getMimeTypeForExtension(ext);
-          if (contentType != null) {
-            putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+      long offset = 0;
+      long length = file.length;
+      // Validators and ranges only apply to the file itself, not to a not found page
+      if (response.getStatus().code() == HttpResponseStatus.OK.code()) {
+        if (!headerSet(HttpHeaders.ETAG)) {
+          putHeader(HttpHeaders.ETAG, file.etag);
+        }
+        if (!headerSet(HttpHeaders.LAST_MODIFIED)) {
+          putHeader(HttpHeaders.LAST_MODIFIED, file.lastModifiedHeader);
+        }
+        if (!headerSet(HttpHeaders.ACCEPT_RANGES)) {
+          putHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        }
+        if (notModified(file)) {
+          file.release();
+          setStatusCode(HttpResponseStatus.NOT_MODIFIED.code());
+          putHeader(HttpHeaders.CONTENT_LENGTH, file.contentLength);
+          end();
+          notifyResult(resultHandler);
+          return;
+        }
+        String rangeHeader = request.headers().get(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(file)) {
+          long[] range = StaticFile.parseRange(rangeHeader, file.length);
+          if (range == StaticFile.UNSATISFIABLE_RANGE) {
+            file.release();
+            setStatusCode(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code());
+            putHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length);
+            end();
+            notifyResult(resultHandler);
+            return;
+          } else if (range != null) {
+            offset = range[0];
+            length = range[1] - range[0] + 1;
+            setStatusCode(HttpResponseStatus.PARTIAL_CONTENT.code());
+            putHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + file.length);
           }
         }
       }
+      if (!contentLengthSet()) {
+        putHeader(HttpHeaders.CONTENT_LENGTH, length == file.length ? file.contentLength : CachedHeaderValues.contentLength(length));
+      }
+      if (!contentTypeSet() && contentType != null) {
+        putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+      }
       prepareHeaders();
       conn.queueForWrite(response);
-      conn.sendFile(file);
+      try {
+        conn.sendFile(file, offset, length, encoded);
+      } catch (IOException e) {
+        file.release();
+        conn.handleException(e);
+        // The head announcing the length may already be sent, the client would wait for the missing body
+        headWritten = written = true;
+        conn.close();
+        if (resultHandler != null) {
+          vertx.getOrCreateContext().execute(() -> resultHandler.handle(Future.completedFuture(e)), true);
+        }
+        conn.responseComplete();
+        return;
+      }
 
       // write an empty last content to let the http encoder know the response is complete
       channelFuture = conn.writeToChannel(LastHttpContent.EMPTY_LAST_CONTENT);
       headWritten = written = true;
 
-      ContextImpl ctx = vertx.getOrCreateContext();
-      if (resultHandler != null) {
-        channelFuture.addListener(future -> {
-          AsyncResult<Void> res;
-          if (future.isSuccess()) {
-            res = Future.completedFuture();
-          } else {
-            res = Future.completedFuture(future.cause());
-          }
-          ctx.execute(() -> resultHandler.handle(res), true);
-        });
-      }
+      notifyResult(resultHandler);
 
       if (!keepAlive) {
         closeConnAfterWrite();
@@ -404,19 +518,79 @@ public class HttpServerResponseImpl implements HttpServerResponse {
     }
   }
 
+  private StaticFile openEncodedVariant(String filename) {
+    try {
+      return conn.openStaticFile(filename);
+    } catch (IOException e) {
+      // Serve the original file instead
+      return null;
+    }
+  }
 
-  private boolean contentLengthSet() {
-    if (headers == null) {
-      return false;
+  /**
+   * @return whether an {@code Accept-Encoding} header accepts the given content coding
+   */
+  static boolean acceptsEncoding(String acceptEncoding, String coding) {
+    for (String candidate : acceptEncoding.split(",")) {
+      int semi = candidate.indexOf(';');
+      String name = (semi == -1 ? candidate : candidate.substring(0, semi)).trim();
+      if (name.equalsIgnoreCase(coding) || name.equals("*")) {
+        if (semi != -1) {
+          String param = candidate.substring(semi + 1).trim();
+          if (param.startsWith("q=")) {
+            try {
+              return Float.parseFloat(param.substring(2)) > 0;
+            } catch (NumberFormatException e) {
+              return false;
+            }
+          }
+        }
+        return true;
+      }
     }
-    return response.headers().contains(HttpHeaders.CONTENT_LENGTH);
+    return false;
   }
 
-  private boolean contentTypeSet() {
-    if (headers == null) {
-      return false;
+  private boolean notModified(StaticFile file) {
+    String ifNoneMatch = request.headers().get(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      return file.etagMatches(ifNoneMatch);
     }
-    return response.headers().contains(HttpHeaders.CONTENT_TYPE);
+    Date ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE, null);
+    // Dates only have a second precision
+    return ifModifiedSince != null && file.lastModified / 1000 <= ifModifiedSince.getTime() / 1000;
+  }
+
+  private boolean rangeApplies(StaticFile file) {
+    String ifRange = request.headers().get(HttpHeaders.IF_RANGE);
+    return ifRange == null || ifRange.equals(file.etag.toString()) || ifRange.equals(file.lastModifiedHeader.toString());
+  }
+
+  private void notifyResult(Handler<AsyncResult<Void>> resultHandler) {
+    if (resultHandler != null) {
+      ContextImpl ctx = vertx.getOrCreateContext();
+      channelFuture.addListener(future -> {
+        AsyncResult<Void> res;
+        if (future.isSuccess()) {
+          res = Future.completedFuture();
+        } else {
+          res = Future.completedFuture(future.cause());
+        }
+        ctx.execute(() -> resultHandler.handle(res), true);
+      });
+    }
+  }
+
+  private boolean contentLengthSet() {
+    return headerSet(HttpHeaders.CONTENT_LENGTH);
+  }
+
+  private boolean contentTypeSet() {
+    return headerSet(HttpHeaders.CONTENT_TYPE);
+  }
+
+  private boolean headerSet(CharSequence name) {
+    return (headers != null && response.headers().contains(name)) || response.headerBlocksContain(name);
   }
 
   private void closeConnAfterWrite() {
@@ -472,7 +646,10 @@ public class HttpServerResponseImpl implements HttpServerResponse {
     if (chunked) {
       response.headers().set(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CHUNKED);
     } else if (version != HttpVersion.HTTP_1_0 && !contentLengthSet()) {
-      response.headers().set(HttpHeaders.CONTENT_LENGTH, "0");
+      response.headers().set(HttpHeaders.CONTENT_LENGTH, CachedHeaderValues.ZERO);
+    }
+    if (sendDateHeader && !headerSet(HttpHeaders.DATE)) {
+      response.headers().set(HttpHeaders.DATE, CachedHeaderValues.date());
     }
   }
 
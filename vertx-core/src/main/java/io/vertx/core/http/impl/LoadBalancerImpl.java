@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.dns.DnsClient;
+import io.vertx.core.dns.SrvRecord;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.LoadBalancer;
+import io.vertx.core.http.LoadBalancerOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.net.impl.SocketAddressImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadBalancerImpl implements LoadBalancer {
+
+  private final HttpClientImpl client;
+  private final LoadBalancerOptions options;
+  private final long ejectionTime;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile Endpoint[] endpoints = new Endpoint[0];
+
+  public LoadBalancerImpl(HttpClientImpl client, LoadBalancerOptions options) {
+    this.client = client;
+    this.options = new LoadBalancerOptions(options);
+    this.ejectionTime = TimeUnit.MILLISECONDS.toNanos(options.getEjectionTime());
+  }
+
+  @Override
+  public synchronized LoadBalancer addEndpoint(int port, String host) {
+    Objects.requireNonNull(host, "no null host accepted");
+    if (indexOf(endpoints, port, host) == -1) {
+      Endpoint[] copy = new Endpoint[endpoints.length + 1];
+      System.arraycopy(endpoints, 0, copy, 0, endpoints.length);
+      copy[endpoints.length] = new Endpoint(port, host);
+      endpoints = copy;
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized LoadBalancer removeEndpoint(int port, String host) {
+    int index = indexOf(endpoints, port, host);
+    if (index != -1) {
+      Endpoint[] copy = new Endpoint[endpoints.length - 1];
+      System.arraycopy(endpoints, 0, copy, 0, index);
+      System.arraycopy(endpoints, index + 1, copy, index, copy.length - index);
+      endpoints = copy;
+    }
+    return this;
+  }
+
+  @Override
+  public LoadBalancer resolveSRV(DnsClient dnsClient, String name, Handler<AsyncResult<Void>> handler) {
+    dnsClient.resolveSRV(name, ar -> {
+      if (ar.failed()) {
+        handler.handle(Future.completedFuture(ar.cause()));
+      } else if (ar.result().isEmpty()) {
+        handler.handle(Future.completedFuture(new IllegalStateException("No SRV record found for " + name)));
+      } else {
+        setEndpoints(ar.result());
+        handler.handle(Future.completedFuture());
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public List<SocketAddress> endpoints() {
+    List<SocketAddress> list = new ArrayList<>();
+    for (Endpoint endpoint : endpoints) {
+      list.add(endpoint.address);
+    }
+    return list;
+  }
+
+  @Override
+  public boolean isEjected(int port, String host) {
+    Endpoint[] all = endpoints;
+    int index = indexOf(all, port, host);
+    return index != -1 && !all[index].isAvailable(System.nanoTime());
+  }
+
+  @Override
+  public HttpClientRequest request(HttpMethod method, String requestURI, Handler<HttpClientResponse> responseHandler) {
+    Endpoint endpoint = choose();
+    if (endpoint == null) {
+      throw new IllegalStateException("No endpoint to send the request to");
+    }
+    HttpClientRequest request = client.request(method, endpoint.address.hostPort(), endpoint.address.hostAddress(),
+      requestURI, responseHandler);
+    ((HttpClientRequestImpl) request).outcomeHandler(endpoint.outstanding::incrementAndGet, endpoint::requestDone);
+    return request;
+  }
+
+  private Endpoint choose() {
+    Endpoint[] all = endpoints;
+    if (all.length == 0) {
+      return null;
+    }
+    long now = System.nanoTime();
+    Endpoint[] candidates = all;
+    int available = 0;
+    for (Endpoint endpoint : all) {
+      if (endpoint.isAvailable(now)) {
+        available++;
+      }
+    }
+    if (available > 0 && available < all.length) {
+      candidates = new Endpoint[available];
+      int i = 0;
+      for (Endpoint endpoint : all) {
+        if (endpoint.isAvailable(now)) {
+          candidates[i++] = endpoint;
+        }
+      }
+    }
+    int count = candidates.length;
+    switch (options.getStrategy()) {
+      case LEAST_OUTSTANDING_REQUESTS: {
+        // Start from a different endpoint each time, so ties are spread too
+        int start = (next.getAndIncrement() & Integer.MAX_VALUE) % count;
+        Endpoint least = candidates[start];
+        for (int i = 1;i < count;i++) {
+          Endpoint endpoint = candidates[(start + i) % count];
+          if (endpoint.outstanding.get() < least.outstanding.get()) {
+            least = endpoint;
+          }
+        }
+        return least;
+      }
+      case POWER_OF_TWO_CHOICES: {
+        if (count == 1) {
+          return candidates[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(count);
+        int second = random.nextInt(count - 1);
+        if (second >= first) {
+          second++;
+        }
+        Endpoint a = candidates[first];
+        Endpoint b = candidates[second];
+        return b.outstanding.get() < a.outstanding.get() ? b : a;
+      }
+      default:
+        return candidates[(next.getAndIncrement() & Integer.MAX_VALUE) % count];
+    }
+  }
+
+  private synchronized void setEndpoints(List<SrvRecord> records) {
+    int priority = Integer.MAX_VALUE;
+    for (SrvRecord record : records) {
+      priority = Math.min(priority, record.priority());
+    }
+    List<Endpoint> list = new ArrayList<>();
+    for (SrvRecord record : records) {
+      if (record.priority() == priority) {
+        String host = record.target();
+        if (host.endsWith(".")) {
+          host = host.substring(0, host.length() - 1);
+        }
+        int index = indexOf(endpoints, record.port(), host);
+        list.add(index != -1 ? endpoints[index] : new Endpoint(record.port(), host));
+      }
+    }
+    endpoints = list.toArray(new Endpoint[list.size()]);
+  }
+
+  private static int indexOf(Endpoint[] endpoints, int port, String host) {
+    for (int i = 0;i < endpoints.length;i++) {
+      SocketAddress address = endpoints[i].address;
+      if (address.hostPort() == port && address.hostAddress().equals(host)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private class Endpoint {
+
+    final SocketAddress address;
+    final AtomicInteger outstanding = new AtomicInteger();
+    final AtomicInteger failures = new AtomicInteger();
+    volatile boolean ejected;
+    volatile long ejectedUntil;
+
+    Endpoint(int port, String host) {
+      this.address = new SocketAddressImpl(port, host);
+    }
+
+    boolean isAvailable(long now) {
+      return !ejected || now - ejectedUntil >= 0;
+    }
+
+    void requestDone(boolean succeeded) {
+      outstanding.decrementAndGet();
+      if (succeeded) {
+        failures.set(0);
+        ejected = false;
+      } else if (failures.incrementAndGet() >= options.getMaxFailures()) {
+        // Once back the endpoint is given as many chances again
+        failures.set(0);
+        ejectedUntil = System.nanoTime() + ejectionTime;
+        ejected = true;
+      }
+    }
+  }
+}
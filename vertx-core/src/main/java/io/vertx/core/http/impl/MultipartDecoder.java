@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An incremental {@code multipart/form-data} decoder.
+ * <p>
+ * The body is parsed as it is received: file parts are streamed to their {@link HttpServerFileUploadImpl} chunk by
+ * chunk and other parts are collected as form attributes, up to a maximum size when one is set. The data handed to an
+ * upload is a read-only slice of the received chunk, so it is not copied and cannot be changed. The decoder only keeps the input it
+ * could not decide on yet, i.e. what may be the start of a boundary or an incomplete part header.
+ * <p>
+ * When an upload is paused the decoder stops handing it data and keeps the rest of the current chunk, the request is
+ * paused by the upload so no more data is received until the upload is resumed. The memory used by an upload is then
+ * bounded by the size of a chunk, however large the upload is.
+ */
+final class MultipartDecoder {
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final int MAX_PART_HEADERS_SIZE = 8192;
+
+  private enum State {
+    PREAMBLE, DELIMITER, HEADERS, BODY, EPILOGUE, FAILED
+  }
+
+  private final Vertx vertx;
+  private final HttpServerRequestImpl request;
+  private final int maxAttributeSize;
+  // CRLF--boundary
+  private final byte[] delimiter;
+  private State state = State.PREAMBLE;
+  private ByteBuf pending;
+  private int headersSize;
+  private Map<String, String> partHeaders;
+  private HttpServerFileUploadImpl upload;
+  private String attributeName;
+  private Charset attributeCharset;
+  private ByteBuf attributeValue;
+
+  MultipartDecoder(Vertx vertx, HttpServerRequestImpl request, String boundary, int maxAttributeSize) {
+    this.vertx = vertx;
+    this.request = request;
+    this.maxAttributeSize = maxAttributeSize;
+    this.delimiter = ("\r\n--" + boundary).getBytes(CharsetUtil.US_ASCII);
+    // The first boundary is not preceded by a line break, pretend it is
+    this.pending = Unpooled.wrappedBuffer(new byte[]{CR, LF});
+  }
+
+  /**
+   * @return the boundary of a {@code multipart/form-data} content type, or {@code null} when it has none
+   */
+  static String boundary(String contentType) {
+    String boundary = parameters(contentType).get("boundary");
+    return boundary == null || boundary.isEmpty() ? null : boundary;
+  }
+
+  void handleData(ByteBuf chunk) {
+    if (state == State.FAILED || state == State.EPILOGUE) {
+      return;
+    }
+    if (pending != null) {
+      chunk = Unpooled.wrappedBuffer(pending, chunk);
+      pending = null;
+    }
+    decode(chunk);
+  }
+
+  void handleEnd() {
+    if (state != State.EPILOGUE && state != State.FAILED) {
+      fail(new VertxException("Premature end of multipart body"));
+    }
+  }
+
+  /**
+   * Continue decoding after the current upload has been resumed.
+   *
+   * @return whether the decoder is ready for more input, i.e. decoding did not pause an upload again
+   */
+  boolean resume() {
+    if (pending != null && !isPaused()) {
+      ByteBuf input = pending;
+      pending = null;
+      decode(input);
+    }
+    return !isPaused();
+  }
+
+  private boolean isPaused() {
+    return upload != null && upload.isPaused();
+  }
+
+  private void decode(ByteBuf input) {
+    try {
+      while (input.isReadable() && !isPaused()) {
+        boolean progress;
+        switch (state) {
+          case PREAMBLE:
+            progress = skipPreamble(input);
+            break;
+          case DELIMITER:
+            progress = readDelimiterEnd(input);
+            break;
+          case HEADERS:
+            progress = readHeaderLine(input);
+            break;
+          case BODY:
+            progress = readBody(input);
+            break;
+          default:
+            input.skipBytes(input.readableBytes());
+            return;
+        }
+        if (!progress) {
+          break;
+        }
+      }
+    } catch (VertxException e) {
+      fail(e);
+      return;
+    }
+    if (input.isReadable() && state != State.FAILED && state != State.EPILOGUE) {
+      // Keep a copy, so the input can be released and what was handed out stays untouched
+      pending = Unpooled.copiedBuffer(input);
+    }
+  }
+
+  private boolean skipPreamble(ByteBuf input) {
+    int idx = indexOfDelimiter(input);
+    if (idx == -1) {
+      // Keep what may be the start of the delimiter
+      input.skipBytes(Math.max(0, input.readableBytes() - delimiter.length + 1));
+      return false;
+    }
+    input.readerIndex(idx + delimiter.length);
+    state = State.DELIMITER;
+    return true;
+  }
+
+  // After a delimiter: -- ends the body, otherwise optional whitespace then CRLF start a part
+  private boolean readDelimiterEnd(ByteBuf input) {
+    if (input.readableBytes() < 2) {
+      return false;
+    }
+    int start = input.readerIndex();
+    if (input.getByte(start) == '-' && input.getByte(start + 1) == '-') {
+      input.skipBytes(input.readableBytes());
+      state = State.EPILOGUE;
+      return true;
+    }
+    int lf = input.indexOf(start, input.writerIndex(), LF);
+    if (lf == -1) {
+      if (input.readableBytes() > MAX_PART_HEADERS_SIZE) {
+        throw new VertxException("Invalid multipart boundary");
+      }
+      return false;
+    }
+    input.readerIndex(lf + 1);
+    state = State.HEADERS;
+    headersSize = 0;
+    partHeaders = new HashMap<>();
+    return true;
+  }
+
+  private boolean readHeaderLine(ByteBuf input) {
+    int start = input.readerIndex();
+    int lf = input.indexOf(start, input.writerIndex(), LF);
+    if (lf == -1) {
+      if (headersSize + input.readableBytes() > MAX_PART_HEADERS_SIZE) {
+        throw new VertxException("Multipart part headers are larger than " + MAX_PART_HEADERS_SIZE + " bytes");
+      }
+      return false;
+    }
+    int end = lf > start && input.getByte(lf - 1) == CR ? lf - 1 : lf;
+    headersSize += lf + 1 - start;
+    if (headersSize > MAX_PART_HEADERS_SIZE) {
+      throw new VertxException("Multipart part headers are larger than " + MAX_PART_HEADERS_SIZE + " bytes");
+    }
+    input.readerIndex(lf + 1);
+    if (end == start) {
+      startPart();
+      state = State.BODY;
+    } else {
+      String line = input.toString(start, end - start, CharsetUtil.UTF_8);
+      int colon = line.indexOf(':');
+      if (colon > 0) {
+        partHeaders.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+      }
+    }
+    return true;
+  }
+
+  private boolean readBody(ByteBuf input) {
+    int idx = indexOfDelimiter(input);
+    int start = input.readerIndex();
+    if (idx == -1) {
+      // Everything but what may be the start of the delimiter belongs to the part
+      int len = input.readableBytes() - delimiter.length + 1;
+      if (len > 0) {
+        partData(input.slice(start, len));
+        input.skipBytes(len);
+      }
+      return false;
+    }
+    if (idx > start) {
+      partData(input.slice(start, idx - start));
+      input.readerIndex(idx);
+      // Let the loop check whether the upload was paused by its handler before ending the part
+      return true;
+    }
+    input.readerIndex(idx + delimiter.length);
+    endPart();
+    state = State.DELIMITER;
+    return true;
+  }
+
+  private void startPart() {
+    Map<String, String> disposition = parameters(partHeaders.get("content-disposition"));
+    String name = disposition.get("name");
+    String filename = disposition.get("filename");
+    String contentType = partHeaders.get("content-type");
+    Charset charset = CharsetUtil.UTF_8;
+    if (contentType != null) {
+      String charsetName = parameters(contentType).get("charset");
+      if (charsetName != null) {
+        try {
+          charset = Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+          throw new VertxException("Unsupported charset " + charsetName);
+        }
+      }
+    }
+    if (filename != null) {
+      upload = new HttpServerFileUploadImpl(vertx, request, this, name, filename,
+        contentType == null ? "application/octet-stream" : contentType,
+        partHeaders.getOrDefault("content-transfer-encoding", "7bit"), charset, 0);
+      request.handleUpload(upload);
+    } else {
+      attributeName = name;
+      attributeCharset = charset;
+      attributeValue = Unpooled.buffer(0);
+    }
+    partHeaders = null;
+  }
+
+  private void partData(ByteBuf data) {
+    if (upload != null) {
+      upload.receiveData(Buffer.buffer(Unpooled.unmodifiableBuffer(data)));
+    } else if (attributeValue != null) {
+      if (maxAttributeSize != -1 && attributeValue.readableBytes() + data.readableBytes() > maxAttributeSize) {
+        throw new VertxException("Size of form attribute " + attributeName + " exceeds " + maxAttributeSize + " bytes");
+      }
+      attributeValue.writeBytes(data);
+    }
+  }
+
+  private void endPart() {
+    if (upload != null) {
+      HttpServerFileUploadImpl upload = this.upload;
+      this.upload = null;
+      upload.complete();
+    } else if (attributeValue != null) {
+      if (attributeName != null) {
+        request.handleFormAttribute(attributeName, attributeValue.toString(attributeCharset));
+      }
+      attributeName = null;
+      attributeValue = null;
+    }
+  }
+
+  private void fail(Throwable t) {
+    state = State.FAILED;
+    pending = null;
+    attributeValue = null;
+    if (upload != null) {
+      upload.handleException(t);
+      upload = null;
+    }
+    request.handleException(t);
+  }
+
+  // Index of the first occurrence of the delimiter in the readable bytes, or -1
+  private int indexOfDelimiter(ByteBuf input) {
+    int end = input.writerIndex() - delimiter.length;
+    int pos = input.readerIndex();
+    while (pos <= end) {
+      pos = input.indexOf(pos, end + 1, CR);
+      if (pos == -1) {
+        return -1;
+      }
+      int i = 1;
+      while (i < delimiter.length && input.getByte(pos + i) == delimiter[i]) {
+        i++;
+      }
+      if (i == delimiter.length) {
+        return pos;
+      }
+      pos++;
+    }
+    return -1;
+  }
+
+  // Parse the ; separated parameters of a header value, e.g. form-data; name="file"; filename="a.txt"
+  private static Map<String, String> parameters(String value) {
+    Map<String, String> params = new HashMap<>();
+    if (value == null) {
+      return params;
+    }
+    int len = value.length();
+    int pos = value.indexOf(';');
+    while (pos != -1 && pos < len) {
+      pos++;
+      int eq = value.indexOf('=', pos);
+      int semi = value.indexOf(';', pos);
+      if (eq == -1 || (semi != -1 && semi < eq)) {
+        pos = semi;
+        continue;
+      }
+      String name = value.substring(pos, eq).trim().toLowerCase();
+      pos = eq + 1;
+      while (pos < len && value.charAt(pos) == ' ') {
+        pos++;
+      }
+      StringBuilder sb = new StringBuilder();
+      if (pos < len && value.charAt(pos) == '"') {
+        pos++;
+        while (pos < len && value.charAt(pos) != '"') {
+          char c = value.charAt(pos++);
+          if (c == '\\' && pos < len) {
+            c = value.charAt(pos++);
+          }
+          sb.append(c);
+        }
+        pos = value.indexOf(';', pos);
+      } else {
+        int end = value.indexOf(';', pos);
+        sb.append(value, pos, end == -1 ? len : end);
+        pos = end;
+        // Unquoted values end at the separator, trailing spaces are not part of them
+        sb.setLength(sb.toString().trim().length());
+      }
+      params.put(name, sb.toString());
+    }
+    return params;
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.DecompressionException;
+
+import java.util.List;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses a gzip or deflate body with an {@link Inflater} of the {@link ZlibPool} of the event loop, given back
+ * as soon as the end of the compressed stream is reached.
+ * <p>
+ * A deflate body is expected in the zlib format, yet some servers send raw deflate streams: as Netty does, the zlib
+ * header tells them apart.
+ */
+final class PooledZlibDecoder extends ByteToMessageDecoder {
+
+  private static final int FHCRC = 0x02;
+  private static final int FEXTRA = 0x04;
+  private static final int FNAME = 0x08;
+  private static final int FCOMMENT = 0x10;
+
+  private enum State {
+    HEADER, INFLATE, TRAILER, DONE
+  }
+
+  private final boolean gzip;
+  private State state = State.HEADER;
+  private Inflater inflater;
+  // CRC32 for gzip, Adler32 for zlib, none for a raw deflate stream
+  private Checksum checksum;
+  private long totalOut;
+
+  PooledZlibDecoder(boolean gzip) {
+    this.gzip = gzip;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+    for (;;) {
+      switch (state) {
+        case HEADER:
+          if (!(gzip ? readGzipHeader(in) : readZlibHeader(in))) {
+            return;
+          }
+          inflater = ZlibPool.current().acquireInflater();
+          state = State.INFLATE;
+          break;
+        case INFLATE:
+          if (!inflate(ctx, in, out)) {
+            return;
+          }
+          releaseInflater();
+          state = checksum != null ? State.TRAILER : State.DONE;
+          break;
+        case TRAILER:
+          if (!readTrailer(in)) {
+            return;
+          }
+          state = State.DONE;
+          break;
+        default:
+          // Anything after the end of the compressed stream is ignored
+          in.skipBytes(in.readableBytes());
+          return;
+      }
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    try {
+      super.channelInactive(ctx);
+    } finally {
+      // The stream was truncated
+      releaseInflater();
+    }
+  }
+
+  @Override
+  protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+    releaseInflater();
+  }
+
+  private void releaseInflater() {
+    if (inflater != null) {
+      ZlibPool.current().release(inflater);
+      inflater = null;
+    }
+  }
+
+  private boolean readZlibHeader(ByteBuf in) {
+    if (in.readableBytes() < 2) {
+      return false;
+    }
+    int cmf = in.getUnsignedByte(in.readerIndex());
+    int flg = in.getUnsignedByte(in.readerIndex() + 1);
+    if ((cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0) {
+      if ((flg & 0x20) != 0) {
+        throw new DecompressionException("Preset dictionaries are not supported");
+      }
+      in.skipBytes(2);
+      checksum = new Adler32();
+    }
+    return true;
+  }
+
+  private boolean readGzipHeader(ByteBuf in) {
+    int start = in.readerIndex();
+    int end = in.writerIndex();
+    if (end - start < 10) {
+      return false;
+    }
+    if (in.getUnsignedByte(start) != 0x1F || in.getUnsignedByte(start + 1) != 0x8B) {
+      throw new DecompressionException("Input is not in the gzip format");
+    }
+    if (in.getUnsignedByte(start + 2) != 8) {
+      throw new DecompressionException("Unsupported gzip compression method " + in.getUnsignedByte(start + 2));
+    }
+    int flags = in.getUnsignedByte(start + 3);
+    int pos = start + 10;
+    if ((flags & FEXTRA) != 0) {
+      if (end - pos < 2) {
+        return false;
+      }
+      pos += 2 + (in.getUnsignedByte(pos) | in.getUnsignedByte(pos + 1) << 8);
+    }
+    if ((flags & FNAME) != 0) {
+      pos = skipZeroTerminated(in, pos, end);
+    }
+    if ((flags & FCOMMENT) != 0) {
+      pos = skipZeroTerminated(in, pos, end);
+    }
+    if (pos == -1) {
+      return false;
+    }
+    if ((flags & FHCRC) != 0) {
+      pos += 2;
+    }
+    if (pos > end) {
+      return false;
+    }
+    in.readerIndex(pos);
+    checksum = new CRC32();
+    return true;
+  }
+
+  // The position after the zero terminating a field, -1 when it was not received yet
+  private static int skipZeroTerminated(ByteBuf in, int pos, int end) {
+    if (pos == -1 || pos >= end) {
+      return -1;
+    }
+    int zero = in.indexOf(pos, end, (byte) 0);
+    return zero == -1 ? -1 : zero + 1;
+  }
+
+  // Inflate the readable bytes, returns whether the end of the compressed stream was reached
+  private boolean inflate(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+    int readable = in.readableBytes();
+    if (readable == 0) {
+      return false;
+    }
+    if (in.hasArray()) {
+      inflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), readable);
+    } else {
+      byte[] input = new byte[readable];
+      in.getBytes(in.readerIndex(), input);
+      inflater.setInput(input);
+    }
+    ByteBuf decompressed = ctx.alloc().heapBuffer(readable << 1);
+    boolean finished = false;
+    try {
+      while (!inflater.needsInput()) {
+        int writerIndex = decompressed.writerIndex();
+        int n = inflater.inflate(decompressed.array(), decompressed.arrayOffset() + writerIndex, decompressed.writableBytes());
+        if (n > 0) {
+          if (checksum != null) {
+            checksum.update(decompressed.array(), decompressed.arrayOffset() + writerIndex, n);
+          }
+          decompressed.writerIndex(writerIndex + n);
+          totalOut += n;
+        } else if (inflater.needsDictionary()) {
+          throw new DecompressionException("Preset dictionaries are not supported");
+        }
+        if (inflater.finished()) {
+          finished = true;
+          break;
+        }
+        decompressed.ensureWritable(inflater.getRemaining() << 1);
+      }
+      in.skipBytes(readable - inflater.getRemaining());
+    } catch (DataFormatException e) {
+      decompressed.release();
+      throw new DecompressionException("Invalid deflate stream", e);
+    } catch (RuntimeException e) {
+      decompressed.release();
+      throw e;
+    }
+    if (decompressed.isReadable()) {
+      out.add(decompressed);
+    } else {
+      decompressed.release();
+    }
+    return finished;
+  }
+
+  private boolean readTrailer(ByteBuf in) {
+    int expectedChecksum;
+    if (gzip) {
+      if (in.readableBytes() < 8) {
+        return false;
+      }
+      expectedChecksum = readIntLE(in);
+      int size = readIntLE(in);
+      if (size != (int) totalOut) {
+        throw new DecompressionException("Size mismatch, expected " + size + " bytes, got " + (int) totalOut);
+      }
+    } else {
+      if (in.readableBytes() < 4) {
+        return false;
+      }
+      expectedChecksum = in.readInt();
+    }
+    if (expectedChecksum != (int) checksum.getValue()) {
+      throw new DecompressionException("Checksum mismatch");
+    }
+    return true;
+  }
+
+  private static int readIntLE(ByteBuf in) {
+    return in.readUnsignedByte() | in.readUnsignedByte() << 8 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 24;
+  }
+}
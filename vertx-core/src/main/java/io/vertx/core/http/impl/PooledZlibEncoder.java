@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a body to the gzip or zlib format with a {@link Deflater} of the {@link ZlibPool} of the event loop,
+ * given back when the encoder is closed at the end of the body.
+ * <p>
+ * As Netty's encoders do, each buffer written is flushed so that each chunk of a response can be decompressed as
+ * soon as it is received.
+ */
+final class PooledZlibEncoder extends MessageToByteEncoder<ByteBuf> {
+
+  private static final byte[] GZIP_HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+  private final boolean gzip;
+  private final int level;
+  private Deflater deflater;
+  // CRC32 for gzip, Adler32 for zlib
+  private Checksum checksum;
+  private boolean finished;
+
+  PooledZlibEncoder(boolean gzip, int level) {
+    super(false);
+    this.gzip = gzip;
+    this.level = level;
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception {
+    // Room for incompressible data, plus the header
+    return ctx.alloc().heapBuffer((int) Math.ceil(msg.readableBytes() * 1.001) + 12 + GZIP_HEADER.length);
+  }
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception {
+    if (finished) {
+      out.writeBytes(in);
+      return;
+    }
+    start(out);
+    int len = in.readableBytes();
+    if (len == 0) {
+      return;
+    }
+    byte[] input;
+    int offset;
+    if (in.hasArray()) {
+      input = in.array();
+      offset = in.arrayOffset() + in.readerIndex();
+    } else {
+      input = new byte[len];
+      in.getBytes(in.readerIndex(), input);
+      offset = 0;
+    }
+    in.skipBytes(len);
+    checksum.update(input, offset, len);
+    deflater.setInput(input, offset, len);
+    while (!deflater.needsInput()) {
+      deflate(out, Deflater.SYNC_FLUSH);
+    }
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    if (!finished) {
+      ByteBuf footer = ctx.alloc().heapBuffer(64);
+      finish(footer);
+      ctx.writeAndFlush(footer);
+    }
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    releaseDeflater();
+  }
+
+  private void start(ByteBuf out) {
+    if (deflater == null) {
+      deflater = ZlibPool.current().acquireDeflater(level);
+      if (gzip) {
+        out.writeBytes(GZIP_HEADER);
+        checksum = new CRC32();
+      } else {
+        writeZlibHeader(out);
+        checksum = new Adler32();
+      }
+    }
+  }
+
+  private void finish(ByteBuf out) {
+    start(out);
+    finished = true;
+    deflater.finish();
+    while (!deflater.finished()) {
+      deflate(out, Deflater.NO_FLUSH);
+    }
+    int value = (int) checksum.getValue();
+    if (gzip) {
+      writeIntLE(out, value);
+      writeIntLE(out, (int) deflater.getBytesRead());
+    } else {
+      out.writeInt(value);
+    }
+    releaseDeflater();
+  }
+
+  private void deflate(ByteBuf out, int flush) {
+    int n;
+    do {
+      if (!out.isWritable()) {
+        out.ensureWritable(Math.max(64, out.capacity()));
+      }
+      int writerIndex = out.writerIndex();
+      n = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, out.writableBytes(), flush);
+      out.writerIndex(writerIndex + n);
+    } while (n > 0 && !deflater.finished());
+  }
+
+  private void releaseDeflater() {
+    if (deflater != null) {
+      ZlibPool.current().release(deflater);
+      deflater = null;
+    }
+  }
+
+  private void writeZlibHeader(ByteBuf out) {
+    int cmf = 0x78;
+    int flevel = level == Deflater.DEFAULT_COMPRESSION || level == 6 ? 2 : level < 2 ? 0 : level < 6 ? 1 : 3;
+    int flg = flevel << 6;
+    flg += (31 - ((cmf << 8) | flg) % 31) % 31;
+    out.writeByte(cmf);
+    out.writeByte(flg);
+  }
+
+  private static void writeIntLE(ByteBuf out, int value) {
+    out.writeByte(value);
+    out.writeByte(value >>> 8);
+    out.writeByte(value >>> 16);
+    out.writeByte(value >>> 24);
+  }
+}
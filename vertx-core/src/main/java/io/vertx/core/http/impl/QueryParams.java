@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.CharsetUtil;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The parameters of a request, read from the query of its raw uri on demand.
+ * <p>
+ * Looking a parameter up scans the query and only decodes the names which contain escapes and the values of the
+ * matching parameters, so a request pays for the parameters it reads rather than for all the ones it was sent.
+ * Parameters added on top of the query, e.g. by a router, are kept aside. Any other modification, or a bulk read, decodes
+ * the whole query once into a {@link CaseInsensitiveHeaders} which then backs the map.
+ * <p>
+ * Names are case insensitive and, when a name has several values, {@link #get} returns the last one added, as with
+ * {@link CaseInsensitiveHeaders}.
+ */
+final class QueryParams implements MultiMap {
+
+  private final String uri;
+  // Index of the first character of the query, uri.length() when there is none
+  private final int start;
+  private MultiMap added;
+  private MultiMap decoded;
+
+  QueryParams(String uri) {
+    this.uri = uri;
+    int idx = uri.indexOf('?');
+    this.start = idx == -1 ? uri.length() : idx + 1;
+  }
+
+  @Override
+  public String get(String name) {
+    if (decoded != null) {
+      return decoded.get(name);
+    }
+    if (added != null) {
+      String value = added.get(name);
+      if (value != null) {
+        return value;
+      }
+    }
+    String value = null;
+    int len = uri.length();
+    int pos = start;
+    while (pos < len) {
+      int end = pairEnd(pos);
+      int keyEnd = keyEnd(pos, end);
+      if (keyMatches(name, pos, keyEnd)) {
+        // Keep scanning, the last value wins
+        value = value(keyEnd, end);
+      }
+      pos = end + 1;
+    }
+    return value;
+  }
+
+  @Override
+  public String get(CharSequence name) {
+    return get(name.toString());
+  }
+
+  @Override
+  public List<String> getAll(String name) {
+    if (decoded != null) {
+      return decoded.getAll(name);
+    }
+    List<String> values = new ArrayList<>(1);
+    int len = uri.length();
+    int pos = start;
+    while (pos < len) {
+      int end = pairEnd(pos);
+      int keyEnd = keyEnd(pos, end);
+      if (keyMatches(name, pos, keyEnd)) {
+        values.add(value(keyEnd, end));
+      }
+      pos = end + 1;
+    }
+    if (added != null) {
+      values.addAll(added.getAll(name));
+    }
+    return values;
+  }
+
+  @Override
+  public List<String> getAll(CharSequence name) {
+    return getAll(name.toString());
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return get(name) != null;
+  }
+
+  @Override
+  public boolean contains(CharSequence name) {
+    return contains(name.toString());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    if (decoded != null) {
+      return decoded.isEmpty();
+    }
+    if (added != null && !added.isEmpty()) {
+      return false;
+    }
+    int len = uri.length();
+    int pos = start;
+    while (pos < len) {
+      int end = pairEnd(pos);
+      if (keyEnd(pos, end) > pos) {
+        return false;
+      }
+      pos = end + 1;
+    }
+    return true;
+  }
+
+  @Override
+  public MultiMap add(String name, String value) {
+    if (decoded != null) {
+      decoded.add(name, value);
+    } else {
+      if (added == null) {
+        added = new CaseInsensitiveHeaders();
+      }
+      added.add(name, value);
+    }
+    return this;
+  }
+
+  @Override
+  public MultiMap add(CharSequence name, CharSequence value) {
+    return add(name.toString(), value.toString());
+  }
+
+  @Override
+  public MultiMap add(String name, Iterable<String> values) {
+    for (String value : values) {
+      add(name, value);
+    }
+    return this;
+  }
+
+  @Override
+  public MultiMap add(CharSequence name, Iterable<CharSequence> values) {
+    for (CharSequence value : values) {
+      add(name, value);
+    }
+    return this;
+  }
+
+  @Override
+  public MultiMap addAll(MultiMap map) {
+    for (Map.Entry<String, String> entry : map.entries()) {
+      add(entry.getKey(), entry.getValue());
+    }
+    return this;
+  }
+
+  @Override
+  public MultiMap addAll(Map<String, String> map) {
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      add(entry.getKey(), entry.getValue());
+    }
+    return this;
+  }
+
+  @Override
+  public List<Map.Entry<String, String>> entries() {
+    return decode().entries();
+  }
+
+  @Override
+  public Iterator<Map.Entry<String, String>> iterator() {
+    return decode().iterator();
+  }
+
+  @Override
+  public Set<String> names() {
+    return decode().names();
+  }
+
+  @Override
+  public int size() {
+    return decode().size();
+  }
+
+  @Override
+  public MultiMap set(String name, String value) {
+    decode().set(name, value);
+    return this;
+  }
+
+  @Override
+  public MultiMap set(CharSequence name, CharSequence value) {
+    decode().set(name, value);
+    return this;
+  }
+
+  @Override
+  public MultiMap set(String name, Iterable<String> values) {
+    decode().set(name, values);
+    return this;
+  }
+
+  @Override
+  public MultiMap set(CharSequence name, Iterable<CharSequence> values) {
+    decode().set(name, values);
+    return this;
+  }
+
+  @Override
+  public MultiMap setAll(MultiMap map) {
+    decode().setAll(map);
+    return this;
+  }
+
+  @Override
+  public MultiMap setAll(Map<String, String> map) {
+    decode().setAll(map);
+    return this;
+  }
+
+  @Override
+  public MultiMap remove(String name) {
+    decode().remove(name);
+    return this;
+  }
+
+  @Override
+  public MultiMap remove(CharSequence name) {
+    decode().remove(name);
+    return this;
+  }
+
+  @Override
+  public MultiMap clear() {
+    if (decoded == null) {
+      decoded = new CaseInsensitiveHeaders();
+      added = null;
+    } else {
+      decoded.clear();
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return decode().toString();
+  }
+
+  private MultiMap decode() {
+    if (decoded == null) {
+      MultiMap map = new CaseInsensitiveHeaders();
+      int len = uri.length();
+      int pos = start;
+      while (pos < len) {
+        int end = pairEnd(pos);
+        int keyEnd = keyEnd(pos, end);
+        if (keyEnd > pos) {
+          map.add(decodeComponent(pos, keyEnd), value(keyEnd, end));
+        }
+        pos = end + 1;
+      }
+      if (added != null) {
+        map.addAll(added);
+        added = null;
+      }
+      decoded = map;
+    }
+    return decoded;
+  }
+
+  // Index of the & or ; ending the pair starting at pos, or the end of the uri
+  private int pairEnd(int pos) {
+    int len = uri.length();
+    for (int i = pos;i < len;i++) {
+      char c = uri.charAt(i);
+      if (c == '&' || c == ';') {
+        return i;
+      }
+    }
+    return len;
+  }
+
+  // Index of the = ending the name of the pair, or the end of the pair when it has no value
+  private int keyEnd(int pos, int end) {
+    for (int i = pos;i < end;i++) {
+      if (uri.charAt(i) == '=') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private boolean keyMatches(String name, int pos, int keyEnd) {
+    if (keyEnd == pos) {
+      return false;
+    }
+    if (hasEscapes(pos, keyEnd)) {
+      return decodeComponent(pos, keyEnd).equalsIgnoreCase(name);
+    }
+    return keyEnd - pos == name.length() && uri.regionMatches(true, pos, name, 0, name.length());
+  }
+
+  private String value(int keyEnd, int end) {
+    return keyEnd == end ? "" : decodeComponent(keyEnd + 1, end);
+  }
+
+  private String decodeComponent(int from, int to) {
+    String s = uri.substring(from, to);
+    return hasEscapes(from, to) ? QueryStringDecoder.decodeComponent(s, CharsetUtil.UTF_8) : s;
+  }
+
+  private boolean hasEscapes(int from, int to) {
+    for (int i = from;i < to;i++) {
+      char c = uri.charAt(i);
+      if (c == '%' || c == '+') {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A radix tree mapping path patterns to values, so that finding the value bound to a path costs time proportional to
+ * the length of the path rather than to the number of patterns.
+ * <p>
+ * A pattern is made of:
+ * <ul>
+ *   <li>static text, stored on compressed edges shared by all the patterns with the same prefix</li>
+ *   <li>parameters, {@code :name}, matching a non empty path segment up to the next {@code /}</li>
+ *   <li>an optional trailing wildcard, {@code *} or {@code *name}, matching the rest of the path. An unnamed wildcard
+ *   is captured as the {@code *} parameter</li>
+ * </ul>
+ * When several patterns match a path, static text is preferred over parameters, and parameters over wildcards.
+ * <p>
+ * The tree is not thread safe: it is meant to be built first and then looked up from the thread of its handler.
+ */
+public final class RadixTree<T> {
+
+  private static final char[] NO_INDICES = new char[0];
+
+  private final Node<T> root = new Node<>("");
+  private int maxParams;
+
+  /**
+   * @return whether the pattern can be stored in a tree: parameters must span whole path segments and a wildcard can
+   * only end a pattern
+   */
+  public static boolean isSupported(String pattern) {
+    try {
+      parse(pattern);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Bind a value to a pattern.
+   *
+   * @return {@code false} when a value is already bound to an equivalent pattern, in which case it is kept
+   * @throws IllegalArgumentException when the pattern is not supported
+   */
+  public boolean add(String pattern, T value) {
+    List<String> tokens = parse(pattern);
+    List<String> names = new ArrayList<>();
+    Node<T> node = root;
+    for (String token : tokens) {
+      if (token.charAt(0) == ':') {
+        names.add(token.substring(1));
+        if (node.param == null) {
+          node.param = new Node<>("");
+        }
+        node = node.param;
+      } else if (token.charAt(0) == '*') {
+        names.add(token.length() == 1 ? "*" : token.substring(1));
+        if (node.wildcard == null) {
+          node.wildcard = new Node<>("");
+        }
+        node = node.wildcard;
+      } else {
+        node = node.insert(token);
+      }
+    }
+    if (node.route != null) {
+      return false;
+    }
+    node.route = new Route<>(pattern, value, names.toArray(new String[names.size()]));
+    maxParams = Math.max(maxParams, names.size());
+    return true;
+  }
+
+  /**
+   * @return the match for the path or {@code null} when no pattern matches it
+   */
+  public Match<T> lookup(String path) {
+    int[] captures = maxParams == 0 ? null : new int[maxParams * 2];
+    Route<T> route = root.find(path, 0, captures, 0);
+    return route == null ? null : new Match<>(route, path, captures);
+  }
+
+  // Split a pattern into static, :param and *wildcard tokens
+  private static List<String> parse(String pattern) {
+    List<String> tokens = new ArrayList<>();
+    int len = pattern.length();
+    int pos = 0;
+    while (pos < len) {
+      char c = pattern.charAt(pos);
+      if (c == ':') {
+        int end = pos + 1;
+        while (end < len && Character.isLetterOrDigit(pattern.charAt(end))) {
+          end++;
+        }
+        if (end == pos + 1 || !Character.isLetter(pattern.charAt(pos + 1))) {
+          throw new IllegalArgumentException("Invalid parameter name in pattern " + pattern);
+        }
+        if (end < len && pattern.charAt(end) != '/') {
+          throw new IllegalArgumentException("Parameter must span a whole path segment in pattern " + pattern);
+        }
+        String name = pattern.substring(pos, end);
+        if (tokens.contains(name)) {
+          throw new IllegalArgumentException("Cannot use identifier " + name.substring(1) + " more than once in pattern string");
+        }
+        tokens.add(name);
+        pos = end;
+      } else if (c == '*') {
+        String name = pattern.substring(pos);
+        for (int i = 1;i < name.length();i++) {
+          if (!Character.isLetterOrDigit(name.charAt(i))) {
+            throw new IllegalArgumentException("Wildcard must end pattern " + pattern);
+          }
+        }
+        tokens.add(name);
+        pos = len;
+      } else {
+        int end = pos;
+        while (end < len && pattern.charAt(end) != ':' && pattern.charAt(end) != '*') {
+          end++;
+        }
+        tokens.add(pattern.substring(pos, end));
+        pos = end;
+      }
+    }
+    return tokens;
+  }
+
+  private static final class Node<T> {
+
+    String prefix;
+    // First character of each static child, for a quick scan
+    char[] indices = NO_INDICES;
+    Node<T>[] children;
+    Node<T> param;
+    Node<T> wildcard;
+    Route<T> route;
+
+    Node(String prefix) {
+      this.prefix = prefix;
+    }
+
+    // Insert static text below this node, splitting edges as needed, and return the node where it ends
+    Node<T> insert(String text) {
+      if (text.isEmpty()) {
+        return this;
+      }
+      char first = text.charAt(0);
+      for (int i = 0;i < indices.length;i++) {
+        if (indices[i] == first) {
+          Node<T> child = children[i];
+          int common = commonPrefix(child.prefix, text);
+          if (common < child.prefix.length()) {
+            Node<T> split = new Node<>(child.prefix.substring(0, common));
+            child.prefix = child.prefix.substring(common);
+            split.indices = new char[]{child.prefix.charAt(0)};
+            split.children = newArray(1);
+            split.children[0] = child;
+            children[i] = split;
+            child = split;
+          }
+          return child.insert(text.substring(common));
+        }
+      }
+      Node<T> child = new Node<>(text);
+      indices = Arrays.copyOf(indices, indices.length + 1);
+      indices[indices.length - 1] = first;
+      children = children == null ? newArray(1) : Arrays.copyOf(children, children.length + 1);
+      children[children.length - 1] = child;
+      return child;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Node<T>[] newArray(int length) {
+      return new Node[length];
+    }
+
+    // The prefix of this node has been matched up to pos
+    Route<T> find(String path, int pos, int[] captures, int captured) {
+      int len = path.length();
+      if (pos == len && route != null) {
+        return route;
+      }
+      if (pos < len) {
+        char c = path.charAt(pos);
+        for (int i = 0;i < indices.length;i++) {
+          if (indices[i] == c) {
+            Node<T> child = children[i];
+            if (path.startsWith(child.prefix, pos)) {
+              Route<T> found = child.find(path, pos + child.prefix.length(), captures, captured);
+              if (found != null) {
+                return found;
+              }
+            }
+            break;
+          }
+        }
+        if (param != null) {
+          int end = path.indexOf('/', pos);
+          if (end == -1) {
+            end = len;
+          }
+          if (end > pos) {
+            captures[captured * 2] = pos;
+            captures[captured * 2 + 1] = end;
+            Route<T> found = param.find(path, end, captures, captured + 1);
+            if (found != null) {
+              return found;
+            }
+          }
+        }
+      }
+      if (wildcard != null && wildcard.route != null) {
+        captures[captured * 2] = pos;
+        captures[captured * 2 + 1] = len;
+        return wildcard.route;
+      }
+      return null;
+    }
+
+    private static int commonPrefix(String s1, String s2) {
+      int max = Math.min(s1.length(), s2.length());
+      int i = 0;
+      while (i < max && s1.charAt(i) == s2.charAt(i)) {
+        i++;
+      }
+      return i;
+    }
+  }
+
+  private static final class Route<T> {
+
+    final String pattern;
+    final T value;
+    final String[] paramNames;
+
+    Route(String pattern, T value, String[] paramNames) {
+      this.pattern = pattern;
+      this.value = value;
+      this.paramNames = paramNames;
+    }
+  }
+
+  /**
+   * The value bound to a path and the parameters captured from it, which are only extracted on demand.
+   */
+  public static final class Match<T> {
+
+    private final Route<T> route;
+    private final String path;
+    private final int[] captures;
+
+    private Match(Route<T> route, String path, int[] captures) {
+      this.route = route;
+      this.path = path;
+      this.captures = captures;
+    }
+
+    /**
+     * @return the pattern the path matched, as it was added to the tree
+     */
+    public String pattern() {
+      return route.pattern;
+    }
+
+    public T value() {
+      return route.value;
+    }
+
+    public int paramCount() {
+      return route.paramNames.length;
+    }
+
+    public String paramName(int index) {
+      return route.paramNames[index];
+    }
+
+    public String paramValue(int index) {
+      return path.substring(captures[index * 2], captures[index * 2 + 1]);
+    }
+
+    public Map<String, String> params() {
+      Map<String, String> params = new HashMap<>(route.paramNames.length);
+      for (int i = 0;i < route.paramNames.length;i++) {
+        params.put(route.paramNames[i], paramValue(i));
+      }
+      return params;
+    }
+  }
+}
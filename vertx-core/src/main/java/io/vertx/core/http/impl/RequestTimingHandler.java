@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+/**
+ * Notes when the first bytes of each request are read, it sits in front of the HTTP decoder so the time spent
+ * receiving and decoding the request head can be told apart from the rest.
+ * <p>
+ * The connection takes the time when the head of a request is decoded, after which reads belong to the body of the
+ * request until it is fully received. The first read after that starts the next request.
+ */
+class RequestTimingHandler extends ChannelInboundHandlerAdapter {
+
+  // Set by the event loop and taken by the connection, which may run on a worker
+  private volatile long firstByteRead;
+  private volatile boolean receiving;
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    if (!receiving && firstByteRead == 0) {
+      firstByteRead = System.nanoTime();
+    }
+    super.channelRead(ctx, msg);
+  }
+
+  /**
+   * Called when the head of a request is decoded.
+   *
+   * @return when the first bytes of the request were read, or {@code 0} when they were read with the end of the
+   * previous request
+   */
+  long requestDecoded() {
+    receiving = true;
+    long time = firstByteRead;
+    firstByteRead = 0;
+    return time;
+  }
+
+  /**
+   * Called when the end of a request is received.
+   */
+  void requestReceived() {
+    receiving = false;
+  }
+}
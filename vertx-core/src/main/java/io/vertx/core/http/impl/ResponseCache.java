@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in memory cache of the responses to the {@code GET} requests of a client, behaving as a private cache as
+ * specified by RFC 7234.
+ * <p>
+ * Responses are stored when their status is cacheable by default and they either have an explicit freshness lifetime
+ * ({@code Cache-Control: max-age} or {@code Expires}) or a validator ({@code ETag} or {@code Last-Modified}). Fresh
+ * responses are served without going to the network, stale ones are revalidated with a conditional request and served
+ * again when the server answers {@code 304 Not Modified}. A response with a {@code stale-while-revalidate} directive is
+ * served stale during that period while it is revalidated in the background.
+ * <p>
+ * Only one request at a time is sent for the same resource, the requests for it received meanwhile wait for the
+ * response and are served from the cache when it was stored. The bodies are stored once as read only buffers shared
+ * by all the responses served from them. The least recently used entries are evicted when the cache is full.
+ */
+final class ResponseCache {
+
+  private final HttpClientImpl client;
+  private final long maxSize;
+  // Access ordered, the eldest entry is the least recently used one
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, InFlight> inFlight = new HashMap<>();
+  private long size;
+  private long hits;
+  private long staleHits;
+  private long misses;
+  private long revalidations;
+  private long coalesced;
+  private long evictions;
+
+  ResponseCache(HttpClientImpl client, long maxSize) {
+    this.client = client;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Serve an ended request from the cache, or send it to fill or revalidate the cache.
+   */
+  void send(HttpClientRequestImpl req) {
+    lookup(req, true);
+  }
+
+  /**
+   * Handle the response to a request sent by the cache.
+   *
+   * @return the entry to serve instead of the response when it revalidated it, otherwise {@code null}
+   */
+  Entry handleResponse(HttpClientRequestImpl req, String key, Entry validated, HttpClientResponseImpl resp) {
+    long now = System.currentTimeMillis();
+    if (resp.statusCode() == 304 && validated != null) {
+      Entry refreshed = validated.refresh(resp.headers(), now);
+      synchronized (this) {
+        revalidations++;
+        store(key, refreshed);
+      }
+      complete(key, req);
+      return refreshed;
+    }
+    if (isCacheable(req.headers(), resp)) {
+      resp.recorder(new Recorder(key, req, resp, now));
+      return null;
+    }
+    synchronized (this) {
+      remove(key);
+    }
+    complete(key, req);
+    return null;
+  }
+
+  /**
+   * The request sent to fill or revalidate an entry is done, whether it succeeded or not: release the requests
+   * waiting for it.
+   */
+  void complete(String key, HttpClientRequestImpl req) {
+    List<HttpClientRequestImpl> waiters;
+    synchronized (this) {
+      InFlight pending = inFlight.get(key);
+      if (pending == null || pending.leader != req) {
+        return;
+      }
+      inFlight.remove(key);
+      waiters = pending.waiters;
+    }
+    for (HttpClientRequestImpl waiter : waiters) {
+      // Look the cache up again, requests that still miss are sent on their own
+      waiter.context().runOnContext(v -> lookup(waiter, false));
+    }
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    size = 0;
+  }
+
+  synchronized JsonObject metrics() {
+    return new JsonObject()
+      .put("hits", hits)
+      .put("staleHits", staleHits)
+      .put("misses", misses)
+      .put("revalidations", revalidations)
+      .put("coalesced", coalesced)
+      .put("evictions", evictions)
+      .put("entries", entries.size())
+      .put("size", size);
+  }
+
+  private void lookup(HttpClientRequestImpl req, boolean coalesce) {
+    if (req.hasFailed()) {
+      return;
+    }
+    MultiMap headers = req.headers();
+    String key = req.host() + ':' + req.port() + req.uri();
+    if (!req.method().equals("GET") && !req.method().equals("HEAD")) {
+      // An unsafe request may change the resource
+      synchronized (this) {
+        remove(key);
+      }
+      req.sendCacheRequest(null, null);
+      return;
+    }
+    Map<String, String> directives = directives(headers.getAll(HttpHeaders.CACHE_CONTROL));
+    if (req.method().equals("HEAD") || directives.containsKey("no-store") || headers.contains(HttpHeaders.AUTHORIZATION)
+      || headers.contains(HttpHeaders.IF_NONE_MATCH) || headers.contains(HttpHeaders.IF_MODIFIED_SINCE)) {
+      // Requests validating their own copy are left alone
+      req.sendCacheRequest(null, null);
+      return;
+    }
+    boolean noCache = directives.containsKey("no-cache") || "no-cache".equalsIgnoreCase(headers.get("Pragma"));
+    long maxAge = seconds(directives.get("max-age"));
+    long now = System.currentTimeMillis();
+    Entry serve = null;
+    Entry validate = null;
+    HttpClientRequestImpl background = null;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && !entry.matches(headers)) {
+        entry = null;
+      }
+      if (entry != null && !noCache && entry.isFresh(now, maxAge)) {
+        hits++;
+        serve = entry;
+      } else if (entry != null && !noCache && maxAge == -1 && entry.isServableWhileRevalidating(now)) {
+        staleHits++;
+        serve = entry;
+        if (!inFlight.containsKey(key)) {
+          background = (HttpClientRequestImpl) client.request(HttpMethod.GET, req.port(), req.host(), req.uri(), resp -> {
+            // The response is only recorded
+          });
+          background.headers().setAll(headers);
+          inFlight.put(key, new InFlight(background));
+        }
+      } else {
+        InFlight pending = inFlight.get(key);
+        if (pending != null && coalesce) {
+          coalesced++;
+          pending.waiters.add(req);
+          return;
+        }
+        misses++;
+        validate = entry;
+        if (pending == null) {
+          inFlight.put(key, new InFlight(req));
+        }
+      }
+    }
+    if (serve != null) {
+      req.serveCached(serve);
+      if (background != null) {
+        background.sendCacheRequest(key, serve);
+        background.end();
+      }
+    } else {
+      // When another request is already in flight, this one is sent on its own and does not release its waiters
+      req.sendCacheRequest(key, validate);
+    }
+  }
+
+  private void stored(String key, HttpClientRequestImpl req, Entry entry) {
+    synchronized (this) {
+      store(key, entry);
+    }
+    complete(key, req);
+  }
+
+  private void store(String key, Entry entry) {
+    remove(key);
+    if (entry.size > maxSize) {
+      return;
+    }
+    entries.put(key, entry);
+    size += entry.size;
+    Iterator<Entry> it = entries.values().iterator();
+    while (size > maxSize && it.hasNext()) {
+      size -= it.next().size;
+      it.remove();
+      evictions++;
+    }
+  }
+
+  private void remove(String key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      size -= removed.size;
+    }
+  }
+
+  private boolean isCacheable(MultiMap requestHeaders, HttpClientResponseImpl resp) {
+    switch (resp.statusCode()) {
+      // The statuses cacheable by default
+      case 200:
+      case 203:
+      case 204:
+      case 300:
+      case 301:
+      case 404:
+      case 405:
+      case 410:
+      case 414:
+      case 501:
+        break;
+      default:
+        return false;
+    }
+    MultiMap headers = resp.headers();
+    Map<String, String> directives = directives(headers.getAll(HttpHeaders.CACHE_CONTROL));
+    if (directives.containsKey("no-store") || directives(requestHeaders.getAll(HttpHeaders.CACHE_CONTROL)).containsKey("no-store")) {
+      return false;
+    }
+    if ("*".equals(headers.get(HttpHeaders.VARY))) {
+      return false;
+    }
+    String contentLength = headers.get(HttpHeaders.CONTENT_LENGTH);
+    if (contentLength != null && parseLong(contentLength) > maxSize) {
+      return false;
+    }
+    return directives.containsKey("max-age") || headers.contains(HttpHeaders.EXPIRES)
+      || headers.contains(HttpHeaders.ETAG) || headers.contains(HttpHeaders.LAST_MODIFIED);
+  }
+
+  // Parse the directives of Cache-Control headers, e.g. max-age=60, must-revalidate
+  static Map<String, String> directives(List<String> values) {
+    if (values.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> directives = new HashMap<>();
+    for (String value : values) {
+      for (String directive : value.split(",")) {
+        int eq = directive.indexOf('=');
+        if (eq == -1) {
+          directives.put(directive.trim().toLowerCase(), "");
+        } else {
+          String arg = directive.substring(eq + 1).trim();
+          if (arg.length() > 1 && arg.charAt(0) == '"' && arg.charAt(arg.length() - 1) == '"') {
+            arg = arg.substring(1, arg.length() - 1);
+          }
+          directives.put(directive.substring(0, eq).trim().toLowerCase(), arg);
+        }
+      }
+    }
+    return directives;
+  }
+
+  // A delta-seconds value in ms, -1 when absent or invalid
+  private static long seconds(String value) {
+    long seconds = parseLong(value);
+    return seconds < 0 ? -1 : seconds * 1000;
+  }
+
+  private static long parseLong(String value) {
+    if (value == null || value.isEmpty()) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  // A HTTP date in ms, -1 when absent or invalid
+  private static long date(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * A stored response.
+   */
+  static final class Entry {
+
+    final int statusCode;
+    final String statusMessage;
+    final MultiMap headers;
+    // Read only, duplicated for each response served
+    final ByteBuf body;
+    // The values of the request headers named by the Vary header of the response
+    private final Map<String, String> vary;
+    private final long responseTime;
+    private final long initialAge;
+    private final long lifetime;
+    private final long staleWhileRevalidate;
+    private final boolean mustRevalidate;
+    private final long size;
+
+    private Entry(int statusCode, String statusMessage, MultiMap headers, ByteBuf body, Map<String, String> vary,
+                  long responseTime) {
+      this.statusCode = statusCode;
+      this.statusMessage = statusMessage;
+      this.headers = headers;
+      this.body = body;
+      this.vary = vary;
+      this.responseTime = responseTime;
+      Map<String, String> directives = directives(headers.getAll(HttpHeaders.CACHE_CONTROL));
+      long date = date(headers.get(HttpHeaders.DATE));
+      this.initialAge = Math.max(Math.max(0, date == -1 ? 0 : responseTime - date), seconds(headers.get(HttpHeaders.AGE)));
+      long maxAge = seconds(directives.get("max-age"));
+      if (directives.containsKey("no-cache")) {
+        lifetime = 0;
+      } else if (maxAge != -1) {
+        lifetime = maxAge;
+      } else if (headers.contains(HttpHeaders.EXPIRES)) {
+        // An invalid date, e.g. 0, means already expired
+        long expires = date(headers.get(HttpHeaders.EXPIRES));
+        lifetime = Math.max(0, expires - (date == -1 ? responseTime : date));
+      } else {
+        lifetime = 0;
+      }
+      this.staleWhileRevalidate = Math.max(0, seconds(directives.get("stale-while-revalidate")));
+      this.mustRevalidate = directives.containsKey("must-revalidate") || directives.containsKey("no-cache");
+      long size = body.readableBytes();
+      for (Map.Entry<String, String> header : headers) {
+        size += header.getKey().length() + header.getValue().length();
+      }
+      this.size = size;
+    }
+
+    long age(long now) {
+      return initialAge + Math.max(0, now - responseTime);
+    }
+
+    boolean isFresh(long now, long maxAge) {
+      long age = age(now);
+      return age < lifetime && (maxAge == -1 || age <= maxAge);
+    }
+
+    boolean isServableWhileRevalidating(long now) {
+      return !mustRevalidate && staleWhileRevalidate > 0 && age(now) < lifetime + staleWhileRevalidate;
+    }
+
+    boolean matches(MultiMap requestHeaders) {
+      for (Map.Entry<String, String> header : vary.entrySet()) {
+        String value = requestHeaders.get(header.getKey());
+        if (value == null ? header.getValue() != null : !value.equals(header.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    String etag() {
+      return headers.get(HttpHeaders.ETAG);
+    }
+
+    String lastModified() {
+      return headers.get(HttpHeaders.LAST_MODIFIED);
+    }
+
+    // The entry updated with the headers of a 304 response
+    Entry refresh(MultiMap notModifiedHeaders, long now) {
+      MultiMap merged = new CaseInsensitiveHeaders().addAll(headers);
+      for (String name : notModifiedHeaders.names()) {
+        if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH.toString())) {
+          merged.set(name, notModifiedHeaders.getAll(name));
+        }
+      }
+      return new Entry(statusCode, statusMessage, merged, body, vary, now);
+    }
+  }
+
+  /**
+   * Records the body of a response while it is received, and stores it when complete.
+   */
+  final class Recorder {
+
+    private final String key;
+    private final HttpClientRequestImpl req;
+    private final int statusCode;
+    private final String statusMessage;
+    private final MultiMap headers;
+    private final Map<String, String> vary;
+    private final long responseTime;
+    private Buffer body;
+    private boolean done;
+
+    private Recorder(String key, HttpClientRequestImpl req, HttpClientResponseImpl resp, long responseTime) {
+      this.key = key;
+      this.req = req;
+      this.statusCode = resp.statusCode();
+      this.statusMessage = resp.statusMessage();
+      this.headers = new CaseInsensitiveHeaders().addAll(resp.headers());
+      this.responseTime = responseTime;
+      this.vary = varyValues(req.headers(), headers.getAll(HttpHeaders.VARY));
+      long length = parseLong(headers.get(HttpHeaders.CONTENT_LENGTH));
+      this.body = Buffer.buffer(length > 0 ? (int) length : 1024);
+    }
+
+    void data(Buffer chunk) {
+      if (done) {
+        return;
+      }
+      if (body.length() + chunk.length() > maxSize) {
+        abandon();
+        return;
+      }
+      body.appendBuffer(chunk);
+    }
+
+    void end() {
+      if (!done) {
+        done = true;
+        ByteBuf content = Unpooled.unmodifiableBuffer(body.getByteBuf());
+        body = null;
+        stored(key, req, new Entry(statusCode, statusMessage, headers, content, vary, responseTime));
+      }
+    }
+
+    void abandon() {
+      if (!done) {
+        done = true;
+        body = null;
+        complete(key, req);
+      }
+    }
+
+    private Map<String, String> varyValues(MultiMap requestHeaders, List<String> varyHeaders) {
+      if (varyHeaders.isEmpty()) {
+        return Collections.emptyMap();
+      }
+      Map<String, String> values = new HashMap<>();
+      for (String varyHeader : varyHeaders) {
+        for (String name : varyHeader.split(",")) {
+          name = name.trim().toLowerCase();
+          if (!name.isEmpty()) {
+            values.put(name, requestHeaders.get(name));
+          }
+        }
+      }
+      return values;
+    }
+  }
+
+  private static final class InFlight {
+
+    // The request sent to fill or revalidate the entry
+    final HttpClientRequestImpl leader;
+    final List<HttpClientRequestImpl> waiters = new ArrayList<>();
+
+    InFlight(HttpClientRequestImpl leader) {
+      this.leader = leader;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.metrics.impl.LatencyHistogram;
+import io.vertx.core.metrics.spi.RequestTimings;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The latency histograms of the requests of a server, per route and per stage of the request handling:
+ * <ul>
+ *   <li>{@code receive}: from the first byte read to the decoded request head</li>
+ *   <li>{@code queue}: from the decoded head to the dispatch to the handler, e.g. behind a pipelined request</li>
+ *   <li>{@code handler}: from the dispatch to the first byte of the response written</li>
+ *   <li>{@code write}: from the first to the last byte of the response flushed</li>
+ *   <li>{@code total}: from the first byte read to the last byte flushed</li>
+ * </ul>
+ * All the values are in nanoseconds.
+ */
+class RouteLatencies {
+
+  static final String DEFAULT_ROUTE = "default";
+
+  private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+  void record(RequestTimings timings) {
+    String name = timings.route() == null ? DEFAULT_ROUTE : timings.route();
+    Route route = routes.get(name);
+    if (route == null) {
+      route = routes.computeIfAbsent(name, n -> new Route());
+    }
+    route.receive.record(timings.headersDecoded() - timings.firstByteRead());
+    route.queue.record(timings.handlerDispatched() - timings.headersDecoded());
+    route.handler.record(timings.firstByteWritten() - timings.handlerDispatched());
+    route.write.record(timings.lastByteFlushed() - timings.firstByteWritten());
+    route.total.record(timings.lastByteFlushed() - timings.firstByteRead());
+  }
+
+  /**
+   * @return the histograms of each route, keyed by {@code routes.<pattern>}
+   */
+  Map<String, JsonObject> metrics() {
+    Map<String, JsonObject> metrics = new HashMap<>();
+    routes.forEach((name, route) -> metrics.put("routes." + name, new JsonObject()
+      .put("receive", route.receive.toJson())
+      .put("queue", route.queue.toJson())
+      .put("handler", route.handler.toJson())
+      .put("write", route.write.toJson())
+      .put("total", route.total.toJson())));
+    return metrics;
+  }
+
+  private static class Route {
+    final LatencyHistogram receive = new LatencyHistogram();
+    final LatencyHistogram queue = new LatencyHistogram();
+    final LatencyHistogram handler = new LatencyHistogram();
+    final LatencyHistogram write = new LatencyHistogram();
+    final LatencyHistogram total = new LatencyHistogram();
+  }
+}
@@ -26,6 +26,7 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.FileRegion;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
@@ -45,12 +46,13 @@ import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
 import io.vertx.core.metrics.spi.HttpServerMetrics;
+import io.vertx.core.metrics.spi.RequestTimings;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.impl.ConnectionBase;
 import io.vertx.core.net.impl.NetSocketImpl;
 import io.vertx.core.net.impl.VertxNetHandler;
 
-import java.io.File;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
@@ -81,6 +83,18 @@ class ServerConnection extends ConnectionBase {
   private final HttpServerMetrics metrics;
   private long bytesRead;
   private long bytesWritten;
+  private final ConcurrencyLimiter limiter;
+  // Whether the pending response belongs to a request dispatched to the request handler
+  private boolean dispatched;
+  private long dispatchTime;
+  // Set when the stages of the requests are timed
+  private final RequestTimingHandler timingHandler;
+  // When the requests not dispatched yet were read and decoded
+  private final Queue<long[]> receiveTimes;
+  private HttpServerRequestImpl timedRequest;
+  private long firstByteRead;
+  private long headersDecoded;
+  private long firstByteWritten;
 
   ServerConnection(VertxInternal vertx, HttpServerImpl server, Channel channel, ContextImpl context, String serverOrigin, WebSocketServerHandshaker handshaker, HttpServerMetrics metrics) {
     super(vertx, channel, context, metrics);
@@ -88,6 +102,9 @@ class ServerConnection extends ConnectionBase {
     this.server = server;
     this.handshaker = handshaker;
     this.metrics = metrics;
+    this.limiter = server.requestLimiter(channel.eventLoop());
+    this.timingHandler = channel.pipeline().get(RequestTimingHandler.class);
+    this.receiveTimes = timingHandler != null ? new ArrayDeque<>(4) : null;
   }
 
   public void pause() {
@@ -104,6 +121,16 @@ class ServerConnection extends ConnectionBase {
   }
 
   void handleMessage(Object msg) {
+    if (timingHandler != null) {
+      if (msg instanceof HttpRequest) {
+        long now = System.nanoTime();
+        long firstByte = timingHandler.requestDecoded();
+        receiveTimes.add(new long[]{firstByte == 0 ? now : firstByte, now});
+      }
+      if (msg instanceof LastHttpContent) {
+        timingHandler.requestReceived();
+      }
+    }
     if (paused || (pendingResponse != null && msg instanceof HttpRequest) || !pending.isEmpty()) {
       //We queue requests if paused or a request is in progress to prevent responses being written in the wrong order
       pending.add(msg);
@@ -122,8 +149,17 @@ class ServerConnection extends ConnectionBase {
     if (metrics.isEnabled()) {
       metrics.bytesWritten(remoteAddress(), bytesWritten);
       bytesWritten = 0;
-      metrics.responseEnd(pendingResponse);
+      if (dispatched) {
+        metrics.responseEnd(pendingResponse);
+      }
     }
+    if (dispatched && limiter != null) {
+      limiter.release(System.nanoTime() - dispatchTime);
+    }
+    if (dispatched && timedRequest != null) {
+      reportTimings();
+    }
+    dispatched = false;
     pendingResponse = null;
     checkNextTick();
   }
@@ -136,6 +172,9 @@ class ServerConnection extends ConnectionBase {
     this.wsHandler = handler;
   }
 
+  boolean isSendDateHeader() {
+    return server.options().isSendDateHeader();
+  }
   String getServerOrigin() {
     return serverOrigin;
   }
@@ -155,9 +194,32 @@ class ServerConnection extends ConnectionBase {
         bytesWritten += bytes;
       }
     }
+    if (timedRequest != null && firstByteWritten == 0) {
+      firstByteWritten = System.nanoTime();
+    }
     return lastWriteFuture = super.writeToChannel(obj);
   }
 
+  // Report the timings of the request once the last byte of its response is flushed
+  private void reportTimings() {
+    HttpServerRequestImpl request = timedRequest;
+    timedRequest = null;
+    long firstByteRead = this.firstByteRead;
+    long headersDecoded = this.headersDecoded;
+    long handlerDispatched = this.dispatchTime;
+    long firstByteWritten = this.firstByteWritten;
+    String route = request.getRoute();
+    if (lastWriteFuture == null) {
+      return;
+    }
+    lastWriteFuture.addListener(future -> {
+      if (future.isSuccess()) {
+        server.requestTimings(request, new RequestTimings(route, firstByteRead, headersDecoded, handlerDispatched,
+          firstByteWritten, System.nanoTime()));
+      }
+    });
+  }
+
   NetSocket createNetSocket() {
     NetSocketImpl socket = new NetSocketImpl(vertx, channel, context, server.getSslHelper(), false, metrics);
     Map<Channel, NetSocketImpl> connectionMap = new HashMap<Channel, NetSocketImpl>(1);
@@ -174,6 +236,9 @@ class ServerConnection extends ConnectionBase {
     }
 
     pipeline.remove("httpDecoder");
+    if (timingHandler != null) {
+      pipeline.remove(timingHandler);
+    }
     if (pipeline.get("chunkedWriter") != null) {
       pipeline.remove("chunkedWriter");
     }
@@ -220,6 +285,25 @@ class ServerConnection extends ConnectionBase {
   private void handleRequest(HttpServerRequestImpl req, HttpServerResponseImpl resp) {
     this.currentRequest = req;
     pendingResponse = resp;
+    long[] times = receiveTimes != null ? receiveTimes.poll() : null;
+    if (limiter != null) {
+      if (!limiter.tryAcquire()) {
+        // Shed the request before it costs anything more, its body is dropped as no handler is set
+        metrics.requestRejected(req);
+        resp.setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).end();
+        return;
+      }
+    }
+    if (limiter != null || times != null) {
+      dispatchTime = System.nanoTime();
+    }
+    if (times != null) {
+      timedRequest = req;
+      firstByteRead = times[0];
+      headersDecoded = times[1];
+      firstByteWritten = 0;
+    }
+    dispatched = true;
     metrics.requestBegin(req, resp);
     if (requestHandler != null) {
       requestHandler.handle(req);
@@ -275,6 +359,11 @@ class ServerConnection extends ConnectionBase {
     if (pendingResponse != null) {
       pendingResponse.handleClosed();
     }
+    if (dispatched && limiter != null) {
+      dispatched = false;
+      limiter.release(-1);
+    }
+    timedRequest = null;
   }
 
   protected ContextImpl getContext() {
@@ -304,8 +393,37 @@ class ServerConnection extends ConnectionBase {
     return super.supportsFileRegion() && channel.pipeline().get(HttpChunkContentCompressor.class) == null;
   }
 
-  protected ChannelFuture sendFile(File file) {
-    return super.sendFile(file);
+  StaticFile openStaticFile(String filename) throws IOException {
+    StaticFileCache cache = server.fileCache();
+    return cache != null ? cache.get(filename) : StaticFile.open(vertx.resolveFile(filename));
+  }
+
+  CompressedBodyCache compressedBodyCache() {
+    return server.compressedBodyCache();
+  }
+
+  boolean isCompressionSupported() {
+    return server.options().isCompressionSupported();
+  }
+
+  int maxFormAttributeSize() {
+    return server.options().getMaxFormAttributeSize();
+  }
+
+  int maxBodySize() {
+    return server.options().getMaxBodySize();
+  }
+
+  /**
+   * @param encoded whether the file is already content encoded, in which case the compressor passes it through and
+   *                zero-copy can be used even when compression is supported
+   */
+  ChannelFuture sendFile(StaticFile file, long offset, long length, boolean encoded) throws IOException {
+    if (encoded ? super.supportsFileRegion() : supportsFileRegion()) {
+      return writeToChannel(file.region(offset, length));
+    } else {
+      return writeToChannel(file.chunkedInput(offset, length));
+    }
   }
 
   @Override
@@ -388,6 +506,8 @@ class ServerConnection extends ConnectionBase {
     } else if (obj instanceof ChunkedFile) {
       ChunkedFile file = (ChunkedFile) obj;
       return file.endOffset() - file.startOffset();
+    } else if (obj instanceof StaticFile.Chunked) {
+      return ((StaticFile.Chunked) obj).length();
     } else {
       return -1;
     }
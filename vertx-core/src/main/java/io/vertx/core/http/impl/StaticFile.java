@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+import io.netty.handler.stream.ChunkedInput;
+import io.vertx.core.http.HttpHeaders;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A regular file served by {@link HttpServerResponseImpl#sendFile}: its metadata, the validators and headers derived
+ * from it, and an open {@link FileChannel} which can be shared by several responses at once since all reads are
+ * positional.
+ * <p>
+ * The channel is reference counted: whoever opens or looks up the file owns one reference, which is handed over to the
+ * region returned by {@link #region} or {@link #chunkedInput}, or given back with {@link #release()}. The channel is
+ * closed when the last reference is released.
+ */
+final class StaticFile {
+
+  // Returned by parseRange when the range cannot be satisfied
+  static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+  private static final int CHUNK_SIZE = 8192;
+
+  final Path path;
+  final long length;
+  final long lastModified;
+  final CharSequence contentLength;
+  final CharSequence contentType;
+  final CharSequence etag;
+  final CharSequence lastModifiedHeader;
+  private final FileChannel channel;
+  private final AtomicInteger refCount = new AtomicInteger(1);
+
+  /**
+   * Open the file, returns {@code null} when it does not exist or is not a regular file.
+   */
+  static StaticFile open(File file) throws IOException {
+    Path path = file.toPath().toAbsolutePath();
+    BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    if (!attrs.isRegularFile()) {
+      return null;
+    }
+    return new StaticFile(path, attrs.size(), attrs.lastModifiedTime().toMillis(), FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  private StaticFile(Path path, long length, long lastModified, FileChannel channel) {
+    this.path = path;
+    this.length = length;
+    this.lastModified = lastModified;
+    this.channel = channel;
+    this.contentLength = HttpHeaders.createOptimized(String.valueOf(length));
+    this.contentType = contentType(path.getFileName().toString());
+    this.etag = HttpHeaders.createOptimized("\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"");
+    this.lastModifiedHeader = HttpHeaders.createOptimized(CachedHeaderValues.httpDate(lastModified));
+  }
+
+  private static CharSequence contentType(String fileName) {
+    int li = fileName.lastIndexOf('.');
+    if (li != -1 && li != fileName.length() - 1) {
+      String contentType = MimeMapping.getMimeTypeForExtension(fileName.substring(li + 1));
+      if (contentType != null) {
+        return HttpHeaders.createOptimized(contentType);
+      }
+    }
+    return null;
+  }
+
+  void retain() {
+    refCount.incrementAndGet();
+  }
+
+  void release() {
+    if (refCount.decrementAndGet() == 0) {
+      try {
+        channel.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+
+  /**
+   * @return a zero-copy region of the file which releases the caller's reference once written
+   */
+  FileRegion region(long offset, long count) {
+    return new Region(offset, count);
+  }
+
+  /**
+   * @return a chunked view of the file, for when zero-copy can't be used, which releases the caller's reference once
+   * written
+   */
+  Chunked chunkedInput(long offset, long count) {
+    return new Chunked(offset, count);
+  }
+
+  /**
+   * Parse a {@code Range} header against a file of the given length.
+   *
+   * @return the first and last (inclusive) byte positions of the range, {@link #UNSATISFIABLE_RANGE} when it does not
+   * overlap the file, or {@code null} when the header is not a single byte range, in which case it is ignored
+   */
+  static long[] parseRange(String header, long length) {
+    if (!header.regionMatches(true, 0, "bytes=", 0, 6) || header.indexOf(',') != -1) {
+      return null;
+    }
+    int dash = header.indexOf('-', 6);
+    if (dash == -1) {
+      return null;
+    }
+    try {
+      String first = header.substring(6, dash).trim();
+      String last = header.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        // Suffix range: the last n bytes
+        long suffix = Long.parseLong(last);
+        if (suffix <= 0 || length == 0) {
+          return UNSATISFIABLE_RANGE;
+        }
+        return new long[]{Math.max(0, length - suffix), length - 1};
+      }
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+      if (start < 0 || end < start) {
+        return null;
+      }
+      if (start >= length) {
+        return UNSATISFIABLE_RANGE;
+      }
+      return new long[]{start, Math.min(end, length - 1)};
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return whether one of the entity tags of an {@code If-None-Match} header matches this file
+   */
+  boolean etagMatches(String header) {
+    String etag = this.etag.toString();
+    for (String candidate : header.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.equals("*") || candidate.equals(etag) || (candidate.startsWith("W/") && candidate.substring(2).equals(etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private class Region extends DefaultFileRegion {
+
+    Region(long position, long count) {
+      super(channel, position, count);
+    }
+
+    @Override
+    protected void deallocate() {
+      // Don't close the shared channel
+      StaticFile.this.release();
+    }
+  }
+
+  /**
+   * Reads the file with positional reads, unlike {@link io.netty.handler.stream.ChunkedNioFile} which moves the position
+   * of the channel shared with the other responses.
+   */
+  final class Chunked implements ChunkedInput<ByteBuf> {
+
+    private final long startOffset;
+    private final long endOffset;
+    private long offset;
+    private boolean closed;
+
+    private Chunked(long offset, long count) {
+      this.startOffset = offset;
+      this.endOffset = offset + count;
+      this.offset = offset;
+    }
+
+    long length() {
+      return endOffset - startOffset;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+      return offset >= endOffset || closed;
+    }
+
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+      if (isEndOfInput()) {
+        return null;
+      }
+      int chunkSize = (int) Math.min(CHUNK_SIZE, endOffset - offset);
+      ByteBuf buffer = ctx.alloc().buffer(chunkSize);
+      boolean release = true;
+      try {
+        ByteBuffer nioBuffer = buffer.nioBuffer(0, chunkSize);
+        while (nioBuffer.hasRemaining()) {
+          if (channel.read(nioBuffer, offset + nioBuffer.position()) < 0) {
+            throw new EOFException("File " + path + " was truncated while being sent");
+          }
+        }
+        buffer.writerIndex(chunkSize);
+        offset += chunkSize;
+        release = false;
+        return buffer;
+      } finally {
+        if (release) {
+          buffer.release();
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      // Don't close the shared channel
+      if (!closed) {
+        closed = true;
+        StaticFile.this.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * A bounded LRU cache of the {@link StaticFile}s served by a server, keyed by the file name passed to
+ * {@code sendFile}, so that a hit neither resolves, stats nor opens the file.
+ * <p>
+ * Lookups of files which don't exist, such as pre-compressed variants which were not generated, are cached as well.
+ * <p>
+ * The directory of each cached file is registered with a {@link WatchService}; pending change events are drained on
+ * every lookup and invalidate the entries of the files they concern. Files whose directory can't be watched are not
+ * cached.
+ */
+final class StaticFileCache {
+
+  private static final Logger log = LoggerFactory.getLogger(StaticFileCache.class);
+
+  private final VertxInternal vertx;
+  private final Map<String, StaticFile> files;
+  private final Map<String, Path> absent;
+  private final Set<Path> watchedDirs = new HashSet<>();
+  private WatchService watcher;
+  // Incremented on each invalidation, so a file opened concurrently with a change is not cached stale
+  private long generation;
+  private boolean closed;
+
+  StaticFileCache(VertxInternal vertx, int maxSize) {
+    this.vertx = vertx;
+    this.files = new LinkedHashMap<String, StaticFile>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, StaticFile> eldest) {
+        if (size() > maxSize) {
+          eldest.getValue().release();
+          return true;
+        }
+        return false;
+      }
+    };
+    this.absent = new LinkedHashMap<String, Path>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Path> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Lookup or open a file, the caller owns a reference on the returned file.
+   *
+   * @return the file or {@code null} when it does not exist or is not a regular file
+   */
+  StaticFile get(String filename) throws IOException {
+    long gen;
+    synchronized (this) {
+      processEvents();
+      StaticFile file = files.get(filename);
+      if (file != null) {
+        file.retain();
+        return file;
+      }
+      if (absent.containsKey(filename)) {
+        return null;
+      }
+      gen = generation;
+    }
+    File resolved = vertx.resolveFile(filename);
+    // Watch before opening so that a change made after the file was read can't be missed
+    boolean watched = watch(resolved.getAbsoluteFile().getParentFile());
+    StaticFile file = StaticFile.open(resolved);
+    if (watched) {
+      synchronized (this) {
+        if (!closed && gen == generation) {
+          if (file != null) {
+            file.retain();
+            StaticFile prev = files.put(filename, file);
+            if (prev != null) {
+              prev.release();
+            }
+          } else {
+            absent.put(filename, resolved.toPath().toAbsolutePath());
+          }
+        }
+      }
+    }
+    return file;
+  }
+
+  synchronized void close() {
+    closed = true;
+    for (StaticFile file : files.values()) {
+      file.release();
+    }
+    files.clear();
+    absent.clear();
+    if (watcher != null) {
+      try {
+        watcher.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+
+  private synchronized boolean watch(File dir) {
+    if (closed || dir == null) {
+      return false;
+    }
+    Path path = dir.toPath();
+    if (watchedDirs.contains(path)) {
+      return true;
+    }
+    try {
+      if (watcher == null) {
+        watcher = FileSystems.getDefault().newWatchService();
+      }
+      path.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      watchedDirs.add(path);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      log.debug("Cannot watch " + path + ", files in it won't be cached", e);
+      return false;
+    }
+  }
+
+  private void processEvents() {
+    if (watcher == null) {
+      return;
+    }
+    WatchKey key;
+    while ((key = watcher.poll()) != null) {
+      Path dir = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          invalidate(dir, null);
+        } else {
+          invalidate(dir, dir.resolve((Path) event.context()));
+        }
+      }
+      if (!key.reset()) {
+        // The directory is gone
+        watchedDirs.remove(dir);
+        invalidate(dir, null);
+      }
+    }
+  }
+
+  private void invalidate(Path dir, Path path) {
+    generation++;
+    for (Iterator<StaticFile> it = files.values().iterator();it.hasNext();) {
+      StaticFile file = it.next();
+      if (path != null ? file.path.equals(path) : dir.equals(file.path.getParent())) {
+        it.remove();
+        file.release();
+      }
+    }
+    absent.values().removeIf(file -> path != null ? file.equals(path) : dir.equals(file.getParent()));
+  }
+}
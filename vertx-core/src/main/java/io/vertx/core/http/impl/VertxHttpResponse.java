@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.core.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DefaultHttpResponse} which also carries the pre-encoded header blocks added to the response, they are
+ * written by {@link VertxHttpResponseEncoder} right after the initial line.
+ */
+class VertxHttpResponse extends DefaultHttpResponse {
+
+  private List<HttpHeaderBlockImpl> headerBlocks;
+
+  VertxHttpResponse(HttpVersion version, HttpResponseStatus status) {
+    super(version, status, false);
+  }
+
+  void addHeaderBlock(HttpHeaderBlockImpl block) {
+    if (headerBlocks == null) {
+      headerBlocks = new ArrayList<>(2);
+    }
+    headerBlocks.add(block);
+  }
+
+  boolean headerBlocksContain(CharSequence name) {
+    if (headerBlocks != null) {
+      for (HttpHeaderBlockImpl block : headerBlocks) {
+        if (block.contains(name)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  void encodeHeaderBlocks(ByteBuf buf) {
+    if (headerBlocks != null) {
+      for (HttpHeaderBlockImpl block : headerBlocks) {
+        block.encode(buf);
+      }
+    }
+  }
+}
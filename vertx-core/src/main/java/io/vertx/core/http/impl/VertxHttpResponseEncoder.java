@@ -16,14 +16,17 @@
 package io.vertx.core.http.impl;
 
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.vertx.core.net.impl.PartialPooledByteBufAllocator;
 
 import java.util.List;
 
 /**
- * {@link HttpResponseEncoder} which forces the usage of direct buffers for max performance.
+ * {@link HttpResponseEncoder} which forces the usage of direct buffers for max performance and writes the
+ * pre-encoded header blocks of {@link VertxHttpResponse}.
  *
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
  */
@@ -35,6 +38,18 @@ final class VertxHttpResponseEncoder extends HttpResponseEncoder {
     super.encode(context, msg, out);
   }
 
+  @Override
+  protected void encodeInitialLine(ByteBuf buf, HttpResponse response) throws Exception {
+    super.encodeInitialLine(buf, response);
+    if (response instanceof AssembledHttpResponse) {
+      response = ((AssembledHttpResponse) response).response();
+    }
+    if (response instanceof VertxHttpResponse) {
+      // The headers follow the initial line so the blocks can be written straight away
+      ((VertxHttpResponse) response).encodeHeaderBlocks(buf);
+    }
+  }
+
   @Override
   public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
     this.context = PartialPooledByteBufAllocator.forceDirectAllocator(ctx);
@@ -29,7 +29,6 @@ import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.core.net.impl.ConnectionBase;
 
-import java.util.UUID;
 
 /**
  *
@@ -38,8 +37,8 @@ import java.util.UUID;
 public abstract class WebSocketImplBase<T> implements WebSocketBase {
 
   private final boolean supportsContinuation;
-  private final String textHandlerID;
-  private final String binaryHandlerID;
+  private String textHandlerID;
+  private String binaryHandlerID;
   private final VertxInternal vertx;
   protected final ConnectionBase conn;
 
@@ -58,20 +57,29 @@ public abstract class WebSocketImplBase<T> implements WebSocketBase {
   protected WebSocketImplBase(VertxInternal vertx, ConnectionBase conn, boolean supportsContinuation) {
     this.supportsContinuation = supportsContinuation;
     this.vertx = vertx;
-    this.textHandlerID = UUID.randomUUID().toString();
-    this.binaryHandlerID = UUID.randomUUID().toString();
     this.conn = conn;
-    Handler<Message<Buffer>> binaryHandler = msg -> writeBinaryFrameInternal(msg.body());
-    binaryHandlerRegistration = vertx.eventBus().<Buffer>localConsumer(binaryHandlerID).handler(binaryHandler);
-    Handler<Message<String>> textHandler = msg -> writeTextFrameInternal(msg.body());
-    textHandlerRegistration = vertx.eventBus().<String>localConsumer(textHandlerID).handler(textHandler);
   }
 
-  public String binaryHandlerID() {
+  public synchronized String binaryHandlerID() {
+    // Registered on first use, most websockets never use it
+    if (binaryHandlerID == null) {
+      binaryHandlerID = vertx.generateHandlerID();
+      if (!closed) {
+        Handler<Message<Buffer>> binaryHandler = msg -> writeBinaryFrameInternal(msg.body());
+        binaryHandlerRegistration = conn.registerLocalHandler(binaryHandlerID, binaryHandler);
+      }
+    }
     return binaryHandlerID;
   }
 
-  public String textHandlerID() {
+  public synchronized String textHandlerID() {
+    if (textHandlerID == null) {
+      textHandlerID = vertx.generateHandlerID();
+      if (!closed) {
+        Handler<Message<String>> textHandler = msg -> writeTextFrameInternal(msg.body());
+        textHandlerRegistration = conn.registerLocalHandler(textHandlerID, textHandler);
+      }
+    }
     return textHandlerID;
   }
 
@@ -138,10 +146,14 @@ public abstract class WebSocketImplBase<T> implements WebSocketBase {
   }
 
 
-  private void cleanupHandlers() {
+  private synchronized void cleanupHandlers() {
     if (!closed) {
-      binaryHandlerRegistration.unregister();
-      textHandlerRegistration.unregister();
+      if (binaryHandlerRegistration != null) {
+        binaryHandlerRegistration.unregister();
+      }
+      if (textHandlerRegistration != null) {
+        textHandlerRegistration.unregister();
+      }
       closed = true;
     }
   }
@@ -29,23 +29,34 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * Patterns without regular expression characters, made of static text and {@code :name} parameters spanning whole path
+ * segments, are stored in a {@link RadixTree}, so that finding the one matching a path doesn't cost a regular
+ * expression match per pattern. Among them, static text is preferred over parameters. Only the regular expressions are
+ * tried one after the other, in the order they were added, and one added before the pattern found in the tree wins over
+ * it.
+ *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 public class WebSocketMatcher implements Handler<ServerWebSocket> {
 
-  private final List<PatternBinding> bindings = new ArrayList<>();
+  // Regular expression characters
+  private static final Pattern NOT_TREE = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+  private final RadixTree<PatternBinding> tree = new RadixTree<>();
+  private final List<PatternBinding> regexBindings = new ArrayList<>();
 
-  private Map<String, String> params;
-  private Handler<Match> handler;
   private Handler<Match> noMatchHandler;
 
   @Override
   public void handle(ServerWebSocket ws) {
     String path = ws.path();
-    for (PatternBinding binding: bindings) {
+    RadixTree.Match<PatternBinding> match = tree.lookup(path);
+    int regexCount = match == null ? regexBindings.size() : match.value().regexesBefore;
+    for (int i = 0;i < regexCount;i++) {
+      PatternBinding binding = regexBindings.get(i);
       Matcher m = binding.pattern.matcher(path);
       if (m.matches()) {
-        params = new HashMap<>(m.groupCount());
+        Map<String, String> params = new HashMap<>(m.groupCount());
         if (binding.paramNames != null) {
           // Named params
           for (String param: binding.paramNames) {
@@ -53,18 +64,17 @@ public class WebSocketMatcher implements Handler<ServerWebSocket> {
           }
         } else {
           // Un-named params
-          for (int i = 0; i < m.groupCount(); i++) {
-            params.put("param" + i, m.group(i + 1));
+          for (int j = 0; j < m.groupCount(); j++) {
+            params.put("param" + j, m.group(j + 1));
           }
         }
-        handler = binding.handler;
-        handler.handle(new Match(params, ws));
-        params = null;
-        handler = null;
+        binding.handler.handle(new Match(params, ws));
         return;
       }
     }
-    if (noMatchHandler != null) {
+    if (match != null) {
+      match.value().handler.handle(new Match(match.params(), ws));
+    } else if (noMatchHandler != null) {
       noMatchHandler.handle(new Match(null, ws));
     } else {
       ws.reject();
@@ -72,11 +82,16 @@ public class WebSocketMatcher implements Handler<ServerWebSocket> {
   }
 
   public void addRegEx(String regex, Handler<Match> handler) {
-    PatternBinding binding = new PatternBinding(Pattern.compile(regex), null, handler);
-    bindings.add(binding);
+    PatternBinding binding = new PatternBinding(Pattern.compile(regex), null, handler, 0);
+    regexBindings.add(binding);
   }
 
   public void addPattern(String pattern, Handler<Match> handler) {
+    if (!NOT_TREE.matcher(pattern).find() && RadixTree.isSupported(pattern)) {
+      // The first binding of a pattern wins, as with regular expressions
+      tree.add(pattern, new PatternBinding(null, null, handler, regexBindings.size()));
+      return;
+    }
     // We need to search for any :<token name> tokens in the String and replace them with named capture groups
     Matcher m =  Pattern.compile(":([A-Za-z][A-Za-z0-9]*)").matcher(pattern);
     StringBuffer sb = new StringBuffer();
@@ -91,8 +106,8 @@ public class WebSocketMatcher implements Handler<ServerWebSocket> {
     }
     m.appendTail(sb);
     String regex = sb.toString();
-    PatternBinding binding = new PatternBinding(Pattern.compile(regex), groups, handler);
-    bindings.add(binding);
+    PatternBinding binding = new PatternBinding(Pattern.compile(regex), groups, handler, 0);
+    regexBindings.add(binding);
   }
 
   /**
@@ -108,11 +123,14 @@ public class WebSocketMatcher implements Handler<ServerWebSocket> {
     final Pattern pattern;
     final Handler<Match> handler;
     final Set<String> paramNames;
+    // For the bindings of the tree, the number of regular expressions added before them
+    final int regexesBefore;
 
-    private PatternBinding(Pattern pattern,  Set<String> paramNames, Handler<Match> handler) {
+    private PatternBinding(Pattern pattern,  Set<String> paramNames, Handler<Match> handler, int regexesBefore) {
       this.pattern = pattern;
       this.paramNames = paramNames;
       this.handler = handler;
+      this.regexesBefore = regexesBefore;
     }
   }
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.http.impl;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Pools of the JDK {@link Inflater} and {@link Deflater} used to decompress and compress HTTP bodies.
+ * <p>
+ * Each instance holds native zlib memory (about 40KB for an inflater and 260KB for a deflater) until it is ended, or
+ * until it is finalized when it is not. Allocating one per response means native memory churn that the garbage
+ * collector does not see, instead instances are reset and reused once a body is done.<p>
+ * Instances are raw deflate ({@code nowrap}) ones, the zlib and gzip framings are handled by {@link PooledZlibDecoder}
+ * and {@link PooledZlibEncoder}, so that a single pool serves all of them.<p>
+ * There is one pool per event loop thread, it must only be used from that thread. At most {@link #MAX_POOLED}
+ * instances of each kind are kept, the extra ones are ended when they are released.
+ */
+public final class ZlibPool {
+
+  /**
+   * The maximum number of instances of each kind kept by an event loop.
+   */
+  static final int MAX_POOLED = Integer.getInteger("vertx.zlibPoolSize", 16);
+
+  private static final FastThreadLocal<ZlibPool> pools = new FastThreadLocal<ZlibPool>() {
+    @Override
+    protected ZlibPool initialValue() {
+      return new ZlibPool();
+    }
+  };
+
+  private static final AtomicLong inflatersCreated = new AtomicLong();
+  private static final AtomicLong deflatersCreated = new AtomicLong();
+
+  static ZlibPool current() {
+    return pools.get();
+  }
+
+  /**
+   * @return the number of inflaters allocated by all the pools, for monitoring
+   */
+  public static long inflatersCreated() {
+    return inflatersCreated.get();
+  }
+
+  /**
+   * @return the number of deflaters allocated by all the pools, for monitoring
+   */
+  public static long deflatersCreated() {
+    return deflatersCreated.get();
+  }
+
+  private final ArrayDeque<Inflater> inflaters = new ArrayDeque<>();
+  private final ArrayDeque<Deflater> deflaters = new ArrayDeque<>();
+
+  private ZlibPool() {
+  }
+
+  Inflater acquireInflater() {
+    Inflater inflater = inflaters.pollFirst();
+    if (inflater == null) {
+      inflatersCreated.incrementAndGet();
+      inflater = new Inflater(true);
+    }
+    return inflater;
+  }
+
+  void release(Inflater inflater) {
+    if (inflaters.size() < MAX_POOLED) {
+      inflater.reset();
+      inflaters.addFirst(inflater);
+    } else {
+      inflater.end();
+    }
+  }
+
+  Deflater acquireDeflater(int level) {
+    Deflater deflater = deflaters.pollFirst();
+    if (deflater == null) {
+      deflatersCreated.incrementAndGet();
+      deflater = new Deflater(level, true);
+    } else {
+      deflater.setLevel(level);
+    }
+    return deflater;
+  }
+
+  void release(Deflater deflater) {
+    if (deflaters.size() < MAX_POOLED) {
+      deflater.reset();
+      deflaters.addFirst(deflater);
+    } else {
+      deflater.end();
+    }
+  }
+}
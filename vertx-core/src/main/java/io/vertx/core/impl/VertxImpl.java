@@ -56,6 +56,7 @@ import io.vertx.core.net.NetServer;
 import io.vertx.core.net.NetServerOptions;
 import io.vertx.core.net.impl.NetClientImpl;
 import io.vertx.core.net.impl.NetServerImpl;
+import io.vertx.core.net.impl.SSLHandshakeExecutor;
 import io.vertx.core.net.impl.ServerID;
 import io.vertx.core.shareddata.SharedData;
 import io.vertx.core.shareddata.impl.SharedDataImpl;
@@ -70,10 +71,13 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -99,6 +103,8 @@ public class VertxImpl implements VertxInternal {
 
   private ExecutorService workerPool;
   private ExecutorService internalBlockingPool;
+  private SSLHandshakeExecutor sslHandshakeExecutor;
+  private final boolean directBuffers;
   private OrderedExecutorFactory workerOrderedFact;
   private OrderedExecutorFactory internalOrderedFact;
   private EventLoopGroup eventLoopGroup;
@@ -109,6 +115,7 @@ public class VertxImpl implements VertxInternal {
 
   private final ConcurrentMap<Long, InternalTimerHandler> timeouts = new ConcurrentHashMap<>();
   private final AtomicLong timeoutCounter = new AtomicLong(0);
+  private final AtomicLong handlerSequence = new AtomicLong(0);
   private final ClusterManager clusterManager;
   private final DeploymentManager deploymentManager;
   private final FileResolver fileResolver;
@@ -125,6 +132,7 @@ public class VertxImpl implements VertxInternal {
 
   VertxImpl(VertxOptions options, Handler<AsyncResult<Vertx>> resultHandler) {
     configurePools(options);
+    this.directBuffers = options.isDirectBuffers();
     this.fileResolver = new FileResolver(this);
     this.deploymentManager = new DeploymentManager(this);
     this.metrics = initialiseMetrics(options);
@@ -140,7 +148,7 @@ public class VertxImpl implements VertxInternal {
         }
         Vertx inst = this;
         eventBus = new EventBusImpl(this, options.getClusterPingInterval(),
-            options.getClusterPingReplyInterval(),  options.getClusterPort(), options.getClusterHost(), clusterManager, res -> {
+            options.getClusterPingReplyInterval(), options.getClusterWireProtocolVersion(), options.getClusterPort(), options.getClusterHost(), clusterManager, res -> {
           if (resultHandler != null) {
             if (res.succeeded()) {
               resultHandler.handle(Future.completedFuture(inst));
@@ -235,6 +243,16 @@ public class VertxImpl implements VertxInternal {
     return workerPool;
   }
 
+  @Override
+  public SSLHandshakeExecutor getSSLHandshakeExecutor() {
+    return sslHandshakeExecutor;
+  }
+
+  @Override
+  public boolean isDirectBuffers() {
+    return directBuffers;
+  }
+
   public EventLoopGroup getEventLoopGroup() {
     return eventLoopGroup;
   }
@@ -423,6 +441,10 @@ public class VertxImpl implements VertxInternal {
             workerPool.shutdownNow();
           }
 
+          if (sslHandshakeExecutor != null) {
+            sslHandshakeExecutor.close();
+          }
+
           if (eventLoopGroup != null) {
             eventLoopGroup.shutdownNow();
           }
@@ -494,6 +516,17 @@ public class VertxImpl implements VertxInternal {
     return clusterManager.getNodeID();
   }
 
+  @Override
+  public String generateHandlerID() {
+    if (clusterManager != null) {
+      // The address is a cryptographically secure id that can't be guessed
+      return UUID.randomUUID().toString();
+    } else {
+      // Just use a sequence - it's faster, the prefix keeps it apart from the reply addresses
+      return "__vertx.handler." + handlerSequence.incrementAndGet();
+    }
+  }
+
   @Override
   public void undeployVerticle(String deploymentID) {
     undeployVerticle(deploymentID, res -> {
@@ -589,6 +622,12 @@ public class VertxImpl implements VertxInternal {
       new VertxThreadFactory("vert.x-worker-thread-", checker, true));
     internalBlockingPool = Executors.newFixedThreadPool(options.getInternalBlockingPoolSize(),
       new VertxThreadFactory("vert.x-internal-blocking-", checker, true));
+    if (options.getSslHandshakePoolSize() > 0) {
+      sslHandshakeExecutor = new SSLHandshakeExecutor(new ThreadPoolExecutor(options.getSslHandshakePoolSize(),
+        options.getSslHandshakePoolSize(), 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(options.getSslHandshakeQueueSize()),
+        new VertxThreadFactory("vert.x-ssl-handshake-thread-", checker, true)));
+    }
     workerOrderedFact = new OrderedExecutorFactory(workerPool);
     internalOrderedFact = new OrderedExecutorFactory(internalBlockingPool);
   }
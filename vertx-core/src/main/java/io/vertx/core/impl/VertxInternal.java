@@ -23,6 +23,7 @@ import io.vertx.core.http.impl.HttpServerImpl;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.metrics.spi.VertxMetrics;
 import io.vertx.core.net.impl.NetServerImpl;
+import io.vertx.core.net.impl.SSLHandshakeExecutor;
 import io.vertx.core.net.impl.ServerID;
 import io.vertx.core.spi.cluster.VertxSPI;
 
@@ -43,6 +44,17 @@ public interface VertxInternal extends VertxSPI {
 
   ExecutorService getWorkerPool();
 
+  /**
+   * @return the executor running the tasks of TLS handshakes, or {@code null} when they run on the event loops
+   */
+  SSLHandshakeExecutor getSSLHandshakeExecutor();
+
+  /**
+   * @return whether the data read from net sockets, datagram sockets and files is held in pooled direct buffers, see
+   * {@link io.vertx.core.VertxOptions#isDirectBuffers()}
+   */
+  boolean isDirectBuffers();
+
   ContextImpl getOrCreateContext();
 
   Map<ServerID, HttpServerImpl> sharedHttpServers();
@@ -86,5 +98,10 @@ public interface VertxInternal extends VertxSPI {
 
   String getNodeID();
 
+  /**
+   * @return a new address for a local event bus handler, such as the write handler of a socket
+   */
+  String generateHandlerID();
+
   File resolveFile(String fileName);
 }
@@ -35,6 +35,7 @@ import io.vertx.core.metrics.spi.EventBusMetrics;
 import io.vertx.core.metrics.spi.HttpClientMetrics;
 import io.vertx.core.metrics.spi.HttpServerMetrics;
 import io.vertx.core.metrics.spi.NetMetrics;
+import io.vertx.core.metrics.spi.RequestTimings;
 import io.vertx.core.metrics.spi.VertxMetrics;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
@@ -167,6 +168,18 @@ public class DummyVertxMetrics implements VertxMetrics {
     public void responseEnd(HttpServerResponse response) {
     }
 
+    @Override
+    public void connectionRejected(SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void requestRejected(HttpServerRequest request) {
+    }
+
+    @Override
+    public void requestTimings(HttpServerRequest request, RequestTimings timings) {
+    }
+
     @Override
     public void listening(SocketAddress localAddress) {
     }
@@ -191,6 +204,10 @@ public class DummyVertxMetrics implements VertxMetrics {
     public void exceptionOccurred(SocketAddress remoteAddress, Throwable t) {
     }
 
+    @Override
+    public void sslHandshake(SocketAddress remoteAddress, boolean resumed, long duration) {
+    }
+
     @Override
     public void close() {
     }
@@ -240,6 +257,10 @@ public class DummyVertxMetrics implements VertxMetrics {
     public void exceptionOccurred(SocketAddress remoteAddress, Throwable t) {
     }
 
+    @Override
+    public void sslHandshake(SocketAddress remoteAddress, boolean resumed, long duration) {
+    }
+
     @Override
     public void close() {
     }
@@ -281,6 +302,10 @@ public class DummyVertxMetrics implements VertxMetrics {
     public void exceptionOccurred(SocketAddress remoteAddress, Throwable t) {
     }
 
+    @Override
+    public void sslHandshake(SocketAddress remoteAddress, boolean resumed, long duration) {
+    }
+
     @Override
     public void close() {
     }
@@ -318,6 +343,10 @@ public class DummyVertxMetrics implements VertxMetrics {
     public void exceptionOccurred(SocketAddress remoteAddress, Throwable t) {
     }
 
+    @Override
+    public void sslHandshake(SocketAddress remoteAddress, boolean resumed, long duration) {
+    }
+
     @Override
     public void close() {
     }
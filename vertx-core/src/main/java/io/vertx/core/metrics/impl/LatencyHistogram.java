@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.metrics.impl;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size histogram of latencies with a bounded relative error, in the manner of HdrHistogram.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two range is split into {@code 32} sub buckets, so a
+ * recorded value is reported within about 3% of its actual value whatever its magnitude. Values below {@code 64} are
+ * exact and values above about an hour in nanoseconds are counted as the largest value.
+ * <p>
+ * Recording is lock free and costs a few arithmetic operations and atomic increments, so a histogram can be updated
+ * from several event loops at once. Reading it while values are recorded gives a consistent enough snapshot for
+ * monitoring.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+  private static final long MAX_VALUE = (1L << 42) - 1;
+  private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Record a value, negative values are ignored.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      return;
+    }
+    value = Math.min(value, MAX_VALUE);
+    counts.incrementAndGet(index(value));
+    count.incrementAndGet();
+    sum.addAndGet(value);
+    long current;
+    while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+    }
+    while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+    }
+  }
+
+  public long count() {
+    return count.get();
+  }
+
+  public long min() {
+    return count.get() == 0 ? 0 : min.get();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  public double mean() {
+    long n = count.get();
+    return n == 0 ? 0 : (double) sum.get() / n;
+  }
+
+  /**
+   * @param percentile the percentile, between {@code 0} and {@code 100}
+   * @return the value below which the given percentage of the recorded values fall
+   */
+  public long valueAtPercentile(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, percentile) / 100));
+    if (rank >= total) {
+      return max.get();
+    }
+    long seen = 0;
+    for (int i = 0;i < BUCKETS;i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(max.get(), value(i));
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * @return the count, min, max, mean and usual percentiles of the histogram
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("count", count())
+      .put("min", min())
+      .put("max", max())
+      .put("mean", mean())
+      .put("p50", valueAtPercentile(50))
+      .put("p90", valueAtPercentile(90))
+      .put("p99", valueAtPercentile(99))
+      .put("p999", valueAtPercentile(99.9));
+  }
+
+  private static int index(long value) {
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    if (magnitude < SUB_BUCKET_BITS) {
+      return (int) value;
+    }
+    // Keep the SUB_BUCKET_BITS most significant bits of the value
+    int shift = magnitude - SUB_BUCKET_BITS + 1;
+    return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+  }
+
+  // The middle of the range of values counted at an index
+  private static long value(int index) {
+    if (index < 2 * SUB_BUCKET_HALF) {
+      return index;
+    }
+    int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+    long sub = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+    return (sub << shift) + (1L << (shift - 1));
+  }
+}
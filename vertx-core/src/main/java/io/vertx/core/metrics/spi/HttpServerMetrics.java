@@ -18,6 +18,7 @@ package io.vertx.core.metrics.spi;
 
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.net.SocketAddress;
 
 /**
  * @author <a href="mailto:nscavell@redhat.com">Nick Scavelli</a>
@@ -27,4 +28,25 @@ public interface HttpServerMetrics extends NetMetrics {
   void requestBegin(HttpServerRequest request, HttpServerResponse response);
 
   void responseEnd(HttpServerResponse response);
+
+  /**
+   * Called when a connection is closed as soon as it is accepted, because the server has reached its maximum number
+   * of connections.
+   */
+  default void connectionRejected(SocketAddress remoteAddress) {
+  }
+
+  /**
+   * Called instead of {@link #requestBegin} when a request is answered with a {@code 503} status without being
+   * handled, because its event loop has reached its limit of requests in flight.
+   */
+  default void requestRejected(HttpServerRequest request) {
+  }
+
+  /**
+   * Called with the breakdown of the latency of a request once its response has been flushed, only when the metrics
+   * are enabled. It may be called from the event loop of the connection rather than from the context of the server.
+   */
+  default void requestTimings(HttpServerRequest request, RequestTimings timings) {
+  }
 }
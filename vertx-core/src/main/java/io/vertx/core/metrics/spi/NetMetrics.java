@@ -34,4 +34,14 @@ public interface NetMetrics extends BaseMetrics {
   void bytesWritten(SocketAddress remoteAddress, long numberOfBytes);
 
   void exceptionOccurred(SocketAddress remoteAddress, Throwable t);
+
+  /**
+   * Called when the TLS handshake of a connection completed, the ratio of resumed handshakes tells how often the
+   * session cache and the session tickets spare a full key exchange.
+   *
+   * @param resumed whether the handshake resumed an earlier session
+   * @param duration the time taken by the handshake in nanoseconds
+   */
+  default void sslHandshake(SocketAddress remoteAddress, boolean resumed, long duration) {
+  }
 }
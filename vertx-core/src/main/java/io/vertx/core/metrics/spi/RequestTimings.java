@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.metrics.spi;
+
+/**
+ * The points in time at which a request went through the stages of its handling by an HTTP server, as given by
+ * {@link System#nanoTime()}.
+ * <p>
+ * The difference between two consecutive points is the time spent in a stage: receiving the request head, waiting for
+ * the connection to dispatch the request, running the handler until it writes its response and writing the response
+ * until it is flushed to the socket.
+ */
+public final class RequestTimings {
+
+  private final String route;
+  private final long firstByteRead;
+  private final long headersDecoded;
+  private final long handlerDispatched;
+  private final long firstByteWritten;
+  private final long lastByteFlushed;
+
+  public RequestTimings(String route, long firstByteRead, long headersDecoded, long handlerDispatched,
+                        long firstByteWritten, long lastByteFlushed) {
+    this.route = route;
+    this.firstByteRead = firstByteRead;
+    this.headersDecoded = headersDecoded;
+    this.handlerDispatched = handlerDispatched;
+    this.firstByteWritten = firstByteWritten;
+    this.lastByteFlushed = lastByteFlushed;
+  }
+
+  /**
+   * @return the pattern of the route that matched the request, or {@code null} when it was not routed
+   */
+  public String route() {
+    return route;
+  }
+
+  /**
+   * @return when the first bytes of the request were read from the socket
+   */
+  public long firstByteRead() {
+    return firstByteRead;
+  }
+
+  /**
+   * @return when the head of the request was decoded
+   */
+  public long headersDecoded() {
+    return headersDecoded;
+  }
+
+  /**
+   * @return when the request was handed to the request handler
+   */
+  public long handlerDispatched() {
+    return handlerDispatched;
+  }
+
+  /**
+   * @return when the first bytes of the response were written to the connection
+   */
+  public long firstByteWritten() {
+    return firstByteWritten;
+  }
+
+  /**
+   * @return when the last bytes of the response were flushed to the socket
+   */
+  public long lastByteFlushed() {
+    return lastByteFlushed;
+  }
+}
@@ -109,6 +109,44 @@ public class NetClientOptions extends ClientOptionsBase {
     return this;
   }
 
+  /**
+   * Only the JDK implementation of TLS is available to clients, OpenSSL is server-only.
+   *
+   * @throws IllegalArgumentException if the provider is OpenSSL
+   */
+  @Override
+  public NetClientOptions setSslProvider(SSLProvider sslProvider) {
+    if (sslProvider == SSLProvider.OPENSSL) {
+      throw new IllegalArgumentException("OpenSSL is only supported by servers");
+    }
+    super.setSslProvider(sslProvider);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setSessionCacheSize(int sessionCacheSize) {
+    super.setSessionCacheSize(sessionCacheSize);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setSessionTimeout(int sessionTimeout) {
+    super.setSessionTimeout(sessionTimeout);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setSessionTicketsEnabled(boolean sessionTicketsEnabled) {
+    super.setSessionTicketsEnabled(sessionTicketsEnabled);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setStoreScanPeriod(long storeScanPeriod) {
+    super.setStoreScanPeriod(storeScanPeriod);
+    return this;
+  }
+
   @Override
   public NetClientOptions setKeyStoreOptions(KeyStoreOptions keyStore) {
     super.setKeyStoreOptions(keyStore);
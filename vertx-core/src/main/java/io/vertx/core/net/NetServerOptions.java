@@ -31,11 +31,13 @@ public class NetServerOptions extends TCPSSLOptions {
   public static final String DEFAULT_HOST = "0.0.0.0";
   public static final int DEFAULT_ACCEPT_BACKLOG = 1024;
   public static final boolean DEFAULT_CLIENT_AUTH_REQUIRED = false;
+  public static final boolean DEFAULT_REUSE_PORT = false;
 
   private int port;
   private String host;
   private int acceptBacklog;
   private boolean clientAuthRequired;
+  private boolean reusePort;
 
   public NetServerOptions(NetServerOptions other) {
     super(other);
@@ -43,6 +45,7 @@ public class NetServerOptions extends TCPSSLOptions {
     this.host = other.getHost();
     this.acceptBacklog = other.getAcceptBacklog();
     this.clientAuthRequired = other.isClientAuthRequired();
+    this.reusePort = other.isReusePort();
   }
 
   public NetServerOptions(JsonObject json) {
@@ -51,6 +54,7 @@ public class NetServerOptions extends TCPSSLOptions {
     this.host = json.getString("host", DEFAULT_HOST);
     this.acceptBacklog = json.getInteger("acceptBacklog", DEFAULT_ACCEPT_BACKLOG);
     this.clientAuthRequired = json.getBoolean("clientAuthRequired", DEFAULT_CLIENT_AUTH_REQUIRED);
+    this.reusePort = json.getBoolean("reusePort", DEFAULT_REUSE_PORT);
   }
 
   public NetServerOptions() {
@@ -59,6 +63,7 @@ public class NetServerOptions extends TCPSSLOptions {
     this.host = DEFAULT_HOST;
     this.acceptBacklog = DEFAULT_ACCEPT_BACKLOG;
     this.clientAuthRequired = DEFAULT_CLIENT_AUTH_REQUIRED;
+    this.reusePort = DEFAULT_REUSE_PORT;
   }
 
   @Override
@@ -121,6 +126,36 @@ public class NetServerOptions extends TCPSSLOptions {
     return this;
   }
 
+  @Override
+  public NetServerOptions setSslProvider(SSLProvider sslProvider) {
+    super.setSslProvider(sslProvider);
+    return this;
+  }
+
+  @Override
+  public NetServerOptions setSessionCacheSize(int sessionCacheSize) {
+    super.setSessionCacheSize(sessionCacheSize);
+    return this;
+  }
+
+  @Override
+  public NetServerOptions setSessionTimeout(int sessionTimeout) {
+    super.setSessionTimeout(sessionTimeout);
+    return this;
+  }
+
+  @Override
+  public NetServerOptions setSessionTicketsEnabled(boolean sessionTicketsEnabled) {
+    super.setSessionTicketsEnabled(sessionTicketsEnabled);
+    return this;
+  }
+
+  @Override
+  public NetServerOptions setStoreScanPeriod(long storeScanPeriod) {
+    super.setStoreScanPeriod(storeScanPeriod);
+    return this;
+  }
+
   @Override
   public NetServerOptions setKeyStoreOptions(KeyStoreOptions keyStore) {
     super.setKeyStoreOptions(keyStore);
@@ -178,6 +213,20 @@ public class NetServerOptions extends TCPSSLOptions {
     return this;
   }
 
+  public boolean isReusePort() {
+    return reusePort;
+  }
+
+  /**
+   * When set, each server instance listening on the same host/port binds its own acceptor on its own event loop
+   * with {@code SO_REUSEPORT} and the kernel load-balances incoming connections between them, instead of all the
+   * instances sharing a single acceptor. Falls back to a shared acceptor when the platform does not support it.
+   */
+  public NetServerOptions setReusePort(boolean reusePort) {
+    this.reusePort = reusePort;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -188,6 +237,7 @@ public class NetServerOptions extends TCPSSLOptions {
 
     if (acceptBacklog != that.acceptBacklog) return false;
     if (clientAuthRequired != that.clientAuthRequired) return false;
+    if (reusePort != that.reusePort) return false;
     if (port != that.port) return false;
     if (host != null ? !host.equals(that.host) : that.host != null) return false;
 
@@ -201,6 +251,7 @@ public class NetServerOptions extends TCPSSLOptions {
     result = 31 * result + (host != null ? host.hashCode() : 0);
     result = 31 * result + acceptBacklog;
     result = 31 * result + (clientAuthRequired ? 1 : 0);
+    result = 31 * result + (reusePort ? 1 : 0);
     return result;
   }
 }
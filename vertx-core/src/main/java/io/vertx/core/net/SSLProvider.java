@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net;
+
+/**
+ * The implementation of TLS used by a client or a server.
+ */
+public enum SSLProvider {
+
+  /**
+   * The TLS implementation of the JDK.
+   */
+  JDK,
+
+  /**
+   * OpenSSL through netty-tcnative, which must be on the classpath with its native library. It is much faster than
+   * the JDK for handshakes and bulk encryption. It is server-only, client options reject it, and it does not support
+   * client authentication nor certificate revocation lists.
+   */
+  OPENSSL
+}
@@ -38,6 +38,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
   public static final boolean DEFAULT_USE_POOLED_BUFFERS = false;
   public static final boolean DEFAULT_SSL = false;
   public static final int DEFAULT_IDLE_TIMEOUT = 0;  // TODO - shouldn't this be -1 ??
+  public static final SSLProvider DEFAULT_SSL_PROVIDER = SSLProvider.JDK;
+  public static final int DEFAULT_SESSION_CACHE_SIZE = 0;
+  public static final int DEFAULT_SESSION_TIMEOUT = 0;
+  public static final boolean DEFAULT_SESSION_TICKETS_ENABLED = true;
+  public static final long DEFAULT_STORE_SCAN_PERIOD = 0;
 
   private boolean tcpNoDelay;
   private boolean tcpKeepAlive;
@@ -50,6 +55,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
   private Set<String> enabledCipherSuites = new HashSet<>();
   private ArrayList<String> crlPaths;
   private ArrayList<Buffer> crlValues;
+  private SSLProvider sslProvider;
+  private int sessionCacheSize;
+  private int sessionTimeout;
+  private boolean sessionTicketsEnabled;
+  private long storeScanPeriod;
 
   public TCPSSLOptions(TCPSSLOptions other) {
     super(other);
@@ -64,6 +74,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     this.enabledCipherSuites = other.getEnabledCipherSuites() == null ? null : new HashSet<>(other.getEnabledCipherSuites());
     this.crlPaths = new ArrayList<>(other.getCrlPaths());
     this.crlValues = new ArrayList<>(other.getCrlValues());
+    this.sslProvider = other.getSslProvider();
+    this.sessionCacheSize = other.getSessionCacheSize();
+    this.sessionTimeout = other.getSessionTimeout();
+    this.sessionTicketsEnabled = other.isSessionTicketsEnabled();
+    this.storeScanPeriod = other.getStoreScanPeriod();
   }
 
   public TCPSSLOptions(JsonObject json) {
@@ -117,6 +132,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     if (arr != null) {
       ((List<byte[]>) arr.getList()).stream().map(Buffer::buffer).forEach(crlValues::add);
     }
+    this.sslProvider = SSLProvider.valueOf(json.getString("sslProvider", DEFAULT_SSL_PROVIDER.name()));
+    this.sessionCacheSize = json.getInteger("sessionCacheSize", DEFAULT_SESSION_CACHE_SIZE);
+    this.sessionTimeout = json.getInteger("sessionTimeout", DEFAULT_SESSION_TIMEOUT);
+    this.sessionTicketsEnabled = json.getBoolean("sessionTicketsEnabled", DEFAULT_SESSION_TICKETS_ENABLED);
+    this.storeScanPeriod = json.getLong("storeScanPeriod", DEFAULT_STORE_SCAN_PERIOD);
   }
 
   public TCPSSLOptions() {
@@ -129,6 +149,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     ssl = DEFAULT_SSL;
     crlPaths = new ArrayList<>();
     crlValues = new ArrayList<>();
+    sslProvider = DEFAULT_SSL_PROVIDER;
+    sessionCacheSize = DEFAULT_SESSION_CACHE_SIZE;
+    sessionTimeout = DEFAULT_SESSION_TIMEOUT;
+    sessionTicketsEnabled = DEFAULT_SESSION_TICKETS_ENABLED;
+    storeScanPeriod = DEFAULT_STORE_SCAN_PERIOD;
   }
 
   public boolean isTcpNoDelay() {
@@ -238,6 +263,81 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     return this;
   }
 
+  public SSLProvider getSslProvider() {
+    return sslProvider;
+  }
+
+  /**
+   * Set the implementation of TLS, the JDK by default. OpenSSL is only supported by servers.
+   */
+  public TCPSSLOptions setSslProvider(SSLProvider sslProvider) {
+    Objects.requireNonNull(sslProvider, "No null ssl provider accepted");
+    this.sslProvider = sslProvider;
+    return this;
+  }
+
+  public int getSessionCacheSize() {
+    return sessionCacheSize;
+  }
+
+  /**
+   * Set the maximum number of TLS sessions cached for resumption, {@code 0} keeps the default of the provider. A
+   * client caches a session per host and port it connects to, evicting the least recently used one when full.
+   */
+  public TCPSSLOptions setSessionCacheSize(int sessionCacheSize) {
+    if (sessionCacheSize < 0) {
+      throw new IllegalArgumentException("sessionCacheSize must be >= 0");
+    }
+    this.sessionCacheSize = sessionCacheSize;
+    return this;
+  }
+
+  public int getSessionTimeout() {
+    return sessionTimeout;
+  }
+
+  /**
+   * Set the time in seconds a cached TLS session can be resumed, {@code 0} keeps the default of the provider.
+   */
+  public TCPSSLOptions setSessionTimeout(int sessionTimeout) {
+    if (sessionTimeout < 0) {
+      throw new IllegalArgumentException("sessionTimeout must be >= 0");
+    }
+    this.sessionTimeout = sessionTimeout;
+    return this;
+  }
+
+  public boolean isSessionTicketsEnabled() {
+    return sessionTicketsEnabled;
+  }
+
+  /**
+   * Set whether a server hands out session tickets, with which clients resume their session without the server
+   * keeping it in its cache. With the JDK provider tickets are rather enabled by the
+   * {@code jdk.tls.server.enableSessionTicketExtension} system property.
+   */
+  public TCPSSLOptions setSessionTicketsEnabled(boolean sessionTicketsEnabled) {
+    this.sessionTicketsEnabled = sessionTicketsEnabled;
+    return this;
+  }
+
+  public long getStoreScanPeriod() {
+    return storeScanPeriod;
+  }
+
+  /**
+   * Set the period in ms at which the files of the key and trust stores and of the certificate revocation lists are
+   * checked for changes, {@code 0} does not check them. Once changed files stayed unchanged for a period, new
+   * connections use the new stores while established connections are left alone.
+   */
+  public TCPSSLOptions setStoreScanPeriod(long storeScanPeriod) {
+    if (storeScanPeriod < 0) {
+      throw new IllegalArgumentException("storeScanPeriod must be >= 0");
+    }
+    this.storeScanPeriod = storeScanPeriod;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -252,6 +352,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     if (tcpKeepAlive != that.tcpKeepAlive) return false;
     if (tcpNoDelay != that.tcpNoDelay) return false;
     if (usePooledBuffers != that.usePooledBuffers) return false;
+    if (sessionCacheSize != that.sessionCacheSize) return false;
+    if (sessionTimeout != that.sessionTimeout) return false;
+    if (sessionTicketsEnabled != that.sessionTicketsEnabled) return false;
+    if (storeScanPeriod != that.storeScanPeriod) return false;
+    if (sslProvider != that.sslProvider) return false;
     if (crlPaths != null ? !crlPaths.equals(that.crlPaths) : that.crlPaths != null) return false;
     if (crlValues != null ? !crlValues.equals(that.crlValues) : that.crlValues != null) return false;
     if (enabledCipherSuites != null ? !enabledCipherSuites.equals(that.enabledCipherSuites) : that.enabledCipherSuites != null)
@@ -276,6 +381,11 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     result = 31 * result + (enabledCipherSuites != null ? enabledCipherSuites.hashCode() : 0);
     result = 31 * result + (crlPaths != null ? crlPaths.hashCode() : 0);
     result = 31 * result + (crlValues != null ? crlValues.hashCode() : 0);
+    result = 31 * result + (sslProvider != null ? sslProvider.hashCode() : 0);
+    result = 31 * result + sessionCacheSize;
+    result = 31 * result + sessionTimeout;
+    result = 31 * result + (sessionTicketsEnabled ? 1 : 0);
+    result = 31 * result + (int) (storeScanPeriod ^ (storeScanPeriod >>> 32));
     return result;
   }
 }
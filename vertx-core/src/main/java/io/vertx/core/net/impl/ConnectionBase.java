@@ -16,6 +16,8 @@
 
 package io.vertx.core.net.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -27,6 +29,9 @@ import io.netty.handler.stream.ChunkedFile;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.impl.EventBusImpl;
 import io.vertx.core.http.WebSocketFrame;
 import io.vertx.core.impl.ContextImpl;
 
@@ -71,6 +76,8 @@ public abstract class ConnectionBase {
 
   private boolean read;
   private boolean needsFlush;
+  private boolean flushScheduled;
+  private long pendingBytes;
 
   protected void checkContext() {
     // Sanity check
@@ -88,11 +95,19 @@ public abstract class ConnectionBase {
     read = false;
     if (needsFlush) {
       needsFlush = false;
+      pendingBytes = 0;
       // flush now
       channel.flush();
     }
   }
 
+  final void flushCoalesced() {
+    flushScheduled = false;
+    if (!read) {
+      endReadAndFlush();
+    }
+  }
+
   public ChannelFuture queueForWrite(final Object obj) {
     needsFlush = true;
     return channel.write(obj);
@@ -103,12 +118,39 @@ public abstract class ConnectionBase {
       return queueForWrite(obj);
     }
     if (channel.isOpen()) {
+      if (FlushCoalescer.MAX_PENDING_BYTES > 0 && channel.eventLoop().inEventLoop()) {
+        return coalesceWrite(obj);
+      }
       return channel.writeAndFlush(obj);
     } else {
       return null;
     }
   }
 
+  private ChannelFuture coalesceWrite(Object obj) {
+    ChannelFuture future = queueForWrite(obj);
+    pendingBytes += size(obj);
+    if (pendingBytes >= FlushCoalescer.MAX_PENDING_BYTES) {
+      endReadAndFlush();
+    } else if (!flushScheduled) {
+      // Flush once the event loop is done with the current task
+      flushScheduled = true;
+      FlushCoalescer.current().add(this, channel.eventLoop());
+    }
+    return future;
+  }
+
+  private static long size(Object obj) {
+    if (obj instanceof ByteBuf) {
+      return ((ByteBuf) obj).readableBytes();
+    } else if (obj instanceof ByteBufHolder) {
+      return ((ByteBufHolder) obj).content().readableBytes();
+    } else if (obj instanceof FileRegion) {
+      return ((FileRegion) obj).count();
+    }
+    return 0;
+  }
+
   /**
    * Close the connection
    */
@@ -143,6 +185,13 @@ public abstract class ConnectionBase {
     return context;
   }
 
+  /**
+   * Register a local event bus handler on the context of the connection, whatever the thread this is called from.
+   */
+  public <T> MessageConsumer<T> registerLocalHandler(String address, Handler<Message<T>> handler) {
+    return ((EventBusImpl) vertx.eventBus()).localConsumer(address, context, handler);
+  }
+
   protected void handleException(Throwable t) {
     metrics.exceptionOccurred(remoteAddress(), t);
     if (exceptionHandler != null) {
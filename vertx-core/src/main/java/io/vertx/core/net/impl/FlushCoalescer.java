@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batches the flushes of the connections written to outside of a read cycle (from a timer, an event bus reply...)
+ * on an event loop. Instead of flushing on each write, connections register here and are flushed by a single
+ * task which runs once the event loop is done with its current task, so several responses written by the same
+ * task only cost one syscall per connection.<p>
+ * There is one instance per event loop thread, it must only be used from that thread.
+ */
+final class FlushCoalescer implements Runnable {
+
+  /**
+   * A connection is flushed straight away once that many bytes are pending, {@code 0} disables coalescing.
+   */
+  static final int MAX_PENDING_BYTES = Integer.getInteger("vertx.flushCoalescingMaxBytes", 64 * 1024);
+
+  private static final FastThreadLocal<FlushCoalescer> coalescers = new FastThreadLocal<FlushCoalescer>() {
+    @Override
+    protected FlushCoalescer initialValue() {
+      return new FlushCoalescer();
+    }
+  };
+
+  static FlushCoalescer current() {
+    return coalescers.get();
+  }
+
+  private final List<ConnectionBase> pending = new ArrayList<>();
+  private boolean scheduled;
+
+  void add(ConnectionBase conn, EventLoop eventLoop) {
+    pending.add(conn);
+    if (!scheduled) {
+      scheduled = true;
+      eventLoop.execute(this);
+    }
+  }
+
+  @Override
+  public void run() {
+    scheduled = false;
+    // Flushing can complete write futures whose listeners write again, those connections are appended to the list
+    for (int i = 0; i < pending.size(); i++) {
+      pending.get(i).flushCoalesced();
+    }
+    pending.clear();
+  }
+}
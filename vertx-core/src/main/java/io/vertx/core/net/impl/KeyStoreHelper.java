@@ -29,6 +29,7 @@ import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.KeyFactory;
@@ -37,8 +38,12 @@ import java.security.PrivateKey;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -60,7 +65,7 @@ public abstract class KeyStoreHelper {
       } else {
         return null;
       }
-      return new JKSOrPKCS12("JKS", jks.getPassword(), value);
+      return new JKSOrPKCS12("JKS", jks.getPassword(), value).watch(vertx, jks.getPath());
     } else if (options instanceof PKCS12Options) {
       PKCS12Options pkcs12 = (PKCS12Options) options;
       Callable<Buffer> value;
@@ -71,7 +76,7 @@ public abstract class KeyStoreHelper {
       } else {
         return null;
       }
-      return new JKSOrPKCS12("PKCS12", pkcs12.getPassword(), value);
+      return new JKSOrPKCS12("PKCS12", pkcs12.getPassword(), value).watch(vertx, pkcs12.getPath());
     } else if (options instanceof KeyCertOptions) {
       KeyCertOptions keyCert = (KeyCertOptions) options;
       Callable<Buffer> key = () -> {
@@ -92,7 +97,7 @@ public abstract class KeyStoreHelper {
           throw new RuntimeException("Missing X.509 certificate");
         }
       };
-      return new KeyCert(DUMMY_PASSWORD, key, cert);
+      return new KeyCert(DUMMY_PASSWORD, key, cert).watch(vertx, keyCert.getKeyPath(), keyCert.getCertPath());
     } else {
       return null;
     }
@@ -103,24 +108,43 @@ public abstract class KeyStoreHelper {
       return create(vertx, (KeyStoreOptions) options);
     } else if (options instanceof CaOptions) {
       CaOptions caOptions = (CaOptions) options;
-      Stream<Buffer> certValues = caOptions.
-          getCertPaths().
-          stream().
-          map(path -> vertx.resolveFile(path).getAbsolutePath()).
-          map(vertx.fileSystem()::readFileSync);
-      certValues = Stream.concat(certValues, caOptions.getCertValues().stream());
-      return new CA(certValues);
+      Supplier<Stream<Buffer>> certValues = () -> {
+        Stream<Buffer> values = caOptions.
+            getCertPaths().
+            stream().
+            map(path -> vertx.resolveFile(path).getAbsolutePath()).
+            map(vertx.fileSystem()::readFileSync);
+        return Stream.concat(values, caOptions.getCertValues().stream());
+      };
+      return new CA(certValues).watch(vertx, caOptions.getCertPaths().toArray(new String[0]));
     } else {
       return null;
     }
   }
 
   private String password;
+  private final List<File> files = new ArrayList<>();
 
   public KeyStoreHelper(String password) {
     this.password = password;
   }
 
+  KeyStoreHelper watch(VertxInternal vertx, String... paths) {
+    for (String path : paths) {
+      if (path != null) {
+        files.add(vertx.resolveFile(path));
+      }
+    }
+    return this;
+  }
+
+  /**
+   * @return the files the store is loaded from, the store can be loaded again when they change
+   */
+  public List<File> getFiles() {
+    return files;
+  }
+
   public KeyManager[] getKeyMgrs(VertxInternal vertx) throws Exception {
     KeyManagerFactory fact = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
     KeyStore ks = loadStore(vertx, password);
@@ -135,6 +159,20 @@ public abstract class KeyStoreHelper {
     return fact.getTrustManagers();
   }
 
+  /**
+   * @return the first private key of the store with its certificate chain, or {@code null} when it has none
+   */
+  public KeyStore.PrivateKeyEntry getPrivateKeyEntry(VertxInternal vertx) throws Exception {
+    KeyStore ks = loadStore(vertx, password);
+    KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password != null ? password.toCharArray() : null);
+    for (String alias : Collections.list(ks.aliases())) {
+      if (ks.entryInstanceOf(alias, KeyStore.PrivateKeyEntry.class)) {
+        return (KeyStore.PrivateKeyEntry) ks.getEntry(alias, protection);
+      }
+    }
+    return null;
+  }
+
   protected abstract KeyStore loadStore(VertxInternal vertx, String password) throws Exception ;
 
   static class JKSOrPKCS12 extends KeyStoreHelper {
@@ -190,9 +228,9 @@ public abstract class KeyStoreHelper {
 
   static class CA extends KeyStoreHelper {
 
-    private Stream<Buffer> certValues;
+    private Supplier<Stream<Buffer>> certValues;
 
-    CA(Stream<Buffer> certValues) {
+    CA(Supplier<Stream<Buffer>> certValues) {
       super(null);
       this.certValues = certValues;
     }
@@ -202,7 +240,7 @@ public abstract class KeyStoreHelper {
       KeyStore keyStore = KeyStore.getInstance("jks");
       keyStore.load(null, null);
       int count = 0;
-      Iterable<Buffer> iterable = certValues::iterator;
+      Iterable<Buffer> iterable = certValues.get()::iterator;
       for (Buffer certValue : iterable) {
         for (Certificate cert : loadCert(certValue)) {
           keyStore.setCertificateEntry("cert-" + count, cert);
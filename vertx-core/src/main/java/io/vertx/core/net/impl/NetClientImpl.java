@@ -98,6 +98,7 @@ public class NetClientImpl implements NetClient {
         creatingContext.removeCloseHook(closeHook);
       }
       closed = true;
+      sslHelper.close();
       metrics.close();
     }
   }
@@ -110,9 +111,13 @@ public class NetClientImpl implements NetClient {
   @Override
   public Map<String, JsonObject> metrics() {
     String name = metricBaseName();
-    return vertx.metrics().entrySet().stream()
+    Map<String, JsonObject> metrics = vertx.metrics().entrySet().stream()
       .filter(e -> e.getKey().startsWith(name))
       .collect(Collectors.toMap(e -> e.getKey().substring(name.length() + 1), Map.Entry::getValue));
+    if (sslHelper.isSSL()) {
+      metrics.put("ssl", sslHelper.metrics());
+    }
+    return metrics;
   }
 
   private void checkClosed() {
@@ -153,7 +158,7 @@ public class NetClientImpl implements NetClient {
       protected void initChannel(Channel ch) throws Exception {
         ChannelPipeline pipeline = ch.pipeline();
         if (sslHelper.isSSL()) {
-          SslHandler sslHandler = sslHelper.createSslHandler(vertx, true);
+          SslHandler sslHandler = sslHelper.createSslHandler(vertx, true, host, port, metrics);
           pipeline.addLast("ssl", sslHandler);
         }
         if (sslHelper.isSSL()) {
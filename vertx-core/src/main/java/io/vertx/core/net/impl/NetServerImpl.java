@@ -72,6 +72,7 @@ public class NetServerImpl implements NetServer, Closeable {
   private final Map<Channel, NetSocketImpl> socketMap = new ConcurrentHashMap<>();
   private final VertxEventLoopGroup availableWorkers = new VertxEventLoopGroup();
   private final HandlerManager<NetSocket> handlerManager = new HandlerManager<>(availableWorkers);
+  private final boolean reusePort;
   private ChannelGroup serverChannelGroup;
   private boolean listening;
   private ServerID id;
@@ -95,6 +96,10 @@ public class NetServerImpl implements NetServer, Closeable {
       creatingContext.addCloseHook(this);
     }
     this.metrics = vertx.metricsSPI().createMetrics(this, options);
+    this.reusePort = options.isReusePort() && ReusePortServerSocketChannel.isAvailable();
+    if (options.isReusePort() && !reusePort) {
+      log.warn("SO_REUSEPORT is not supported on this platform, server instances will share a single acceptor");
+    }
   }
 
   @Override
@@ -134,13 +139,14 @@ public class NetServerImpl implements NetServer, Closeable {
     synchronized (vertx.sharedNetServers()) {
       this.actualPort = options.getPort(); // Will be updated on bind for a wildcard port
       id = new ServerID(options.getPort(), options.getHost());
-      NetServerImpl shared = vertx.sharedNetServers().get(id);
+      // With SO_REUSEPORT each instance binds its own acceptor on its own event loop
+      NetServerImpl shared = reusePort ? null : vertx.sharedNetServers().get(id);
       if (shared == null || options.getPort() == 0) { // Wildcard port will imply a new actual server each time
         serverChannelGroup = new DefaultChannelGroup("vertx-acceptor-channels", GlobalEventExecutor.INSTANCE);
 
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(availableWorkers);
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.channel(reusePort ? ReusePortServerSocketChannel.class : NioServerSocketChannel.class);
         sslHelper.validate(vertx);
 
         bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -152,7 +158,7 @@ public class NetServerImpl implements NetServer, Closeable {
             }
             ChannelPipeline pipeline = ch.pipeline();
             if (sslHelper.isSSL()) {
-              SslHandler sslHandler = sslHelper.createSslHandler(vertx, false);
+              SslHandler sslHandler = sslHelper.createSslHandler(vertx, false, metrics);
               pipeline.addLast("ssl", sslHandler);
             }
             if (sslHelper.isSSL()) {
@@ -181,9 +187,11 @@ public class NetServerImpl implements NetServer, Closeable {
               // Update port to actual port - wildcard port 0 might have been used
               NetServerImpl.this.actualPort = ((InetSocketAddress)bindFuture.channel().localAddress()).getPort();
               NetServerImpl.this.id = new ServerID(NetServerImpl.this.actualPort, id.host);
-              vertx.sharedNetServers().put(id, NetServerImpl.this);
+              if (!reusePort) {
+                vertx.sharedNetServers().put(id, NetServerImpl.this);
+              }
               metrics.listening(new SocketAddressImpl(id.port, id.host));
-            } else {
+            } else if (!reusePort) {
               vertx.sharedNetServers().remove(id);
             }
           });
@@ -199,7 +207,7 @@ public class NetServerImpl implements NetServer, Closeable {
           listening = false;
           return this;
         }
-        if (options.getPort() != 0) {
+        if (options.getPort() != 0 && !reusePort) {
           vertx.sharedNetServers().put(id, this);
         }
         actualServer = this;
@@ -302,9 +310,14 @@ public class NetServerImpl implements NetServer, Closeable {
   @Override
   public Map<String, JsonObject> metrics() {
     String name = metricBaseName();
-    return vertx.metrics().entrySet().stream()
+    Map<String, JsonObject> metrics = vertx.metrics().entrySet().stream()
       .filter(e -> e.getKey().startsWith(name))
       .collect(Collectors.toMap(e -> e.getKey().substring(name.length() + 1), Map.Entry::getValue));
+    NetServerImpl server = actualServer;
+    if (server != null && server.sslHelper.isSSL()) {
+      metrics.put("ssl", server.sslHelper.metrics());
+    }
+    return metrics;
   }
 
   private void applyConnectionOptions(ServerBootstrap bootstrap) {
@@ -346,7 +359,7 @@ public class NetServerImpl implements NetServer, Closeable {
   }
 
   private void actualClose(ContextImpl closeContext, Handler<AsyncResult<Void>> done) {
-    if (id != null) {
+    if (id != null && !reusePort) {
       vertx.sharedNetServers().remove(id);
     }
 
@@ -359,6 +372,8 @@ public class NetServerImpl implements NetServer, Closeable {
 
     vertx.setContext(closeContext);
 
+    sslHelper.close();
+
     ChannelGroupFuture fut = serverChannelGroup.close();
     fut.addListener(cg -> {
       metrics.close();
@@ -39,16 +39,16 @@ import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.SocketAddress;
 
 import java.io.File;
+import java.net.InetSocketAddress;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.Queue;
-import java.util.UUID;
 
 public class NetSocketImpl extends ConnectionBase implements NetSocket {
 
   private static final Logger log = LoggerFactory.getLogger(NetSocketImpl.class);
 
-  private final String writeHandlerID;
+  private String writeHandlerID;
   private Handler<Buffer> dataHandler;
   private Handler<Void> endHandler;
   private Handler<Void> drainHandler;
@@ -58,18 +58,24 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
   private SSLHelper helper;
   private boolean client;
   private ChannelFuture writeFuture;
+  private boolean closed;
 
   public NetSocketImpl(VertxInternal vertx, Channel channel, ContextImpl context, SSLHelper helper, boolean client, NetMetrics metrics) {
     super(vertx, channel, context, metrics);
     this.helper = helper;
     this.client = client;
-    this.writeHandlerID = UUID.randomUUID().toString();
-    Handler<Message<Buffer>> writeHandler = msg -> write(msg.body());
-    registration = vertx.eventBus().<Buffer>localConsumer(writeHandlerID).handler(writeHandler);
   }
 
   @Override
-  public String writeHandlerID() {
+  public synchronized String writeHandlerID() {
+    // Registered on first use, most sockets never use it
+    if (writeHandlerID == null) {
+      writeHandlerID = vertx.generateHandlerID();
+      if (!closed) {
+        Handler<Message<Buffer>> writeHandler = msg -> write(msg.body());
+        registration = registerLocalHandler(writeHandlerID, writeHandler);
+      }
+    }
     return writeHandlerID;
   }
 
@@ -228,7 +234,13 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
   public NetSocket upgradeToSsl(final Handler<Void> handler) {
     SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
     if (sslHandler == null) {
-      sslHandler = helper.createSslHandler(vertx, client);
+      if (client) {
+        // Let the engine know the peer so that it resumes the sessions established with it
+        InetSocketAddress addr = (InetSocketAddress) channel.remoteAddress();
+        sslHandler = helper.createSslHandler(vertx, true, addr.getHostString(), addr.getPort(), metrics);
+      } else {
+        sslHandler = helper.createSslHandler(vertx, false, metrics);
+      }
       channel.pipeline().addFirst(sslHandler);
     }
     sslHandler.handshakeFuture().addListener(future -> {
@@ -258,8 +270,12 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
       endHandler.handle(null);
     }
     super.handleClosed();
-    if (vertx.eventBus() != null) {
-      registration.unregister();
+    synchronized (this) {
+      closed = true;
+      if (registration != null && vertx.eventBus() != null) {
+        registration.unregister();
+      }
+      registration = null;
     }
   }
 
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.nio.ByteBuffer;
+
+/**
+ * An engine running the delegated tasks of another engine with an {@link SSLHandshakeExecutor}.
+ * <p>
+ * Netty runs the delegated tasks on the event loop, or waits on the event loop for an executor to run them. Instead,
+ * when the engine needs its tasks to be run this engine hands them to the executor and tells the handler it waits for
+ * input. Until the tasks completed, the input it gets is kept aside and reported as consumed, since the handler expects
+ * its input to be consumed entirely, and nothing is wrapped. Once they completed the completion handler is called from
+ * the executor thread, the handler must then carry on the handshake and unwrap the input kept aside with
+ * {@link #takeInput()}.
+ * <p>
+ * The methods of the engine are called from the event loop of its channel.
+ */
+class OffloadingSSLEngine extends SSLEngine {
+
+  private final SSLEngine engine;
+  private final SSLHandshakeExecutor executor;
+  private Runnable completionHandler;
+  private volatile boolean pending;
+  private ByteBuf input;
+
+  OffloadingSSLEngine(SSLEngine engine, SSLHandshakeExecutor executor) {
+    super(engine.getPeerHost(), engine.getPeerPort());
+    this.engine = engine;
+    this.executor = executor;
+  }
+
+  void completionHandler(Runnable handler) {
+    this.completionHandler = handler;
+  }
+
+  /**
+   * @return whether delegated tasks are running
+   */
+  boolean isPending() {
+    return pending;
+  }
+
+  /**
+   * Called once the delegated tasks completed.
+   */
+  void resume() {
+    pending = false;
+  }
+
+  /**
+   * @return the input received while the delegated tasks were running, or {@code null}
+   */
+  ByteBuf takeInput() {
+    ByteBuf input = this.input;
+    this.input = null;
+    return input;
+  }
+
+  @Override
+  public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+    if (pending) {
+      return new SSLEngineResult(SSLEngineResult.Status.OK, SSLEngineResult.HandshakeStatus.NEED_UNWRAP, 0, 0);
+    }
+    return offload(engine.wrap(srcs, offset, length, dst));
+  }
+
+  @Override
+  public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+    if (pending) {
+      int consumed = src.remaining();
+      if (input == null) {
+        input = Unpooled.buffer(consumed);
+      }
+      input.writeBytes(src);
+      return new SSLEngineResult(SSLEngineResult.Status.OK, SSLEngineResult.HandshakeStatus.NEED_UNWRAP, consumed, 0);
+    }
+    return offload(engine.unwrap(src, dsts, offset, length));
+  }
+
+  private SSLEngineResult offload(SSLEngineResult result) {
+    if (result.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_TASK) {
+      return result;
+    }
+    pending = true;
+    if (!executor.execute(this::runDelegatedTasks)) {
+      // The handler runs them
+      pending = false;
+      return result;
+    }
+    return new SSLEngineResult(result.getStatus(), SSLEngineResult.HandshakeStatus.NEED_UNWRAP,
+      result.bytesConsumed(), result.bytesProduced());
+  }
+
+  private void runDelegatedTasks() {
+    try {
+      Runnable task;
+      while ((task = engine.getDelegatedTask()) != null) {
+        task.run();
+      }
+    } finally {
+      completionHandler.run();
+    }
+  }
+
+  @Override
+  public Runnable getDelegatedTask() {
+    return pending ? null : engine.getDelegatedTask();
+  }
+
+  @Override
+  public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+    // The engine is locked while its tasks run
+    return pending ? SSLEngineResult.HandshakeStatus.NEED_UNWRAP : engine.getHandshakeStatus();
+  }
+
+  @Override
+  public void closeInbound() throws SSLException {
+    engine.closeInbound();
+  }
+
+  @Override
+  public boolean isInboundDone() {
+    return engine.isInboundDone();
+  }
+
+  @Override
+  public void closeOutbound() {
+    engine.closeOutbound();
+  }
+
+  @Override
+  public boolean isOutboundDone() {
+    return engine.isOutboundDone();
+  }
+
+  @Override
+  public String[] getSupportedCipherSuites() {
+    return engine.getSupportedCipherSuites();
+  }
+
+  @Override
+  public String[] getEnabledCipherSuites() {
+    return engine.getEnabledCipherSuites();
+  }
+
+  @Override
+  public void setEnabledCipherSuites(String[] suites) {
+    engine.setEnabledCipherSuites(suites);
+  }
+
+  @Override
+  public String[] getSupportedProtocols() {
+    return engine.getSupportedProtocols();
+  }
+
+  @Override
+  public String[] getEnabledProtocols() {
+    return engine.getEnabledProtocols();
+  }
+
+  @Override
+  public void setEnabledProtocols(String[] protocols) {
+    engine.setEnabledProtocols(protocols);
+  }
+
+  @Override
+  public SSLSession getSession() {
+    return engine.getSession();
+  }
+
+  @Override
+  public SSLSession getHandshakeSession() {
+    return engine.getHandshakeSession();
+  }
+
+  @Override
+  public void beginHandshake() throws SSLException {
+    engine.beginHandshake();
+  }
+
+  @Override
+  public void setUseClientMode(boolean mode) {
+    engine.setUseClientMode(mode);
+  }
+
+  @Override
+  public boolean getUseClientMode() {
+    return engine.getUseClientMode();
+  }
+
+  @Override
+  public void setNeedClientAuth(boolean need) {
+    engine.setNeedClientAuth(need);
+  }
+
+  @Override
+  public boolean getNeedClientAuth() {
+    return engine.getNeedClientAuth();
+  }
+
+  @Override
+  public void setWantClientAuth(boolean want) {
+    engine.setWantClientAuth(want);
+  }
+
+  @Override
+  public boolean getWantClientAuth() {
+    return engine.getWantClientAuth();
+  }
+
+  @Override
+  public void setEnableSessionCreation(boolean flag) {
+    engine.setEnableSessionCreation(flag);
+  }
+
+  @Override
+  public boolean getEnableSessionCreation() {
+    return engine.getEnableSessionCreation();
+  }
+
+  @Override
+  public SSLParameters getSSLParameters() {
+    return engine.getSSLParameters();
+  }
+
+  @Override
+  public void setSSLParameters(SSLParameters params) {
+    engine.setSSLParameters(params);
+  }
+}
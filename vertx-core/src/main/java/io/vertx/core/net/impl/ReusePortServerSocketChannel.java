@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl;
+
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+
+/**
+ * A {@link NioServerSocketChannel} which sets {@code SO_REUSEPORT} before binding, so that several acceptors
+ * (one per event loop) can listen on the same address and let the kernel balance accepted connections between them.
+ * <p>
+ * {@code SO_REUSEPORT} is only exposed by the JDK from Java 9 onwards and not on every platform, so it is looked up
+ * reflectively: check {@link #isAvailable()} before using this channel.
+ */
+public class ReusePortServerSocketChannel extends NioServerSocketChannel {
+
+  private static final SocketOption<Boolean> SO_REUSEPORT = lookupReusePort();
+
+  @SuppressWarnings("unchecked")
+  private static SocketOption<Boolean> lookupReusePort() {
+    try {
+      SocketOption<Boolean> option = (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+      try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+        // The option is only supported on some platforms
+        return channel.supportedOptions().contains(option) ? option : null;
+      }
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  public static boolean isAvailable() {
+    return SO_REUSEPORT != null;
+  }
+
+  /**
+   * @return the {@code SO_REUSEPORT} option, or {@code null} when it is not available
+   */
+  public static SocketOption<Boolean> reusePortOption() {
+    return SO_REUSEPORT;
+  }
+
+  @Override
+  protected void doBind(SocketAddress localAddress) throws Exception {
+    javaChannel().setOption(SO_REUSEPORT, true);
+    super.doBind(localAddress);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.metrics.impl.LatencyHistogram;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the delegated tasks of TLS handshakes, i.e. the key exchange and the certificate checks, off the event loops.
+ * <p>
+ * The executor has a bounded queue. When it is full the tasks are not offloaded and run on the event loop as they
+ * would without the executor, so a burst of handshakes slows down the event loops instead of queueing tasks that
+ * would only complete after the handshake timed out.
+ */
+public final class SSLHandshakeExecutor {
+
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong offloadedTasks = new AtomicLong();
+  private final AtomicLong inlineTasks = new AtomicLong();
+  private final LatencyHistogram queueTime = new LatencyHistogram();
+  private final LatencyHistogram taskTime = new LatencyHistogram();
+
+  public SSLHandshakeExecutor(ThreadPoolExecutor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * @return whether the task was offloaded, otherwise it must be run by the caller
+   */
+  boolean execute(Runnable task) {
+    long queued = System.nanoTime();
+    try {
+      executor.execute(() -> {
+        long start = System.nanoTime();
+        queueTime.record(start - queued);
+        try {
+          task.run();
+        } finally {
+          taskTime.record(System.nanoTime() - start);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      inlineTasks.incrementAndGet();
+      return false;
+    }
+    offloadedTasks.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * @return the number of tasks offloaded and run on the event loops because the queue was full, the tasks currently
+   * queued and the histograms of the time in nanoseconds the offloaded tasks waited in the queue and took to run
+   */
+  public JsonObject metrics() {
+    return new JsonObject()
+      .put("offloadedTasks", offloadedTasks.get())
+      .put("inlineTasks", inlineTasks.get())
+      .put("queuedTasks", executor.getQueue().size())
+      .put("activeThreads", executor.getActiveCount())
+      .put("queueTime", queueTime.toJson())
+      .put("taskTime", taskTime.toJson());
+  }
+
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -16,31 +16,57 @@
 
 package io.vertx.core.net.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslServerContext;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
 import io.vertx.core.VertxException;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.impl.Redeployer;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.impl.LoggerFactory;
+import io.vertx.core.metrics.impl.LatencyHistogram;
+import io.vertx.core.metrics.spi.NetMetrics;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.SSLProvider;
+import io.vertx.core.net.TCPSSLOptions;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
 import java.security.SecureRandom;
 import java.security.cert.CRL;
+import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -56,6 +82,8 @@ public class SSLHelper {
 
   // Make sure SSLv3 is NOT enabled due to POODLE vulnerability http://en.wikipedia.org/wiki/POODLE
   private static final String[] ENABLED_PROTOCOLS = {"SSLv2Hello", "TLSv1", "TLSv1.1", "TLSv1.2"};
+  // An SSLv2 compatible hello has no extensions, a client sending it could not resume its sessions
+  private static final String[] CLIENT_ENABLED_PROTOCOLS = {"TLSv1", "TLSv1.1", "TLSv1.2"};
 
   private boolean ssl;
   private KeyStoreHelper keyStoreHelper;
@@ -66,8 +94,26 @@ public class SSLHelper {
   private ClientAuth clientAuth = ClientAuth.NONE;
   private Set<String> enabledCipherSuites;
   private boolean verifyHost;
+  private boolean openSsl;
+  private int sessionCacheSize;
+  private int sessionTimeout;
+  private boolean sessionTicketsEnabled;
+  private long storeScanPeriod;
 
   private SSLContext sslContext;
+  private SslContext openSslContext;
+  private SSLHandshakeExecutor handshakeExecutor;
+  private VertxInternal vertx;
+  private Redeployer storeWatcher;
+  private long scanTimerID = -1;
+  private boolean closed;
+  private final AtomicLong storeReloads = new AtomicLong();
+  private final AtomicLong handshakes = new AtomicLong();
+  private final AtomicLong resumedHandshakes = new AtomicLong();
+  private final LatencyHistogram fullHandshakeTime = new LatencyHistogram();
+  private final LatencyHistogram resumedHandshakeTime = new LatencyHistogram();
+  // The session cache hits of the OpenSSL context already counted as resumed handshakes
+  private final AtomicLong countedHits = new AtomicLong();
 
   public SSLHelper(HttpClientOptions options, KeyStoreHelper keyStoreHelper, KeyStoreHelper trustStoreHelper) {
     this.ssl = options.isSsl();
@@ -78,6 +124,8 @@ public class SSLHelper {
     this.crlValues = new ArrayList<>(options.getCrlValues());
     this.enabledCipherSuites = options.getEnabledCipherSuites();
     this.verifyHost = options.isVerifyHost();
+    setTCPSSLOptions(options);
+    checkClientProvider(options);
   }
 
   public SSLHelper(HttpServerOptions options, KeyStoreHelper keyStoreHelper, KeyStoreHelper trustStoreHelper) {
@@ -88,6 +136,8 @@ public class SSLHelper {
     this.crlPaths = options.getCrlPaths() != null ? new ArrayList<>(options.getCrlPaths()) : null;
     this.crlValues = options.getCrlValues() != null ? new ArrayList<>(options.getCrlValues()) : null;
     this.enabledCipherSuites = options.getEnabledCipherSuites();
+    this.openSsl = options.getSslProvider() == SSLProvider.OPENSSL;
+    setTCPSSLOptions(options);
   }
 
   public SSLHelper(NetClientOptions options, KeyStoreHelper keyStoreHelper, KeyStoreHelper trustStoreHelper) {
@@ -98,6 +148,8 @@ public class SSLHelper {
     this.crlPaths = new ArrayList<>(options.getCrlPaths());
     this.crlValues = new ArrayList<>(options.getCrlValues());
     this.enabledCipherSuites = options.getEnabledCipherSuites();
+    setTCPSSLOptions(options);
+    checkClientProvider(options);
   }
 
   public SSLHelper(NetServerOptions options, KeyStoreHelper keyStoreHelper, KeyStoreHelper trustStoreHelper) {
@@ -108,6 +160,22 @@ public class SSLHelper {
     this.crlPaths = options.getCrlPaths() != null ? new ArrayList<>(options.getCrlPaths()) : null;
     this.crlValues = options.getCrlValues() != null ? new ArrayList<>(options.getCrlValues()) : null;
     this.enabledCipherSuites = options.getEnabledCipherSuites();
+    this.openSsl = options.getSslProvider() == SSLProvider.OPENSSL;
+    setTCPSSLOptions(options);
+  }
+
+  private void setTCPSSLOptions(TCPSSLOptions options) {
+    this.sessionCacheSize = options.getSessionCacheSize();
+    this.sessionTimeout = options.getSessionTimeout();
+    this.sessionTicketsEnabled = options.isSessionTicketsEnabled();
+    this.storeScanPeriod = options.getStoreScanPeriod();
+  }
+
+  private static void checkClientProvider(TCPSSLOptions options) {
+    // Options read from JSON bypass the setter
+    if (options.getSslProvider() == SSLProvider.OPENSSL) {
+      log.warn("OpenSSL is only supported by servers, the client uses the JDK implementation of TLS");
+    }
   }
 
   public enum ClientAuth {
@@ -122,6 +190,27 @@ public class SSLHelper {
     return clientAuth;
   }
 
+  /**
+   * @return the number of completed handshakes, how many of them resumed an earlier session, how many times the
+   * stores were reloaded, the histograms of the time in nanoseconds taken by full and resumed handshakes and, when
+   * the handshake tasks are offloaded, the metrics of the executor running them
+   */
+  public JsonObject metrics() {
+    long count = handshakes.get();
+    long resumed = resumedHandshakes.get();
+    JsonObject json = new JsonObject()
+      .put("handshakes", count)
+      .put("resumedHandshakes", resumed)
+      .put("resumptionRatio", count == 0 ? 0d : (double) resumed / count)
+      .put("storeReloads", storeReloads.get())
+      .put("fullHandshakeTime", fullHandshakeTime.toJson())
+      .put("resumedHandshakeTime", resumedHandshakeTime.toJson());
+    if (handshakeExecutor != null) {
+      json.put("handshakeExecutor", handshakeExecutor.metrics());
+    }
+    return json;
+  }
+
   /*
   If you don't specify a trust store, and you haven't set system properties, the system will try to use either a file
   called jsssecacerts or cacerts in the JDK/JRE security directory.
@@ -154,12 +243,101 @@ public class SSLHelper {
         trustMgrs = createUntrustRevokedCertTrustManager(trustMgrs, crls);
       }
       context.init(keyMgrs, trustMgrs, new SecureRandom());
+      configureSessions(context.getServerSessionContext());
+      configureSessions(context.getClientSessionContext());
+      return context;
+    } catch (Exception e) {
+      throw new VertxException(e);
+    }
+  }
+
+  // The JDK keeps its own defaults when left at 0, for which 0 would mean no limit
+  private void configureSessions(SSLSessionContext sessions) {
+    if (sessionCacheSize > 0) {
+      sessions.setSessionCacheSize(sessionCacheSize);
+    }
+    if (sessionTimeout > 0) {
+      sessions.setSessionTimeout(sessionTimeout);
+    }
+  }
+
+  /*
+  OpenSSL reads the key and the certificate chain from PEM files, they are exported from the key store to temporary
+  files which are deleted once the context is created.
+   */
+  private SslContext createOpenSslContext(VertxInternal vertx) {
+    if (!OpenSsl.isAvailable()) {
+      throw new VertxException("OpenSSL is not available", OpenSsl.unavailabilityCause());
+    }
+    if (clientAuth != ClientAuth.NONE) {
+      throw new VertxException("Client authentication is not supported with OpenSSL");
+    }
+    if ((crlPaths != null && !crlPaths.isEmpty()) || (crlValues != null && !crlValues.isEmpty())) {
+      throw new VertxException("Certificate revocation lists are not supported with OpenSSL");
+    }
+    Path keyFile = null;
+    Path certFile = null;
+    try {
+      KeyStore.PrivateKeyEntry entry = keyStoreHelper == null ? null : keyStoreHelper.getPrivateKeyEntry(vertx);
+      if (entry == null) {
+        throw new VertxException("OpenSSL requires a key store with a private key");
+      }
+      keyFile = writePem("PRIVATE KEY", entry.getPrivateKey().getEncoded());
+      Certificate[] chain = entry.getCertificateChain();
+      byte[][] certs = new byte[chain.length][];
+      for (int i = 0;i < chain.length;i++) {
+        certs[i] = chain[i].getEncoded();
+      }
+      certFile = writePem("CERTIFICATE", certs);
+      SslContext context = SslContext.newServerContext(SslProvider.OPENSSL, certFile.toFile(), keyFile.toFile(), null,
+        enabledCipherSuites != null && !enabledCipherSuites.isEmpty() ? enabledCipherSuites : null, null,
+        sessionCacheSize, sessionTimeout);
+      if (!sessionTicketsEnabled) {
+        disableSessionTickets((OpenSslServerContext) context);
+      }
       return context;
+    } catch (VertxException e) {
+      throw e;
     } catch (Exception e) {
       throw new VertxException(e);
+    } finally {
+      deleteQuietly(keyFile);
+      deleteQuietly(certFile);
     }
   }
 
+  private static Path writePem(String type, byte[]... ders) throws Exception {
+    // Created readable by the owner only
+    Path file = Files.createTempFile("vertx-", ".pem");
+    StringBuilder pem = new StringBuilder();
+    Base64.Encoder encoder = Base64.getMimeEncoder(64, new byte[]{'\n'});
+    for (byte[] der : ders) {
+      pem.append("-----BEGIN ").append(type).append("-----\n");
+      pem.append(encoder.encodeToString(der)).append('\n');
+      pem.append("-----END ").append(type).append("-----\n");
+    }
+    Files.write(file, pem.toString().getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (Exception ignore) {
+      }
+    }
+  }
+
+  // Netty does not expose the OpenSSL options, they are set through tcnative which is only known at runtime
+  private static void disableSessionTickets(OpenSslServerContext context) throws Exception {
+    ClassLoader loader = OpenSsl.class.getClassLoader();
+    int noTicket = Class.forName("org.apache.tomcat.jni.SSL", true, loader).getField("SSL_OP_NO_TICKET").getInt(null);
+    Class.forName("org.apache.tomcat.jni.SSLContext", true, loader)
+      .getMethod("setOptions", long.class, int.class)
+      .invoke(null, context.context(), noTicket);
+  }
+
   /*
   Proxy the specified trust managers with an implementation checking first the provided certificates
   against the the Certificate Revocation List (crl) before delegating to the original trust managers.
@@ -218,12 +396,55 @@ public class SSLHelper {
     };
   }
 
-  private SslHandler createHandler(SSLEngine engine, boolean client) {
+  private SslHandler createHandler(SSLEngine engine, boolean client, NetMetrics metrics) {
+    VertxSslHandler handler = createHandler(engine, client);
+    handler.handshakeFuture().addListener(future -> {
+      if (future.isSuccess()) {
+        long duration = System.nanoTime() - handler.startNanos;
+        boolean resumed = isResumed(engine, client, handler.startMillis);
+        handshakes.incrementAndGet();
+        if (resumed) {
+          resumedHandshakes.incrementAndGet();
+          resumedHandshakeTime.record(duration);
+        } else {
+          fullHandshakeTime.record(duration);
+        }
+        InetSocketAddress addr = (InetSocketAddress) ((Channel) future.getNow()).remoteAddress();
+        metrics.sslHandshake(new SocketAddressImpl(addr.getPort(), addr.getAddress().getHostAddress()), resumed, duration);
+      }
+    });
+    return handler;
+  }
+
+  /*
+  A resumed session was created before the handshake started. The sessions of the OpenSSL engine do not tell when
+  they were created, each new hit of the session cache of the context is counted as a resumed handshake instead.
+   */
+  private boolean isResumed(SSLEngine engine, boolean client, long start) {
+    if (openSsl && !client) {
+      long hits = ((OpenSslServerContext) openSslContext).stats().hits();
+      long counted;
+      do {
+        counted = countedHits.get();
+        if (counted >= hits) {
+          return false;
+        }
+      } while (!countedHits.compareAndSet(counted, counted + 1));
+      return true;
+    }
+    return engine.getSession().getCreationTime() < start;
+  }
+
+  private VertxSslHandler createHandler(SSLEngine engine, boolean client) {
+    if (openSsl && !client) {
+      // The OpenSSL context is configured as a whole, its engines cannot be configured one by one
+      return new VertxSslHandler(engine);
+    }
     if (enabledCipherSuites != null && !enabledCipherSuites.isEmpty()) {
       String[] toUse = enabledCipherSuites.toArray(new String[enabledCipherSuites.size()]);
       engine.setEnabledCipherSuites(toUse);
     }
-    engine.setEnabledProtocols(ENABLED_PROTOCOLS);
+    engine.setEnabledProtocols(client ? CLIENT_ENABLED_PROTOCOLS : ENABLED_PROTOCOLS);
     engine.setUseClientMode(client);
     if (!client) {
       switch (getClientAuth()) {
@@ -245,31 +466,183 @@ public class SSLHelper {
       sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
       engine.setSSLParameters(sslParameters);
     }
-    return new SslHandler(engine);
+    if (handshakeExecutor != null) {
+      return new VertxSslHandler(new OffloadingSSLEngine(engine, handshakeExecutor));
+    }
+    return new VertxSslHandler(engine);
   }
 
-  private SSLContext getContext(VertxInternal vertx) {
+  private synchronized SSLContext getContext(VertxInternal vertx) {
     if (sslContext == null) {
       sslContext = createContext(vertx);
     }
     return sslContext;
   }
 
+  private synchronized SslContext getOpenSslContext(VertxInternal vertx) {
+    if (openSslContext == null) {
+      openSslContext = createOpenSslContext(vertx);
+    }
+    return openSslContext;
+  }
+
   // This is called to validate some of the SSL params as that only happens when the context is created
   public synchronized void validate(VertxInternal vertx) {
+    handshakeExecutor = vertx.getSSLHandshakeExecutor();
     if (ssl) {
-      getContext(vertx);
+      if (openSsl) {
+        getOpenSslContext(vertx);
+      } else {
+        getContext(vertx);
+      }
+      if (storeScanPeriod > 0 && storeWatcher == null) {
+        watchStores(vertx);
+      }
+    }
+  }
+
+  public synchronized void close() {
+    closed = true;
+    if (scanTimerID != -1) {
+      vertx.cancelTimer(scanTimerID);
+    }
+  }
+
+  /*
+  The files are scanned the way the redeployer scans the files of a module: once changed files stayed unchanged for a
+  scan period, a new context is created from the stores on a worker thread. New connections then get their engine from
+  the new context, the engines of established connections keep the previous one.
+   */
+  private void watchStores(VertxInternal vertx) {
+    Set<File> files = new HashSet<>();
+    if (keyStoreHelper != null) {
+      files.addAll(keyStoreHelper.getFiles());
+    }
+    if (trustStoreHelper != null) {
+      files.addAll(trustStoreHelper.getFiles());
+    }
+    if (crlPaths != null) {
+      crlPaths.forEach(path -> files.add(vertx.resolveFile(path)));
+    }
+    if (!files.isEmpty()) {
+      this.vertx = vertx;
+      storeWatcher = new Redeployer(files, storeScanPeriod);
+      startScanTimer();
+    }
+  }
+
+  private synchronized void startScanTimer() {
+    if (!closed) {
+      scanTimerID = vertx.setTimer(storeScanPeriod, id -> vertx.executeBlocking(this::reloadIfChanged, ar -> {
+        if (ar.failed()) {
+          log.error("Failed to reload the key and trust stores, the current ones are kept", ar.cause());
+        }
+        startScanTimer();
+      }));
+    }
+  }
+
+  private Boolean reloadIfChanged() {
+    if (!storeWatcher.perform()) {
+      return false;
+    }
+    // The context is created before the lock is taken, so new connections do not wait for it
+    if (openSsl) {
+      SslContext context = createOpenSslContext(vertx);
+      synchronized (this) {
+        openSslContext = context;
+        countedHits.set(0);
+      }
+    } else {
+      SSLContext context = createContext(vertx);
+      synchronized (this) {
+        sslContext = context;
+      }
+    }
+    storeReloads.incrementAndGet();
+    log.info("Reloaded the key and trust stores");
+    return true;
+  }
+
+  private SSLEngine createEngine(VertxInternal vertx, boolean client, String host, int port) {
+    if (openSsl && !client) {
+      return getOpenSslContext(vertx).newEngine(ByteBufAllocator.DEFAULT);
     }
+    return host == null ? getContext(vertx).createSSLEngine() : getContext(vertx).createSSLEngine(host, port);
   }
 
-  public SslHandler createSslHandler(VertxInternal vertx, boolean client, String host, int port) {
-    SSLEngine engine = getContext(vertx).createSSLEngine(host, port);
-    return createHandler(engine, client);
+  public SslHandler createSslHandler(VertxInternal vertx, boolean client, String host, int port, NetMetrics metrics) {
+    return createHandler(createEngine(vertx, client, host, port), client, metrics);
   }
 
-  public SslHandler createSslHandler(VertxInternal vertx, boolean client) {
-    SSLEngine engine = getContext(vertx).createSSLEngine();
-    return createHandler(engine, client);
+  public SslHandler createSslHandler(VertxInternal vertx, boolean client, NetMetrics metrics) {
+    return createHandler(createEngine(vertx, client, null, -1), client, metrics);
   }
 
+  /*
+  Remembers when the handshake started: when the channel becomes active, or when the handler is added to a channel
+  already active as with StartTLS.
+
+  With an offloading engine it also carries the handshake on once the delegated tasks completed: it wraps the
+  handshake messages they produced, then hands the input received meanwhile to the decoder, ahead of any incomplete
+  record the decoder kept.
+   */
+  private static class VertxSslHandler extends SslHandler {
+
+    private volatile long startMillis = System.currentTimeMillis();
+    private volatile long startNanos = System.nanoTime();
+    private volatile ChannelHandlerContext ctx;
+
+    VertxSslHandler(SSLEngine engine) {
+      super(engine);
+      if (engine instanceof OffloadingSSLEngine) {
+        ((OffloadingSSLEngine) engine).completionHandler(() -> {
+          ChannelHandlerContext ctx = this.ctx;
+          ctx.executor().execute(() -> resumeHandshake(ctx, (OffloadingSSLEngine) engine));
+        });
+      }
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+      this.ctx = ctx;
+      start();
+      super.handlerAdded(ctx);
+    }
+
+    private void resumeHandshake(ChannelHandlerContext ctx, OffloadingSSLEngine engine) {
+      engine.resume();
+      if (ctx.isRemoved() || !ctx.channel().isActive()) {
+        return;
+      }
+      try {
+        while (engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_WRAP && ctx.channel().isActive()) {
+          flush(ctx);
+        }
+        // Unless wrapping needed more tasks, the input is then kept until they complete
+        ByteBuf input = engine.isPending() ? null : engine.takeInput();
+        if (input != null) {
+          input.writeBytes(internalBuffer());
+          channelRead(ctx, input);
+          channelReadComplete(ctx);
+        }
+      } catch (Throwable t) {
+        try {
+          exceptionCaught(ctx, t);
+        } catch (Exception ignore) {
+        }
+      }
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+      start();
+      super.channelActive(ctx);
+    }
+
+    private void start() {
+      startMillis = System.currentTimeMillis();
+      startNanos = System.nanoTime();
+    }
+  }
 }
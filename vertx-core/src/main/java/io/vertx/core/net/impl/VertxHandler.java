@@ -18,6 +18,7 @@ package io.vertx.core.net.impl;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -66,6 +67,24 @@ public abstract class VertxHandler<C extends ConnectionBase> extends ChannelDupl
     return buf;
   }
 
+  /**
+   * Copy the data of a buffer into pooled direct memory and release it. The copy is given to a handler as a pooled
+   * {@link io.vertx.core.buffer.Buffer}, the handler releases it.
+   */
+  protected static ByteBuf pooledDirectBuffer(ByteBuf buf) {
+    try {
+      if (buf.isReadable()) {
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(buf.readableBytes());
+        buffer.writeBytes(buf);
+        return buffer;
+      } else {
+        return Unpooled.EMPTY_BUFFER;
+      }
+    } finally {
+      buf.release();
+    }
+  }
+
   @Override
   public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
     Channel ch = ctx.channel();
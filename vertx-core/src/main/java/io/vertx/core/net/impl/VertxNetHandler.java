@@ -40,7 +40,8 @@ public class VertxNetHandler extends VertxHandler<NetSocketImpl> {
     if (sock != null) {
       ByteBuf buf = (ByteBuf) msg;
       // We need to do this since it's possible the server is being used from a worker context
-      context.execute(() -> sock.handleDataReceived(Buffer.buffer(buf)), true);
+      Buffer data = vertx.isDirectBuffers() ? Buffer.pooledBuffer(buf) : Buffer.buffer(buf);
+      context.execute(() -> sock.handleDataReceived(data), true);
     } else {
       // just discard
     }
@@ -49,7 +50,7 @@ public class VertxNetHandler extends VertxHandler<NetSocketImpl> {
   @Override
   protected Object safeObject(Object msg, ByteBufAllocator allocator) throws Exception {
     if (msg instanceof ByteBuf) {
-      return safeBuffer((ByteBuf) msg, allocator);
+      return vertx.isDirectBuffers() ? pooledDirectBuffer((ByteBuf) msg) : safeBuffer((ByteBuf) msg, allocator);
     }
     return msg;
   }
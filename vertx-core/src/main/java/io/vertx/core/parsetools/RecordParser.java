@@ -45,6 +45,12 @@ import java.util.Objects;
  * size records.<p>
  * Instances of this class can't currently be used for protocols where the text is encoded with something other than
  * a 1-1 byte-char mapping.<p>
+ * The parser does not copy the buffers it is given: the records are read-only views on them, see
+ * {@link Buffer#readOnlySlice(int, int)}, and the bytes not parsed yet are kept as a view until more data is received.
+ * The buffers given to the parser must not be modified afterwards.<p>
+ * Appending to a record or modifying it throws a {@link java.nio.ReadOnlyBufferException}. A record also keeps the
+ * whole buffer it was read from in memory, so a record which is modified, or kept longer than the data it was parsed
+ * from, should be copied with {@link Buffer#copy()}.<p>
  *
  * Instances of this class are not thread-safe.<p>
  *
@@ -53,6 +59,7 @@ import java.util.Objects;
 public class RecordParser implements Handler<Buffer> {
 
   private Buffer buff;
+  private boolean owned;      // Whether buff was created by the parser and can be appended to
   private int pos;            // Current position in buffer
   private int start;          // Position of beginning of current record
   private int delimPos;       // Position of current match in delimiter array
@@ -167,9 +174,13 @@ public class RecordParser implements Handler<Buffer> {
     if (start == len) {
       //Nothing left
       buff = null;
+      owned = false;
       pos = 0;
     } else {
-      buff = buff.getBuffer(start, len);
+      if (start > 0) {
+        buff = buff.readOnlySlice(start, len);
+        owned = false;
+      }
       pos = buff.length();
     }
     start = 0;
@@ -181,7 +192,7 @@ public class RecordParser implements Handler<Buffer> {
       if (buff.getByte(pos) == delim[delimPos]) {
         delimPos++;
         if (delimPos == delim.length) {
-          Buffer ret = buff.getBuffer(start, pos - delim.length + 1);
+          Buffer ret = buff.readOnlySlice(start, pos - delim.length + 1);
           start = pos + 1;
           delimPos = 0;
           output.handle(ret);
@@ -199,7 +210,7 @@ public class RecordParser implements Handler<Buffer> {
     int len = buff.length();
     while (len - start >= recordSize && !reset) {
       int end = start + recordSize;
-      Buffer ret = buff.getBuffer(start, end);
+      Buffer ret = buff.readOnlySlice(start, end);
       start = end;
       pos = start - 1;
       output.handle(ret);
@@ -213,8 +224,12 @@ public class RecordParser implements Handler<Buffer> {
   public void handle(Buffer buffer) {
     if (buff == null) {
       buff = buffer;
-    } else {
+    } else if (owned) {
       buff.appendBuffer(buffer);
+    } else {
+      // Copy the bytes not parsed yet once, the next buffers are appended to the copy until a record is complete
+      buff = Buffer.buffer(buff.length() + buffer.length()).appendBuffer(buff).appendBuffer(buffer);
+      owned = true;
     }
     handleParsing();
   }
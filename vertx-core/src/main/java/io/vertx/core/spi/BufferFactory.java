@@ -35,4 +35,12 @@ public interface BufferFactory {
   Buffer buffer(byte[] bytes);
 
   Buffer buffer(ByteBuf byteBuffer);
+
+  Buffer directBuffer(int initialSizeHint);
+
+  Buffer pooledBuffer(int initialSizeHint);
+
+  Buffer pooledBuffer(ByteBuf byteBuf);
+
+  Buffer compositeBuffer();
 }
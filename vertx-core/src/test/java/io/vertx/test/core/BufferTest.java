@@ -17,16 +17,22 @@
 package io.vertx.test.core;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.IllegalReferenceCountException;
 import io.vertx.core.buffer.Buffer;
+import org.junit.Assume;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.function.IntFunction;
 
 import static io.vertx.test.core.TestUtils.assertIllegalArgumentException;
 import static io.vertx.test.core.TestUtils.assertIndexOutOfBoundsException;
 import static io.vertx.test.core.TestUtils.assertNullPointerException;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -630,4 +636,196 @@ public class BufferTest {
     buff.appendString(TestUtils.randomUnicodeString(100));
     assertEquals(10, sliced.length());
   }
+
+  @Test
+  public void testReadOnlySlice() throws Exception {
+    Buffer buff = TestUtils.randomBuffer(100);
+    Buffer sliced = buff.readOnlySlice(10, 20);
+    assertEquals(10, sliced.length());
+    assertEquals(buff.getBuffer(10, 20), sliced);
+    buff.setByte(10, (byte) (buff.getByte(10) + 1));
+    assertEquals(buff.getByte(10), sliced.getByte(0));
+    try {
+      sliced.setByte(0, (byte) 0);
+      fail();
+    } catch (ReadOnlyBufferException ignore) {
+      // OK
+    }
+    try {
+      sliced.appendByte((byte) 0);
+      fail();
+    } catch (ReadOnlyBufferException ignore) {
+      // OK
+    }
+    assertIndexOutOfBoundsException(() -> buff.readOnlySlice(90, 101));
+    assertIllegalArgumentException(() -> buff.readOnlySlice(20, 10));
+    assertEquals(Buffer.buffer().appendBuffer(sliced), sliced);
+  }
+
+  @Test
+  public void testPooledBuffer() throws Exception {
+    Buffer buff = Buffer.pooledBuffer(10);
+    assertEquals(0, buff.length());
+    Buffer data = TestUtils.randomBuffer(100);
+    buff.appendBuffer(data);
+    assertEquals(data, buff);
+    Buffer copy = buff.copy();
+    buff.release();
+    try {
+      buff.getByte(0);
+      fail();
+    } catch (IllegalReferenceCountException ignore) {
+      // OK
+    }
+    // Releasing twice or releasing a buffer which is not pooled does nothing
+    buff.release();
+    copy.release();
+    assertEquals(data, copy);
+  }
+
+  @Test
+  public void testPooledBufferAllocation() throws Exception {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+    Buffer data = TestUtils.randomBuffer(4096);
+    IntFunction<Long> unpooled = count -> {
+      long start = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      for (int i = 0; i < count; i++) {
+        Buffer.buffer(4096).appendBuffer(data);
+      }
+      return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+    };
+    IntFunction<Long> pooled = count -> {
+      long start = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      for (int i = 0; i < count; i++) {
+        Buffer.pooledBuffer(4096).appendBuffer(data).release();
+      }
+      return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+    };
+    // Warm up, the pool allocates its memory on first use
+    unpooled.apply(1000);
+    pooled.apply(1000);
+    long unpooledBytes = unpooled.apply(1000);
+    long pooledBytes = pooled.apply(1000);
+    assertTrue("Pooled buffers allocated " + pooledBytes + " bytes, unpooled buffers " + unpooledBytes,
+      pooledBytes * 4 < unpooledBytes);
+  }
+
+  @Test
+  public void testCompositeBuffer() throws Exception {
+    Buffer buff = Buffer.compositeBuffer();
+    Buffer expected = Buffer.buffer();
+    for (int i = 0; i < 100; i++) {
+      Buffer chunk = TestUtils.randomBuffer(i);
+      buff.appendBuffer(chunk);
+      expected.appendBuffer(chunk);
+      // Mix appends by reference and copying appends
+      buff.appendInt(i);
+      expected.appendInt(i);
+      buff.appendBuffer(chunk, 0, i / 2);
+      expected.appendBuffer(chunk, 0, i / 2);
+    }
+    assertEquals(expected.length(), buff.length());
+    assertEquals(expected, buff);
+    for (int i = 0; i < expected.length(); i++) {
+      assertEquals(expected.getByte(i), buff.getByte(i));
+    }
+    assertEquals(expected, buff.copy());
+    Buffer chunk = TestUtils.randomBuffer(10);
+    buff = Buffer.compositeBuffer().appendBuffer(chunk);
+    // The chunk is appended by reference
+    chunk.setByte(0, (byte) (chunk.getByte(0) + 1));
+    assertEquals(chunk, buff);
+  }
+
+  @Test
+  public void testLittleEndian() throws Exception {
+    Buffer buff = Buffer.buffer();
+    buff.appendShortLE((short) 0x0102).appendIntLE(0x01020304).appendLongLE(0x0102030405060708L);
+    assertEquals(14, buff.length());
+    assertEquals((short) 0x0201, buff.getShort(0));
+    assertEquals(0x04030201, buff.getInt(2));
+    assertEquals(0x0807060504030201L, buff.getLong(6));
+    assertEquals((short) 0x0102, buff.getShortLE(0));
+    assertEquals(0x01020304, buff.getIntLE(2));
+    assertEquals(0x0102030405060708L, buff.getLongLE(6));
+    buff.setShortLE(0, (short) -2).setIntLE(2, -3).setLongLE(6, -4L);
+    assertEquals((short) -2, buff.getShortLE(0));
+    assertEquals(-3, buff.getIntLE(2));
+    assertEquals(-4L, buff.getLongLE(6));
+    buff = Buffer.buffer().setIntLE(4, 5);
+    assertEquals(8, buff.length());
+    assertEquals(5, buff.getIntLE(4));
+  }
+
+  @Test
+  public void testUnsigned() throws Exception {
+    Buffer buff = Buffer.buffer();
+    buff.appendUnsignedByte((short) 255).appendUnsignedShort(65535).appendUnsignedInt(4294967295L);
+    assertEquals(7, buff.length());
+    assertEquals((byte) -1, buff.getByte(0));
+    assertEquals((short) -1, buff.getShort(1));
+    assertEquals(-1, buff.getInt(3));
+    assertEquals(255, buff.getUnsignedByte(0));
+    assertEquals(65535, buff.getUnsignedShort(1));
+    assertEquals(4294967295L, buff.getUnsignedInt(3));
+  }
+
+  @Test
+  public void testVarInt() throws Exception {
+    int[] ints = {0, 1, 127, 128, 16383, 16384, 2097151, 2097152, 268435455, 268435456, Integer.MAX_VALUE, -1,
+      Integer.MIN_VALUE};
+    int[] intLengths = {1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 5, 5};
+    Buffer buff = Buffer.buffer();
+    for (int i = 0; i < ints.length; i++) {
+      int pos = buff.length();
+      buff.appendVarInt(ints[i]);
+      assertEquals(intLengths[i], buff.length() - pos);
+      assertEquals(intLengths[i], Buffer.varIntLength(ints[i]));
+      assertEquals(ints[i], buff.getVarInt(pos));
+    }
+    assertEquals(0x7F, buff.getUnsignedByte(2));
+    long[] longs = {0, 127, 128, 34359738367L, 34359738368L, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+    int[] longLengths = {1, 1, 2, 5, 6, 9, 10, 10};
+    buff = Buffer.buffer();
+    for (int i = 0; i < longs.length; i++) {
+      int pos = buff.length();
+      buff.appendVarLong(longs[i]);
+      assertEquals(longLengths[i], buff.length() - pos);
+      assertEquals(longLengths[i], Buffer.varLongLength(longs[i]));
+      assertEquals(longs[i], buff.getVarLong(pos));
+    }
+    buff = Buffer.buffer();
+    for (int i = 0; i < 5; i++) {
+      buff.appendUnsignedByte((short) 0x80);
+    }
+    buff.appendByte((byte) 0);
+    try {
+      buff.getVarInt(0);
+      fail();
+    } catch (IllegalStateException e) {
+      // OK
+    }
+  }
+
+  @Test
+  public void testGetBytesIntoArray() throws Exception {
+    byte[] bytes = TestUtils.randomByteArray(100);
+    Buffer buff = Buffer.buffer(bytes);
+    byte[] dst = new byte[60];
+    buff.getBytes(10, dst, 5, 50);
+    for (int i = 0; i < 50; i++) {
+      assertEquals(bytes[10 + i], dst[5 + i]);
+    }
+    assertEquals(0, dst[0]);
+    assertEquals(0, dst[55]);
+    try {
+      buff.getBytes(60, dst, 0, 50);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // OK
+    }
+  }
 }
@@ -18,16 +18,24 @@ package io.vertx.test.core;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.impl.MessageImpl;
+import io.vertx.core.eventbus.impl.codecs.StringMessageCodec;
+import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.net.impl.ServerID;
 import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.test.fakecluster.FakeClusterManager;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -302,4 +310,93 @@ public class ClusteredEventBusTest extends EventBusTestBase {
     vertx.setTimer(4000, id -> testComplete());
     await();
   }
+
+  @Test
+  public void testSendWithWireProtocolVersion2() {
+    startNodes(2, new VertxOptions().setClusterWireProtocolVersion(2));
+    MessageConsumer<String> reg = vertices[1].eventBus().<String>consumer(ADDRESS1).handler(msg -> {
+      assertEquals("foo", msg.body());
+      assertEquals("bar", msg.headers().get("header"));
+      msg.reply("pong");
+    });
+    reg.completionHandler(ar -> {
+      assertTrue(ar.succeeded());
+      vertices[0].eventBus().send(ADDRESS1, "foo", new DeliveryOptions().addHeader("header", "bar"), onSuccess(reply -> {
+        assertEquals("pong", reply.body());
+        assertTrue(reply.headers().isEmpty());
+        testComplete();
+      }));
+    });
+    await();
+  }
+
+  @Test
+  public void testDecodeWireProtocolVersion1() {
+    // A message as written by the nodes of older releases, all the ints are 4 bytes
+    StringMessageCodec codec = new StringMessageCodec();
+    Buffer buffer = Buffer.buffer();
+    buffer.appendByte((byte) 1);
+    buffer.appendByte(codec.systemCodecID());
+    buffer.appendByte((byte) 0);
+    appendString(buffer, "some-address");
+    appendString(buffer, "some-reply-address");
+    buffer.appendInt(1234);
+    appendString(buffer, "localhost");
+    Buffer headers = Buffer.buffer();
+    headers.appendInt(1);
+    appendString(headers, "header");
+    appendString(headers, "value");
+    buffer.appendInt(headers.length() + 4);
+    buffer.appendBuffer(headers);
+    codec.encodeToWire(buffer, "body");
+
+    MessageImpl<String, String> msg = decode(buffer);
+    assertEquals("some-address", msg.address());
+    assertEquals("some-reply-address", msg.replyAddress());
+    assertEquals(1, msg.headers().size());
+    assertEquals("value", msg.headers().get("header"));
+    assertEquals("body", msg.body());
+  }
+
+  @Test
+  public void testWireProtocolRoundTrip() {
+    for (byte version = 1; version <= 2; version++) {
+      MultiMap headers = new CaseInsensitiveHeaders().add("header", "value").add("header", "other").add("empty", "");
+      MessageImpl<String, String> sent = new MessageImpl<>(new ServerID(1234, "localhost"), "some-address",
+        "some-reply-address", headers, "body", new StringMessageCodec(), false);
+      Buffer encoded = sent.encodeToWire(version);
+      assertEquals(encoded.length() - 4, encoded.getInt(0));
+      assertEquals(version, encoded.getByte(4));
+      MessageImpl<String, String> received = decode(encoded.getBuffer(4, encoded.length()));
+      assertEquals("some-address", received.address());
+      assertEquals("some-reply-address", received.replyAddress());
+      assertEquals(3, received.headers().entries().size());
+      assertEquals(Arrays.asList("value", "other"), received.headers().getAll("header"));
+      assertEquals("", received.headers().get("empty"));
+      assertEquals("body", received.body());
+
+      // No reply address nor headers
+      sent = new MessageImpl<>(new ServerID(1234, "localhost"), "some-address", null, null, "body",
+        new StringMessageCodec(), true);
+      encoded = sent.encodeToWire(version);
+      received = decode(encoded.getBuffer(4, encoded.length()));
+      assertNull(received.replyAddress());
+      assertTrue(received.headers().isEmpty());
+      assertEquals("body", received.body());
+    }
+  }
+
+  private static MessageImpl<String, String> decode(Buffer buffer) {
+    StringMessageCodec codec = new StringMessageCodec();
+    MessageCodec[] systemCodecs = new MessageCodec[codec.systemCodecID() + 1];
+    systemCodecs[codec.systemCodecID()] = codec;
+    MessageImpl<String, String> msg = new MessageImpl<>();
+    msg.readFromWire(null, buffer, new HashMap<>(), systemCodecs);
+    return msg;
+  }
+
+  private static void appendString(Buffer buffer, String str) {
+    buffer.appendInt(str.length());
+    buffer.appendString(str);
+  }
 }
@@ -16,11 +16,29 @@
 
 package io.vertx.test.core;
 
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaderBlock;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.impl.ZlibPool;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
 /**
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
  * @author <a href="mailto:nscavell@redhat.com">Nick Scavelli</a>
@@ -48,4 +66,277 @@ public class HttpCompressionTest extends HttpTestBase {
 
     await();
   }
+
+  @Test
+  public void testResponseHeaderBlock() throws Exception {
+    String content = TestUtils.randomAlphaString(10000);
+    HttpHeaderBlock block = HttpHeaderBlock.create(new CaseInsensitiveHeaders()
+      .add("Cache-Control", "max-age=60").add("X-Block", "value"));
+    HttpClient plainClient = vertx.createHttpClient(new HttpClientOptions());
+    server.requestHandler(req -> req.response().putHeaders(block).end(content));
+
+    server.listen(onSuccess(server -> {
+      plainClient.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        // The compressor rewrote the response, the headers of the block are still there
+        assertEquals("gzip", resp.headers().get("content-encoding"));
+        assertEquals("max-age=60", resp.headers().get("cache-control"));
+        assertEquals("value", resp.headers().get("x-block"));
+        resp.bodyHandler(body -> {
+          assertEquals(content, gunzip(body));
+          plainClient.close();
+          testComplete();
+        });
+      }).putHeader("Accept-Encoding", "gzip").end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testSendFilePrecompressedGzip() throws Exception {
+    File dir = Files.createTempDirectory("vertx-test").toFile();
+    dir.deleteOnExit();
+    File file = createFile(dir, "file.txt", "original".getBytes("UTF-8"));
+    File gz = createFile(dir, "file.txt.gz", gzip("precompressed"));
+
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        assertEquals("text/plain", resp.headers().get("content-type"));
+        resp.bodyHandler(body -> {
+          // The client decompressed the pre-compressed sibling
+          assertEquals("precompressed", body.toString());
+          file.delete();
+          gz.delete();
+          testComplete();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testSendFilePrecompressedBrotli() throws Exception {
+    File dir = Files.createTempDirectory("vertx-test").toFile();
+    dir.deleteOnExit();
+    byte[] brotli = TestUtils.randomByteArray(100);
+    File file = createFile(dir, "file.txt", "original".getBytes("UTF-8"));
+    File br = createFile(dir, "file.txt.br", brotli);
+    HttpClient plainClient = vertx.createHttpClient(new HttpClientOptions());
+
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    server.listen(onSuccess(server -> {
+      plainClient.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        assertEquals("br", resp.headers().get("content-encoding"));
+        assertEquals("text/plain", resp.headers().get("content-type"));
+        resp.bodyHandler(body -> {
+          assertEquals(Buffer.buffer(brotli), body);
+          file.delete();
+          br.delete();
+          plainClient.close();
+          testComplete();
+        });
+      }).putHeader("Accept-Encoding", "br;q=1.0, gzip;q=0.5").end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testCompressedResponseCache() throws Exception {
+    String content = TestUtils.randomAlphaString(10000);
+    HttpClient plainClient = vertx.createHttpClient(new HttpClientOptions());
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setCompressionSupported(true)
+      .setCompressedResponseCacheSize(100 * 1024));
+    server.requestHandler(req -> req.response().setBodyCacheable(true).end(content));
+
+    server.listen(onSuccess(server -> {
+      plainClient.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        assertEquals("gzip", resp.headers().get("content-encoding"));
+        resp.bodyHandler(body -> {
+          assertEquals(content, gunzip(body));
+          plainClient.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp2 -> {
+            assertEquals("gzip", resp2.headers().get("content-encoding"));
+            resp2.bodyHandler(body2 -> {
+              assertEquals(body, body2);
+              plainClient.close();
+              testComplete();
+            });
+          }).putHeader("Accept-Encoding", "gzip").end();
+        });
+      }).putHeader("Accept-Encoding", "gzip").end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testInflatersAndDeflatersAreReused() throws Exception {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setTryUseCompression(true).setMaxPoolSize(1));
+    server.requestHandler(req -> req.response().end(req.path()));
+    int numRequests = 20;
+    AtomicInteger count = new AtomicInteger();
+    long[] created = new long[2];
+    server.listen(onSuccess(server -> {
+      // The first request allocates the instances of the event loops, the following ones reuse them
+      getSequentially(numRequests + 1, count, () -> {
+        created[0] = ZlibPool.inflatersCreated();
+        created[1] = ZlibPool.deflatersCreated();
+      }, () -> {
+        assertTrue(created[0] > 0 && created[1] > 0);
+        assertEquals(created[0], ZlibPool.inflatersCreated());
+        assertEquals(created[1], ZlibPool.deflatersCreated());
+        testComplete();
+      });
+    }));
+
+    await();
+  }
+
+  private void getSequentially(int remaining, AtomicInteger count, Runnable afterFirst, Runnable done) {
+    String uri = "/request-" + count.incrementAndGet() + "-" + TestUtils.randomAlphaString(1000);
+    client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, uri, resp -> {
+      assertEquals(null, resp.headers().get("content-encoding"));
+      resp.bodyHandler(body -> {
+        assertEquals(uri, body.toString());
+        if (count.get() == 1) {
+          afterFirst.run();
+        }
+        if (remaining == 1) {
+          done.run();
+        } else {
+          getSequentially(remaining - 1, count, afterFirst, done);
+        }
+      });
+    }).end();
+  }
+
+  @Test
+  public void testDecompressGzip() throws Exception {
+    testDecompress("gzip", gzip("gzip-content"), "gzip-content");
+  }
+
+  @Test
+  public void testDecompressDeflate() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+      deflate.write("zlib-content".getBytes("UTF-8"));
+    }
+    testDecompress("deflate", out.toByteArray(), "zlib-content");
+  }
+
+  @Test
+  public void testDecompressRawDeflate() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+      deflate.write("raw-content".getBytes("UTF-8"));
+    }
+    testDecompress("deflate", out.toByteArray(), "raw-content");
+  }
+
+  private void testDecompress(String encoding, byte[] compressed, String expected) {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT));
+    server.requestHandler(req -> {
+      req.response().setChunked(true).putHeader("Content-Encoding", encoding);
+      // Split the compressed body, so the client decompresses it across several chunks
+      int half = compressed.length / 2;
+      req.response().write(Buffer.buffer(compressed).getBuffer(0, half));
+      req.response().end(Buffer.buffer(compressed).getBuffer(half, compressed.length));
+    });
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        resp.bodyHandler(body -> {
+          assertEquals(expected, body.toString());
+          testComplete();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testCompressChunkedGzip() throws Exception {
+    testCompressChunked("gzip", body -> {
+      try {
+        return new GZIPInputStream(new ByteArrayInputStream(body.getBytes()));
+      } catch (Exception e) {
+        throw new AssertionError(e);
+      }
+    });
+  }
+
+  @Test
+  public void testCompressChunkedDeflate() throws Exception {
+    testCompressChunked("deflate", body -> new InflaterInputStream(new ByteArrayInputStream(body.getBytes())));
+  }
+
+  private void testCompressChunked(String encoding, Function<Buffer, InputStream> decompressor) {
+    HttpClient plainClient = vertx.createHttpClient(new HttpClientOptions());
+    String[] chunks = {TestUtils.randomAlphaString(100), TestUtils.randomAlphaString(5000), TestUtils.randomAlphaString(10)};
+    server.requestHandler(req -> {
+      req.response().setChunked(true);
+      for (String chunk : chunks) {
+        req.response().write(chunk);
+      }
+      req.response().end();
+    });
+
+    server.listen(onSuccess(server -> {
+      plainClient.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "some-uri", resp -> {
+        assertEquals(encoding, resp.headers().get("content-encoding"));
+        resp.bodyHandler(body -> {
+          assertEquals(chunks[0] + chunks[1] + chunks[2], read(decompressor.apply(body)));
+          plainClient.close();
+          testComplete();
+        });
+      }).putHeader("Accept-Encoding", encoding).end();
+    }));
+
+    await();
+  }
+
+  private static String read(InputStream in) {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buf = new byte[1024];
+      int n;
+      while ((n = in.read(buf)) != -1) {
+        out.write(buf, 0, n);
+      }
+      return out.toString("UTF-8");
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static File createFile(File dir, String name, byte[] content) throws Exception {
+    File file = new File(dir, name);
+    file.deleteOnExit();
+    Files.write(file.toPath(), content);
+    return file;
+  }
+
+  private static byte[] gzip(String s) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(s.getBytes("UTF-8"));
+    }
+    return out.toByteArray();
+  }
+
+  private static String gunzip(Buffer buffer) {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.getBytes()))) {
+      return read(in);
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
 }
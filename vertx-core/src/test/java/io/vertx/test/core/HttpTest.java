@@ -18,6 +18,7 @@ package io.vertx.test.core;
 
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.ssl.OpenSsl;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
@@ -28,15 +29,20 @@ import io.vertx.core.VertxException;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaderBlock;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.RouteMatcher;
+import io.vertx.core.http.impl.ConcurrencyLimiter;
 import io.vertx.core.http.impl.HeadersAdaptor;
 import io.vertx.core.impl.ConcurrentHashSet;
 import io.vertx.core.impl.ContextImpl;
@@ -45,15 +51,18 @@ import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.WorkerContext;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.metrics.impl.LatencyHistogram;
 import io.vertx.core.net.CaOptions;
 import io.vertx.core.net.JKSOptions;
 import io.vertx.core.net.KeyCertOptions;
 import io.vertx.core.net.KeyStoreOptions;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetServerOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.NetworkOptions;
 import io.vertx.core.net.PKCS12Options;
+import io.vertx.core.net.SSLProvider;
 import io.vertx.core.net.TrustStoreOptions;
 import io.vertx.core.net.impl.SocketDefaults;
 import io.vertx.core.streams.Pump;
@@ -66,9 +75,11 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.ReadOnlyBufferException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -161,6 +172,10 @@ public class HttpTest extends HttpTestBase {
     assertEquals(options, options.setSsl(true));
     assertTrue(options.isSsl());
 
+    assertEquals(SSLProvider.JDK, options.getSslProvider());
+    assertEquals(options, options.setSslProvider(SSLProvider.JDK));
+    assertIllegalArgumentException(() -> options.setSslProvider(SSLProvider.OPENSSL));
+
     assertNull(options.getKeyStoreOptions());
     JKSOptions keyStoreOptions = new JKSOptions().setPath(TestUtils.randomAlphaString(100)).setPassword(TestUtils.randomAlphaString(100));
     assertEquals(options, options.setKeyStoreOptions(keyStoreOptions));
@@ -204,6 +219,28 @@ public class HttpTest extends HttpTestBase {
     assertEquals(options, options.setTryUseCompression(true));
     assertEquals(true, options.isTryUseCompression());
 
+    assertEquals(0, options.getMaxRetries());
+    assertEquals(options, options.setMaxRetries(3));
+    assertEquals(3, options.getMaxRetries());
+    assertIllegalArgumentException(() -> options.setMaxRetries(-1));
+
+    assertEquals(100, options.getRetryBackoff());
+    assertEquals(options, options.setRetryBackoff(50));
+    assertEquals(50, options.getRetryBackoff());
+    assertIllegalArgumentException(() -> options.setRetryBackoff(0));
+
+    assertEquals(-1, options.getHedgingPercentile(), 0);
+    assertEquals(options, options.setHedgingPercentile(95));
+    assertEquals(95, options.getHedgingPercentile(), 0);
+    assertIllegalArgumentException(() -> options.setHedgingPercentile(0));
+    assertIllegalArgumentException(() -> options.setHedgingPercentile(100));
+
+    assertEquals(0, options.getResponseCacheSize());
+    rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setResponseCacheSize(rand));
+    assertEquals(rand, options.getResponseCacheSize());
+    assertIllegalArgumentException(() -> options.setResponseCacheSize(-1));
+
     assertTrue(options.getEnabledCipherSuites().isEmpty());
     assertEquals(options, options.addEnabledCipherSuite("foo"));
     assertEquals(options, options.addEnabledCipherSuite("bar"));
@@ -288,6 +325,10 @@ public class HttpTest extends HttpTestBase {
     assertEquals(options, options.setAcceptBacklog(rand));
     assertEquals(rand, options.getAcceptBacklog());
 
+    assertFalse(options.isReusePort());
+    assertEquals(options, options.setReusePort(true));
+    assertTrue(options.isReusePort());
+
     assertFalse(options.isCompressionSupported());
     assertEquals(options, options.setCompressionSupported(true));
     assertTrue(options.isCompressionSupported());
@@ -312,6 +353,53 @@ public class HttpTest extends HttpTestBase {
     assertEquals(options, options.setWebsocketSubProtocol("foo"));
     assertEquals("foo", options.getWebsocketSubProtocols());
 
+    assertFalse(options.isSendDateHeader());
+    assertEquals(options, options.setSendDateHeader(true));
+    assertTrue(options.isSendDateHeader());
+
+    assertEquals(0, options.getMaxCachedFiles());
+    assertEquals(options, options.setMaxCachedFiles(100));
+    assertEquals(100, options.getMaxCachedFiles());
+    assertIllegalArgumentException(() -> options.setMaxCachedFiles(-1));
+
+    assertEquals(0, options.getCompressedResponseCacheSize());
+    assertEquals(options, options.setCompressedResponseCacheSize(100));
+    assertEquals(100, options.getCompressedResponseCacheSize());
+    assertIllegalArgumentException(() -> options.setCompressedResponseCacheSize(-1));
+
+    assertEquals(HttpServerOptions.DEFAULT_MAX_FORM_ATTRIBUTE_SIZE, options.getMaxFormAttributeSize());
+    assertEquals(options, options.setMaxFormAttributeSize(100));
+    assertEquals(100, options.getMaxFormAttributeSize());
+    assertEquals(options, options.setMaxFormAttributeSize(-1));
+    assertEquals(-1, options.getMaxFormAttributeSize());
+    assertIllegalArgumentException(() -> options.setMaxFormAttributeSize(0));
+    assertIllegalArgumentException(() -> options.setMaxFormAttributeSize(-2));
+
+    assertEquals(-1, options.getMaxBodySize());
+    assertEquals(options, options.setMaxBodySize(1024));
+    assertEquals(1024, options.getMaxBodySize());
+    assertEquals(options, options.setMaxBodySize(-1));
+    assertIllegalArgumentException(() -> options.setMaxBodySize(0));
+    assertIllegalArgumentException(() -> options.setMaxBodySize(-2));
+
+    assertEquals(-1, options.getMaxConnections());
+    assertEquals(options, options.setMaxConnections(100));
+    assertEquals(100, options.getMaxConnections());
+    assertIllegalArgumentException(() -> options.setMaxConnections(0));
+
+    assertEquals(-1, options.getMaxInFlightRequests());
+    assertEquals(options, options.setMaxInFlightRequests(100));
+    assertEquals(100, options.getMaxInFlightRequests());
+    assertIllegalArgumentException(() -> options.setMaxInFlightRequests(0));
+
+    assertFalse(options.isAdaptiveConcurrencyLimit());
+    assertEquals(options, options.setAdaptiveConcurrencyLimit(true));
+    assertTrue(options.isAdaptiveConcurrencyLimit());
+
+    assertFalse(options.isLatencyHistogramEnabled());
+    assertEquals(options, options.setLatencyHistogramEnabled(true));
+    assertTrue(options.isLatencyHistogramEnabled());
+
     assertTrue(options.getEnabledCipherSuites().isEmpty());
     assertEquals(options, options.addEnabledCipherSuite("foo"));
     assertEquals(options, options.addEnabledCipherSuite("bar"));
@@ -353,6 +441,10 @@ public class HttpTest extends HttpTestBase {
     boolean keepAlive = rand.nextBoolean();
     boolean pipelining = rand.nextBoolean();
     boolean tryUseCompression = rand.nextBoolean();
+    int maxRetries = TestUtils.randomPositiveInt();
+    int retryBackoff = TestUtils.randomPositiveInt();
+    double hedgingPercentile = 1 + rand.nextInt(98);
+    int responseCacheSize = TestUtils.randomPositiveInt();
 
     options.setSendBufferSize(sendBufferSize);
     options.setReceiveBufferSize(receiverBufferSize);
@@ -376,6 +468,10 @@ public class HttpTest extends HttpTestBase {
     options.setKeepAlive(keepAlive);
     options.setPipelining(pipelining);
     options.setTryUseCompression(tryUseCompression);
+    options.setMaxRetries(maxRetries);
+    options.setRetryBackoff(retryBackoff);
+    options.setHedgingPercentile(hedgingPercentile);
+    options.setResponseCacheSize(responseCacheSize);
     HttpClientOptions copy = new HttpClientOptions(options);
     assertEquals(sendBufferSize, copy.getSendBufferSize());
     assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
@@ -404,6 +500,10 @@ public class HttpTest extends HttpTestBase {
     assertEquals(keepAlive, copy.isKeepAlive());
     assertEquals(pipelining, copy.isPipelining());
     assertEquals(tryUseCompression, copy.isTryUseCompression());
+    assertEquals(maxRetries, copy.getMaxRetries());
+    assertEquals(retryBackoff, copy.getRetryBackoff());
+    assertEquals(hedgingPercentile, copy.getHedgingPercentile(), 0);
+    assertEquals(responseCacheSize, copy.getResponseCacheSize());
   }
 
   @Test
@@ -415,6 +515,10 @@ public class HttpTest extends HttpTestBase {
     assertEquals(def.isPipelining(), json.isPipelining());
     assertEquals(def.isVerifyHost(), json.isVerifyHost());
     assertEquals(def.isTryUseCompression(), json.isTryUseCompression());
+    assertEquals(def.getMaxRetries(), json.getMaxRetries());
+    assertEquals(def.getRetryBackoff(), json.getRetryBackoff());
+    assertEquals(def.getHedgingPercentile(), json.getHedgingPercentile(), 0);
+    assertEquals(def.getResponseCacheSize(), json.getResponseCacheSize());
     assertEquals(def.isTrustAll(), json.isTrustAll());
     assertEquals(def.getCrlPaths(), json.getCrlPaths());
     assertEquals(def.getCrlValues(), json.getCrlValues());
@@ -458,6 +562,10 @@ public class HttpTest extends HttpTestBase {
     boolean keepAlive = rand.nextBoolean();
     boolean pipelining = rand.nextBoolean();
     boolean tryUseCompression = rand.nextBoolean();
+    int maxRetries = TestUtils.randomPositiveInt();
+    int retryBackoff = TestUtils.randomPositiveInt();
+    double hedgingPercentile = 1 + rand.nextInt(98);
+    int responseCacheSize = TestUtils.randomPositiveInt();
 
     JsonObject json = new JsonObject();
     json.put("sendBufferSize", sendBufferSize)
@@ -480,7 +588,11 @@ public class HttpTest extends HttpTestBase {
       .put("maxPoolSize", maxPoolSize)
       .put("keepAlive", keepAlive)
       .put("pipelining", pipelining)
-      .put("tryUseCompression", tryUseCompression);
+      .put("tryUseCompression", tryUseCompression)
+      .put("maxRetries", maxRetries)
+      .put("retryBackoff", retryBackoff)
+      .put("hedgingPercentile", hedgingPercentile)
+      .put("responseCacheSize", responseCacheSize);
 
     HttpClientOptions options = new HttpClientOptions(json);
     assertEquals(sendBufferSize, options.getSendBufferSize());
@@ -510,6 +622,10 @@ public class HttpTest extends HttpTestBase {
     assertEquals(keepAlive, options.isKeepAlive());
     assertEquals(pipelining, options.isPipelining());
     assertEquals(tryUseCompression, options.isTryUseCompression());
+    assertEquals(maxRetries, options.getMaxRetries());
+    assertEquals(retryBackoff, options.getRetryBackoff());
+    assertEquals(hedgingPercentile, options.getHedgingPercentile(), 0);
+    assertEquals(responseCacheSize, options.getResponseCacheSize());
 
     // Test other keystore/truststore types
     json.put("keyStoreOptions", new JsonObject().put("type", "pkcs12").put("password", ksPassword))
@@ -556,8 +672,18 @@ public class HttpTest extends HttpTestBase {
     int port = 1234;
     String host = TestUtils.randomAlphaString(100);
     int acceptBacklog = TestUtils.randomPortInt();
+    boolean reusePort = rand.nextBoolean();
     boolean compressionSupported = rand.nextBoolean();
     int maxWebsocketFrameSize = TestUtils.randomPositiveInt();
+    boolean sendDateHeader = rand.nextBoolean();
+    int maxCachedFiles = TestUtils.randomPositiveInt();
+    int compressedResponseCacheSize = TestUtils.randomPositiveInt();
+    int maxFormAttributeSize = TestUtils.randomPositiveInt();
+    int maxBodySize = TestUtils.randomPositiveInt();
+    int maxConnections = TestUtils.randomPositiveInt();
+    int maxInFlightRequests = TestUtils.randomPositiveInt();
+    boolean adaptiveConcurrencyLimit = TestUtils.randomBoolean();
+    boolean latencyHistogramEnabled = TestUtils.randomBoolean();
     String wsSubProtocol = TestUtils.randomAlphaString(10);
     options.setSendBufferSize(sendBufferSize);
     options.setReceiveBufferSize(receiverBufferSize);
@@ -577,9 +703,19 @@ public class HttpTest extends HttpTestBase {
     options.setPort(port);
     options.setHost(host);
     options.setAcceptBacklog(acceptBacklog);
+    options.setReusePort(reusePort);
     options.setCompressionSupported(compressionSupported);
     options.setMaxWebsocketFrameSize(maxWebsocketFrameSize);
     options.setWebsocketSubProtocol(wsSubProtocol);
+    options.setSendDateHeader(sendDateHeader);
+    options.setMaxCachedFiles(maxCachedFiles);
+    options.setCompressedResponseCacheSize(compressedResponseCacheSize);
+    options.setMaxFormAttributeSize(maxFormAttributeSize);
+    options.setMaxBodySize(maxBodySize);
+    options.setMaxConnections(maxConnections);
+    options.setMaxInFlightRequests(maxInFlightRequests);
+    options.setAdaptiveConcurrencyLimit(adaptiveConcurrencyLimit);
+    options.setLatencyHistogramEnabled(latencyHistogramEnabled);
     HttpServerOptions copy = new HttpServerOptions(options);
     assertEquals(sendBufferSize, copy.getSendBufferSize());
     assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
@@ -604,7 +740,16 @@ public class HttpTest extends HttpTestBase {
     assertEquals(port, copy.getPort());
     assertEquals(host, copy.getHost());
     assertEquals(acceptBacklog, copy.getAcceptBacklog());
+    assertEquals(reusePort, copy.isReusePort());
     assertEquals(compressionSupported, copy.isCompressionSupported());
+    assertEquals(maxCachedFiles, copy.getMaxCachedFiles());
+    assertEquals(compressedResponseCacheSize, copy.getCompressedResponseCacheSize());
+    assertEquals(maxFormAttributeSize, copy.getMaxFormAttributeSize());
+    assertEquals(maxBodySize, copy.getMaxBodySize());
+    assertEquals(maxConnections, copy.getMaxConnections());
+    assertEquals(maxInFlightRequests, copy.getMaxInFlightRequests());
+    assertEquals(adaptiveConcurrencyLimit, copy.isAdaptiveConcurrencyLimit());
+    assertEquals(latencyHistogramEnabled, copy.isLatencyHistogramEnabled());
     assertEquals(maxWebsocketFrameSize, options.getMaxWebsocketFrameSize());
     assertEquals(wsSubProtocol, options.getWebsocketSubProtocols());
   }
@@ -620,6 +765,15 @@ public class HttpTest extends HttpTestBase {
     assertEquals(def.getCrlPaths(), json.getCrlPaths());
     assertEquals(def.getCrlValues(), json.getCrlValues());
     assertEquals(def.getAcceptBacklog(), json.getAcceptBacklog());
+    assertEquals(def.isReusePort(), json.isReusePort());
+    assertEquals(def.getMaxCachedFiles(), json.getMaxCachedFiles());
+    assertEquals(def.getCompressedResponseCacheSize(), json.getCompressedResponseCacheSize());
+    assertEquals(def.getMaxFormAttributeSize(), json.getMaxFormAttributeSize());
+    assertEquals(def.getMaxBodySize(), json.getMaxBodySize());
+    assertEquals(def.getMaxConnections(), json.getMaxConnections());
+    assertEquals(def.getMaxInFlightRequests(), json.getMaxInFlightRequests());
+    assertEquals(def.isAdaptiveConcurrencyLimit(), json.isAdaptiveConcurrencyLimit());
+    assertEquals(def.isLatencyHistogramEnabled(), json.isLatencyHistogramEnabled());
     assertEquals(def.getPort(), json.getPort());
     assertEquals(def.getHost(), json.getHost());
     assertEquals(def.isTcpNoDelay(), json.isTcpNoDelay());
@@ -657,8 +811,18 @@ public class HttpTest extends HttpTestBase {
     int port = 1234;
     String host = TestUtils.randomAlphaString(100);
     int acceptBacklog = TestUtils.randomPortInt();
+    boolean reusePort = rand.nextBoolean();
     boolean compressionSupported = rand.nextBoolean();
     int maxWebsocketFrameSize = TestUtils.randomPositiveInt();
+    boolean sendDateHeader = rand.nextBoolean();
+    int maxCachedFiles = TestUtils.randomPositiveInt();
+    int compressedResponseCacheSize = TestUtils.randomPositiveInt();
+    int maxFormAttributeSize = TestUtils.randomPositiveInt();
+    int maxBodySize = TestUtils.randomPositiveInt();
+    int maxConnections = TestUtils.randomPositiveInt();
+    int maxInFlightRequests = TestUtils.randomPositiveInt();
+    boolean adaptiveConcurrencyLimit = TestUtils.randomBoolean();
+    boolean latencyHistogramEnabled = TestUtils.randomBoolean();
     String wsSubProtocol = TestUtils.randomAlphaString(10);
 
     JsonObject json = new JsonObject();
@@ -679,9 +843,19 @@ public class HttpTest extends HttpTestBase {
       .put("port", port)
       .put("host", host)
       .put("acceptBacklog", acceptBacklog)
+      .put("reusePort", reusePort)
       .put("compressionSupported", compressionSupported)
       .put("maxWebsocketFrameSize", maxWebsocketFrameSize)
-      .put("websocketSubProtocols", wsSubProtocol);
+      .put("websocketSubProtocols", wsSubProtocol)
+      .put("sendDateHeader", sendDateHeader)
+      .put("maxCachedFiles", maxCachedFiles)
+      .put("compressedResponseCacheSize", compressedResponseCacheSize)
+      .put("maxFormAttributeSize", maxFormAttributeSize)
+      .put("maxBodySize", maxBodySize)
+      .put("maxConnections", maxConnections)
+      .put("maxInFlightRequests", maxInFlightRequests)
+      .put("adaptiveConcurrencyLimit", adaptiveConcurrencyLimit)
+      .put("latencyHistogramEnabled", latencyHistogramEnabled);
 
     HttpServerOptions options = new HttpServerOptions(json);
     assertEquals(sendBufferSize, options.getSendBufferSize());
@@ -707,9 +881,18 @@ public class HttpTest extends HttpTestBase {
     assertEquals(port, options.getPort());
     assertEquals(host, options.getHost());
     assertEquals(acceptBacklog, options.getAcceptBacklog());
+    assertEquals(reusePort, options.isReusePort());
     assertEquals(compressionSupported, options.isCompressionSupported());
     assertEquals(maxWebsocketFrameSize, options.getMaxWebsocketFrameSize());
     assertEquals(wsSubProtocol, options.getWebsocketSubProtocols());
+    assertEquals(maxCachedFiles, options.getMaxCachedFiles());
+    assertEquals(compressedResponseCacheSize, options.getCompressedResponseCacheSize());
+    assertEquals(maxFormAttributeSize, options.getMaxFormAttributeSize());
+    assertEquals(maxBodySize, options.getMaxBodySize());
+    assertEquals(maxConnections, options.getMaxConnections());
+    assertEquals(maxInFlightRequests, options.getMaxInFlightRequests());
+    assertEquals(adaptiveConcurrencyLimit, options.isAdaptiveConcurrencyLimit());
+    assertEquals(latencyHistogramEnabled, options.isLatencyHistogramEnabled());
 
     // Test other keystore/truststore types
     json.put("keyStoreOptions", new JsonObject().put("type", "pkcs12").put("password", ksPassword))
@@ -1100,6 +1283,44 @@ public class HttpTest extends HttpTestBase {
     await();
   }
 
+  @Test
+  public void testParamsLookup() {
+    server.requestHandler(req -> {
+      MultiMap params = req.params();
+      assertEquals("1", params.get("Foo"));
+      assertEquals("a b", params.get("bar"));
+      assertEquals("3", params.get("multi"));
+      assertEquals(Arrays.asList("2", "3"), params.getAll("MULTI"));
+      assertEquals("v&w", params.get("key with space"));
+      assertEquals("", params.get("novalue"));
+      assertTrue(params.contains("novalue"));
+      assertFalse(params.contains("missing"));
+      assertNull(params.get("missing"));
+      assertTrue(params.getAll("missing").isEmpty());
+      assertFalse(params.isEmpty());
+      params.add("multi", "4");
+      assertEquals("4", params.get("multi"));
+      assertEquals(Arrays.asList("2", "3", "4"), params.getAll("multi"));
+      assertEquals(5, params.size());
+      params.remove("foo");
+      assertNull(params.get("foo"));
+      params.set("bar", "c");
+      assertEquals("c", params.get("bar"));
+      assertEquals(Arrays.asList("2", "3", "4"), params.getAll("multi"));
+      assertEquals(4, params.size());
+      params.clear();
+      assertTrue(params.isEmpty());
+      req.response().end();
+    });
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST,
+        "/some-uri?foo=1&bar=a+b&multi=2&&key%20with+space=v%26w;multi=3&novalue", resp -> testComplete()).end();
+    }));
+
+    await();
+  }
+
   @Test
   public void testNoParams() {
     server.requestHandler(req -> {
@@ -1203,6 +1424,72 @@ public class HttpTest extends HttpTestBase {
     await();
   }
 
+  @Test
+  public void testResponseHeaderBlock() {
+    MultiMap headers = getHeaders(10);
+    HttpHeaderBlock block = HttpHeaderBlock.create(headers);
+    assertTrue(block.contains(headers.names().iterator().next().toUpperCase()));
+    assertFalse(block.contains("foo"));
+
+    server.requestHandler(req -> {
+      req.response().putHeaders(block).putHeader("extra", "value");
+      req.response().end("hello");
+    });
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        assertEquals(headers.size() + 2, resp.headers().size());
+        for (Map.Entry<String, String> entry : headers) {
+          assertEquals(entry.getValue(), resp.headers().get(entry.getKey()));
+        }
+        assertEquals("value", resp.headers().get("extra"));
+        assertEquals("5", resp.headers().get("Content-Length"));
+        testComplete();
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testHeaderBlockInvalidCharacters() {
+    assertIllegalArgumentException(() -> HttpHeaderBlock.create(new CaseInsensitiveHeaders().add("foo", "bar\r\nbaz: quux")));
+    assertIllegalArgumentException(() -> HttpHeaderBlock.create(new CaseInsensitiveHeaders().add("foo:", "bar")));
+  }
+
+  @Test
+  public void testHeaderBlockBodyHeaders() {
+    // The response sets them according to its body
+    assertIllegalArgumentException(() -> HttpHeaderBlock.create(new CaseInsensitiveHeaders().add("content-length", "5")));
+    assertIllegalArgumentException(() -> HttpHeaderBlock.create(new CaseInsensitiveHeaders().add("Transfer-Encoding", "chunked")));
+  }
+
+  @Test
+  public void testSendDateHeader() {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setSendDateHeader(true));
+    server.requestHandler(req -> {
+      if (req.path().equals("/override")) {
+        req.response().putHeader(HttpHeaders.DATE, "foo");
+      }
+      req.response().end();
+    });
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        String date = resp.headers().get("Date");
+        assertNotNull(date);
+        assertTrue(date.endsWith(" GMT"));
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/override", resp2 -> {
+          assertEquals("foo", resp2.headers().get("Date"));
+          testComplete();
+        }).end();
+      }).end();
+    }));
+
+    await();
+  }
+
   @Test
   public void testResponseMultipleSetCookieInHeader() {
     testResponseMultipleSetCookie(true, false);
@@ -1287,20 +1574,515 @@ public class HttpTest extends HttpTestBase {
   }
 
   @Test
-  public void testRequestBodyBufferAtEnd() {
-    Buffer body = TestUtils.randomBuffer(1000);
-    server.requestHandler(req -> req.bodyHandler(buffer -> {
-      assertEquals(body, buffer);
-      req.response().end();
+  public void testRequestBodyBufferAtEnd() {
+    Buffer body = TestUtils.randomBuffer(1000);
+    server.requestHandler(req -> req.bodyHandler(buffer -> {
+      assertEquals(body, buffer);
+      req.response().end();
+    }));
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> testComplete()).end(body);
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testRequestBodyLargerThanPresizedBuffer() {
+    Buffer body = TestUtils.randomBuffer(3 * 1024 * 1024);
+    server.requestHandler(req -> req.bodyHandler(buffer -> {
+      assertEquals(body, buffer);
+      req.response().end();
+    }));
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> testComplete()).end(body);
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testMaxBodySizeFromContentLength() {
+    testMaxBodySize(false);
+  }
+
+  @Test
+  public void testMaxBodySizeChunked() {
+    testMaxBodySize(true);
+  }
+
+  private void testMaxBodySize(boolean chunked) {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setMaxBodySize(1000));
+    server.requestHandler(req -> req.bodyHandler(buffer -> {
+      assertEquals(1000, buffer.length());
+      req.response().end();
+    }));
+
+    server.listen(onSuccess(server -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        assertEquals(200, resp.statusCode());
+        HttpClientRequest req2 = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> {
+          assertEquals(413, resp2.statusCode());
+          assertEquals("close", resp2.headers().get("connection"));
+          testComplete();
+        });
+        req2.setChunked(chunked);
+        req2.end(TestUtils.randomBuffer(1001));
+      });
+      req.setChunked(chunked);
+      req.end(TestUtils.randomBuffer(1000));
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testMaxInFlightRequests() {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setMaxInFlightRequests(1));
+    server.requestHandler(req -> {
+      if (req.path().equals("/held")) {
+        // While this request is in flight the next one is shed
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/other", resp -> {
+          assertEquals(503, resp.statusCode());
+          req.response().end();
+        }).end();
+      } else {
+        req.response().end();
+      }
+    });
+
+    server.listen(onSuccess(server -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/held", resp -> {
+        assertEquals(200, resp.statusCode());
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/other", resp2 -> {
+          assertEquals(200, resp2.statusCode());
+          testComplete();
+        }).end();
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testMaxConnections() {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setMaxConnections(1));
+    server.requestHandler(req -> req.response().end());
+
+    server.listen(onSuccess(server -> {
+      NetClient netClient = vertx.createNetClient(new NetClientOptions());
+      netClient.connect(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, onSuccess(so1 -> {
+        netClient.connect(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, onSuccess(so2 -> {
+          so2.closeHandler(v -> {
+            // The first connection is still served
+            so1.handler(buff -> {
+              assertTrue(buff.toString().startsWith("HTTP/1.1 200"));
+              netClient.close();
+              testComplete();
+            });
+            so1.write("GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+          });
+        }));
+      }));
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testConcurrencyLimiter() {
+    ConcurrencyLimiter fixed = new ConcurrencyLimiter(2, false);
+    assertTrue(fixed.tryAcquire());
+    assertTrue(fixed.tryAcquire());
+    assertFalse(fixed.tryAcquire());
+    fixed.release(1000);
+    assertEquals(1, fixed.inFlight());
+    assertTrue(fixed.tryAcquire());
+    assertEquals(2, fixed.limit());
+
+    ConcurrencyLimiter adaptive = new ConcurrencyLimiter(-1, true);
+    int initial = adaptive.limit();
+    // Using the whole limit at a steady latency raises it
+    for (int i = 0;i < 10;i++) {
+      serveRound(adaptive, 1000000);
+    }
+    int raised = adaptive.limit();
+    assertTrue(raised > initial);
+    // Requests which start queuing lower it
+    for (int i = 0;i < 5;i++) {
+      serveRound(adaptive, 10000000);
+    }
+    assertTrue(adaptive.limit() < raised);
+    assertEquals(0, adaptive.inFlight());
+
+    ConcurrencyLimiter capped = new ConcurrencyLimiter(25, true);
+    for (int i = 0;i < 20;i++) {
+      serveRound(capped, 1000000);
+    }
+    assertEquals(25, capped.limit());
+  }
+
+  @Test
+  public void testConcurrencyLimiterProbesLowestLatencyOfWindow() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(-1, true);
+    serveOne(limiter, 1000000);
+    assertEquals(1000000, limiter.noLoadLatency());
+    // The latency without load rises, the lowest latency of the next window of 1000 requests is taken
+    for (int i = 0;i < 1000;i++) {
+      serveOne(limiter, i == 500 ? 2000000 : i == 999 ? 8000000 : 5000000);
+    }
+    assertEquals(2000000, limiter.noLoadLatency());
+    // A lower latency is taken right away
+    serveOne(limiter, 1500000);
+    assertEquals(1500000, limiter.noLoadLatency());
+  }
+
+  private void serveOne(ConcurrencyLimiter limiter, long latency) {
+    assertTrue(limiter.tryAcquire());
+    limiter.release(latency);
+  }
+
+  private void serveRound(ConcurrencyLimiter limiter, long latency) {
+    int count = 0;
+    while (limiter.tryAcquire()) {
+      count++;
+    }
+    for (int i = 0;i < count;i++) {
+      limiter.release(latency);
+    }
+  }
+
+  @Test
+  public void testLatencyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.valueAtPercentile(50));
+    for (int i = 1;i <= 100000;i++) {
+      histogram.record(i * 1000L);
+    }
+    histogram.record(-1);
+    assertEquals(100000, histogram.count());
+    assertEquals(1000, histogram.min());
+    assertEquals(100000000, histogram.max());
+    assertEquals(50000500, histogram.mean(), 0.1);
+    assertEquals(50000000, histogram.valueAtPercentile(50), 50000000 * 0.03);
+    assertEquals(99000000, histogram.valueAtPercentile(99), 99000000 * 0.03);
+    assertEquals(100000000, histogram.valueAtPercentile(100));
+    JsonObject json = histogram.toJson();
+    assertEquals(100000, (long) json.getLong("count"));
+    assertEquals(histogram.valueAtPercentile(99.9), (long) json.getLong("p999"));
+  }
+
+  @Test
+  public void testLatencyHistogramPerRoute() throws Exception {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setLatencyHistogramEnabled(true));
+    RouteMatcher matcher = new RouteMatcher()
+      .get("/users/:id", req -> req.response().end("user"))
+      .noMatch(req -> req.response().end());
+    CountDownLatch listening = new CountDownLatch(1);
+    server.requestHandler(matcher).listen(onSuccess(s -> listening.countDown()));
+    awaitLatch(listening);
+
+    CountDownLatch responses = new CountDownLatch(3);
+    for (String uri : Arrays.asList("/users/1", "/users/2", "/other")) {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, uri, resp -> {
+        resp.endHandler(v -> responses.countDown());
+      }).end();
+    }
+    awaitLatch(responses);
+    // The timings are recorded once the response is flushed, which may complete after it is received
+    waitUntil(() -> routeCount("routes./users/:id") == 2 && routeCount("routes.default") == 1);
+    JsonObject route = server.metrics().get("routes./users/:id");
+    for (String stage : Arrays.asList("receive", "queue", "handler", "write", "total")) {
+      assertEquals(2, (long) route.getJsonObject(stage).getLong("count"));
+    }
+    assertTrue(route.getJsonObject("total").getLong("max") > 0);
+  }
+
+  private long routeCount(String route) {
+    JsonObject metrics = server.metrics().get(route);
+    return metrics == null ? 0 : metrics.getJsonObject("total").getLong("count");
+  }
+
+  @Test
+  public void testRetryWhenConnectionClosed() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setMaxRetries(1).setRetryBackoff(10));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      if (count.incrementAndGet() == 1) {
+        // Fail the first attempt without answering it
+        req.response().close();
+      } else {
+        req.response().end("ok");
+      }
+    });
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        resp.bodyHandler(body -> {
+          assertEquals("ok", body.toString());
+          assertEquals(2, count.get());
+          testComplete();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testConnectionClosedBeforeResponse() {
+    server.requestHandler(req -> req.response().close());
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        fail("Should not receive a response");
+      }).exceptionHandler(t -> {
+        assertTrue(t instanceof VertxException);
+        assertEquals("Connection was closed", t.getMessage());
+        testComplete();
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testRetryOnConnectFailure() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setMaxRetries(2).setRetryBackoff(10));
+    AtomicInteger failures = new AtomicInteger();
+    // Nothing listens on that port
+    client.request(HttpMethod.GET, 4044, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> fail()).exceptionHandler(t -> {
+      assertEquals(1, failures.incrementAndGet());
+      // Make sure no other attempt fails afterwards
+      vertx.setTimer(200, id -> testComplete());
+    }).end();
+
+    await();
+  }
+
+  @Test
+  public void testHedgedRequest() throws Exception {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setHedgingPercentile(90));
+    AtomicInteger slowAttempts = new AtomicInteger();
+    server.requestHandler(req -> {
+      if (req.path().equals("/slow") && slowAttempts.incrementAndGet() == 1) {
+        // Never answer the first attempt
+        return;
+      }
+      req.response().end(req.path());
+    });
+    CountDownLatch listening = new CountDownLatch(1);
+    server.listen(onSuccess(s -> listening.countDown()));
+    awaitLatch(listening);
+
+    // Learn the latency of the host
+    CountDownLatch warmedUp = new CountDownLatch(50);
+    for (int i = 0;i < 50;i++) {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/fast", resp -> {
+        resp.endHandler(v -> warmedUp.countDown());
+      }).end();
+    }
+    awaitLatch(warmedUp);
+    waitUntil(() -> client.metrics().containsKey("hosts." + DEFAULT_HTTP_HOST + ":" + DEFAULT_HTTP_PORT));
+
+    client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/slow", resp -> {
+      resp.bodyHandler(body -> {
+        assertEquals("/slow", body.toString());
+        assertEquals(2, slowAttempts.get());
+        testComplete();
+      });
+    }).end();
+
+    await();
+  }
+
+  @Test
+  public void testResponseCacheFresh() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      count.incrementAndGet();
+      req.response().putHeader("Cache-Control", "max-age=60").end("cached");
+    });
+    server.listen(onSuccess(s -> {
+      getBody(body -> {
+        assertEquals("cached", body.toString());
+        getBody(body2 -> {
+          assertEquals("cached", body2.toString());
+          assertEquals(1, count.get());
+          JsonObject cache = client.metrics().get("cache");
+          assertEquals(1, (int) cache.getInteger("hits"));
+          assertEquals(1, (int) cache.getInteger("misses"));
+          assertEquals(1, (int) cache.getInteger("entries"));
+          testComplete();
+        });
+      });
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testResponseCacheNoStore() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      req.response().putHeader("Cache-Control", "no-store").end("body-" + count.incrementAndGet());
+    });
+    server.listen(onSuccess(s -> {
+      getBody(body -> {
+        assertEquals("body-1", body.toString());
+        getBody(body2 -> {
+          assertEquals("body-2", body2.toString());
+          assertEquals(0, (int) client.metrics().get("cache").getInteger("entries"));
+          testComplete();
+        });
+      });
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testResponseCacheRevalidation() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      count.incrementAndGet();
+      req.response().putHeader("Cache-Control", "no-cache").putHeader("ETag", "\"v1\"");
+      if ("\"v1\"".equals(req.headers().get("If-None-Match"))) {
+        req.response().setStatusCode(304).end();
+      } else {
+        req.response().end("validated");
+      }
+    });
+    server.listen(onSuccess(s -> {
+      getBody(body -> {
+        assertEquals("validated", body.toString());
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+          assertEquals(200, resp.statusCode());
+          assertEquals("\"v1\"", resp.headers().get("ETag"));
+          resp.bodyHandler(body2 -> {
+            assertEquals("validated", body2.toString());
+            assertEquals(2, count.get());
+            assertEquals(1, (int) client.metrics().get("cache").getInteger("revalidations"));
+            testComplete();
+          });
+        }).end();
+      });
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testResponseCacheCoalescing() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      count.incrementAndGet();
+      // Answer late, so that the other requests are sent meanwhile
+      vertx.setTimer(100, id -> req.response().putHeader("Cache-Control", "max-age=60").end("coalesced"));
+    });
+    int numRequests = 5;
+    AtomicInteger received = new AtomicInteger();
+    server.listen(onSuccess(s -> {
+      for (int i = 0;i < numRequests;i++) {
+        getBody(body -> {
+          assertEquals("coalesced", body.toString());
+          if (received.incrementAndGet() == numRequests) {
+            assertEquals(1, count.get());
+            assertEquals(numRequests - 1, (int) client.metrics().get("cache").getInteger("coalesced"));
+            testComplete();
+          }
+        });
+      }
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testResponseCacheLeaderConnectionClosed() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      if (count.incrementAndGet() == 1) {
+        // Close the connection of the first request without answering it, once the second one waits for it
+        vertx.setTimer(100, id -> req.response().close());
+      } else {
+        req.response().putHeader("Cache-Control", "max-age=60").end("answered");
+      }
+    });
+    AtomicBoolean failed = new AtomicBoolean();
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        fail("Should not receive a response");
+      }).exceptionHandler(t -> failed.set(true)).end();
+      getBody(body -> {
+        assertEquals("answered", body.toString());
+        assertTrue(failed.get());
+        assertEquals(2, count.get());
+        // The next request is served from the cache instead of waiting for the failed one
+        getBody(body2 -> {
+          assertEquals("answered", body2.toString());
+          assertEquals(2, count.get());
+          testComplete();
+        });
+      });
     }));
 
-    server.listen(onSuccess(server -> {
-      client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> testComplete()).end(body);
+    await();
+  }
+
+  @Test
+  public void testResponseCacheStaleWhileRevalidate() {
+    client.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setResponseCacheSize(1024 * 1024));
+    AtomicInteger count = new AtomicInteger();
+    server.requestHandler(req -> {
+      req.response().putHeader("Cache-Control", "max-age=0, stale-while-revalidate=60").end("version-" + count.incrementAndGet());
+    });
+    server.listen(onSuccess(s -> {
+      getBody(body -> {
+        assertEquals("version-1", body.toString());
+        getBody(body2 -> {
+          // Served stale, while it is revalidated in the background
+          assertEquals("version-1", body2.toString());
+          vertx.setTimer(200, id -> {
+            assertEquals(2, count.get());
+            getBody(body3 -> {
+              assertEquals("version-2", body3.toString());
+              assertEquals(2, (int) client.metrics().get("cache").getInteger("staleHits"));
+              testComplete();
+            });
+          });
+        });
+      });
     }));
 
     await();
   }
 
+  private void getBody(Handler<Buffer> bodyHandler) {
+    client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+      assertEquals(200, resp.statusCode());
+      resp.bodyHandler(bodyHandler);
+    }).end();
+  }
+
   @Test
   public void testRequestBodyStringDefaultEncodingAtEnd() {
     testRequestBodyStringAtEnd(null);
@@ -1642,6 +2424,30 @@ public class HttpTest extends HttpTestBase {
     await();
   }
 
+  @Test
+  public void testResponseBodyCanBeAppendedTo() {
+    Buffer body = TestUtils.randomBuffer(1000);
+
+    server.requestHandler(req -> {
+      req.response().setChunked(true);
+      req.response().write(body.getBuffer(0, 500));
+      req.response().end(body.getBuffer(500, 1000));
+    });
+
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        resp.bodyHandler(buff -> {
+          Buffer more = TestUtils.randomBuffer(100);
+          buff.appendBuffer(more);
+          assertEquals(body.copy().appendBuffer(more), buff);
+          testComplete();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
   @Test
   public void testResponseBodyStringDefaultEncodingAtEnd() {
     testResponseBodyStringAtEnd(null);
@@ -2057,6 +2863,164 @@ public class HttpTest extends HttpTestBase {
     await();
   }
 
+  @Test
+  public void testSendFileConditional() throws Exception {
+    String content = TestUtils.randomAlphaString(1000);
+    File file = setupFile("test-send-file.html", content);
+
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        assertEquals(200, resp.statusCode());
+        assertEquals("bytes", resp.headers().get("accept-ranges"));
+        String etag = resp.headers().get("etag");
+        String lastModified = resp.headers().get("last-modified");
+        assertNotNull(etag);
+        assertNotNull(lastModified);
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> {
+          assertEquals(304, resp2.statusCode());
+          assertEquals(etag, resp2.headers().get("etag"));
+          client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp3 -> {
+            assertEquals(304, resp3.statusCode());
+            client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp4 -> {
+              assertEquals(200, resp4.statusCode());
+              resp4.bodyHandler(buff -> {
+                assertEquals(content, buff.toString());
+                testComplete();
+              });
+            }).putHeader("If-None-Match", "\"foo\"").end();
+          }).putHeader("If-Modified-Since", lastModified).end();
+        }).putHeader("If-None-Match", etag).end();
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testSendFileRange() throws Exception {
+    String content = TestUtils.randomAlphaString(1000);
+    File file = setupFile("test-send-file.html", content);
+
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        assertEquals(206, resp.statusCode());
+        assertEquals("bytes 10-19/1000", resp.headers().get("content-range"));
+        assertEquals("10", resp.headers().get("content-length"));
+        resp.bodyHandler(buff -> {
+          assertEquals(content.substring(10, 20), buff.toString());
+          client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> {
+            assertEquals(206, resp2.statusCode());
+            assertEquals("bytes 995-999/1000", resp2.headers().get("content-range"));
+            resp2.bodyHandler(buff2 -> {
+              assertEquals(content.substring(995), buff2.toString());
+              client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp3 -> {
+                assertEquals(416, resp3.statusCode());
+                assertEquals("bytes */1000", resp3.headers().get("content-range"));
+                client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp4 -> {
+                  // Stale If-Range, the whole file is sent
+                  assertEquals(200, resp4.statusCode());
+                  resp4.bodyHandler(buff4 -> {
+                    assertEquals(content, buff4.toString());
+                    testComplete();
+                  });
+                }).putHeader("Range", "bytes=10-19").putHeader("If-Range", "\"foo\"").end();
+              }).putHeader("Range", "bytes=1000-").end();
+            });
+          }).putHeader("Range", "bytes=-5").end();
+        });
+      }).putHeader("Range", "bytes=10-19").end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testSendFileCached() throws Exception {
+    String content = TestUtils.randomAlphaString(1000);
+    File file = setupFile("test-send-file.html", content);
+    String modified = TestUtils.randomAlphaString(2000);
+
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setMaxCachedFiles(10));
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+        assertEquals("text/html", resp.headers().get("content-type"));
+        resp.bodyHandler(buff -> {
+          assertEquals(content, buff.toString());
+          client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> {
+            resp2.bodyHandler(buff2 -> {
+              assertEquals(content, buff2.toString());
+              try {
+                setupFile("test-send-file.html", modified);
+              } catch (Exception e) {
+                fail(e.getMessage());
+              }
+              // The change is noticed asynchronously
+              awaitContent(modified, 100);
+            });
+          }).end();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testSendFileCachedConcurrentlyOverSSL() throws Exception {
+    // Over SSL the file is read in chunks instead of being transferred
+    String content = TestUtils.randomAlphaString(256 * 1024);
+    File file = setupFile("test-send-file.html", content);
+    int requests = 4;
+
+    client.close();
+    server.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setSsl(true).setTrustAll(true).setMaxPoolSize(requests));
+    server = vertx.createHttpServer(new HttpServerOptions().setSsl(true).setKeyStoreOptions(getServerCertOptions(KS.JKS))
+      .setPort(4043).setMaxCachedFiles(10));
+    server.requestHandler(req -> req.response().sendFile(file.getAbsolutePath()));
+
+    AtomicInteger received = new AtomicInteger();
+    server.listen(onSuccess(s -> {
+      // The responses share the channel of the cached file
+      for (int i = 0;i < requests;i++) {
+        client.request(HttpMethod.GET, 4043, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> resp.bodyHandler(buff -> {
+          assertEquals(content, buff.toString());
+          if (received.incrementAndGet() == requests) {
+            // And back to back
+            client.request(HttpMethod.GET, 4043, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> resp2.bodyHandler(buff2 -> {
+              assertEquals(content, buff2.toString());
+              testComplete();
+            })).end();
+          }
+        })).end();
+      }
+    }));
+
+    await();
+  }
+
+  private void awaitContent(String expected, int attempts) {
+    client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+      resp.bodyHandler(buff -> {
+        if (expected.equals(buff.toString())) {
+          assertEquals(expected.length(), Integer.parseInt(resp.headers().get("content-length")));
+          testComplete();
+        } else if (attempts == 0) {
+          fail("File change was not noticed");
+        } else {
+          vertx.setTimer(50, id -> awaitContent(expected, attempts - 1));
+        }
+      });
+    }).end();
+  }
+
   @Test
   public void test100ContinueDefault() throws Exception {
     Buffer toSend = TestUtils.randomBuffer(1000);
@@ -2538,6 +3502,62 @@ public class HttpTest extends HttpTestBase {
     testTLS(KS.NONE, TS.NONE, KS.JKS, TS.NONE, false, false, true, false, true, ENABLED_CIPHER_SUITES);
   }
 
+  @Test
+  public void testTLSSessionResumption() throws Exception {
+    client.close();
+    server.close();
+    client = vertx.createHttpClient(new HttpClientOptions().setSsl(true).setTrustAll(true).setKeepAlive(false));
+    server = vertx.createHttpServer(new HttpServerOptions().setSsl(true).setKeyStoreOptions(getServerCertOptions(KS.JKS))
+      .setSessionCacheSize(100).setSessionTimeout(60).setPort(4043));
+    server.requestHandler(req -> req.response().end("bar"));
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, 4043, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> resp.bodyHandler(body -> {
+        // The connection is not kept alive, the second request handshakes again and resumes the session
+        client.request(HttpMethod.GET, 4043, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp2 -> resp2.bodyHandler(body2 -> {
+          assertEquals("bar", body2.toString());
+          for (JsonObject ssl : Arrays.asList(server.metrics().get("ssl"), client.metrics().get("ssl"))) {
+            assertEquals(2, (long) ssl.getLong("handshakes"));
+            assertEquals(1, (long) ssl.getLong("resumedHandshakes"));
+            assertEquals(0.5, ssl.getDouble("resumptionRatio"), 0);
+          }
+          testComplete();
+        })).end();
+      })).end();
+    }));
+    await();
+  }
+
+  @Test
+  public void testTLSOpenSSLProvider() throws Exception {
+    HttpServerOptions serverOptions = new HttpServerOptions().setSsl(true).setSslProvider(SSLProvider.OPENSSL)
+      .setKeyStoreOptions(getServerCertOptions(KS.JKS)).setPort(4043);
+    if (!OpenSsl.isAvailable()) {
+      HttpServer server = vertx.createHttpServer(serverOptions);
+      server.requestHandler(req -> {
+      });
+      try {
+        server.listen();
+        fail("Was expecting a failure");
+      } catch (VertxException e) {
+        assertEquals("OpenSSL is not available", e.getMessage());
+      }
+      return;
+    }
+    client.close();
+    server.close();
+    server = vertx.createHttpServer(serverOptions);
+    server.requestHandler(req -> req.response().end("bar"));
+    client = vertx.createHttpClient(new HttpClientOptions().setSsl(true).setTrustAll(true));
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, 4043, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> resp.bodyHandler(body -> {
+        assertEquals("bar", body.toString());
+        assertEquals(1, (long) server.metrics().get("ssl").getLong("handshakes"));
+        testComplete();
+      })).end();
+    }));
+    await();
+  }
+
   private void testTLS(KS clientCert, TS clientTrust,
                        KS serverCert, TS serverTrust,
                        boolean requireClientAuth, boolean serverUsesCrl, boolean clientTrustAll,
@@ -3187,6 +4207,243 @@ public class HttpTest extends HttpTestBase {
     await();
   }
 
+  @Test
+  public void testFormUploadMultipartAttributes() throws Exception {
+    String boundary = "----WebKitFormBoundaryu2ZQzBy5SHJ0cuLq";
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      List<String> uploads = new ArrayList<>();
+      req.uploadHandler(upload -> {
+        Buffer received = Buffer.buffer();
+        upload.handler(received::appendBuffer);
+        upload.endHandler(v -> uploads.add(upload.name() + ":" + upload.filename() + ":" + received));
+      });
+      req.endHandler(v -> {
+        MultiMap attrs = req.formAttributes();
+        assertEquals(2, attrs.size());
+        assertEquals("vert x", attrs.get("framework"));
+        assertEquals("line1\r\nline2", attrs.get("text"));
+        assertEquals(Arrays.asList("file:a \"b\".txt:--" + boundary + "-x", "empty:empty.txt:"), uploads);
+        req.response().end();
+      });
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(200, resp.statusCode());
+        testComplete();
+      });
+      String body =
+        "preamble\r\n" +
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"framework\"\r\n" +
+        "\r\n" +
+        "vert x\r\n" +
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"file\"; filename=\"a \\\"b\\\".txt\"\r\n" +
+        "Content-Type: text/plain\r\n" +
+        "\r\n" +
+        // Looks like a boundary but is not preceded by a line break
+        "--" + boundary + "-x\r\n" +
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"text\"\r\n" +
+        "\r\n" +
+        "line1\r\nline2\r\n" +
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"empty\"; filename=\"empty.txt\"\r\n" +
+        "\r\n" +
+        "\r\n" +
+        "--" + boundary + "--\r\n" +
+        "epilogue";
+      req.setChunked(true);
+      req.putHeader("content-type", "multipart/form-data; boundary=\"" + boundary + "\"");
+      // Split the body so that boundaries and headers span several chunks
+      for (int i = 0;i < body.length();i += 7) {
+        req.write(body.substring(i, Math.min(body.length(), i + 7)));
+      }
+      req.end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testFormUploadLargeFileWithBackPressure() throws Exception {
+    String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+    Buffer content = TestUtils.randomBuffer(4 * 1024 * 1024);
+    File file = new File(testDir, "upload.bin");
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      req.uploadHandler(upload -> {
+        upload.streamToFileSystem(file.getAbsolutePath());
+        upload.endHandler(v -> {
+          assertEquals(content.length(), upload.size());
+          assertEquals(content, vertx.fileSystem().readFileSync(file.getAbsolutePath()));
+          req.response().end();
+        });
+      });
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(200, resp.statusCode());
+        testComplete();
+      });
+      Buffer body = Buffer.buffer();
+      body.appendString("--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"file\"; filename=\"upload.bin\"\r\n" +
+        "Content-Type: application/octet-stream\r\n" +
+        "\r\n");
+      body.appendBuffer(content);
+      body.appendString("\r\n--" + boundary + "--\r\n");
+      req.putHeader("content-length", String.valueOf(body.length()));
+      req.putHeader("content-type", "multipart/form-data; boundary=" + boundary);
+      req.write(body).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testFormUploadPausedUpload() throws Exception {
+    String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+    Buffer content = TestUtils.randomBuffer(256 * 1024);
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      req.uploadHandler(upload -> {
+        Buffer received = Buffer.buffer();
+        upload.handler(buff -> {
+          received.appendBuffer(buff);
+          // No data is handed out until the upload is resumed
+          upload.pause();
+          vertx.setTimer(1, id -> upload.resume());
+        });
+        upload.endHandler(v -> {
+          assertEquals(content, received);
+          req.response().end();
+        });
+      });
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(200, resp.statusCode());
+        testComplete();
+      });
+      Buffer body = Buffer.buffer();
+      body.appendString("--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"file\"; filename=\"upload.bin\"\r\n" +
+        "\r\n");
+      body.appendBuffer(content);
+      body.appendString("\r\n--" + boundary + "--\r\n");
+      req.putHeader("content-length", String.valueOf(body.length()));
+      req.putHeader("content-type", "multipart/form-data; boundary=" + boundary);
+      req.write(body).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testFormUploadLargeAttribute() throws Exception {
+    String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+    String value = TestUtils.randomAlphaString(100000);
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      req.uploadHandler(upload -> fail("Should not get here"));
+      req.endHandler(v -> {
+        assertEquals(value, req.formAttributes().get("attr"));
+        req.response().end();
+      });
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(200, resp.statusCode());
+        testComplete();
+      });
+      String body =
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"attr\"\r\n" +
+        "\r\n" +
+        value + "\r\n" +
+        "--" + boundary + "--\r\n";
+      req.putHeader("content-length", String.valueOf(body.length()));
+      req.putHeader("content-type", "multipart/form-data; boundary=" + boundary);
+      req.write(body).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testFormUploadUploadDataIsReadOnly() throws Exception {
+    String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      req.uploadHandler(upload -> upload.handler(data -> {
+        try {
+          data.setByte(0, (byte) 'X');
+          fail("Should not be able to change the received data");
+        } catch (ReadOnlyBufferException ignore) {
+        }
+      }));
+      req.endHandler(v -> req.response().end());
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(200, resp.statusCode());
+        testComplete();
+      });
+      String body =
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n" +
+        "\r\n" +
+        "some content\r\n" +
+        "--" + boundary + "--\r\n";
+      req.putHeader("content-length", String.valueOf(body.length()));
+      req.putHeader("content-type", "multipart/form-data; boundary=" + boundary);
+      req.write(body).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testFormUploadAttributeTooLarge() throws Exception {
+    server.close();
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setMaxFormAttributeSize(10));
+    String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+    server.requestHandler(req -> {
+      req.setExpectMultipart(true);
+      req.exceptionHandler(t -> req.response().setStatusCode(400).end());
+      req.endHandler(v -> {
+        if (!req.response().ended()) {
+          req.response().end();
+        }
+      });
+    });
+
+    server.listen(onSuccess(s -> {
+      HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+        assertEquals(400, resp.statusCode());
+        testComplete();
+      });
+      String body =
+        "--" + boundary + "\r\n" +
+        "Content-Disposition: form-data; name=\"attr\"\r\n" +
+        "\r\n" +
+        "0123456789A\r\n" +
+        "--" + boundary + "--\r\n";
+      req.putHeader("content-length", String.valueOf(body.length()));
+      req.putHeader("content-type", "multipart/form-data; boundary=" + boundary);
+      req.write(body).end();
+    }));
+
+    await();
+  }
+
   @Test
   public void testAccessNetSocket() throws Exception {
     Buffer toSend = TestUtils.randomBuffer(1000);
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.test.core;
+
+import io.vertx.core.dns.DnsClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.LoadBalancer;
+import io.vertx.core.http.LoadBalancerOptions;
+import io.vertx.core.http.LoadBalancingStrategy;
+import io.vertx.core.impl.ConcurrentHashSet;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.test.fakedns.FakeDNSServer;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static io.vertx.test.core.TestUtils.*;
+
+public class LoadBalancerTest extends HttpTestBase {
+
+  private final List<HttpServer> servers = new ArrayList<>();
+  private FakeDNSServer dnsServer;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    client = vertx.createHttpClient(new HttpClientOptions());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    for (HttpServer server : servers) {
+      CountDownLatch latch = new CountDownLatch(1);
+      server.close(ar -> latch.countDown());
+      awaitLatch(latch);
+    }
+    if (dnsServer != null) {
+      dnsServer.stop();
+    }
+    super.tearDown();
+  }
+
+  @Test
+  public void testOptions() {
+    LoadBalancerOptions options = new LoadBalancerOptions();
+
+    assertEquals(LoadBalancingStrategy.ROUND_ROBIN, options.getStrategy());
+    assertEquals(options, options.setStrategy(LoadBalancingStrategy.POWER_OF_TWO_CHOICES));
+    assertEquals(LoadBalancingStrategy.POWER_OF_TWO_CHOICES, options.getStrategy());
+    assertIllegalArgumentException(() -> options.setStrategy(null));
+
+    assertEquals(5, options.getMaxFailures());
+    int rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setMaxFailures(rand));
+    assertEquals(rand, options.getMaxFailures());
+    assertIllegalArgumentException(() -> options.setMaxFailures(0));
+
+    assertEquals(30000, options.getEjectionTime());
+    assertEquals(options, options.setEjectionTime(rand));
+    assertEquals(rand, options.getEjectionTime());
+    assertIllegalArgumentException(() -> options.setEjectionTime(0));
+
+    LoadBalancerOptions copy = new LoadBalancerOptions(options);
+    assertEquals(options, copy);
+    assertEquals(options.hashCode(), copy.hashCode());
+  }
+
+  @Test
+  public void testOptionsJson() {
+    LoadBalancerOptions def = new LoadBalancerOptions();
+    LoadBalancerOptions json = new LoadBalancerOptions(new JsonObject());
+    assertEquals(def, json);
+
+    int maxFailures = TestUtils.randomPositiveInt();
+    long ejectionTime = TestUtils.randomPositiveLong();
+    LoadBalancerOptions options = new LoadBalancerOptions(new JsonObject()
+      .put("strategy", "LEAST_OUTSTANDING_REQUESTS")
+      .put("maxFailures", maxFailures)
+      .put("ejectionTime", ejectionTime));
+    assertEquals(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS, options.getStrategy());
+    assertEquals(maxFailures, options.getMaxFailures());
+    assertEquals(ejectionTime, options.getEjectionTime());
+  }
+
+  @Test
+  public void testEndpoints() {
+    LoadBalancer balancer = client.createLoadBalancer(new LoadBalancerOptions());
+    assertIllegalStateException(() -> balancer.request(HttpMethod.GET, "/", resp -> {}));
+    balancer.addEndpoint(8080, "localhost").addEndpoint(8081, "localhost").addEndpoint(8080, "localhost");
+    assertEquals(2, balancer.endpoints().size());
+    balancer.removeEndpoint(8080, "localhost");
+    List<SocketAddress> endpoints = balancer.endpoints();
+    assertEquals(1, endpoints.size());
+    assertEquals(8081, endpoints.get(0).hostPort());
+    assertEquals("localhost", endpoints.get(0).hostAddress());
+  }
+
+  @Test
+  public void testRoundRobin() throws Exception {
+    startServers(3, req -> req.response().end());
+    LoadBalancer balancer = balancer(LoadBalancingStrategy.ROUND_ROBIN, 3);
+    Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+    sendSequentially(balancer, 6, port -> counts.computeIfAbsent(port, p -> new AtomicInteger()).incrementAndGet(), () -> {
+      assertEquals(3, counts.size());
+      for (AtomicInteger count : counts.values()) {
+        assertEquals(2, count.get());
+      }
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testLeastOutstandingRequests() throws Exception {
+    testAvoidBusyEndpoint(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+  }
+
+  @Test
+  public void testPowerOfTwoChoices() throws Exception {
+    testAvoidBusyEndpoint(LoadBalancingStrategy.POWER_OF_TWO_CHOICES);
+  }
+
+  private void testAvoidBusyEndpoint(LoadBalancingStrategy strategy) throws Exception {
+    CountDownLatch busy = new CountDownLatch(1);
+    startServers(2, req -> {
+      if (req.path().equals("/hold")) {
+        // Keep the request outstanding
+        busy.countDown();
+      } else {
+        req.response().end();
+      }
+    });
+    LoadBalancer balancer = balancer(strategy, 2);
+    balancer.request(HttpMethod.GET, "/hold", resp -> fail()).end();
+    awaitLatch(busy);
+    AtomicInteger busyPort = new AtomicInteger();
+    sendSequentially(balancer, 10, port -> {
+      // All the requests go to the same endpoint, the one not holding a request
+      busyPort.compareAndSet(0, port);
+      assertEquals(busyPort.get(), (int) port);
+    }, this::testComplete);
+    await();
+  }
+
+  @Test
+  public void testEjection() throws Exception {
+    startServers(1, req -> req.response().end());
+    LoadBalancer balancer = client.createLoadBalancer(new LoadBalancerOptions().setMaxFailures(2).setEjectionTime(60000));
+    balancer.addEndpoint(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST);
+    // Nothing listens on that port
+    balancer.addEndpoint(4044, DEFAULT_HTTP_HOST);
+    AtomicInteger failures = new AtomicInteger();
+    AtomicInteger successes = new AtomicInteger();
+    for (int i = 0;i < 10;i++) {
+      balancer.request(HttpMethod.GET, "/", resp -> {
+        assertEquals(200, resp.statusCode());
+        successes.incrementAndGet();
+      }).exceptionHandler(t -> failures.incrementAndGet()).end();
+      // Wait for the outcome of each request before sending the next one
+      int sent = i + 1;
+      waitUntil(() -> successes.get() + failures.get() == sent);
+    }
+    assertEquals(2, failures.get());
+    assertEquals(8, successes.get());
+    assertTrue(balancer.isEjected(4044, DEFAULT_HTTP_HOST));
+    assertFalse(balancer.isEjected(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST));
+  }
+
+  @Test
+  public void testClosedConnectionIsFailure() throws Exception {
+    // Close the connection instead of answering
+    startServers(1, req -> req.response().close());
+    LoadBalancer balancer = client.createLoadBalancer(new LoadBalancerOptions().setMaxFailures(1).setEjectionTime(60000));
+    balancer.addEndpoint(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST);
+    balancer.request(HttpMethod.GET, "/", resp -> fail()).exceptionHandler(t -> {
+      assertTrue(balancer.isEjected(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST));
+      testComplete();
+    }).end();
+    await();
+  }
+
+  @Test
+  public void testRequestNotEndedIsNotOutstanding() throws Exception {
+    startServers(2, req -> req.response().end());
+    LoadBalancer balancer = balancer(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS, 2);
+    // Never sent
+    balancer.request(HttpMethod.GET, "/", resp -> fail());
+    Set<Integer> ports = new ConcurrentHashSet<>();
+    sendSequentially(balancer, 10, ports::add, () -> {
+      assertEquals(2, ports.size());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testResolveSRV() throws Exception {
+    startServers(1, req -> req.response().end("from-srv"));
+    dnsServer = FakeDNSServer.testResolveSRV(10, 1, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST + ".");
+    dnsServer.start();
+    InetSocketAddress addr = (InetSocketAddress) dnsServer.getTransports()[0].getAcceptor().getLocalAddress();
+    DnsClient dns = vertx.createDnsClient(addr.getPort(), addr.getAddress().getHostAddress());
+
+    LoadBalancer balancer = client.createLoadBalancer(new LoadBalancerOptions());
+    balancer.resolveSRV(dns, "_http._tcp.vertx.io", onSuccess(v -> {
+      assertEquals(1, balancer.endpoints().size());
+      assertEquals(DEFAULT_HTTP_HOST, balancer.endpoints().get(0).hostAddress());
+      assertEquals(DEFAULT_HTTP_PORT, balancer.endpoints().get(0).hostPort());
+      balancer.request(HttpMethod.GET, "/", resp -> resp.bodyHandler(body -> {
+        assertEquals("from-srv", body.toString());
+        testComplete();
+      })).end();
+    }));
+    await();
+  }
+
+  private void startServers(int count, Consumer<HttpServerRequest> handler) throws Exception {
+    // The servers listen on consecutive ports
+    server = null;
+    CountDownLatch latch = new CountDownLatch(count);
+    for (int i = 0;i < count;i++) {
+      int port = DEFAULT_HTTP_PORT + i;
+      HttpServer server = vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost(DEFAULT_HTTP_HOST));
+      server.requestHandler(req -> {
+        req.response().putHeader("port", String.valueOf(port));
+        handler.accept(req);
+      });
+      servers.add(server);
+      server.listen(onSuccess(s -> latch.countDown()));
+    }
+    awaitLatch(latch);
+  }
+
+  private LoadBalancer balancer(LoadBalancingStrategy strategy, int endpoints) {
+    LoadBalancer balancer = client.createLoadBalancer(new LoadBalancerOptions().setStrategy(strategy));
+    for (int i = 0;i < endpoints;i++) {
+      balancer.addEndpoint(DEFAULT_HTTP_PORT + i, DEFAULT_HTTP_HOST);
+    }
+    return balancer;
+  }
+
+  // Send the requests one after the other, notifying the port of the endpoint each one was sent to
+  private void sendSequentially(LoadBalancer balancer, int count, Consumer<Integer> portHandler, Runnable done) {
+    if (count == 0) {
+      done.run();
+      return;
+    }
+    balancer.request(HttpMethod.GET, "/", resp -> {
+      portHandler.accept(Integer.parseInt(resp.headers().get("port")));
+      resp.endHandler(v -> sendSequentially(balancer, count - 1, portHandler, done));
+    }).end();
+  }
+}
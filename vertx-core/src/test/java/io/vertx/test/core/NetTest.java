@@ -22,9 +22,14 @@ import io.vertx.core.AsyncResultHandler;
 import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.impl.ConcurrentHashSet;
 import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.EventLoopContext;
@@ -43,17 +48,27 @@ import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.NetSocketStream;
 import io.vertx.core.net.NetworkOptions;
 import io.vertx.core.net.PKCS12Options;
+import io.vertx.core.net.SSLProvider;
 import io.vertx.core.net.SocketAddress;
+import io.vertx.core.net.impl.ReusePortServerSocketChannel;
 import io.vertx.core.net.impl.SocketAddressImpl;
 import io.vertx.core.net.impl.SocketDefaults;
+import org.junit.Assume;
 import org.junit.Test;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.SocketOption;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -158,6 +173,10 @@ public class NetTest extends VertxTestBase {
     assertEquals(options, options.setSsl(true));
     assertTrue(options.isSsl());
 
+    assertEquals(SSLProvider.JDK, options.getSslProvider());
+    assertEquals(options, options.setSslProvider(SSLProvider.JDK));
+    assertIllegalArgumentException(() -> options.setSslProvider(SSLProvider.OPENSSL));
+
     assertNull(options.getKeyStoreOptions());
     JKSOptions keyStoreOptions = new JKSOptions().setPath(TestUtils.randomAlphaString(100)).setPassword(TestUtils.randomAlphaString(100));
     assertEquals(options, options.setKeyStoreOptions(keyStoreOptions));
@@ -253,6 +272,33 @@ public class NetTest extends VertxTestBase {
     assertEquals(options, options.setSsl(true));
     assertTrue(options.isSsl());
 
+    assertEquals(SSLProvider.JDK, options.getSslProvider());
+    assertEquals(options, options.setSslProvider(SSLProvider.OPENSSL));
+    assertEquals(SSLProvider.OPENSSL, options.getSslProvider());
+    assertNullPointerException(() -> options.setSslProvider(null));
+
+    assertEquals(0, options.getSessionCacheSize());
+    rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setSessionCacheSize(rand));
+    assertEquals(rand, options.getSessionCacheSize());
+    assertIllegalArgumentException(() -> options.setSessionCacheSize(-1));
+
+    assertEquals(0, options.getSessionTimeout());
+    rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setSessionTimeout(rand));
+    assertEquals(rand, options.getSessionTimeout());
+    assertIllegalArgumentException(() -> options.setSessionTimeout(-1));
+
+    assertTrue(options.isSessionTicketsEnabled());
+    assertEquals(options, options.setSessionTicketsEnabled(false));
+    assertFalse(options.isSessionTicketsEnabled());
+
+    assertEquals(0, options.getStoreScanPeriod());
+    long scanPeriod = TestUtils.randomPositiveLong();
+    assertEquals(options, options.setStoreScanPeriod(scanPeriod));
+    assertEquals(scanPeriod, options.getStoreScanPeriod());
+    assertIllegalArgumentException(() -> options.setStoreScanPeriod(-1));
+
     assertNull(options.getKeyStoreOptions());
     JKSOptions keyStoreOptions = new JKSOptions().setPath(TestUtils.randomAlphaString(100)).setPassword(TestUtils.randomAlphaString(100));
     assertEquals(options, options.setKeyStoreOptions(keyStoreOptions));
@@ -268,6 +314,10 @@ public class NetTest extends VertxTestBase {
     assertEquals(options, options.setAcceptBacklog(rand));
     assertEquals(rand, options.getAcceptBacklog());
 
+    assertFalse(options.isReusePort());
+    assertEquals(options, options.setReusePort(true));
+    assertTrue(options.isReusePort());
+
     assertEquals(0, options.getPort());
     assertEquals(options, options.setPort(1234));
     assertEquals(1234, options.getPort());
@@ -501,6 +551,12 @@ public class NetTest extends VertxTestBase {
     int port = 1234;
     String host = TestUtils.randomAlphaString(100);
     int acceptBacklog = TestUtils.randomPortInt();
+    boolean reusePort = rand.nextBoolean();
+    SSLProvider sslProvider = rand.nextBoolean() ? SSLProvider.JDK : SSLProvider.OPENSSL;
+    int sessionCacheSize = TestUtils.randomPositiveInt();
+    int sessionTimeout = TestUtils.randomPositiveInt();
+    boolean sessionTicketsEnabled = rand.nextBoolean();
+    long storeScanPeriod = TestUtils.randomPositiveLong();
     options.setSendBufferSize(sendBufferSize);
     options.setReceiveBufferSize(receiverBufferSize);
     options.setReuseAddress(reuseAddress);
@@ -519,6 +575,12 @@ public class NetTest extends VertxTestBase {
     options.setPort(port);
     options.setHost(host);
     options.setAcceptBacklog(acceptBacklog);
+    options.setReusePort(reusePort);
+    options.setSslProvider(sslProvider);
+    options.setSessionCacheSize(sessionCacheSize);
+    options.setSessionTimeout(sessionTimeout);
+    options.setSessionTicketsEnabled(sessionTicketsEnabled);
+    options.setStoreScanPeriod(storeScanPeriod);
     NetServerOptions copy = new NetServerOptions(options);
     assertEquals(sendBufferSize, copy.getSendBufferSize());
     assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
@@ -543,6 +605,12 @@ public class NetTest extends VertxTestBase {
     assertEquals(port, copy.getPort());
     assertEquals(host, copy.getHost());
     assertEquals(acceptBacklog, copy.getAcceptBacklog());
+    assertEquals(reusePort, copy.isReusePort());
+    assertEquals(sslProvider, copy.getSslProvider());
+    assertEquals(sessionCacheSize, copy.getSessionCacheSize());
+    assertEquals(sessionTimeout, copy.getSessionTimeout());
+    assertEquals(sessionTicketsEnabled, copy.isSessionTicketsEnabled());
+    assertEquals(storeScanPeriod, copy.getStoreScanPeriod());
   }
 
   @Test
@@ -553,6 +621,7 @@ public class NetTest extends VertxTestBase {
     assertEquals(def.getCrlPaths(), json.getCrlPaths());
     assertEquals(def.getCrlValues(), json.getCrlValues());
     assertEquals(def.getAcceptBacklog(), json.getAcceptBacklog());
+    assertEquals(def.isReusePort(), json.isReusePort());
     assertEquals(def.getPort(), json.getPort());
     assertEquals(def.getHost(), json.getHost());
     assertEquals(def.isClientAuthRequired(), json.isClientAuthRequired());
@@ -566,6 +635,11 @@ public class NetTest extends VertxTestBase {
     assertEquals(def.getSoLinger(), json.getSoLinger());
     assertEquals(def.isUsePooledBuffers(), json.isUsePooledBuffers());
     assertEquals(def.isSsl(), json.isSsl());
+    assertEquals(def.getSslProvider(), json.getSslProvider());
+    assertEquals(def.getSessionCacheSize(), json.getSessionCacheSize());
+    assertEquals(def.getSessionTimeout(), json.getSessionTimeout());
+    assertEquals(def.isSessionTicketsEnabled(), json.isSessionTicketsEnabled());
+    assertEquals(def.getStoreScanPeriod(), json.getStoreScanPeriod());
   }
 
   @Test
@@ -596,6 +670,12 @@ public class NetTest extends VertxTestBase {
     int port = 1234;
     String host = TestUtils.randomAlphaString(100);
     int acceptBacklog = TestUtils.randomPortInt();
+    boolean reusePort = rand.nextBoolean();
+    SSLProvider sslProvider = rand.nextBoolean() ? SSLProvider.JDK : SSLProvider.OPENSSL;
+    int sessionCacheSize = TestUtils.randomPositiveInt();
+    int sessionTimeout = TestUtils.randomPositiveInt();
+    boolean sessionTicketsEnabled = rand.nextBoolean();
+    long storeScanPeriod = TestUtils.randomPositiveLong();
 
     JsonObject json = new JsonObject();
     json.put("sendBufferSize", sendBufferSize)
@@ -614,7 +694,13 @@ public class NetTest extends VertxTestBase {
       .put("trustStoreOptions", new JsonObject().put("type", "jks").put("password", tsPassword).put("path", tsPath))
       .put("port", port)
       .put("host", host)
-      .put("acceptBacklog", acceptBacklog);
+      .put("acceptBacklog", acceptBacklog)
+      .put("reusePort", reusePort)
+      .put("sslProvider", sslProvider.name())
+      .put("sessionCacheSize", sessionCacheSize)
+      .put("sessionTimeout", sessionTimeout)
+      .put("sessionTicketsEnabled", sessionTicketsEnabled)
+      .put("storeScanPeriod", storeScanPeriod);
 
     NetServerOptions options = new NetServerOptions(json);
     assertEquals(sendBufferSize, options.getSendBufferSize());
@@ -640,6 +726,12 @@ public class NetTest extends VertxTestBase {
     assertEquals(port, options.getPort());
     assertEquals(host, options.getHost());
     assertEquals(acceptBacklog, options.getAcceptBacklog());
+    assertEquals(reusePort, options.isReusePort());
+    assertEquals(sslProvider, options.getSslProvider());
+    assertEquals(sessionCacheSize, options.getSessionCacheSize());
+    assertEquals(sessionTimeout, options.getSessionTimeout());
+    assertEquals(sessionTicketsEnabled, options.isSessionTicketsEnabled());
+    assertEquals(storeScanPeriod, options.getStoreScanPeriod());
 
     // Test other keystore/truststore types
     json.put("keyStoreOptions", new JsonObject().put("type", "pkcs12").put("password", ksPassword))
@@ -677,6 +769,51 @@ public class NetTest extends VertxTestBase {
     testEcho(sock -> sock.write(sent), buff -> assertEquals(sent, buff), sent.length());
   }
 
+  @Test
+  public void testEchoCompositeBuffer() {
+    Buffer sent = Buffer.compositeBuffer();
+    for (int i = 0; i < 10; i++) {
+      sent.appendBuffer(TestUtils.randomBuffer(100));
+    }
+    testEcho(sock -> sock.write(sent), buff -> assertEquals(sent, buff), sent.length());
+  }
+
+  @Test
+  public void testEchoDirectBuffers() throws Exception {
+    Vertx direct = Vertx.vertx(new VertxOptions().setDirectBuffers(true));
+    try {
+      NetServer server = direct.createNetServer(new NetServerOptions().setPort(1234));
+      server.connectHandler(socket -> socket.handler(buff -> {
+        assertTrue(buff.getByteBuf().isDirect());
+        // The buffer is pooled, it is released once its content is not used anymore
+        socket.write(buff.copy());
+        buff.release();
+      }));
+      CountDownLatch listenLatch = new CountDownLatch(1);
+      server.listen(onSuccess(s -> listenLatch.countDown()));
+      awaitLatch(listenLatch);
+      Buffer sent = Buffer.directBuffer(100).appendBuffer(TestUtils.randomBuffer(100));
+      assertTrue(sent.getByteBuf().isDirect());
+      Buffer received = Buffer.buffer();
+      direct.createNetClient(new NetClientOptions()).connect(1234, "localhost", onSuccess(socket -> {
+        socket.handler(buff -> {
+          received.appendBuffer(buff);
+          buff.release();
+          if (received.length() == sent.length()) {
+            assertEquals(sent, received);
+            testComplete();
+          }
+        });
+        socket.write(sent);
+      }));
+      await();
+    } finally {
+      CountDownLatch closeLatch = new CountDownLatch(1);
+      direct.close(ar -> closeLatch.countDown());
+      awaitLatch(closeLatch);
+    }
+  }
+
   @Test
   public void testEchoString() {
     String sent = TestUtils.randomUnicodeString(100);
@@ -1088,6 +1225,126 @@ public class NetTest extends VertxTestBase {
     testTLS(false, false, true, false, false, true, true, false, ENABLED_CIPHER_SUITES);
   }
 
+  @Test
+  public void testTLSClientSessionResumption() throws Exception {
+    testTLSClientSessions(0, 4043, 4043, 4043);
+    JsonObject ssl = client.metrics().get("ssl");
+    assertEquals(3, (long) ssl.getLong("handshakes"));
+    assertEquals(2, (long) ssl.getLong("resumedHandshakes"));
+    assertEquals(1, (long) ssl.getJsonObject("fullHandshakeTime").getLong("count"));
+    assertEquals(2, (long) ssl.getJsonObject("resumedHandshakeTime").getLong("count"));
+  }
+
+  @Test
+  public void testTLSClientSessionCacheSize() throws Exception {
+    // The session with the first server is evicted by the session with the second one
+    testTLSClientSessions(1, 4043, 4044, 4043);
+    JsonObject ssl = client.metrics().get("ssl");
+    assertEquals(3, (long) ssl.getLong("handshakes"));
+    assertEquals(0, (long) ssl.getLong("resumedHandshakes"));
+  }
+
+  @Test
+  public void testTLSHandshakeOffload() throws Exception {
+    Vertx offloading = Vertx.vertx(new VertxOptions().setSslHandshakePoolSize(2));
+    try {
+      NetServer server = offloading.createNetServer(new NetServerOptions().setSsl(true).setPort(4043)
+        .setKeyStoreOptions(new JKSOptions().setPath(findFileOnClasspath("tls/server-keystore.jks")).setPassword("wibble")));
+      server.connectHandler(socket -> socket.handler(socket::write));
+      CountDownLatch listenLatch = new CountDownLatch(1);
+      server.listen(onSuccess(s -> listenLatch.countDown()));
+      awaitLatch(listenLatch);
+      NetClient client = offloading.createNetClient(new NetClientOptions().setSsl(true).setTrustAll(true));
+      int connections = 10;
+      CountDownLatch latch = new CountDownLatch(connections);
+      for (int i = 0;i < connections;i++) {
+        client.connect(4043, "localhost", onSuccess(socket -> {
+          socket.handler(buff -> {
+            assertEquals("hello", buff.toString());
+            socket.close();
+            latch.countDown();
+          });
+          socket.write("hello");
+        }));
+      }
+      awaitLatch(latch);
+      JsonObject ssl = server.metrics().get("ssl");
+      assertEquals(connections, (long) ssl.getLong("handshakes"));
+      JsonObject executor = ssl.getJsonObject("handshakeExecutor");
+      assertTrue(executor.getLong("offloadedTasks") >= connections);
+      assertEquals(0, (long) executor.getLong("inlineTasks"));
+      assertNotNull(client.metrics().get("ssl").getJsonObject("handshakeExecutor"));
+    } finally {
+      CountDownLatch closeLatch = new CountDownLatch(1);
+      offloading.close(ar -> closeLatch.countDown());
+      awaitLatch(closeLatch);
+    }
+  }
+
+  @Test
+  public void testTLSStoreReload() throws Exception {
+    File keyStore = Files.createTempFile("vertx-test", ".jks").toFile();
+    keyStore.deleteOnExit();
+    Files.copy(new File(findFileOnClasspath("tls/server-keystore.jks")).toPath(), keyStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    server.close();
+    server = vertx.createNetServer(new NetServerOptions().setSsl(true).setPort(4043).setStoreScanPeriod(100)
+      .setKeyStoreOptions(new JKSOptions().setPath(keyStore.getAbsolutePath()).setPassword("wibble")));
+    server.connectHandler(socket -> socket.handler(socket::write));
+    CountDownLatch listenLatch = new CountDownLatch(1);
+    server.listen(onSuccess(s -> listenLatch.countDown()));
+    awaitLatch(listenLatch);
+    client.close();
+    client = vertx.createNetClient(new NetClientOptions().setSsl(true)
+      .setTrustStoreOptions(new JKSOptions().setPath(findFileOnClasspath("tls/client-truststore.jks")).setPassword("wibble")));
+    AtomicReference<NetSocket> established = new AtomicReference<>();
+    CountDownLatch connectLatch = new CountDownLatch(1);
+    client.connect(4043, "localhost", onSuccess(socket -> {
+      established.set(socket);
+      connectLatch.countDown();
+    }));
+    awaitLatch(connectLatch);
+    // The client does not trust the certificate of the new key store
+    Files.copy(new File(findFileOnClasspath("tls/client-keystore.jks")).toPath(), keyStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    waitUntil(() -> server.metrics().get("ssl").getLong("storeReloads") == 1);
+    client.connect(4043, "localhost", ar -> {
+      assertTrue(ar.failed());
+      // The established connection is left alone
+      NetSocket socket = established.get();
+      socket.handler(buff -> {
+        assertEquals("hello", buff.toString());
+        testComplete();
+      });
+      socket.write("hello");
+    });
+    await();
+  }
+
+  // Connect to each port in turn, each connection being closed before the next one is made
+  private void testTLSClientSessions(int sessionCacheSize, int... ports) throws Exception {
+    server.close();
+    NetServerOptions serverOptions = new NetServerOptions().setSsl(true)
+      .setKeyStoreOptions(new JKSOptions().setPath(findFileOnClasspath("tls/server-keystore.jks")).setPassword("wibble"));
+    server = vertx.createNetServer(new NetServerOptions(serverOptions).setPort(4043));
+    NetServer server2 = vertx.createNetServer(new NetServerOptions(serverOptions).setPort(4044));
+    CountDownLatch listenLatch = new CountDownLatch(2);
+    for (NetServer s : Arrays.asList(server, server2)) {
+      s.connectHandler(socket -> {
+      }).listen(onSuccess(v -> listenLatch.countDown()));
+    }
+    awaitLatch(listenLatch);
+    client.close();
+    client = vertx.createNetClient(new NetClientOptions().setSsl(true).setTrustAll(true).setSessionCacheSize(sessionCacheSize));
+    for (int port : ports) {
+      CountDownLatch latch = new CountDownLatch(1);
+      client.connect(port, "localhost", onSuccess(socket -> {
+        socket.closeHandler(v -> latch.countDown());
+        socket.close();
+      }));
+      awaitLatch(latch);
+    }
+    awaitClose(server2);
+  }
+
   void testTLS(boolean clientCert, boolean clientTrust,
                boolean serverCert, boolean serverTrust,
                boolean requireClientAuth, boolean clientTrustAll,
@@ -1278,6 +1535,56 @@ public class NetTest extends VertxTestBase {
     testComplete();
   }
 
+  @Test
+  public void testReusePortServers() throws Exception {
+    SocketOption<Boolean> reusePort = ReusePortServerSocketChannel.reusePortOption();
+    Assume.assumeTrue("SO_REUSEPORT is not available", reusePort != null);
+    int numServers = 4;
+    int numConnections = numServers * 20;
+
+    List<NetServer> servers = new ArrayList<>();
+    CountDownLatch latchListen = new CountDownLatch(numServers);
+    CountDownLatch latchConns = new CountDownLatch(numConnections);
+    for (int i = 0; i < numServers; i++) {
+      NetServer theServer = vertx.createNetServer(new NetServerOptions().setHost("localhost").setPort(1234).setReusePort(true));
+      servers.add(theServer);
+      theServer.connectHandler(sock -> latchConns.countDown()).listen(ar -> {
+        if (ar.succeeded()) {
+          latchListen.countDown();
+        } else {
+          fail("Failed to bind server");
+        }
+      });
+    }
+    assertTrue(latchListen.await(10, TimeUnit.SECONDS));
+
+    // Another socket can only bind the same address when the servers set SO_REUSEPORT too
+    try (ServerSocketChannel other = ServerSocketChannel.open()) {
+      other.setOption(reusePort, true);
+      other.bind(new InetSocketAddress("localhost", 1234));
+    }
+
+    for (int i = 0; i < numConnections; i++) {
+      client.connect(1234, "localhost", res -> {
+        if (res.failed()) {
+          fail("Failed to connect");
+        }
+      });
+    }
+    assertTrue(latchConns.await(10, TimeUnit.SECONDS));
+
+    CountDownLatch closeLatch = new CountDownLatch(numServers);
+    for (NetServer server : servers) {
+      server.close(ar -> {
+        assertTrue(ar.succeeded());
+        closeLatch.countDown();
+      });
+    }
+    assertTrue(closeLatch.await(10, TimeUnit.SECONDS));
+
+    testComplete();
+  }
+
   @Test
   public void testSharedServersRoundRobinWithOtherServerRunningOnDifferentPort() throws Exception {
     CountDownLatch latch = new CountDownLatch(1);
@@ -1368,6 +1675,54 @@ public class NetTest extends VertxTestBase {
     testComplete();
   }
 
+  @Test
+  public void testWriteHandlerIdFromAnotherThread() throws Exception {
+    AtomicReference<NetSocket> serverSocket = new AtomicReference<>();
+    AtomicReference<ContextImpl> socketContext = new AtomicReference<>();
+    CountDownLatch connected = new CountDownLatch(1);
+    server.connectHandler(socket -> {
+      serverSocket.set(socket);
+      socketContext.set((ContextImpl) vertx.context());
+      connected.countDown();
+    });
+    CountDownLatch received = new CountDownLatch(1);
+    server.listen(onSuccess(s -> {
+      client.connect(1234, "localhost", onSuccess(socket -> {
+        socket.handler(data -> {
+          assertEquals("hello", data.toString());
+          received.countDown();
+        });
+      }));
+    }));
+    awaitLatch(connected);
+
+    // The handler is registered on first use, on the context of the socket, the class loader of the caller is untouched
+    ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ClassLoader prev = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(loader);
+    String id;
+    try {
+      id = serverSocket.get().writeHandlerID();
+      assertSame(loader, Thread.currentThread().getContextClassLoader());
+    } finally {
+      Thread.currentThread().setContextClassLoader(prev);
+    }
+    assertEquals(id, serverSocket.get().writeHandlerID());
+    vertx.eventBus().send(id, Buffer.buffer("hello"));
+    awaitLatch(received);
+
+    // Closing the context of the socket unregisters the handler
+    CountDownLatch closed = new CountDownLatch(1);
+    socketContext.get().runCloseHooks(onSuccess(v -> closed.countDown()));
+    awaitLatch(closed);
+    vertx.eventBus().send(id, Buffer.buffer("hello"), new DeliveryOptions().setSendTimeout(5000), onFailure(t -> {
+      assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) t).failureType());
+      testComplete();
+    }));
+
+    await();
+  }
+
   @Test
   public void testRemoteAddress() throws Exception {
     server.connectHandler(socket -> {
@@ -1408,6 +1763,38 @@ public class NetTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testWriteCoalescedOutsideReadCycle() throws Exception {
+    Buffer expected = Buffer.buffer();
+    server.connectHandler(socket -> {
+      vertx.setTimer(1, id -> {
+        for (int i = 0;i < 100;i++) {
+          Buffer chunk = TestUtils.randomBuffer(100);
+          expected.appendBuffer(chunk);
+          socket.write(chunk);
+        }
+        // Larger than the coalescing threshold
+        Buffer large = TestUtils.randomBuffer(100 * 1024);
+        expected.appendBuffer(large);
+        socket.write(large);
+      });
+    }).listen(ar -> {
+      assertTrue(ar.succeeded());
+      client.connect(1234, "localhost", result -> {
+        NetSocket socket = result.result();
+        Buffer received = Buffer.buffer();
+        socket.handler(buff -> {
+          received.appendBuffer(buff);
+          if (received.length() == 10000 + 100 * 1024) {
+            assertEquals(expected, received);
+            testComplete();
+          }
+        });
+      });
+    });
+    await();
+  }
+
   @Test
   public void sendFileClientToServer() throws Exception {
     File fDir = Files.createTempDirectory("vertx-test").toFile();
@@ -21,12 +21,14 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.parsetools.RecordParser;
 import org.junit.Test;
 
+import java.nio.ReadOnlyBufferException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static io.vertx.test.core.TestUtils.assertNullPointerException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -274,4 +276,38 @@ public class RecordParserTest {
     doTestDelimited(Buffer.buffer("start-ab-c-dddabc"), "abc".getBytes(),
       new Integer[] { 18 }, Buffer.buffer("start-ab-c-ddd"));
   }
+
+  @Test
+  public void testInputNotModified() {
+    List<Buffer> records = new ArrayList<>();
+    RecordParser parser = RecordParser.newDelimited("\n", records::add);
+    Buffer first = Buffer.buffer("foo\nba");
+    Buffer second = Buffer.buffer("r\njuu");
+    parser.handle(first);
+    parser.handle(second);
+    parser.handle(Buffer.buffer("\n"));
+    assertEquals(Buffer.buffer("foo\nba"), first);
+    assertEquals(Buffer.buffer("r\njuu"), second);
+    assertEquals(3, records.size());
+    assertEquals(Buffer.buffer("foo"), records.get(0));
+    assertEquals(Buffer.buffer("bar"), records.get(1));
+    assertEquals(Buffer.buffer("juu"), records.get(2));
+  }
+
+  @Test
+  public void testRecordsAreReadOnly() {
+    List<Buffer> records = new ArrayList<>();
+    RecordParser parser = RecordParser.newDelimited("\n", records::add);
+    parser.handle(Buffer.buffer("foo\nbar\n"));
+    assertEquals(2, records.size());
+    try {
+      records.get(0).appendString("bar");
+      fail();
+    } catch (ReadOnlyBufferException ignore) {
+      // OK
+    }
+    Buffer copy = records.get(0).copy().appendString("bar");
+    assertEquals(Buffer.buffer("foobar"), copy);
+    assertEquals(Buffer.buffer("foo"), records.get(0));
+  }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2011-2014 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.test.core;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RouteMatcher;
+import io.vertx.core.http.impl.RadixTree;
+import io.vertx.core.http.impl.WebSocketMatcher;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.vertx.test.core.TestUtils.*;
+
+public class RouteMatcherTest extends HttpTestBase {
+
+  public void setUp() throws Exception {
+    super.setUp();
+    client = vertx.createHttpClient(new HttpClientOptions());
+  }
+
+  @Test
+  public void testTreeMatching() {
+    RadixTree<String> tree = new RadixTree<>();
+    assertTrue(tree.add("/users", "users"));
+    assertTrue(tree.add("/users/:id", "user"));
+    assertTrue(tree.add("/users/new", "new"));
+    assertTrue(tree.add("/users/:id/files/*path", "files"));
+    assertTrue(tree.add("/usernames/*", "usernames"));
+    assertTrue(tree.add("/u/:a/:b", "ab"));
+    assertFalse(tree.add("/users/:other", "other"));
+
+    assertEquals("users", tree.lookup("/users").value());
+    assertEquals("new", tree.lookup("/users/new").value());
+
+    RadixTree.Match<String> match = tree.lookup("/users/newer");
+    assertEquals("user", match.value());
+    assertEquals("newer", match.params().get("id"));
+
+    match = tree.lookup("/users/123/files/a/b/c.txt");
+    assertEquals("files", match.value());
+    assertEquals(2, match.paramCount());
+    assertEquals("123", match.params().get("id"));
+    assertEquals("a/b/c.txt", match.params().get("path"));
+
+    match = tree.lookup("/usernames/foo/bar");
+    assertEquals("usernames", match.value());
+    assertEquals("foo/bar", match.params().get("*"));
+
+    match = tree.lookup("/u/x/y");
+    assertEquals("x", match.params().get("a"));
+    assertEquals("y", match.params().get("b"));
+
+    assertNull(tree.lookup("/users/"));
+    assertNull(tree.lookup("/users/123/other"));
+    assertNull(tree.lookup("/u/x"));
+    assertNull(tree.lookup("/nothing"));
+  }
+
+  @Test
+  public void testTreeBacktracking() {
+    RadixTree<String> tree = new RadixTree<>();
+    tree.add("/a/b/c", "static");
+    tree.add("/a/:x/d", "param");
+    // The static branch matches /a/b but not the rest
+    RadixTree.Match<String> match = tree.lookup("/a/b/d");
+    assertEquals("param", match.value());
+    assertEquals("b", match.params().get("x"));
+  }
+
+  @Test
+  public void testUnsupportedPatterns() {
+    assertFalse(RadixTree.isSupported("/files/:name.json"));
+    assertFalse(RadixTree.isSupported("/files/*/foo"));
+    assertFalse(RadixTree.isSupported("/files/:id/:id"));
+    assertFalse(RadixTree.isSupported("/files/:1"));
+    assertTrue(RadixTree.isSupported("/files/:id/*rest"));
+    RouteMatcher matcher = new RouteMatcher();
+    assertIllegalArgumentException(() -> matcher.get("/files/:name.json", req -> {}));
+    matcher.get("/files", req -> {});
+    assertIllegalArgumentException(() -> matcher.get("/files", req -> {}));
+  }
+
+  @Test
+  public void testLargeRouteTable() {
+    // 2000 routes sharing long prefixes, every lookup walks the path once whatever the number of routes
+    RadixTree<Integer> tree = new RadixTree<>();
+    int routes = 1000;
+    for (int i = 0;i < routes;i++) {
+      assertTrue(tree.add("/api/v1/resource" + i + "/:id", i));
+      assertTrue(tree.add("/api/v1/resource" + i + "/:id/items/*rest", routes + i));
+    }
+    for (int i = 0;i < routes;i++) {
+      RadixTree.Match<Integer> match = tree.lookup("/api/v1/resource" + i + "/abc");
+      assertEquals(i, (int) match.value());
+      assertEquals("abc", match.paramValue(0));
+      match = tree.lookup("/api/v1/resource" + i + "/abc/items/1/2");
+      assertEquals(routes + i, (int) match.value());
+      assertEquals("1/2", match.params().get("rest"));
+    }
+    assertNull(tree.lookup("/api/v1/resource" + routes + "/abc"));
+  }
+
+  @Test
+  public void testRouteMatcher() {
+    RouteMatcher matcher = new RouteMatcher();
+    matcher.get("/users/:id", req -> {
+      assertEquals("123", req.params().get("id"));
+      assertEquals("bar", req.params().get("foo"));
+      req.response().end("get");
+    });
+    matcher.post("/users/:id", req -> req.response().end("post " + req.params().get("id")));
+    matcher.all("/static/*", req -> req.response().end(req.params().get("*")));
+    server.requestHandler(matcher);
+
+    server.listen(onSuccess(s -> {
+      client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/users/123?foo=bar", resp -> {
+        resp.bodyHandler(body -> {
+          assertEquals("get", body.toString());
+          client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/users/456", resp2 -> {
+            resp2.bodyHandler(body2 -> {
+              assertEquals("post 456", body2.toString());
+              client.request(HttpMethod.PUT, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/static/css/main.css", resp3 -> {
+                resp3.bodyHandler(body3 -> {
+                  assertEquals("css/main.css", body3.toString());
+                  client.request(HttpMethod.PUT, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/users/456", resp4 -> {
+                    assertEquals(404, resp4.statusCode());
+                    testComplete();
+                  }).end();
+                });
+              }).end();
+            });
+          }).end();
+        });
+      }).end();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testWebSocketMatcher() {
+    WebSocketMatcher matcher = new WebSocketMatcher();
+    matcher.addPattern("/chat/:room", match -> {
+      assertEquals("lobby", match.params.get("room"));
+      match.ws.write(Buffer.buffer("pattern"));
+    });
+    matcher.addRegEx("/regex/(\\d+)", match -> {
+      assertEquals("42", match.params.get("param0"));
+      match.ws.write(Buffer.buffer("regex"));
+    });
+    server.websocketHandler(matcher);
+
+    server.listen(onSuccess(s -> {
+      client.connectWebsocket(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/chat/lobby", ws -> {
+        ws.handler(buff -> {
+          assertEquals("pattern", buff.toString());
+          ws.close();
+          client.connectWebsocket(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/regex/42", ws2 -> {
+            ws2.handler(buff2 -> {
+              assertEquals("regex", buff2.toString());
+              ws2.close();
+              testComplete();
+            });
+          });
+        });
+      });
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testWebSocketMatcherRegexPatternsInOrder() {
+    WebSocketMatcher matcher = new WebSocketMatcher();
+    matcher.addPattern("/v[0-9]+/x", match -> match.ws.write(Buffer.buffer("version")));
+    // Registered first, so it wins over the exact pattern below
+    matcher.addPattern("/ws/.*", match -> match.ws.write(Buffer.buffer("any")));
+    matcher.addPattern("/ws/exact", match -> match.ws.write(Buffer.buffer("exact")));
+    matcher.addPattern("/plain", match -> match.ws.write(Buffer.buffer("plain")));
+    server.websocketHandler(matcher);
+
+    String[][] expectations = {{"/v2/x", "version"}, {"/ws/exact", "any"}, {"/plain", "plain"}};
+    AtomicInteger count = new AtomicInteger();
+    server.listen(onSuccess(s -> {
+      for (String[] expectation : expectations) {
+        client.connectWebsocket(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, expectation[0], ws -> {
+          ws.handler(buff -> {
+            assertEquals(expectation[1], buff.toString());
+            ws.close();
+            if (count.incrementAndGet() == expectations.length) {
+              testComplete();
+            }
+          });
+        });
+      }
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testWebSocketMatcherParamsInTree() {
+    WebSocketMatcher matcher = new WebSocketMatcher();
+    matcher.addRegEx("/early/.*", match -> match.ws.write(Buffer.buffer("early regex")));
+    matcher.addPattern("/early/:x", match -> match.ws.write(Buffer.buffer("early param")));
+    matcher.addPattern("/chat/:room", match -> match.ws.write(Buffer.buffer("room " + match.params.get("room"))));
+    // Static text is preferred over parameters
+    matcher.addPattern("/chat/special", match -> match.ws.write(Buffer.buffer("special")));
+    // Added after the parameter pattern, which wins
+    matcher.addRegEx("/chat/late.*", match -> match.ws.write(Buffer.buffer("late regex")));
+    server.websocketHandler(matcher);
+
+    String[][] expectations = {{"/early/foo", "early regex"}, {"/chat/lobby", "room lobby"},
+      {"/chat/special", "special"}, {"/chat/later", "room later"}};
+    AtomicInteger count = new AtomicInteger();
+    server.listen(onSuccess(s -> {
+      for (String[] expectation : expectations) {
+        client.connectWebsocket(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, expectation[0], ws -> {
+          ws.handler(buff -> {
+            assertEquals(expectation[1], buff.toString());
+            ws.close();
+            if (count.incrementAndGet() == expectations.length) {
+              testComplete();
+            }
+          });
+        });
+      }
+    }));
+
+    await();
+  }
+}
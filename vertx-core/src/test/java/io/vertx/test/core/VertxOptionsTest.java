@@ -62,6 +62,31 @@ public class VertxOptionsTest extends VertxTestBase {
     } catch (IllegalArgumentException e) {
       // OK
     }
+    assertEquals(0, options.getSslHandshakePoolSize());
+    rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setSslHandshakePoolSize(rand));
+    assertEquals(rand, options.getSslHandshakePoolSize());
+    assertEquals(options, options.setSslHandshakePoolSize(0));
+    assertEquals(0, options.getSslHandshakePoolSize());
+    try {
+      options.setSslHandshakePoolSize(-1);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    assertEquals(1000, options.getSslHandshakeQueueSize());
+    rand = TestUtils.randomPositiveInt();
+    assertEquals(options, options.setSslHandshakeQueueSize(rand));
+    assertEquals(rand, options.getSslHandshakeQueueSize());
+    try {
+      options.setSslHandshakeQueueSize(0);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    assertFalse(options.isDirectBuffers());
+    assertEquals(options, options.setDirectBuffers(true));
+    assertTrue(options.isDirectBuffers());
     assertFalse(options.isClustered());
     assertEquals(options, options.setClustered(true));
     assertTrue(options.isClustered());
@@ -104,6 +129,15 @@ public class VertxOptionsTest extends VertxTestBase {
     } catch (IllegalArgumentException e) {
       assertEquals(randomLong, options.getClusterPingReplyInterval());
     }
+    assertEquals(1, options.getClusterWireProtocolVersion());
+    assertEquals(options, options.setClusterWireProtocolVersion(2));
+    assertEquals(2, options.getClusterWireProtocolVersion());
+    try {
+      options.setClusterWireProtocolVersion(3);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      assertEquals(2, options.getClusterWireProtocolVersion());
+    }
     assertEquals(1000, options.getBlockedThreadCheckPeriod());
     rand = TestUtils.randomPositiveInt();
     assertEquals(options, options.setBlockedThreadCheckPeriod(rand));
@@ -184,16 +218,20 @@ public class VertxOptionsTest extends VertxTestBase {
     int clusterPort = TestUtils.randomPortInt();
     int eventLoopPoolSize = TestUtils.randomPositiveInt();
     int internalBlockingPoolSize = TestUtils.randomPositiveInt();
+    int sslHandshakePoolSize = TestUtils.randomPositiveInt();
+    int sslHandshakeQueueSize = TestUtils.randomPositiveInt();
     int workerPoolSize = TestUtils.randomPositiveInt();
     int blockedThreadCheckPeriod = TestUtils.randomPositiveInt();
     String clusterHost = TestUtils.randomAlphaString(100);
     long clusterPingInterval = TestUtils.randomPositiveLong();
     long clusterPingReplyInterval = TestUtils.randomPositiveLong();
+    int clusterWireProtocolVersion = TestUtils.randomPositiveInt() % 2 + 1;
     int maxEventLoopExecuteTime = TestUtils.randomPositiveInt();
     int maxWorkerExecuteTime = TestUtils.randomPositiveInt();
     int proxyOperationTimeout = TestUtils.randomPositiveInt();
     Random rand = new Random();
     boolean haEnabled = rand.nextBoolean();
+    boolean directBuffers = rand.nextBoolean();
     boolean metricsEnabled = rand.nextBoolean();
     boolean jmxEnabled = rand.nextBoolean();
     int quorumSize = 51214;
@@ -202,11 +240,15 @@ public class VertxOptionsTest extends VertxTestBase {
     options.setClusterPort(clusterPort);
     options.setEventLoopPoolSize(eventLoopPoolSize);
     options.setInternalBlockingPoolSize(internalBlockingPoolSize);
+    options.setSslHandshakePoolSize(sslHandshakePoolSize);
+    options.setSslHandshakeQueueSize(sslHandshakeQueueSize);
+    options.setDirectBuffers(directBuffers);
     options.setWorkerPoolSize(workerPoolSize);
     options.setBlockedThreadCheckPeriod(blockedThreadCheckPeriod);
     options.setClusterHost(clusterHost);
     options.setClusterPingInterval(clusterPingInterval);
     options.setClusterPingReplyInterval(clusterPingReplyInterval);
+    options.setClusterWireProtocolVersion(clusterWireProtocolVersion);
     options.setMaxEventLoopExecuteTime(maxEventLoopExecuteTime);
     options.setMaxWorkerExecuteTime(maxWorkerExecuteTime);
     options.setHAEnabled(haEnabled);
@@ -219,8 +261,12 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(clusterPort, options.getClusterPort());
     assertEquals(clusterPingInterval, options.getClusterPingInterval());
     assertEquals(clusterPingReplyInterval, options.getClusterPingReplyInterval());
+    assertEquals(clusterWireProtocolVersion, options.getClusterWireProtocolVersion());
     assertEquals(eventLoopPoolSize, options.getEventLoopPoolSize());
     assertEquals(internalBlockingPoolSize, options.getInternalBlockingPoolSize());
+    assertEquals(sslHandshakePoolSize, options.getSslHandshakePoolSize());
+    assertEquals(sslHandshakeQueueSize, options.getSslHandshakeQueueSize());
+    assertEquals(directBuffers, options.isDirectBuffers());
     assertEquals(workerPoolSize, options.getWorkerPoolSize());
     assertEquals(blockedThreadCheckPeriod, options.getBlockedThreadCheckPeriod());
     assertEquals(clusterHost, options.getClusterHost());
@@ -244,10 +290,14 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(def.getClusterHost(), json.getClusterHost());
     assertEquals(def.getClusterPingInterval(), json.getClusterPingInterval());
     assertEquals(def.getClusterPingReplyInterval(), json.getClusterPingReplyInterval());
+    assertEquals(def.getClusterWireProtocolVersion(), json.getClusterWireProtocolVersion());
     assertEquals(def.getBlockedThreadCheckPeriod(), json.getBlockedThreadCheckPeriod());
     assertEquals(def.getMaxEventLoopExecuteTime(), json.getMaxEventLoopExecuteTime());
     assertEquals(def.getMaxWorkerExecuteTime(), json.getMaxWorkerExecuteTime());
     assertEquals(def.getInternalBlockingPoolSize(), json.getInternalBlockingPoolSize());
+    assertEquals(def.getSslHandshakePoolSize(), json.getSslHandshakePoolSize());
+    assertEquals(def.getSslHandshakeQueueSize(), json.getSslHandshakeQueueSize());
+    assertEquals(def.isDirectBuffers(), json.isDirectBuffers());
     assertEquals(def.isHAEnabled(), json.isHAEnabled());
     assertEquals(def.getQuorumSize(), json.getQuorumSize());
     assertEquals(def.getHAGroup(), json.getHAGroup());
@@ -260,8 +310,12 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(0, options.getClusterPort());
     assertEquals(20000, options.getClusterPingInterval());
     assertEquals(20000, options.getClusterPingReplyInterval());
+    assertEquals(1, options.getClusterWireProtocolVersion());
     assertEquals(2 * Runtime.getRuntime().availableProcessors(), options.getEventLoopPoolSize());
     assertEquals(20, options.getInternalBlockingPoolSize());
+    assertEquals(0, options.getSslHandshakePoolSize());
+    assertEquals(1000, options.getSslHandshakeQueueSize());
+    assertFalse(options.isDirectBuffers());
     assertEquals(20, options.getWorkerPoolSize());
     assertEquals(1000, options.getBlockedThreadCheckPeriod());
     assertEquals("localhost", options.getClusterHost());
@@ -278,16 +332,20 @@ public class VertxOptionsTest extends VertxTestBase {
     int clusterPort = TestUtils.randomPortInt();
     int eventLoopPoolSize = TestUtils.randomPositiveInt();
     int internalBlockingPoolSize = TestUtils.randomPositiveInt();
+    int sslHandshakePoolSize = TestUtils.randomPositiveInt();
+    int sslHandshakeQueueSize = TestUtils.randomPositiveInt();
     int workerPoolSize = TestUtils.randomPositiveInt();
     int blockedThreadCheckPeriod = TestUtils.randomPositiveInt();
     String clusterHost = TestUtils.randomAlphaString(100);
     long clusterPingInterval = TestUtils.randomPositiveLong();
     long clusterPingReplyInterval = TestUtils.randomPositiveLong();
+    int clusterWireProtocolVersion = TestUtils.randomPositiveInt() % 2 + 1;
     int maxEventLoopExecuteTime = TestUtils.randomPositiveInt();
     int maxWorkerExecuteTime = TestUtils.randomPositiveInt();
     int proxyOperationTimeout = TestUtils.randomPositiveInt();
     Random rand = new Random();
     boolean haEnabled = rand.nextBoolean();
+    boolean directBuffers = rand.nextBoolean();
     int quorumSize = TestUtils.randomShort() + 1;
     String haGroup = TestUtils.randomAlphaString(100);
     boolean metricsEnabled = rand.nextBoolean();
@@ -297,11 +355,15 @@ public class VertxOptionsTest extends VertxTestBase {
         put("clusterPort", clusterPort).
         put("eventLoopPoolSize", eventLoopPoolSize).
         put("internalBlockingPoolSize", internalBlockingPoolSize).
+        put("sslHandshakePoolSize", sslHandshakePoolSize).
+        put("sslHandshakeQueueSize", sslHandshakeQueueSize).
+        put("directBuffers", directBuffers).
         put("workerPoolSize", workerPoolSize).
         put("blockedThreadCheckPeriod", blockedThreadCheckPeriod).
         put("clusterHost", clusterHost).
         put("clusterPingInterval", clusterPingInterval).
         put("clusterPingReplyInterval", clusterPingReplyInterval).
+        put("clusterWireProtocolVersion", clusterWireProtocolVersion).
         put("maxEventLoopExecuteTime", maxEventLoopExecuteTime).
         put("maxWorkerExecuteTime", maxWorkerExecuteTime).
         put("proxyOperationTimeout", proxyOperationTimeout).
@@ -315,8 +377,12 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(clusterPort, options.getClusterPort());
     assertEquals(clusterPingInterval, options.getClusterPingInterval());
     assertEquals(clusterPingReplyInterval, options.getClusterPingReplyInterval());
+    assertEquals(clusterWireProtocolVersion, options.getClusterWireProtocolVersion());
     assertEquals(eventLoopPoolSize, options.getEventLoopPoolSize());
     assertEquals(internalBlockingPoolSize, options.getInternalBlockingPoolSize());
+    assertEquals(sslHandshakePoolSize, options.getSslHandshakePoolSize());
+    assertEquals(sslHandshakeQueueSize, options.getSslHandshakeQueueSize());
+    assertEquals(directBuffers, options.isDirectBuffers());
     assertEquals(workerPoolSize, options.getWorkerPoolSize());
     assertEquals(blockedThreadCheckPeriod, options.getBlockedThreadCheckPeriod());
     assertEquals(clusterHost, options.getClusterHost());
@@ -330,4 +396,20 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(jmxEnabled, options.isJmxEnabled());
     assertEquals(jmxDomain, options.getJmxDomain());
   }
+
+  @Test
+  public void testJsonOptionsInvalidClusterWireProtocolVersion() {
+    try {
+      new VertxOptions(new JsonObject().put("clusterWireProtocolVersion", 3));
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    try {
+      new VertxOptions(new JsonObject().put("clusterWireProtocolVersion", 0));
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+  }
 }
@@ -856,6 +856,30 @@ public class WebsocketTest extends VertxTestBase {
     testWriteMessage(65536 + 65536 + 256, WebsocketVersion.V13);
   }
 
+  @Test
+  public void testWriteHandlerIDs() {
+    server = vertx.createHttpServer(new HttpServerOptions().setPort(HttpTestBase.DEFAULT_HTTP_PORT)).websocketHandler(ws -> {
+      assertEquals(ws.binaryHandlerID(), ws.binaryHandlerID());
+      assertFalse(ws.binaryHandlerID().equals(ws.textHandlerID()));
+      vertx.eventBus().send(ws.binaryHandlerID(), Buffer.buffer("binary"));
+      vertx.eventBus().send(ws.textHandlerID(), "text");
+    });
+    server.listen(onSuccess(s -> {
+      client.connectWebsocket(HttpTestBase.DEFAULT_HTTP_PORT, HttpTestBase.DEFAULT_HTTP_HOST, "/some/path", ws -> {
+        Set<String> received = new ConcurrentHashSet<>();
+        ws.frameHandler(frame -> {
+          received.add((frame.isText() ? "text:" : "binary:") + frame.binaryData().toString());
+          if (received.size() == 2) {
+            assertTrue(received.contains("binary:binary"));
+            assertTrue(received.contains("text:text"));
+            testComplete();
+          }
+        });
+      });
+    }));
+    await();
+  }
+
   private void testWriteMessage(int size, WebsocketVersion version) {
     String path = "/some/path";
     byte[] expected = TestUtils.randomByteArray(size);